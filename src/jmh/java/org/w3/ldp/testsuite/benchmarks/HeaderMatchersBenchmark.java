@@ -0,0 +1,63 @@
+package org.w3.ldp.testsuite.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.Matcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3.ldp.testsuite.matcher.HeaderMatchers;
+
+/**
+ * The header matchers the tests run against nearly every response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeaderMatchersBenchmark {
+
+	private static final String ETAG = "W/\"686897696a7c876b7e\"";
+
+	private static final String TURTLE = "text/turtle; charset=UTF-8";
+
+	private static final String JSON_LD = "application/ld+json";
+
+	private Matcher<String> entityTag;
+
+	private Matcher<String> turtle;
+
+	private Matcher<String> jsonLd;
+
+	@Setup
+	public void setUp() {
+		entityTag = HeaderMatchers.isValidEntityTag();
+		turtle = HeaderMatchers.isTurtleCompatibleContentType();
+		jsonLd = HeaderMatchers.isJsonLdCompatibleContentType();
+	}
+
+	@Benchmark
+	public boolean isValidEntityTag() {
+		return entityTag.matches(ETAG);
+	}
+
+	@Benchmark
+	public boolean isTurtleCompatibleContentType() {
+		return turtle.matches(TURTLE);
+	}
+
+	@Benchmark
+	public boolean isJsonLdCompatibleContentType() {
+		return jsonLd.matches(JSON_LD);
+	}
+
+}
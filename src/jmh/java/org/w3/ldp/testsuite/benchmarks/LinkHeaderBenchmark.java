@@ -0,0 +1,118 @@
+package org.w3.ldp.testsuite.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3.ldp.testsuite.http.LinkHeaders;
+import org.w3.ldp.testsuite.http.ParsedLink;
+import org.w3.ldp.testsuite.test.LdpTest;
+import org.w3.ldp.testsuite.vocab.LDP;
+
+import com.jayway.restassured.builder.ResponseBuilder;
+import com.jayway.restassured.response.Header;
+import com.jayway.restassured.response.Headers;
+import com.jayway.restassured.response.Response;
+import com.jayway.restassured.specification.RequestSpecification;
+
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_TYPE;
+
+/**
+ * Splitting and checking the Link headers of a container response, which
+ * most tests do at least once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkHeaderBenchmark {
+
+	private static final String REQUEST_URI = "http://example.com/container/";
+
+	/**
+	 * The number of links in the header, the type links come last.
+	 */
+	@Param({"2", "8", "32"})
+	public int links;
+
+	private LinkTest test;
+
+	private Header header;
+
+	private Response response;
+
+	@Setup
+	public void setUp() {
+		StringBuilder value = new StringBuilder();
+		for (int i = 0; i < links - 2; i++) {
+			value.append("<related").append(i).append(">; rel=\"related\"; title=\"Related, ").append(i).append("\", ");
+		}
+		value.append("<").append(LDP.Resource.stringValue()).append(">; rel=\"type\", ");
+		value.append("<").append(LDP.BasicContainer.stringValue()).append(">; rel=\"type\"");
+
+		test = new LinkTest();
+		header = new Header(LINK, value.toString());
+		response = new ResponseBuilder()
+				.setStatusCode(200)
+				.setHeaders(new Headers(header))
+				.setBody("")
+				.build();
+	}
+
+	@Benchmark
+	public List<String> splitLinks() {
+		return test.splitLinks(header);
+	}
+
+	/**
+	 * What the first link check of a response costs.
+	 */
+	@Benchmark
+	public List<ParsedLink> parseLinks() {
+		return LinkHeaders.parse(header.getValue(), REQUEST_URI);
+	}
+
+	/**
+	 * Any further checks of the same response.
+	 */
+	@Benchmark
+	public boolean containsLinkHeader() {
+		return test.containsLinkHeader(REQUEST_URI, LINK_REL_TYPE, LDP.BasicContainer.stringValue(), REQUEST_URI, response);
+	}
+
+	/**
+	 * Opens up the link helpers of the tests.
+	 */
+	private static class LinkTest extends LdpTest {
+
+		@Override
+		protected RequestSpecification buildBaseRequestSpecification() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected List<String> splitLinks(Header linkHeader) {
+			return super.splitLinks(linkHeader);
+		}
+
+		@Override
+		protected boolean containsLinkHeader(String linkContext, String relation, String linkTarget,
+				String requestUri, Response response) {
+			return super.containsLinkHeader(linkContext, relation, linkTarget, requestUri, response);
+		}
+	}
+
+}
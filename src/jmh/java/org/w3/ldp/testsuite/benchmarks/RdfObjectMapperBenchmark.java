@@ -0,0 +1,87 @@
+package org.w3.ldp.testsuite.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.DCTerms;
+import org.apache.jena.vocabulary.RDF;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3.ldp.testsuite.http.MediaTypes;
+import org.w3.ldp.testsuite.mapper.RdfObjectMapper;
+import org.w3.ldp.testsuite.vocab.LDP;
+
+/**
+ * Serializing and parsing container representations the way the tests send
+ * and receive them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RdfObjectMapperBenchmark {
+
+	private static final String CONTAINER = "http://example.com/container/";
+
+	@Param({MediaTypes.TEXT_TURTLE, MediaTypes.APPLICATION_LD_JSON, MediaTypes.APPLICATION_RDF_XML})
+	public String mediaType;
+
+	/**
+	 * The number of ldp:contains triples.
+	 */
+	@Param({"10", "1000", "10000"})
+	public int members;
+
+	private RdfObjectMapper mapper;
+
+	private Model model;
+
+	private byte[] content;
+
+	@Setup
+	public void setUp() {
+		mapper = new RdfObjectMapper(CONTAINER);
+		model = newContainer(members);
+		content = mapper.write(model, mediaType);
+	}
+
+	static Model newContainer(int members) {
+		Model model = ModelFactory.createDefaultModel();
+		Resource container = model.createResource(CONTAINER);
+		container.addProperty(RDF.type, model.createResource(LDP.BasicContainer.stringValue()));
+		container.addProperty(DCTerms.title, "A container with " + members + " members");
+
+		Property contains = model.createProperty(LDP.contains.stringValue());
+		for (int i = 0; i < members; i++) {
+			container.addProperty(contains, model.createResource(CONTAINER + "member" + i));
+		}
+
+		return model;
+	}
+
+	@Benchmark
+	public byte[] serialize() {
+		return mapper.write(model, mediaType);
+	}
+
+	@Benchmark
+	public Model deserialize() {
+		return mapper.read(new ByteArrayInputStream(content), mediaType);
+	}
+
+}
@@ -0,0 +1,204 @@
+package org.w3.ldp.testsuite.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.ITestContext;
+import org.testng.SkipException;
+import org.testng.TestNG;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.w3.ldp.testsuite.LdpTestSuite;
+import org.w3.ldp.testsuite.annotations.SpecTest;
+import org.w3.ldp.testsuite.annotations.SpecTest.METHOD;
+import org.w3.ldp.testsuite.annotations.SpecTest.STATUS;
+import org.w3.ldp.testsuite.reporter.LdpEarlReporter;
+import org.w3.ldp.testsuite.reporter.LdpHtmlReporter;
+import org.w3.ldp.testsuite.reporter.LdpLatencyReporter;
+import org.w3.ldp.testsuite.test.LdpTest;
+
+/**
+ * Writing the reports of a run. The results come from running
+ * {@link SyntheticTest} once, which passes, fails and skips without sending
+ * any request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportBenchmark {
+
+	// the EARL report warns about any of these that are missing
+	private static final String[] EARL_PARAMETERS = { "homepage", "assertor", "software", "developer", "language",
+			"mail", "description", "shortname" };
+
+	/**
+	 * The number of test results.
+	 */
+	@Param({"300", "30000"})
+	public int results;
+
+	private File outputDirectory;
+
+	private List<XmlSuite> xmlSuites;
+
+	private List<ISuite> suites;
+
+	private PrintStream out;
+
+	@Setup
+	public void setUp() throws IOException {
+		outputDirectory = Files.createTempDirectory("ldp-report-benchmark").toFile();
+
+		XmlSuite suite = new XmlSuite();
+		suite.setName(LdpTestSuite.NAME);
+		Map<String, String> parameters = new HashMap<>();
+		for (String parameter : EARL_PARAMETERS) {
+			parameters.put(parameter, "http://example.com/" + parameter);
+		}
+		parameters.put("results", Integer.toString(results));
+		suite.setParameters(parameters);
+
+		XmlTest test = new XmlTest(suite);
+		test.setName("Synthetic Results");
+		List<XmlClass> classes = new ArrayList<>();
+		classes.add(new XmlClass(SyntheticTest.class));
+		test.setXmlClasses(classes);
+
+		xmlSuites = new ArrayList<>();
+		xmlSuites.add(suite);
+
+		SuiteCollector collector = new SuiteCollector();
+		TestNG testng = new TestNG(false);
+		testng.setUseDefaultListeners(false);
+		testng.setVerbose(0);
+		testng.setOutputDirectory(outputDirectory.getPath());
+		testng.setXmlSuites(xmlSuites);
+		testng.addListener(collector);
+		testng.run();
+		suites = collector.suites;
+
+		// the reporters print where they write to
+		out = System.out;
+		System.setOut(new PrintStream(new NullOutputStream()));
+	}
+
+	@TearDown
+	public void tearDown() {
+		System.setOut(out);
+		FileUtils.deleteQuietly(outputDirectory);
+	}
+
+	@Benchmark
+	public void htmlReport() {
+		LdpHtmlReporter reporter = new LdpHtmlReporter();
+		reporter.setOutputDirectory(outputDirectory.getPath());
+		reporter.generateReport(xmlSuites, suites, outputDirectory.getPath());
+	}
+
+	@Benchmark
+	public void earlReport() {
+		LdpEarlReporter reporter = new LdpEarlReporter();
+		reporter.setOutputDirectory(outputDirectory.getPath());
+		reporter.generateReport(xmlSuites, suites, outputDirectory.getPath());
+	}
+
+	@Benchmark
+	public void latencyReport() {
+		LdpLatencyReporter reporter = new LdpLatencyReporter();
+		reporter.setOutputDirectory(outputDirectory.getPath());
+		reporter.generateReport(xmlSuites, suites, outputDirectory.getPath());
+	}
+
+	public static class SuiteCollector implements IReporter {
+
+		private List<ISuite> suites;
+
+		@Override
+		public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+			this.suites = suites;
+		}
+	}
+
+	/**
+	 * Spreads the results over MUST, SHOULD and MAY tests. Most pass, one in
+	 * ten fails and one in ten skips.
+	 */
+	public static class SyntheticTest {
+
+		@DataProvider(name = "results")
+		public static Object[][] results(ITestContext context) {
+			int results = Integer.parseInt(context.getCurrentXmlTest().getParameter("results")) / 3;
+			Object[][] rows = new Object[results][];
+			for (int i = 0; i < results; i++) {
+				rows[i] = new Object[] { i };
+			}
+
+			return rows;
+		}
+
+		@Test(groups = {LdpTest.MUST}, dataProvider = "results", description = "A synthetic MUST test.")
+		@SpecTest(
+				specRefUri = LdpTestSuite.SPEC_URI + "#ldpr-gen-http",
+				testMethod = METHOD.AUTOMATED,
+				approval = STATUS.WG_APPROVED)
+		public void testMust(int i) {
+			outcome(i);
+		}
+
+		@Test(groups = {LdpTest.SHOULD}, dataProvider = "results", description = "A synthetic SHOULD test.")
+		@SpecTest(
+				specRefUri = LdpTestSuite.SPEC_URI + "#ldpr-gen-etags",
+				testMethod = METHOD.AUTOMATED,
+				approval = STATUS.WG_APPROVED)
+		public void testShould(int i) {
+			outcome(i);
+		}
+
+		@Test(groups = {LdpTest.MAY}, dataProvider = "results", description = "A synthetic MAY test.")
+		@SpecTest(
+				specRefUri = LdpTestSuite.SPEC_URI + "#ldpc-post-slug",
+				testMethod = METHOD.MANUAL,
+				approval = STATUS.WG_PENDING)
+		public void testMay(int i) {
+			outcome(i);
+		}
+
+		private static void outcome(int i) {
+			if (i % 10 == 1) {
+				throw new AssertionError("Synthetic failure " + i);
+			} else if (i % 10 == 2) {
+				throw new SkipException("Synthetic skip " + i);
+			}
+		}
+	}
+
+}
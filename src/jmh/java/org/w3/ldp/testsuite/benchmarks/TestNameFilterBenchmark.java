@@ -0,0 +1,107 @@
+package org.w3.ldp.testsuite.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testng.annotations.Test;
+import org.w3.ldp.paging.testsuite.tests.PagingTest;
+import org.w3.ldp.testsuite.LdpTestSuite;
+import org.w3.ldp.testsuite.TestNameFilter;
+import org.w3.ldp.testsuite.test.BasicContainerTest;
+import org.w3.ldp.testsuite.test.DirectContainerTest;
+import org.w3.ldp.testsuite.test.IndirectContainerTest;
+import org.w3.ldp.testsuite.test.MemberResourceTest;
+import org.w3.ldp.testsuite.test.NonRDFSourceTest;
+
+/**
+ * Filtering all test methods of the suite with <code>--test</code> patterns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestNameFilterBenchmark {
+
+	/**
+	 * Comma separated wildcard patterns, as on the command line.
+	 */
+	@Param({"testPostResource", "test*Etag*", "testPut*,testPatch*,*Paging*"})
+	public String patterns;
+
+	private String[] wildcardPatterns;
+
+	private List<String> methodNames;
+
+	private TestNameFilter filter;
+
+	@Setup
+	public void setUp() {
+		wildcardPatterns = patterns.split(",");
+		filter = new TestNameFilter(wildcardPatterns);
+
+		methodNames = new ArrayList<>();
+		Class<?>[] testClasses = { BasicContainerTest.class, DirectContainerTest.class, IndirectContainerTest.class,
+				MemberResourceTest.class, NonRDFSourceTest.class, PagingTest.class };
+		for (Class<?> testClass : testClasses) {
+			for (Method method : testClass.getMethods()) {
+				if (method.isAnnotationPresent(Test.class)) {
+					methodNames.add(method.getName());
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public String[] wildcardPatternToRegex() {
+		String[] regexes = new String[wildcardPatterns.length];
+		for (int i = 0; i < wildcardPatterns.length; i++) {
+			regexes[i] = LdpTestSuite.wildcardPatternToRegex(wildcardPatterns[i]);
+		}
+
+		return regexes;
+	}
+
+	@Benchmark
+	public int filter() {
+		int matches = 0;
+		for (String methodName : methodNames) {
+			if (filter.matches(methodName)) {
+				matches++;
+			}
+		}
+
+		return matches;
+	}
+
+	/**
+	 * Building the filter too, which compiles the patterns.
+	 */
+	@Benchmark
+	public int newFilter() {
+		TestNameFilter filter = new TestNameFilter(wildcardPatterns);
+		int matches = 0;
+		for (String methodName : methodNames) {
+			if (filter.matches(methodName)) {
+				matches++;
+			}
+		}
+
+		return matches;
+	}
+
+}
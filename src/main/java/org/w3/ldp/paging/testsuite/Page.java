@@ -0,0 +1,79 @@
+package org.w3.ldp.paging.testsuite;
+
+import org.w3.ldp.testsuite.http.LinkIndex;
+import org.w3.ldp.testsuite.http.ParsedLink;
+import org.w3.ldp.testsuite.vocab.LDP;
+
+import com.jayway.restassured.response.Response;
+
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_CANONICAL;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_TYPE;
+
+/**
+ * One response in a page sequence, see {@link PageWalker}.
+ */
+public class Page {
+
+	private final String uri;
+	private final Response response;
+	private final long latencyNanos;
+
+	Page(String uri, Response response, long latencyNanos) {
+		this.uri = uri;
+		this.response = response;
+		this.latencyNanos = latencyNanos;
+	}
+
+	/**
+	 * @return the page URI, which is also the context of its links
+	 */
+	public String getUri() {
+		return uri;
+	}
+
+	public Response getResponse() {
+		return response;
+	}
+
+	public int getStatusCode() {
+		return response.getStatusCode();
+	}
+
+	/**
+	 * @return the time until the response was received
+	 */
+	public long getLatencyNanos() {
+		return latencyNanos;
+	}
+
+	public LinkIndex getLinks() {
+		return LinkIndex.of(response, uri);
+	}
+
+	/**
+	 * @param rel
+	 *            a link relation like "next"
+	 * @return the target of the first link of the page with relation
+	 *         {@code rel}, or null if there is none
+	 */
+	public String getLink(String rel) {
+		ParsedLink link = getLinks().getFirst(rel, uri);
+		return link != null ? link.getTarget() : null;
+	}
+
+	/**
+	 * @return the canonical link to the paged resource with its etag
+	 *         parameter, or null if there is none
+	 */
+	public ParsedLink getCanonical() {
+		return getLinks().getFirst(LINK_REL_CANONICAL, uri);
+	}
+
+	/**
+	 * @return true if the response says it is an in-sequence page resource
+	 */
+	public boolean isPage() {
+		return getLinks().contains(uri, LINK_REL_TYPE, LDP.Page.stringValue());
+	}
+
+}
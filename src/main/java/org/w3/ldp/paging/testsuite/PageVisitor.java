@@ -0,0 +1,30 @@
+package org.w3.ldp.paging.testsuite;
+
+import org.apache.jena.graph.Triple;
+
+/**
+ * Checks the pages of a sequence one at a time while a {@link PageWalker}
+ * walks them. The triples of a page are streamed, they are never collected
+ * into one model, so visitors should only keep what they need to check.
+ */
+public abstract class PageVisitor {
+
+	/**
+	 * Called before the triples of a page, with its response headers.
+	 */
+	public void startPage(Page page) {
+	}
+
+	/**
+	 * Called for each triple of the page, in the order it was parsed.
+	 */
+	public void triple(Page page, Triple triple) {
+	}
+
+	/**
+	 * Called after the last triple of a page.
+	 */
+	public void endPage(Page page) {
+	}
+
+}
@@ -0,0 +1,249 @@
+package org.w3.ldp.paging.testsuite;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpStatus;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import org.w3.ldp.testsuite.metrics.PageTraversals;
+import org.w3.ldp.testsuite.test.LdpTest;
+import org.w3.ldp.testsuite.util.TaskExecutors;
+
+import com.jayway.restassured.response.Response;
+import com.jayway.restassured.specification.RequestSpecification;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+import static org.w3.ldp.testsuite.http.HttpHeaders.CONTENT_LOCATION;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_NEXT;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_PREV;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LOCATION;
+import static org.w3.ldp.testsuite.http.LdpPreferences.PREFERENCE_MAX_TRIPLE_COUNT;
+import static org.w3.ldp.testsuite.http.LdpRequests.getRdfSource;
+import static org.w3.ldp.testsuite.matcher.HttpStatusSuccessMatcher.isSuccessful;
+
+/**
+ * Walks the in-sequence pages of a paged resource by following its paging
+ * links. The next page is fetched while a {@link PageVisitor} checks the
+ * current one, and only those two pages are held at any time, so memory
+ * doesn't grow with the number of pages.
+ */
+public abstract class PageWalker {
+
+	/**
+	 * Longer sequences are taken to be loops.
+	 */
+	public static final int MAX_PAGES = 10000;
+
+	public static enum Direction {
+		FORWARD(LINK_REL_NEXT),
+		BACKWARD(LINK_REL_PREV);
+
+		private final String rel;
+
+		private Direction(String rel) {
+			this.rel = rel;
+		}
+
+		/**
+		 * @return the link relation to follow
+		 */
+		public String getRel() {
+			return rel;
+		}
+	}
+
+	private final String prefer;
+
+	/**
+	 * @param prefer
+	 *            the Prefer header of the requests, for instance
+	 *            {@link #pageSize(String, int)}, or null to not ask for paging
+	 */
+	public PageWalker(String prefer) {
+		this.prefer = prefer;
+	}
+
+	/**
+	 * @return a new request with the authentication of the tests
+	 */
+	protected abstract RequestSpecification newRequest();
+
+	/**
+	 * @param prefer
+	 *            a return=representation preference to add the page size to,
+	 *            may be null
+	 * @param triples
+	 *            the largest page the client wants, in triples
+	 * @return a Prefer header value asking for pages of that size
+	 */
+	public static String pageSize(String prefer, int triples) {
+		return StringUtils.defaultString(prefer, "return=representation") + "; "
+				+ PREFERENCE_MAX_TRIPLE_COUNT + "=\"" + triples + "\"";
+	}
+
+	/**
+	 * GETs a resource without following redirects.
+	 */
+	public Page get(String uri) {
+		RequestSpecification spec = getRdfSource(newRequest(), prefer);
+		spec.redirects().follow(false);
+		long start = System.nanoTime();
+		Response response = spec.get(uri);
+		return new Page(uri, response, System.nanoTime() - start);
+	}
+
+	/**
+	 * GETs a paged resource and follows a 303 See Other to its first page.
+	 * With a 2NN Contents of Related response, the content is the first page
+	 * and its Content-Location is the page URI.
+	 *
+	 * @param resource
+	 *            the paged resource
+	 * @return the first page, or the response of the resource if the server
+	 *         didn't page it (see {@link Page#isPage()})
+	 */
+	public Page getFirstPage(String resource) {
+		Page page = get(resource);
+		int status = page.getStatusCode();
+		if (status == HttpStatus.SC_SEE_OTHER) {
+			String location = page.getResponse().getHeader(LOCATION);
+			if (location != null) {
+				return get(LdpTest.resolveIfRelative(resource, location));
+			}
+		} else if (status != HttpStatus.SC_OK && isSuccessful().matches(status)) {
+			String contentLocation = page.getResponse().getHeader(CONTENT_LOCATION);
+			if (contentLocation != null) {
+				return new Page(LdpTest.resolveIfRelative(resource, contentLocation), page.getResponse(), page.getLatencyNanos());
+			}
+		}
+
+		return page;
+	}
+
+	/**
+	 * Walks from {@code first} to the end of the sequence in one direction,
+	 * streaming the triples of each page to {@code visitor}. Fails if a page
+	 * can't be retrieved.
+	 *
+	 * @return the per-page latencies and pages per second, which also go to
+	 *         the reports
+	 */
+	public PageTraversals.Traversal walk(Page first, Direction direction, PageVisitor visitor) {
+		final ITestResult test = Reporter.getCurrentTestResult();
+		PageTraversals.Traversal traversal = new PageTraversals.Traversal(
+				test != null ? test.getMethod().getMethodName() : "", first.getUri());
+
+		ExecutorService prefetcher = TaskExecutors.newExecutor("ldp-paging", 1);
+		long start = System.nanoTime();
+		try {
+			Page page = first;
+			int pages = 0;
+			while (page != null) {
+				assertTrue(++pages <= MAX_PAGES, "Stopped after " + MAX_PAGES + " pages of <" + first.getUri()
+						+ ">, the " + direction.getRel() + " links might loop");
+				assertTrue(isSuccessful().matches(page.getStatusCode()),
+						"GET <" + page.getUri() + "> failed with status " + page.getStatusCode());
+
+				Future<Page> next = null;
+				final String nextUri = page.getLink(direction.getRel());
+				if (nextUri != null) {
+					assertFalse(nextUri.equals(page.getUri()), "Page <" + page.getUri() + "> is its own " + direction.getRel() + " page");
+					next = prefetcher.submit(new Callable<Page>() {
+						@Override
+						public Page call() {
+							// the latency of prefetched pages belongs to the test
+							Reporter.setCurrentTestResult(test);
+							try {
+								return get(nextUri);
+							} finally {
+								Reporter.setCurrentTestResult(null);
+							}
+						}
+					});
+				}
+
+				traversal.page(page.getLatencyNanos(), visit(page, visitor));
+				page = next != null ? await(next) : null;
+			}
+		} finally {
+			prefetcher.shutdownNow();
+		}
+
+		traversal.setElapsed(System.nanoTime() - start);
+		PageTraversals.record(traversal);
+		return traversal;
+	}
+
+	/**
+	 * @return the number of triples of the page
+	 */
+	private static long visit(Page page, PageVisitor visitor) {
+		visitor.startPage(page);
+
+		PageSink sink = new PageSink(page, visitor);
+		byte[] content = page.getResponse().asByteArray();
+		if (content.length > 0) {
+			RDFDataMgr.parse(sink, new ByteArrayInputStream(content), page.getUri(), getLang(page.getResponse().getContentType()));
+		}
+
+		visitor.endPage(page);
+		return sink.triples;
+	}
+
+	private static Lang getLang(String contentType) {
+		Lang lang = null;
+		if (StringUtils.isNotBlank(contentType)) {
+			// ignore any parameters like charset
+			lang = RDFLanguages.contentTypeToLang(StringUtils.substringBefore(contentType, ";").trim());
+		}
+
+		return lang != null ? lang : Lang.TURTLE;
+	}
+
+	private static Page await(Future<Page> page) {
+		try {
+			return page.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			fail("Could not get the next page: " + cause.getLocalizedMessage(), cause);
+			return null;
+		}
+	}
+
+	private static class PageSink extends StreamRDFBase {
+
+		private final Page page;
+		private final PageVisitor visitor;
+		private long triples;
+
+		PageSink(Page page, PageVisitor visitor) {
+			this.page = page;
+			this.visitor = visitor;
+		}
+
+		@Override
+		public void triple(Triple triple) {
+			triples++;
+			visitor.triple(page, triple);
+		}
+	}
+
+}
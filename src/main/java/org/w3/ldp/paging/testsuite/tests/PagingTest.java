@@ -1,30 +1,112 @@
 package org.w3.ldp.paging.testsuite.tests;
 
-import static com.jayway.restassured.config.LogConfig.logConfig;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.w3.ldp.testsuite.http.HttpHeaders.ACCEPT;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_CANONICAL;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_FIRST;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_LAST;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_NEXT;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_PREV;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LOCATION;
+import static org.w3.ldp.testsuite.http.HttpHeaders.PREFER;
+import static org.w3.ldp.testsuite.http.LdpPreferences.PREFER_CONTAINMENT;
+import static org.w3.ldp.testsuite.http.LdpPreferences.PREFER_MEMBERSHIP;
+import static org.w3.ldp.testsuite.http.LdpPreferences.PREFER_MINIMAL_CONTAINER;
+import static org.w3.ldp.testsuite.http.LdpRequests.createRdfSource;
+import static org.w3.ldp.testsuite.http.LdpRequests.getRdfSource;
+import static org.w3.ldp.testsuite.matcher.HttpStatus4xxRangeMatcher.is4xxRange;
+import static org.w3.ldp.testsuite.matcher.HttpStatusSuccessMatcher.isSuccessful;
 
 import java.io.IOException;
-import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
-import org.apache.commons.io.output.WriterOutputStream;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.http.HttpStatus;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFList;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.shared.JenaException;
+import org.apache.jena.vocabulary.RDF;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 import org.testng.annotations.Test;
+import org.w3.ldp.paging.testsuite.Page;
+import org.w3.ldp.paging.testsuite.PageVisitor;
+import org.w3.ldp.paging.testsuite.PageWalker;
+import org.w3.ldp.paging.testsuite.PageWalker.Direction;
 import org.w3.ldp.testsuite.annotations.SpecTest;
 import org.w3.ldp.testsuite.annotations.SpecTest.METHOD;
 import org.w3.ldp.testsuite.annotations.SpecTest.STATUS;
+import org.w3.ldp.testsuite.exception.SkipClientTestException;
+import org.w3.ldp.testsuite.exception.SkipException;
+import org.w3.ldp.testsuite.exception.SkipNotTestableException;
+import org.w3.ldp.testsuite.http.LinkIndex;
+import org.w3.ldp.testsuite.http.ParsedLink;
+import org.w3.ldp.testsuite.mapper.RdfObjectMapper;
 import org.w3.ldp.testsuite.test.LdpTest;
+import org.w3.ldp.testsuite.util.TaskExecutors;
+import org.w3.ldp.testsuite.vocab.LDP;
 
-import com.google.common.collect.ImmutableMap;
-import com.jayway.restassured.RestAssured;
+import com.jayway.restassured.response.Response;
 import com.jayway.restassured.specification.RequestSpecification;
 
+/**
+ * LDP Paging server tests. They walk the page sequence of the container
+ * under test with a {@link PageWalker}, checking one page at a time.
+ */
 public class PagingTest extends LdpTest{
 	
 	public static final String PAGING = "PAGING";
 	public static final String SPEC_URI = "https://dvcs.w3.org/hg/ldpwg/raw-file/default/ldp-paging.html";
 
+	/**
+	 * The page size the tests ask for, in triples, unless the pageSize
+	 * parameter is set
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 10;
+
+	// members created so the container needs several pages
+	private static final int MEMBERS = 30;
+
+	private static final int SETUP_THREADS = 4;
+
+	private static final String SETUP_ERROR = "ERROR: Could not create a member for PagingTest. Tests needing several pages may skip.";
+
+	private static final String UNSUPPORTED_MEDIA_TYPE = "application/x-ldp-testsuite-unsupported";
+
+	private static final String CONTAINS = LDP.contains.stringValue();
+
+	private String container;
+
+	private String containerType;
+
+	private int pageSize;
+
+	// the resolved Locations of the members created in setUp()
+	private final Set<String> members = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
 	@Test(
 			groups = {MUST, PAGING},
 			description = "LDP Paging clients MUST advertise their ability "
@@ -32,10 +114,10 @@ public class PagingTest extends LdpTest{
 				+ "result in a response containing a representation.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpp-client-advertise",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.CLIENT_ONLY,
 			approval = STATUS.WG_PENDING)
 	public void testClientAdvertise() {
-		// TODO: Impl testClientAdvetrise
+		throw new SkipClientTestException(testName(), null, skipLog);
 	}
 	
 	@Test(
@@ -44,10 +126,10 @@ public class PagingTest extends LdpTest{
 				+ "one of forward traversal and/or backward traversal.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpp-client-traversal",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.CLIENT_ONLY,
 			approval = STATUS.WG_PENDING)
 	public void testPagingTraversal() {
-		// TODO: Impl testPagingTraversal
+		throw new SkipClientTestException(testName(), null, skipLog);
 	}
 	
 	@Test(
@@ -60,10 +142,10 @@ public class PagingTest extends LdpTest{
 				+ "resource changes, for example.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpr-pagingGET-sequences-change",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.CLIENT_ONLY,
 			approval = STATUS.WG_PENDING)
 	public void testSequenceChange() {
-		// TODO: Impl testSequenceChange
+		throw new SkipClientTestException(testName(), null, skipLog);
 	}
 	
 	@Test(
@@ -72,10 +154,10 @@ public class PagingTest extends LdpTest{
 				+ "page resource's paging links will always be accessible. ")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#dfn-ldp-paging-client",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.CLIENT_ONLY,
 			approval = STATUS.WG_PENDING)
 	public void testPagingAccess() {
-		// TODO: Impl testPagingAccess
+		throw new SkipClientTestException(testName(), null, skipLog);
 	}
 	
 	@Test(
@@ -84,10 +166,10 @@ public class PagingTest extends LdpTest{
 				+ "as coherent or complete, or make assumptions to that effect.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpp-client-paging-incomplete",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.CLIENT_ONLY,
 			approval = STATUS.WG_PENDING)
 	public void testResourcePresentation() {
-		// TODO: Impl testResourcePresentation
+		throw new SkipClientTestException(testName(), null, skipLog);
 	}
 	
 	@Test(
@@ -95,10 +177,18 @@ public class PagingTest extends LdpTest{
 			description = "LDP Paging servers SHOULD allow clients to retrieve large LDP-RSs in pages.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpr-page-large",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testLargePage() {
-		// TODO: Impl testLargePage
+		String test = testName();
+		String resource = getPagedResource(test);
+		if (members.isEmpty()) {
+			throw new SkipException(test, "Could not create members to make <" + resource + "> large.", skipLog);
+		}
+
+		Page first = pagingWalker().getFirstPage(resource);
+		assertTrue(first.isPage(), "Server did not page <" + resource + "> with " + members.size()
+				+ " members when asked for pages of " + pageSize + " triples");
 	}
 	
 	@Test(
@@ -106,10 +196,13 @@ public class PagingTest extends LdpTest{
 			description = "LDP Paging servers MAY treat any resource (LDP-RS or not) as a paged resource.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#dfn-ldp-paging-server",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testResourcePaging() {
-		// TODO: Impl testResourcePaging
+		// skips if the server doesn't page the container
+		Page first = getFirstPage(testName());
+		assertTrue(isSuccessful().matches(first.getStatusCode()),
+				"GET <" + first.getUri() + "> failed with status " + first.getStatusCode());
 	}
 	
 	@Test(
@@ -122,10 +215,10 @@ public class PagingTest extends LdpTest{
 				+ "between these cases based on the status code and response headers.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpr-split-any-time",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.MANUAL,
 			approval = STATUS.WG_PENDING)
 	public void testSplitPaging() {
-		// TODO: Impl testSplitPaging
+		throw new SkipNotTestableException(testName(), skipLog);
 	}
 	
 	@Test(
@@ -135,10 +228,29 @@ public class PagingTest extends LdpTest{
 				+ "to influence the amount of data returned in representations.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpp-prefer",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testPreferredPaging() {
-		// TODO: Impl testPreferredPaging
+		Page first = getFirstPage(testName());
+		pagingWalker().walk(first, Direction.FORWARD, new PageVisitor() {
+			private int triples;
+
+			@Override
+			public void startPage(Page page) {
+				triples = 0;
+			}
+
+			@Override
+			public void triple(Page page, Triple triple) {
+				triples++;
+			}
+
+			@Override
+			public void endPage(Page page) {
+				assertTrue(triples <= pageSize, "Page <" + page.getUri() + "> has " + triples
+						+ " triples, more than the " + pageSize + " the client asked for");
+			}
+		});
 	}
 	
 	@Test(
@@ -149,10 +261,13 @@ public class PagingTest extends LdpTest{
 				+ "or choose not to page the resource at all.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpp-prefer-unrecognized",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testPreferUnrecognized() {
-		// TODO: Impl testPreferUnrecognized
+		String resource = getPagedResource(testName());
+		Page page = walker(PageWalker.pageSize(null, 0)).getFirstPage(resource);
+		assertTrue(isSuccessful().matches(page.getStatusCode()),
+				"GET <" + resource + "> with a page size of zero failed with status " + page.getStatusCode());
 	}
 	
 	@Test(
@@ -164,10 +279,20 @@ public class PagingTest extends LdpTest{
 				+ "303 See Other MAY be used.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpr-status-code",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testPagingGet() {
-		// TODO: Impl testPagingGet
+		String test = testName();
+		String resource = getPagedResource(test);
+		Page response = pagingWalker().get(resource);
+		int status = response.getStatusCode();
+		if (status == HttpStatus.SC_OK && !response.isPage()) {
+			throw new SkipException(test, "The server did not page <" + resource + ">.", skipLog);
+		}
+
+		assertTrue(status == HttpStatus.SC_SEE_OTHER || (status != HttpStatus.SC_OK && isSuccessful().matches(status)),
+				"Server responded " + status + " to a GET of <" + resource + "> asking for pages, "
+				+ "expected 2NN Contents of Related or 303 See Other");
 	}
 	
 	@Test(
@@ -180,10 +305,28 @@ public class PagingTest extends LdpTest{
 				+ "in one of the pages. ")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpr-guarantee-show-unchanged",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testShowUnchanged() {
-		// TODO: Impl testShowUnchanged
+		String test = testName();
+		Page first = getFirstPage(test);
+		if (members.isEmpty()) {
+			throw new SkipException(test, "Could not create members in <" + container + ">.", skipLog);
+		}
+
+		// crossed off page by page, the pages are never merged
+		final Set<String> missing = new HashSet<>(members);
+		final String resource = container;
+		pagingWalker().walk(first, Direction.FORWARD, new PageVisitor() {
+			@Override
+			public void triple(Page page, Triple triple) {
+				if (matches(triple, resource, CONTAINS)) {
+					missing.remove(triple.getObject().getURI());
+				}
+			}
+		});
+
+		assertTrue(missing.isEmpty(), "No page of <" + container + "> has a containment triple for " + missing);
 	}
 	
 	@Test(
@@ -193,12 +336,17 @@ public class PagingTest extends LdpTest{
 					+ "pages by including a HTTP Link header on all successful HTTP GET responses. ")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpr-notify-changes",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testDetectChange() {
-		// TODO: Impl testDetectChange
-		// "Covers only part of the specification requirement.
-		// testPagingHeaders covers the rest."
+		Page first = getFirstPage(testName());
+		final String resource = container;
+		pagingWalker().walk(first, Direction.FORWARD, new PageVisitor() {
+			@Override
+			public void startPage(Page page) {
+				assertCanonicalLink(page.getCanonical(), page.getUri(), resource);
+			}
+		});
 	}
 	
 	@Test(
@@ -212,11 +360,22 @@ public class PagingTest extends LdpTest{
 					+ "the paged resource.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpr-notify-changes",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testPagingHeaders() {
-		// TODO: Impl testPagingHeaders
-		// "Covers only part of the specification requirement. testDetectChange covers the rest."
+		String test = testName();
+		Page first = getFirstPage(test);
+		Response response = buildBaseRequestSpecification()
+				.header(ACCEPT, UNSUPPORTED_MEDIA_TYPE)
+				.header(PREFER, pagingPreference())
+				.get(first.getUri());
+		if (!is4xxRange().matches(response.getStatusCode())) {
+			throw new SkipException(test, "The server did not respond to an unsupported Accept header on <"
+					+ first.getUri() + "> with a 4xx status.", skipLog);
+		}
+
+		ParsedLink canonical = LinkIndex.of(response, first.getUri()).getFirst(LINK_REL_CANONICAL, first.getUri());
+		assertCanonicalLink(canonical, first.getUri(), container);
 	}
 	
 	@Test(
@@ -226,12 +385,10 @@ public class PagingTest extends LdpTest{
 					+ "to the end of a sequence.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpr-pagingGET-sequences-change",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.MANUAL,
 			approval = STATUS.WG_PENDING)
 	public void testInSequencePaging() {
-		// TODO: Impl testInSequencePaging
-		// "Covers only part of the specification requirement.
-		// testPageAddEnd covers the rest."
+		throw new SkipNotTestableException(testName(), skipLog);
 	}
 	
 	@Test(
@@ -240,12 +397,28 @@ public class PagingTest extends LdpTest{
 					+ "to the end of a sequence.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpr-pagingGET-sequences-change",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testPageAddEnd() {
-		// TODO: Impl testPageAddEnd
-		// "Covers only part of the specification requirement.
-		// testInSequencePaging covers the rest."
+		String test = testName();
+		List<String> before = getPageUris(getFirstPage(test));
+		if (before.size() < 2) {
+			throw new SkipException(test, "<" + container + "> has only one page.", skipLog);
+		}
+
+		Response response = createRdfSource(buildBaseRequestSpecification(), postContent()).post(container);
+		String location = response.getHeader(LOCATION);
+		if (response.getStatusCode() != HttpStatus.SC_CREATED || location == null) {
+			throw new SkipException(test, "Could not add a member to <" + container + ">.", skipLog);
+		}
+		deleteLater(container, location);
+
+		// the last page may grow or get new pages after it, the others stay
+		List<String> after = getPageUris(getFirstPage(test));
+		for (int i = 0; i < before.size() - 1; i++) {
+			assertTrue(i < after.size() && before.get(i).equals(after.get(i)), "Adding a member to <" + container
+					+ "> changed page " + (i + 1) + " of its sequence, <" + before.get(i) + ">");
+		}
 	}
 	
 	@Test(
@@ -255,10 +428,16 @@ public class PagingTest extends LdpTest{
 					+ "as the Request-URI.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpr-pagingGET-first-allowed-onpages",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testAllowFirstLink() {
-		// TODO: Impl testAllowFirstLink
+		String test = testName();
+		SequenceVisitor sequence = walkSequence(test);
+		if (sequence.pages < 2 || sequence.firstLinks == 0) {
+			throw new SkipException(test, "The pages of <" + container + "> have no first page links.", skipLog);
+		}
+
+		assertNull(sequence.firstLinkError, sequence.firstLinkError);
 	}
 	
 	@Test(
@@ -267,10 +446,17 @@ public class PagingTest extends LdpTest{
 					+ "to GET requests with any in-sequence page resource as the Request-URI.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpr-pagingGET-last-allowed-onpages",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testAllowLastLink() {
-		// TODO: Impl testAllowLastLink
+		String test = testName();
+		SequenceVisitor sequence = walkSequence(test);
+		if (sequence.lastLink == null) {
+			throw new SkipException(test, "The pages of <" + container + "> have no last page links.", skipLog);
+		}
+
+		assertEquals(sequence.finalPage, sequence.lastLink, "The next page links of <" + container
+				+ "> end at <" + sequence.finalPage + ">, not at the last page");
 	}
 	
 	@Test(
@@ -281,10 +467,15 @@ public class PagingTest extends LdpTest{
 					+ "discover the URL of the next page.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#dfn-in-sequence-page-resource",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testSequenced() {
-		// TODO: Impl testSequenced
+		// the walk fails if a next page link can't be followed
+		SequenceVisitor sequence = walkSequence(testName());
+		if (sequence.lastLink != null) {
+			assertEquals(sequence.finalPage, sequence.lastLink, "The next page links of <" + container
+					+ "> end before the last page");
+		}
 	}
 	
 	@Test(
@@ -295,10 +486,15 @@ public class PagingTest extends LdpTest{
 					+ "of the page sequence as currently known by the server.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpr-pagingGET-lastnext-prohibited",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testRestrictFinalLink() {
-		// TODO: Impl testRestrictFinalLink
+		SequenceVisitor sequence = walkSequence(testName());
+		String last = sequence.lastLink != null ? sequence.lastLink : sequence.finalPage;
+		Page page = pagingWalker().get(last);
+		assertTrue(isSuccessful().matches(page.getStatusCode()),
+				"GET <" + last + "> failed with status " + page.getStatusCode());
+		assertNull(page.getLink(LINK_REL_NEXT), "The last page <" + last + "> of <" + container + "> has a next page link");
 	}
 	
 	@Test(
@@ -309,10 +505,16 @@ public class PagingTest extends LdpTest{
 					+ "the URL of the previous page.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpr-pagingGET-prev-allowed",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testGetPreviousLink() {
-		// TODO: Impl testGetPreviousLink
+		String test = testName();
+		SequenceVisitor sequence = walkSequence(test);
+		if (sequence.pages < 2 || sequence.prevLinks == 0) {
+			throw new SkipException(test, "The pages of <" + container + "> have no previous page links.", skipLog);
+		}
+
+		assertNull(sequence.prevLinkError, sequence.prevLinkError);
 	}
 	
 	@Test(
@@ -323,10 +525,12 @@ public class PagingTest extends LdpTest{
 					+ "sequence as currently known by the server.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpr-pagingGET-firstprev-prohibited",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testRestrictFirstLink() {
-		// TODO: Impl testRestrictFirstLink
+		Page first = getFirstPage(testName());
+		assertNull(first.getLink(LINK_REL_PREV), "The first page <" + first.getUri() + "> of <"
+				+ container + "> has a previous page link");
 	}
 	
 	@Test(
@@ -338,10 +542,17 @@ public class PagingTest extends LdpTest{
 					+ "resource is one of a sequence of pages.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpr-pagingGET-page-type-reqd",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testGetPageReq() {
-		// TODO: Impl testGetPageReq
+		Page first = getFirstPage(testName());
+		pagingWalker().walk(first, Direction.FORWARD, new PageVisitor() {
+			@Override
+			public void startPage(Page page) {
+				assertTrue(page.isPage(), "Page <" + page.getUri() + "> has no Link: <"
+						+ LDP.Page.stringValue() + ">; rel=\"type\" header");
+			}
+		});
 	}
 	
 	@Test(
@@ -353,10 +564,15 @@ public class PagingTest extends LdpTest{
 					+ "implementation-specific means could also be used.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpr-pagingGET-only-paging-clients",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testGetOnlyPagingClients() {
-		// TODO: Impl testGetOnlyPagingClients
+		String resource = getPagedResource(testName());
+		Page response = walker(null).get(resource);
+		assertTrue(isSuccessful().matches(response.getStatusCode()),
+				"GET <" + resource + "> failed with status " + response.getStatusCode());
+		assertFalse(response.isPage() || response.getLink(LINK_REL_NEXT) != null,
+				"Server paged <" + resource + "> although the client didn't ask for pages");
 	}
 	
 	@Test(
@@ -367,10 +583,40 @@ public class PagingTest extends LdpTest{
 					+ "sequence for a paged LDPC.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpc-onsamepage",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testMembershipSequence() {
-		// TODO: Impl testMembershipSequence
+		String test = testName();
+		String resource = getPagedResource(test);
+		if (LDP.IndirectContainer.stringValue().equals(containerType)) {
+			throw new SkipException(test, "Membership triples of an indirect container can't be matched "
+					+ "to its members without retrieving them.", skipLog);
+		}
+		if (LDP.BasicContainer.stringValue().equals(containerType)) {
+			// the containment triples are the membership triples
+			return;
+		}
+
+		Model model = getRdfSource(buildBaseRequestSpecification(), include(PREFER_MINIMAL_CONTAINER))
+				.expect()
+					.statusCode(isSuccessful())
+				.when()
+					.get(resource).as(Model.class, new RdfObjectMapper(resource));
+		Resource membershipResource = model.getResource(resource)
+				.getPropertyResourceValue(model.createProperty(LDP.membershipResource.stringValue()));
+		Resource hasMemberRelation = model.getResource(resource)
+				.getPropertyResourceValue(model.createProperty(LDP.hasMemberRelation.stringValue()));
+		if (membershipResource == null || !membershipResource.isURIResource() || hasMemberRelation == null) {
+			throw new SkipException(test, "<" + resource + "> has no ldp:membershipResource and ldp:hasMemberRelation.", skipLog);
+		}
+
+		PageWalker walker = walker(PageWalker.pageSize(include(PREFER_CONTAINMENT, PREFER_MEMBERSHIP), pageSize));
+		MembershipVisitor visitor = new MembershipVisitor(resource, membershipResource.getURI(), hasMemberRelation.getURI());
+		walker.walk(getFirstPage(test, walker), Direction.FORWARD, visitor);
+
+		Set<String> split = visitor.getSplitMembers();
+		assertTrue(split.isEmpty(), "The containment and membership triples of " + split
+				+ " are on different pages of <" + resource + ">");
 	}
 	
 	@Test(
@@ -380,12 +626,11 @@ public class PagingTest extends LdpTest{
 					+ "LDP Paging does not specify ordering for pages of LDPRs in other cases.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpc-sortcriteriaobj",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testSortMembers() {
-		// TODO: Impl testSortMembers
-		// "Covers only part of the specification requirement.
-		// testPageAddEnd covers the rest."
+		// skips if the pages don't communicate their order
+		walkSortCriteria(testName());
 	}
 	
 	@Test(
@@ -399,12 +644,15 @@ public class PagingTest extends LdpTest{
 					+ "across pages would be undefined.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpc-sortcriteriaobj",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testSortTriples() {
-		// TODO: Impl testSortTriples
-		// "Covers only part of the specification requirement.
-		// testSortMembers covers the rest."
+		SortCriteriaVisitor sort = walkSortCriteria(testName());
+		assertNull(sort.wrongSubject, "Page <" + sort.wrongSubject + "> has sort criteria whose subject isn't the page");
+		assertNull(sort.notAList, "The sort criteria of page <" + sort.notAList + "> aren't an rdf:List");
+		assertEquals(sort.pagesWithCriteria, sort.pages, "Only " + sort.pagesWithCriteria + " of the "
+				+ sort.pages + " pages of <" + container + "> have sort criteria");
+		assertNull(sort.differentCriteria, "Page <" + sort.differentCriteria + "> has other sort criteria than the first page");
 	}
 	
 	@Test(
@@ -416,10 +664,12 @@ public class PagingTest extends LdpTest{
 					+ "(the page-ordering values).")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpc-sortliteraltype",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testSortCriteria() {
-		// TODO: Impl testSortCriteria
+		SortCriteriaVisitor sort = walkSortCriteria(testName());
+		assertEquals(sort.withoutPredicate, 0, sort.withoutPredicate + " sort criteria of <" + container
+				+ "> have no ldp:containerSortPredicate");
 	}
 	
 	@Test(
@@ -432,10 +682,12 @@ public class PagingTest extends LdpTest{
 					+ "meaning to them and interoperability will be limited.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpc-sortorder",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testSortOrder() {
-		// TODO: Impl testSortOrder
+		SortCriteriaVisitor sort = walkSortCriteria(testName());
+		assertEquals(sort.withoutOrder, 0, sort.withoutOrder + " sort criteria of <" + container
+				+ "> have no ldp:containerSortOrder");
 	}
 	
 	@Test(
@@ -446,12 +698,14 @@ public class PagingTest extends LdpTest{
 					+ "identifies the collation used.")
 	@SpecTest(
 			specRefUri = SPEC_URI + "#ldpc-sortcollation",
-			testMethod = METHOD.NOT_IMPLEMENTED,
+			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testSortCollation() {
-		// TODO: Impl testSortCollation
-		// "Covers only part of the specification requirement.
-		// testRestrictCollation covers the rest."
+		String test = testName();
+		SortCriteriaVisitor sort = walkSortCriteria(test);
+		if (sort.withCollation == 0) {
+			throw new SkipException(test, "The sort criteria of <" + container + "> have no collation.", skipLog);
+		}
 	}
 	
 	@Test(
@@ -463,41 +717,390 @@ public class PagingTest extends LdpTest{
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
 	public void testRestrictCollation() {
-		// TODO: Impl testRestrictCollation
-		// "Covers only part of the specification
-		// requirement. testSortCollation covers the rest."
+		String test = testName();
+		SortCriteriaVisitor sort = walkSortCriteria(test);
+		if (sort.withCollation == 0) {
+			throw new SkipException(test, "The sort criteria of <" + container + "> have no collation.", skipLog);
+		}
+
+		assertNull(sort.collationOnNonString, "Page <" + sort.collationOnNonString + "> has a collation "
+				+ "for a sort predicate with values that aren't strings");
 	}
 	
-	protected Map<String,String> auth;
-
 	@Parameters("auth")
 	public PagingTest(@Optional String auth) throws IOException {
-		if (StringUtils.isNotBlank(auth) && auth.contains(":")) {
-			String[] split = auth.split(":");
-			if (split.length == 2 && StringUtils.isNotBlank(split[0]) && StringUtils.isNotBlank(split[1])) {
-				this.auth = ImmutableMap.of("username", split[0], "password", split[1]);
+		super(auth);
+	}
+	
+	/**
+	 * Fills the container under test with members, so that it needs several
+	 * pages of the size the tests ask for.
+	 *
+	 * @param pageSize
+	 *            the page size to ask for, in triples
+	 */
+	@BeforeClass(alwaysRun = true)
+	@Parameters({"basicContainer", "directContainer", "indirectContainer", "pageSize"})
+	public void setUp(@Optional String basicContainer, @Optional String directContainer,
+			@Optional String indirectContainer, @Optional String pageSize) {
+		if (StringUtils.isNotBlank(basicContainer)) {
+			container = basicContainer;
+			containerType = LDP.BasicContainer.stringValue();
+		} else if (StringUtils.isNotBlank(directContainer)) {
+			container = directContainer;
+			containerType = LDP.DirectContainer.stringValue();
+		} else if (StringUtils.isNotBlank(indirectContainer)) {
+			container = indirectContainer;
+			containerType = LDP.IndirectContainer.stringValue();
+		}
+		this.pageSize = NumberUtils.toInt(pageSize, DEFAULT_PAGE_SIZE);
+
+		if (container != null) {
+			createMembers();
+		}
+	}
+
+	private void createMembers() {
+		ExecutorService executor = TaskExecutors.newExecutor("ldp-paging-setup", SETUP_THREADS);
+		for (int i = 0; i < MEMBERS; i++) {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						Response response = createRdfSource(buildBaseRequestSpecification(), postContent()).post(container);
+						String location = response.getHeader(LOCATION);
+						if (response.getStatusCode() == HttpStatus.SC_CREATED && location != null) {
+							location = resolveIfRelative(container, location);
+							deleteLater(container, location);
+							members.add(location);
+						}
+					} catch (Exception e) {
+						// the tests needing members skip without them
+						System.err.println(SETUP_ERROR);
+						e.printStackTrace();
+					}
+				}
+			});
+		}
+		TaskExecutors.shutdownAndWait(executor, 2, TimeUnit.MINUTES);
+	}
+
+	private static String testName() {
+		return Thread.currentThread().getStackTrace()[2].getMethodName();
+	}
+
+	private PageWalker walker(String prefer) {
+		return new PageWalker(prefer) {
+			@Override
+			protected RequestSpecification newRequest() {
+				return buildBaseRequestSpecification();
 			}
-		} else {
-			this.auth = null;
+		};
+	}
+
+	private String pagingPreference() {
+		return PageWalker.pageSize(include(PREFER_CONTAINMENT), pageSize);
+	}
+
+	private PageWalker pagingWalker() {
+		return walker(pagingPreference());
+	}
+
+	private String getPagedResource(String test) {
+		if (StringUtils.isBlank(container)) {
+			throw new SkipException(test, "There is no container to page.", skipLog);
 		}
+
+		return container;
 	}
-	
-	@Override
-	protected RequestSpecification buildBaseRequestSpecification() {
-		RequestSpecification spec = RestAssured.given();
-		if (auth != null) {
-			spec.auth().preemptive().basic(auth.get("username"), auth.get("password"));
+
+	/**
+	 * Gets the first page of the container, skipping the test if the server
+	 * doesn't page it.
+	 */
+	private Page getFirstPage(String test) {
+		return getFirstPage(test, pagingWalker());
+	}
+
+	private Page getFirstPage(String test, PageWalker walker) {
+		String resource = getPagedResource(test);
+		Page first = walker.getFirstPage(resource);
+		if (!first.isPage()) {
+			throw new SkipException(test, "The server did not page <" + resource + "> when asked for pages of "
+					+ pageSize + " triples.", skipLog);
+		}
+
+		return first;
+	}
+
+	private static boolean matches(Triple triple, String subject, String predicate) {
+		return triple.getSubject().isURI() && subject.equals(triple.getSubject().getURI())
+				&& predicate.equals(triple.getPredicate().getURI()) && triple.getObject().isURI();
+	}
+
+	private static void assertCanonicalLink(ParsedLink canonical, String page, String resource) {
+		assertNotNull(canonical, "The response of page <" + page + "> has no canonical link to the paged resource");
+		assertEquals(canonical.getTarget(), resource, "The canonical link of page <" + page + "> isn't the paged resource");
+		assertNotNull(canonical.getParam("etag"), "The canonical link of page <" + page + "> has no etag parameter");
+	}
+
+	private List<String> getPageUris(Page first) {
+		final List<String> uris = new ArrayList<>();
+		pagingWalker().walk(first, Direction.FORWARD, new PageVisitor() {
+			@Override
+			public void startPage(Page page) {
+				uris.add(page.getUri());
+			}
+		});
+
+		return uris;
+	}
+
+	private SequenceVisitor walkSequence(String test) {
+		SequenceVisitor sequence = new SequenceVisitor();
+		pagingWalker().walk(getFirstPage(test), Direction.FORWARD, sequence);
+		return sequence;
+	}
+
+	/**
+	 * Collects the sort criteria of all pages, skipping the test if there are
+	 * none.
+	 */
+	private SortCriteriaVisitor walkSortCriteria(String test) {
+		SortCriteriaVisitor sort = new SortCriteriaVisitor();
+		pagingWalker().walk(getFirstPage(test), Direction.FORWARD, sort);
+		if (sort.pagesWithCriteria == 0) {
+			throw new SkipException(test, "The pages of <" + container + "> don't communicate their order.", skipLog);
 		}
 
-		if (httpLog != null) {
-			spec.config(RestAssured
-					.config()
-					.logConfig(logConfig()
-							.enableLoggingOfRequestAndResponseIfValidationFails()
-							.defaultStream(new PrintStream(new WriterOutputStream(httpLog)))
-							.enablePrettyPrinting(true)));
+		return sort;
+	}
+
+	/**
+	 * Checks the first, last and previous page links of a sequence.
+	 */
+	private static class SequenceVisitor extends PageVisitor {
+
+		int pages;
+		String firstPage;
+		String finalPage;
+		// the target of the most recent last page link
+		String lastLink;
+		// links on the pages after the first
+		int firstLinks;
+		int prevLinks;
+		String firstLinkError;
+		String prevLinkError;
+
+		@Override
+		public void startPage(Page page) {
+			pages++;
+			if (firstPage == null) {
+				firstPage = page.getUri();
+			} else {
+				String first = page.getLink(LINK_REL_FIRST);
+				if (first != null) {
+					firstLinks++;
+					if (firstLinkError == null && !first.equals(firstPage)) {
+						firstLinkError = "Page <" + page.getUri() + "> links to <" + first + "> as first page instead of <" + firstPage + ">";
+					}
+				}
+
+				String prev = page.getLink(LINK_REL_PREV);
+				if (prev != null) {
+					prevLinks++;
+					if (prevLinkError == null && !prev.equals(finalPage)) {
+						prevLinkError = "Page <" + page.getUri() + "> links to <" + prev + "> as previous page instead of <" + finalPage + ">";
+					}
+				}
+			}
+
+			String last = page.getLink(LINK_REL_LAST);
+			if (last != null) {
+				lastLink = last;
+			}
+			finalPage = page.getUri();
 		}
-		return spec;
 	}
-	
+
+	/**
+	 * Finds members whose containment and membership triples are on different
+	 * pages. Only the mismatches of each page are kept.
+	 */
+	private static class MembershipVisitor extends PageVisitor {
+
+		private final String container;
+		private final String membershipResource;
+		private final String hasMemberRelation;
+
+		private final Set<String> contained = new HashSet<>();
+		private final Set<String> pageMembers = new HashSet<>();
+
+		// members with only one of the triples on their page
+		private final Set<String> onlyContained = new HashSet<>();
+		private final Set<String> onlyMember = new HashSet<>();
+
+		MembershipVisitor(String container, String membershipResource, String hasMemberRelation) {
+			this.container = container;
+			this.membershipResource = membershipResource;
+			this.hasMemberRelation = hasMemberRelation;
+		}
+
+		@Override
+		public void startPage(Page page) {
+			contained.clear();
+			pageMembers.clear();
+		}
+
+		@Override
+		public void triple(Page page, Triple triple) {
+			if (matches(triple, container, CONTAINS)) {
+				contained.add(triple.getObject().getURI());
+			}
+			if (matches(triple, membershipResource, hasMemberRelation)) {
+				pageMembers.add(triple.getObject().getURI());
+			}
+		}
+
+		@Override
+		public void endPage(Page page) {
+			for (String member : contained) {
+				if (!pageMembers.contains(member)) {
+					onlyContained.add(member);
+				}
+			}
+			for (String member : pageMembers) {
+				if (!contained.contains(member)) {
+					onlyMember.add(member);
+				}
+			}
+		}
+
+		Set<String> getSplitMembers() {
+			Set<String> split = new HashSet<>(onlyContained);
+			split.retainAll(onlyMember);
+			return split;
+		}
+	}
+
+	/**
+	 * Checks the ldp:containerSortCriteria of each page. Only the few triples
+	 * describing the criteria are kept, and only until the end of their page.
+	 */
+	private static class SortCriteriaVisitor extends PageVisitor {
+
+		private static final String SORT_CRITERIA = LDP.containerSortCriteria.stringValue();
+		private static final String SORT_PREDICATE = LDP.containerSortPredicate.stringValue();
+		private static final String SORT_ORDER = LDP.containerSortOrder.stringValue();
+		private static final String SORT_COLLATION = LDP.containerSortCollation.stringValue();
+
+		private static final Set<String> KEPT_PREDICATES = new HashSet<>(Arrays.asList(
+				SORT_CRITERIA, SORT_PREDICATE, SORT_ORDER, SORT_COLLATION, RDF.first.getURI(), RDF.rest.getURI()));
+
+		// the only values collations apply to
+		private static final Set<String> STRING_TYPES = new HashSet<>(Arrays.asList(
+				XSDDatatype.XSDstring.getURI(), RDF.getURI() + "langString"));
+
+		private Model criteria;
+
+		// the kinds of values each predicate has on the page, datatypes for literals
+		private final Map<String, Set<String>> valueTypes = new HashMap<>();
+
+		int pages;
+		int pagesWithCriteria;
+		int withoutPredicate;
+		int withoutOrder;
+		int withCollation;
+		String signature;
+		String wrongSubject;
+		String notAList;
+		String differentCriteria;
+		String collationOnNonString;
+
+		@Override
+		public void startPage(Page page) {
+			pages++;
+			criteria = ModelFactory.createDefaultModel();
+			valueTypes.clear();
+		}
+
+		@Override
+		public void triple(Page page, Triple triple) {
+			String predicate = triple.getPredicate().getURI();
+			if (KEPT_PREDICATES.contains(predicate)) {
+				criteria.getGraph().add(triple);
+			}
+
+			Set<String> types = valueTypes.get(predicate);
+			if (types == null) {
+				types = new HashSet<>();
+				valueTypes.put(predicate, types);
+			}
+			Node object = triple.getObject();
+			types.add(object.isLiteral() ? object.getLiteralDatatypeURI() : object.isURI() ? "IRI" : "blank node");
+		}
+
+		@Override
+		public void endPage(Page page) {
+			List<Statement> statements = criteria.listStatements(null, criteria.createProperty(SORT_CRITERIA), (RDFNode) null).toList();
+			if (statements.isEmpty()) {
+				return;
+			}
+
+			pagesWithCriteria++;
+			StringBuilder pageSignature = new StringBuilder();
+			for (Statement statement : statements) {
+				if (wrongSubject == null && !page.getUri().equals(statement.getSubject().getURI())) {
+					wrongSubject = page.getUri();
+				}
+
+				List<RDFNode> list;
+				try {
+					list = statement.getObject().as(RDFList.class).asJavaList();
+				} catch (JenaException e) {
+					if (notAList == null) {
+						notAList = page.getUri();
+					}
+					continue;
+				}
+
+				for (RDFNode node : list) {
+					String predicate = getValue(node, SORT_PREDICATE);
+					String order = getValue(node, SORT_ORDER);
+					String collation = getValue(node, SORT_COLLATION);
+					if (predicate == null) {
+						withoutPredicate++;
+					}
+					if (order == null) {
+						withoutOrder++;
+					}
+					if (collation != null) {
+						withCollation++;
+						Set<String> types = valueTypes.get(predicate);
+						if (collationOnNonString == null && types != null && !STRING_TYPES.containsAll(types)) {
+							collationOnNonString = page.getUri();
+						}
+					}
+					pageSignature.append(predicate).append(' ').append(order).append(' ').append(collation).append('\n');
+				}
+			}
+
+			if (signature == null) {
+				signature = pageSignature.toString();
+			} else if (differentCriteria == null && !signature.equals(pageSignature.toString())) {
+				differentCriteria = page.getUri();
+			}
+			criteria = null;
+		}
+
+		private static String getValue(RDFNode criterion, String property) {
+			if (!criterion.isResource()) {
+				return null;
+			}
+
+			Statement statement = criterion.asResource().getProperty(criterion.getModel().createProperty(property));
+			return statement != null ? statement.getObject().toString() : null;
+		}
+	}
+
 }
@@ -17,6 +17,7 @@ public class RunPagingTest {
 		Logger.getRootLogger().setLevel(Level.OFF);
 		
 		options.addOptionGroup(LdpTestSuite.addCommonOptions());
+		LdpTestSuite.addRunOptions(options);
 		options.addOptionGroup(LdpTestSuite.addEarlOptions());
 
 		// Add classes we want to test
@@ -25,4 +25,11 @@ public class BuildProperties {
 	public static String getRevision() {
 		return properties.getProperty("commit");
 	}
+
+	/**
+	 * @return true if built with the virtual-threads profile
+	 */
+	public static boolean isVirtualThreadsEnabled() {
+		return Boolean.parseBoolean(properties.getProperty("virtualThreads"));
+	}
 }
@@ -1,6 +1,7 @@
 package org.w3.ldp.testsuite;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
@@ -15,23 +16,49 @@ import org.apache.commons.cli.OptionBuilder;
 import org.apache.commons.cli.OptionGroup;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
-import org.testng.IMethodInstance;
-import org.testng.IMethodInterceptor;
-import org.testng.ITestContext;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.jena.atlas.json.JsonParseException;
+import org.testng.ITestNGListener;
 import org.testng.TestNG;
 import org.testng.xml.XmlClass;
 import org.testng.xml.XmlSuite;
 import org.testng.xml.XmlTest;
+import org.w3.ldp.testsuite.capability.CapabilityHook;
+import org.w3.ldp.testsuite.cleanup.CreatedResources;
+import org.w3.ldp.testsuite.cleanup.CreatedResourcesFilter;
+import org.w3.ldp.testsuite.cleanup.ResourceCleaner;
+import org.w3.ldp.testsuite.dashboard.Dashboard;
+import org.w3.ldp.testsuite.http.PooledHttpClientFactory;
+import org.w3.ldp.testsuite.http.ResponseCacheFilter;
+import org.w3.ldp.testsuite.load.LoadGenerator;
+import org.w3.ldp.testsuite.load.LoadOperation;
+import org.w3.ldp.testsuite.load.LoadReport;
+import org.w3.ldp.testsuite.load.Workload;
+import org.w3.ldp.testsuite.metrics.LatencyFilter;
+import org.w3.ldp.testsuite.replay.RecordingFilter;
+import org.w3.ldp.testsuite.replay.RecordingWriter;
+import org.w3.ldp.testsuite.replay.ReplayServer;
+import org.w3.ldp.testsuite.replay.ResourceNames;
+import org.w3.ldp.testsuite.reporter.LdpComparisonReporter;
 import org.w3.ldp.testsuite.reporter.LdpEarlReporter;
 import org.w3.ldp.testsuite.reporter.LdpHtmlReporter;
+import org.w3.ldp.testsuite.reporter.LdpLatencyReporter;
 import org.w3.ldp.testsuite.reporter.LdpTestListener;
+import org.w3.ldp.testsuite.server.EmbeddedLdpServer;
+import org.w3.ldp.testsuite.shard.ShardFilter;
+import org.w3.ldp.testsuite.shard.ShardMerge;
+import org.w3.ldp.testsuite.shard.ShardResultsWriter;
+import org.w3.ldp.testsuite.test.LargeContainerBenchmark;
 import org.w3.ldp.testsuite.test.LdpTest;
 import org.w3.ldp.testsuite.transformer.MethodEnabler;
 import org.w3.ldp.testsuite.util.OptionsHandler;
+import org.w3.ldp.testsuite.util.TaskExecutors;
 
 import com.jayway.restassured.RestAssured;
+import com.jayway.restassured.specification.RequestSpecification;
 
 /**
  * LDP Test Suite Command-Line Interface, a wrapper to {@link org.testng.TestNG}
@@ -45,6 +72,11 @@ public class LdpTestSuite {
 	public static final String NAME = "LDP Test Suite";
 	public static final String SPEC_URI = "http://www.w3.org/TR/ldp";
 	public static final String OUTPUT_DIR = "report";
+	public static final int DEFAULT_THREADS = 5;
+	public static final String DEFAULT_LOAD_MIX = "create=2,read=6,update=2";
+	public static final int DEFAULT_LOAD_USERS = 10;
+	public static final int DEFAULT_LOAD_DURATION = 60;
+	public static final int DEFAULT_LOAD_MAX_ERROR_RATE = 1; // percent
 
 	static final String[] EARLDEPEDENTARGS = {"software", "developer", "language", "homepage", "assertor", "shortname"};
 
@@ -52,10 +84,41 @@ public class LdpTestSuite {
 
 	private final List<XmlClass> classList; // for test types to add in
 
+	// the tests of each container type when --server has several, see run()
+	private final Map<XmlTest, XmlClass> containerTests = new LinkedHashMap<>();
+
 	private final String reportTitle;
 
 	private String outputDir;
 
+	private PooledHttpClientFactory httpClientFactory;
+
+	private RecordingWriter recordingWriter;
+
+	private ReplayServer replayServer;
+
+	private EmbeddedLdpServer embeddedServer;
+
+	private Dashboard dashboard;
+
+	private LoadGenerator loadGenerator;
+
+	private int loadUsers;
+
+	private int loadRate;
+
+	private int loadConcurrency;
+
+	private int loadDuration;
+
+	private int loadMaxErrorRate;
+
+	private int loadStatus;
+
+	private int cleanupThreads = ResourceCleaner.DEFAULT_THREADS;
+
+	private String auth;
+
 	enum ContainerType {
 		BASIC, DIRECT, INDIRECT
 	}
@@ -112,6 +175,9 @@ public class LdpTestSuite {
 
 		testng.setDefaultSuiteName(NAME);
 
+		// before any executor is created
+		TaskExecutors.setVirtualThreads(options.hasOption("virtualThreads"));
+
 		// create XmlSuite instance
 		XmlSuite testsuite = new XmlSuite();
 		testsuite.setName(NAME);
@@ -138,10 +204,6 @@ public class LdpTestSuite {
 			}
 		}
 
-		// create XmlTest instance
-		XmlTest test = new XmlTest(testsuite);
-		test.setName("W3C Linked Data Platform Tests");
-
 		// Add any parameters that you want to set to the Test.
 		// Test suite parameters
 		final Map<String, String> parameters = new HashMap<>();
@@ -153,20 +215,84 @@ public class LdpTestSuite {
 		}
 		parameters.put("output", outputDir);
 
-		final String server;
-		if (options.hasOption("server")) {
-			server = options.getOptionValue("server");
-			if (StringUtils.startsWith(server, "https:")) { // allow self-signed certificates for development servers
-				RestAssured.useRelaxedHTTPSValidation();
+		final int maxConnections = getIntOption(options, "maxConnections", PooledHttpClientFactory.DEFAULT_MAX_CONNECTIONS, 1);
+
+		final Map<ContainerType, String> servers;
+		// the same container type on several servers, by name
+		final Map<String, String> compared;
+		if (options.hasOption("compare")) {
+			if (options.hasOption("server") || options.hasOption("embedded")) {
+				throw new IllegalArgumentException("ERROR: --compare can't be used with --server or --embedded");
 			}
-			try {
-				checkUriScheme(server);
-			} catch (Exception e) {
-				throw new IllegalArgumentException("ERROR: invalid server uri, " + e.getLocalizedMessage());
+			servers = Collections.emptyMap();
+			compared = getComparedServers(options);
+		} else if (options.hasOption("embedded")) {
+			if (options.hasOption("server")) {
+				throw new IllegalArgumentException("ERROR: --server and --embedded can't be used together");
 			}
+			ContainerType type = getSelectedType(options);
+			servers = Collections.singletonMap(type, startEmbeddedServer(type, maxConnections * 2));
+			compared = Collections.emptyMap();
+		} else if (options.hasOption("server")) {
+			servers = getServers(options);
+			compared = Collections.emptyMap();
 		} else {
 			throw new IllegalArgumentException("ERROR: missing server uri");
 		}
+		final List<String> uris = new ArrayList<>(servers.values());
+		uris.addAll(compared.values());
+		final String server = uris.get(0);
+
+		boolean https = false;
+		for (String uri : uris) {
+			https |= StringUtils.startsWith(uri, "https:");
+		}
+
+		// one pooled HTTP client shared by all requests
+		httpClientFactory = new PooledHttpClientFactory(
+				maxConnections,
+				getIntOption(options, "keepAlive", PooledHttpClientFactory.DEFAULT_KEEP_ALIVE, 0),
+				getIntOption(options, "tlsSessionCache", PooledHttpClientFactory.DEFAULT_TLS_SESSION_CACHE, 0),
+				https); // allow self-signed certificates for development servers
+		if (options.hasOption("record") && options.hasOption("replay")) {
+			throw new IllegalArgumentException("ERROR: --record and --replay can't be used together");
+		}
+		if (options.hasOption("replay")) {
+			// answer from a recording instead of the server
+			final File recording = new File(options.getOptionValue("replay"));
+			try {
+				replayServer = ReplayServer.start(recording, maxConnections * 2);
+			} catch (IOException e) {
+				throw new IllegalArgumentException("ERROR: invalid recording, " + e.getLocalizedMessage());
+			}
+			httpClientFactory.setStandIn(replayServer.getAddress());
+			// ask for the same made-up URIs as the recorded run
+			ResourceNames.setSeed(replayServer.getSeed());
+			System.out.println(String.format("Replaying %d recorded HTTP exchanges from %s",
+					replayServer.getRecordedExchanges(), recording));
+		}
+		PooledHttpClientFactory.install(httpClientFactory);
+
+		if (options.hasOption("cache")) {
+			RestAssured.filters(new ResponseCacheFilter());
+		}
+
+		// remember what the tests create so it can be deleted at the end
+		RestAssured.filters(new CreatedResourcesFilter());
+
+		// latency of every request for the reports
+		RestAssured.filters(new LatencyFilter());
+
+		if (options.hasOption("record")) {
+			// added last, so it records exactly what goes over the network
+			try {
+				recordingWriter = new RecordingWriter(new File(options.getOptionValue("record")));
+			} catch (IOException e) {
+				throw new IllegalArgumentException("ERROR: can't create recording, " + e.getLocalizedMessage());
+			}
+			RestAssured.filters(new RecordingFilter(recordingWriter));
+			ResourceNames.setSeed(recordingWriter.getSeed());
+		}
 
 		// Listener injection from options
 		final String[] listeners;
@@ -189,6 +315,10 @@ public class LdpTestSuite {
 		testng.addListener(new MethodEnabler());
 
 		testng.addListener(new LdpTestListener());
+		if (options.hasOption("dashboard")) {
+			startDashboard(getIntOption(options, "dashboard", 0, 0));
+			testng.addListener(dashboard);
+		}
 		LdpHtmlReporter reporter = new LdpHtmlReporter();
 		if (StringUtils.isNotBlank(reportTitle)) {
 			reporter.setTitle(reportTitle);
@@ -196,13 +326,29 @@ public class LdpTestSuite {
 		reporter.setOutputDirectory(outputDir);
 		testng.addListener(reporter);
 
+		LdpLatencyReporter latencyReporter = new LdpLatencyReporter();
+		if (StringUtils.isNotBlank(reportTitle)) {
+			latencyReporter.setTitle(reportTitle);
+		}
+		latencyReporter.setOutputDirectory(outputDir);
+		testng.addListener(latencyReporter);
+
+		if (!compared.isEmpty()) {
+			LdpComparisonReporter comparisonReporter = new LdpComparisonReporter();
+			if (StringUtils.isNotBlank(reportTitle)) {
+				comparisonReporter.setTitle(reportTitle);
+			}
+			comparisonReporter.setOutputDirectory(outputDir);
+			testng.addListener(comparisonReporter);
+		}
+
 		if (options.hasOption("earl")) {
 			LdpEarlReporter earlReport = new LdpEarlReporter();
 			if (StringUtils.isNotBlank(reportTitle)) {
 				earlReport.setTitle(reportTitle);
 			}
 			earlReport.setOutputDirectory(outputDir);
-			testng.addListener(earlReport);
+			testng.addListener((ITestNGListener) earlReport);
 
 			// required --earl args
 			for (String arg: EARLDEPEDENTARGS) {
@@ -243,6 +389,7 @@ public class LdpTestSuite {
 					String[] split = auth.split(":");
 					if (split.length == 2 && StringUtils.isNotBlank(split[0]) && StringUtils.isNotBlank(split[1])) {
 						parameters.put("auth", auth);
+						this.auth = auth;
 				} else {
 					throw new IllegalArgumentException("ERROR: invalid basic authentication credentials");
 				}
@@ -269,20 +416,35 @@ public class LdpTestSuite {
 			parameters.put("memberResource", memberResource);
 		}
 
-		ContainerType type = getSelectedType(options);
-		switch (type) {
-			case BASIC:
-				classList.add(new XmlClass("org.w3.ldp.testsuite.test.BasicContainerTest"));
-				parameters.put("basicContainer", server);
-				break;
-			case DIRECT:
-				classList.add(new XmlClass("org.w3.ldp.testsuite.test.DirectContainerTest"));
-				parameters.put("directContainer", server);
-				break;
-			case INDIRECT:
-				classList.add(new XmlClass("org.w3.ldp.testsuite.test.IndirectContainerTest"));
-				parameters.put("indirectContainer", server);
-				break;
+		final List<XmlTest> tests = new ArrayList<>();
+		if (compared.isEmpty() && servers.size() == 1) {
+			// run test methods or classes concurrently
+			if (options.hasOption("parallel") || options.hasOption("threads")) {
+				testsuite.setParallel(getParallelMode(options));
+				testsuite.setThreadCount(getThreadCount(options));
+			}
+
+			ContainerType type = servers.keySet().iterator().next();
+			XmlTest test = new XmlTest(testsuite);
+			test.setName("W3C Linked Data Platform Tests");
+			classList.add(new XmlClass(getContainerTestClass(type)));
+			parameters.put(getContainerParameter(type), server);
+			test.setXmlClasses(classList);
+			tests.add(test);
+		} else {
+			// one test per container type or compared server, all running at
+			// once with the same HTTP client and capability probes
+			testsuite.setParallel(XmlSuite.ParallelMode.TESTS);
+			testsuite.setThreadCount(uris.size());
+			for (Map.Entry<ContainerType, String> entry : servers.entrySet()) {
+				ContainerType type = entry.getKey();
+				tests.add(createContainerTest(testsuite, type.name().toLowerCase(), type, entry.getValue(), options));
+			}
+			for (Map.Entry<String, String> entry : compared.entrySet()) {
+				XmlTest test = createContainerTest(testsuite, entry.getKey(), getSelectedType(options), entry.getValue(), options);
+				test.addParameter(LdpComparisonReporter.SERVER_NAME, entry.getKey());
+				tests.add(test);
+			}
 		}
 
 		classList.add(new XmlClass("org.w3.ldp.testsuite.test.MemberResourceTest"));
@@ -292,6 +454,16 @@ public class LdpTestSuite {
 			classList.add(new XmlClass("org.w3.ldp.testsuite.test.NonRDFSourceTest"));
 		}
 
+		if (options.hasOption("benchmark")) {
+			classList.add(new XmlClass("org.w3.ldp.testsuite.test.LargeContainerBenchmark"));
+			testsuite.addIncludedGroup(LargeContainerBenchmark.BENCHMARK);
+			if (options.hasOptionWithValue("benchmark")) {
+				parameters.put("benchmarkSizes", options.getOptionValue("benchmark"));
+			}
+			// as many POSTs at once as there are connections
+			parameters.put("benchmarkThreads", Integer.toString(maxConnections));
+		}
+
 		if (options.hasOption("httpLogging")) {
 			parameters.put("httpLogging", "true");
 		}
@@ -300,10 +472,23 @@ public class LdpTestSuite {
 			parameters.put("skipLogging", "true");
 		}
 
-		test.setXmlClasses(classList);
+		if (options.hasOption("cleanupThreads")) {
+			cleanupThreads = getIntOption(options, "cleanupThreads", ResourceCleaner.DEFAULT_THREADS, 1);
+			parameters.put("cleanupThreads", Integer.toString(cleanupThreads));
+		}
 
-		final List<XmlTest> tests = new ArrayList<>();
-		tests.add(test);
+		if (options.hasOption("record") || options.hasOption("replay")) {
+			// identical requests are answered in the recorded order, so don't
+			// create test resources in the background, in a different order
+			parameters.put("fixtureThreads", "0");
+		}
+
+		if (options.hasOption("load")) {
+			if (uris.size() > 1) {
+				throw new IllegalArgumentException("ERROR: --load runs against a single --server");
+			}
+			setupLoad(options, server, maxConnections);
+		}
 
 		testsuite.setParameters(parameters);
 		testsuite.setTests(tests);
@@ -313,28 +498,202 @@ public class LdpTestSuite {
 		testng.setXmlSuites(suites);
 
 		if (options.hasOption("test")) {
-			final String[] testNamePatterns = options.getOptionValues("test");
-			for (int i = 0; i < testNamePatterns.length; i++) {
-				// We support only * as a wildcard character to keep the command line simple.
-				// Convert the wildcard pattern into a regex to use internally.
-				testNamePatterns[i] = wildcardPatternToRegex(testNamePatterns[i]);
+			// Add a method intercepter to filter the list for matching tests.
+			testng.addListener(new TestNameFilter(options.getOptionValues("test")));
+		}
+
+		if (options.hasOptionWithValue("shard")) {
+			// only this process' part of the tests, with its results for --merge
+			ShardFilter shard = ShardFilter.parse(options.getOptionValue("shard"));
+			testng.addListener(shard);
+			testng.addListener((ITestNGListener) new ShardResultsWriter(outputDir, StringUtils.defaultIfBlank(reportTitle, "ldp-testsuite"), shard));
+		}
+
+		if (options.hasOption("probe")) {
+			// skip tests the server can't run before they send a request,
+			// it only sees the tests left by --test and --shard
+			testng.addListener(new CapabilityHook());
+		}
+	}
+
+	/**
+	 * Sets up a <code>--load</code> run instead of the tests. The workload
+	 * sends the same requests as the tests, see {@link LoadOperation}.
+	 */
+	private void setupLoad(OptionsHandler options, String server, int maxConnections) {
+		if (options.hasOption("users") && options.hasOption("rate")) {
+			throw new IllegalArgumentException("ERROR: --users and --rate can't be used together");
+		}
+		loadUsers = getIntOption(options, "users", DEFAULT_LOAD_USERS, 1);
+		loadRate = getIntOption(options, "rate", 0, 1);
+		loadDuration = getIntOption(options, "duration", DEFAULT_LOAD_DURATION, 1);
+		loadMaxErrorRate = getIntOption(options, "maxErrorRate", DEFAULT_LOAD_MAX_ERROR_RATE, 0);
+
+		String mix = options.hasOptionWithValue("load") ? options.getOptionValue("load") : DEFAULT_LOAD_MIX;
+		if (!options.hasOptionWithValue("load") && options.hasOption("non-rdf")) {
+			mix += ",upload=1";
+		}
+		Map<LoadOperation, Integer> operations = parseLoadMix(mix);
+
+		byte[] binaryContent = null;
+		if (operations.containsKey(LoadOperation.UPLOAD)) {
+			try {
+				binaryContent = IOUtils.toByteArray(getClass().getResourceAsStream("/test.png"));
+			} catch (IOException e) {
+				throw new IllegalArgumentException("ERROR: can't read the LDP-NR content, " + e.getLocalizedMessage());
 			}
+		}
 
-			// Add a method intercepter to filter the list for matching tests.
-			testng.addListener(new IMethodInterceptor() {
-				@Override
-				public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
-					ArrayList<IMethodInstance> toRun = new ArrayList<>();
-					for (IMethodInstance method : methods) {
-						for (String testNamePattern : testNamePatterns) {
-							if (method.getMethod().getMethodName().matches(testNamePattern)) {
-								toRun.add(method);
-							}
-						}
-					}
-					return toRun;
+		final String postTtl = options.hasOption("postTtl") ? options.getOptionValue("postTtl") : null;
+		Workload workload = new Workload(server, LdpTest.getPostTemplate(postTtl), binaryContent, "image/png") {
+			@Override
+			protected RequestSpecification newRequest() {
+				return newBaseRequest(auth);
+			}
+		};
+		loadGenerator = new LoadGenerator(workload, operations);
+
+		// with --rate, more operations at once than connections would only wait
+		loadConcurrency = maxConnections;
+	}
+
+	private static Map<LoadOperation, Integer> parseLoadMix(String mix) {
+		Map<LoadOperation, Integer> operations = new EnumMap<>(LoadOperation.class);
+		for (String entry : StringUtils.split(mix, ", ")) {
+			String name = StringUtils.substringBefore(entry, "=");
+			int weight = 1;
+			if (entry.contains("=")) {
+				weight = NumberUtils.toInt(StringUtils.substringAfter(entry, "="), -1);
+				if (weight < 0) {
+					throw new IllegalArgumentException("ERROR: invalid load mix " + mix + ", expected operation=weight pairs");
 				}
-			});
+			}
+			operations.put(LoadOperation.forName(name), weight);
+		}
+
+		return operations;
+	}
+
+	/**
+	 * Starts the in-memory server of <code>--embedded</code>.
+	 *
+	 * @return the container of {@code type} to run the tests against
+	 */
+	private String startEmbeddedServer(ContainerType type, int threads) {
+		try {
+			embeddedServer = EmbeddedLdpServer.start(threads);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("ERROR: can't start the embedded server, " + e.getLocalizedMessage());
+		}
+		System.out.println(String.format("Running against the embedded LDP server at %s", embeddedServer.getBaseUri()));
+
+		switch (type) {
+			case DIRECT:
+				return embeddedServer.getDirectContainer();
+			case INDIRECT:
+				return embeddedServer.getIndirectContainer();
+			default:
+				return embeddedServer.getBasicContainer();
+		}
+	}
+
+	/**
+	 * Reads <code>--server</code>, either a single container of the type
+	 * selected by <code>--direct</code> or <code>--indirect</code>, or one
+	 * <code>type=uri</code> per container type.
+	 */
+	private Map<ContainerType, String> getServers(OptionsHandler options) {
+		final Map<ContainerType, String> servers = new LinkedHashMap<>();
+		final String[] values = options.getOptionValues("server");
+		for (String value : values) {
+			ContainerType type;
+			String uri;
+			if (value.matches("(?i)(basic|direct|indirect)=.*")) {
+				int equals = value.indexOf('=');
+				type = ContainerType.valueOf(value.substring(0, equals).toUpperCase());
+				uri = value.substring(equals + 1).trim();
+			} else if (values.length == 1) {
+				type = getSelectedType(options);
+				uri = value;
+			} else {
+				throw new IllegalArgumentException("ERROR: invalid server " + value + ", several servers must be given as type=uri");
+			}
+
+			try {
+				checkUriScheme(uri);
+			} catch (Exception e) {
+				throw new IllegalArgumentException("ERROR: invalid server uri, " + e.getLocalizedMessage());
+			}
+			if (servers.put(type, uri) != null) {
+				throw new IllegalArgumentException("ERROR: more than one " + type.name().toLowerCase() + " container server");
+			}
+		}
+
+		return servers;
+	}
+
+	/**
+	 * Reads the <code>name=uri</code> values of <code>--compare</code>.
+	 */
+	private Map<String, String> getComparedServers(OptionsHandler options) {
+		final Map<String, String> compared = new LinkedHashMap<>();
+		for (String value : options.getOptionValues("compare")) {
+			int equals = value.indexOf('=');
+			if (equals < 1) {
+				throw new IllegalArgumentException("ERROR: invalid compared server " + value + ", expected name=uri");
+			}
+			String name = value.substring(0, equals).trim();
+			String uri = value.substring(equals + 1).trim();
+			try {
+				checkUriScheme(uri);
+			} catch (Exception e) {
+				throw new IllegalArgumentException("ERROR: invalid server uri, " + e.getLocalizedMessage());
+			}
+			if (compared.put(name, uri) != null) {
+				throw new IllegalArgumentException("ERROR: more than one compared server named " + name);
+			}
+		}
+
+		return compared;
+	}
+
+	/**
+	 * Creates the test of one container when the suite runs several, its
+	 * classes are set in {@link #run()}.
+	 */
+	private XmlTest createContainerTest(XmlSuite testsuite, String name, ContainerType type, String uri, OptionsHandler options) {
+		XmlTest test = new XmlTest(testsuite);
+		test.setName("W3C Linked Data Platform Tests (" + name + ")");
+		final Map<String, String> parameters = new HashMap<>();
+		parameters.put(getContainerParameter(type), uri);
+		test.setParameters(parameters);
+		if (options.hasOption("parallel") || options.hasOption("threads")) {
+			test.setParallel(getParallelMode(options));
+			test.setThreadCount(getThreadCount(options));
+		}
+		containerTests.put(test, new XmlClass(getContainerTestClass(type)));
+		return test;
+	}
+
+	private static String getContainerTestClass(ContainerType type) {
+		switch (type) {
+			case DIRECT:
+				return "org.w3.ldp.testsuite.test.DirectContainerTest";
+			case INDIRECT:
+				return "org.w3.ldp.testsuite.test.IndirectContainerTest";
+			default:
+				return "org.w3.ldp.testsuite.test.BasicContainerTest";
+		}
+	}
+
+	private static String getContainerParameter(ContainerType type) {
+		switch (type) {
+			case DIRECT:
+				return "directContainer";
+			case INDIRECT:
+				return "indirectContainer";
+			default:
+				return "basicContainer";
 		}
 	}
 
@@ -348,6 +707,53 @@ public class LdpTestSuite {
 		}
 	}
 
+	private XmlSuite.ParallelMode getParallelMode(OptionsHandler options) {
+		if (!options.hasOptionWithValue("parallel")) {
+			return XmlSuite.ParallelMode.METHODS;
+		}
+
+		final String parallel = options.getOptionValue("parallel");
+		if ("methods".equalsIgnoreCase(parallel)) {
+			return XmlSuite.ParallelMode.METHODS;
+		} else if ("classes".equalsIgnoreCase(parallel)) {
+			return XmlSuite.ParallelMode.CLASSES;
+		} else {
+			throw new IllegalArgumentException("ERROR: invalid parallel mode " + parallel + ", expected methods or classes");
+		}
+	}
+
+	private int getThreadCount(OptionsHandler options) {
+		return getIntOption(options, "threads", DEFAULT_THREADS, 1);
+	}
+
+	/**
+	 * Starts the live results page of <code>--dashboard</code>.
+	 */
+	private void startDashboard(int port) {
+		try {
+			dashboard = Dashboard.start(port);
+		} catch (IOException | IllegalArgumentException e) {
+			throw new IllegalArgumentException("ERROR: can't start the dashboard, " + e.getLocalizedMessage());
+		}
+		System.out.println(String.format("Live results at %s", dashboard.getUri()));
+	}
+
+	private int getIntOption(OptionsHandler options, String name, int defaultValue, int minValue) {
+		if (!options.hasOptionWithValue(name)) {
+			return defaultValue;
+		}
+
+		try {
+			final int value = Integer.parseInt(options.getOptionValue(name).trim());
+			if (value < minValue) {
+				throw new IllegalArgumentException("ERROR: invalid " + name + " value, it must be at least " + minValue);
+			}
+			return value;
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("ERROR: invalid " + name + " value, " + e.getLocalizedMessage());
+		}
+	}
+
 	public void addTestClass(String klass) {
 		addTestClass(new XmlClass(klass));
 	}
@@ -360,7 +766,7 @@ public class LdpTestSuite {
 		this.classList.addAll(classes);
 	}
 
-	public String wildcardPatternToRegex(String wildcardPattern) {
+	public static String wildcardPatternToRegex(String wildcardPattern) {
 		// use lookarounds and zero-width matches to include the * delimeter in the result
 		String[] tokens = wildcardPattern.split("(?<=\\*)|(?=\\*)");
 		StringBuilder builder = new StringBuilder();
@@ -376,11 +782,84 @@ public class LdpTestSuite {
 	}
 
 	public void run() {
-		testng.run();
+		try {
+			if (loadGenerator != null) {
+				runLoad();
+			} else {
+				// the classes added after setup run once per server, with the
+				// first container type, or their results would be reported
+				// several times under the same test names
+				boolean added = false;
+				for (Map.Entry<XmlTest, XmlClass> entry : containerTests.entrySet()) {
+					List<XmlClass> classes = new ArrayList<>();
+					classes.add(entry.getValue());
+					boolean compared = entry.getKey().getParameter(LdpComparisonReporter.SERVER_NAME) != null;
+					if (compared || !added) {
+						for (XmlClass klass : classList) {
+							classes.add((XmlClass) klass.clone());
+						}
+						added |= !compared;
+					}
+					entry.getKey().setXmlClasses(classes);
+				}
+				testng.run();
+			}
+		} finally {
+			httpClientFactory.shutdown();
+			if (recordingWriter != null) {
+				try {
+					recordingWriter.close();
+				} catch (IOException e) {
+					System.err.println("WARNING: Error closing the HTTP recording");
+					e.printStackTrace();
+				}
+			}
+			if (replayServer != null) {
+				replayServer.stop();
+			}
+			ResourceNames.setSeed(null);
+			if (embeddedServer != null) {
+				embeddedServer.stop();
+			}
+			if (dashboard != null) {
+				dashboard.stop();
+			}
+		}
+	}
+
+	private void runLoad() {
+		File dir = new File(outputDir);
+		dir.mkdirs();
+		CreatedResources.openManifest(dir);
+
+		System.out.println(String.format("Generating load on the server for %d seconds...", loadDuration));
+		LoadReport report = loadRate > 0
+				? loadGenerator.runRate(loadRate, loadDuration, loadConcurrency)
+				: loadGenerator.runUsers(loadUsers, loadDuration);
+		report.print(System.out);
+		if (report.getCount() == report.getErrors() || report.getErrorRate() > loadMaxErrorRate) {
+			System.err.println(String.format("ERROR: %.1f%% of the load operations failed, more than the %d%% allowed by --maxErrorRate",
+					report.getErrorRate(), loadMaxErrorRate));
+			loadStatus = 1;
+		}
+		try {
+			report.write(new File(dir, StringUtils.defaultIfBlank(reportTitle, "ldp-testsuite") + "-load.json"));
+		} catch (IOException e) {
+			System.err.println("WARNING: Error writing the load report");
+			e.printStackTrace();
+		}
+
+		CreatedResources.deleteAll(new ResourceCleaner(cleanupThreads) {
+			@Override
+			protected RequestSpecification newRequest() {
+				return newBaseRequest(auth);
+			}
+		});
 	}
 
 	public int getStatus() {
-		return testng.getStatus();
+		// a load run has no tests, it fails on too many errors
+		return loadGenerator != null ? loadStatus : testng.getStatus();
 	}
 
 	public String getOutputDir() {
@@ -407,6 +886,14 @@ public class LdpTestSuite {
 		executeTestSuite(args, options, reportTitle, Collections.<XmlClass>emptyList());
 	}
 	public static void executeTestSuite(String[] args, Options options, String reportTitle, List<XmlClass> classes) {
+		// checked before parsing, the options otherwise required don't apply
+		if (Arrays.asList(args).contains("--cleanup")) {
+			System.exit(executeCleanup(args, options));
+		}
+		if (Arrays.asList(args).contains("--merge")) {
+			System.exit(executeMerge(args, options, reportTitle));
+		}
+
 		// actual test suite execution
 		try {
 			CommandLine cmd = LdpTestSuite.getCommandLine(options, args);
@@ -422,6 +909,119 @@ public class LdpTestSuite {
 		}
 	}
 
+	/**
+	 * Deletes the resources listed in the manifest of an earlier run, for
+	 * instance one that was interrupted before it could clean up.
+	 *
+	 * @return the exit status, 0 if all resources are gone
+	 */
+	private static int executeCleanup(String[] args, Options options) {
+		Options cleanupOptions = new Options();
+		for (String name : new String[] { "cleanup", "auth", "cleanupThreads" }) {
+			cleanupOptions.addOption(options.getOption(name));
+		}
+
+		CommandLine cmd;
+		try {
+			cmd = new BasicParser().parse(cleanupOptions, args);
+		} catch (ParseException e) {
+			System.err.println("ERROR: " + e.getLocalizedMessage() + " (only --auth and --cleanupThreads can be used with --cleanup)");
+			return -1;
+		}
+
+		final String auth = cmd.getOptionValue("auth");
+		int threads = ResourceCleaner.DEFAULT_THREADS;
+		if (cmd.hasOption("cleanupThreads")) {
+			threads = NumberUtils.toInt(cmd.getOptionValue("cleanupThreads"), threads);
+		}
+
+		File manifest = new File(cmd.getOptionValue("cleanup"));
+		try {
+			List<String> uris = CreatedResources.readManifest(manifest);
+			List<String> failed = new ResourceCleaner(threads) {
+				@Override
+				protected RequestSpecification newRequest() {
+					return newBaseRequest(auth);
+				}
+			}.delete(uris);
+
+			CreatedResources.writeManifest(manifest, failed);
+			System.out.println(String.format("Deleted %d of %d resources listed in %s", uris.size() - failed.size(), uris.size(), manifest));
+			for (String uri : failed) {
+				System.err.println("ERROR: Could not delete " + uri);
+			}
+
+			return failed.isEmpty() ? 0 : 1;
+		} catch (IOException e) {
+			System.err.println("ERROR: " + e.getLocalizedMessage());
+			return -1;
+		}
+	}
+
+	/**
+	 * Writes the reports of a run that was split with <code>--shard</code>
+	 * from the results of all its shards. The EARL report is written too if
+	 * the shards ran with <code>--earl</code>.
+	 *
+	 * @return the exit status, like the status of a run
+	 */
+	private static int executeMerge(String[] args, Options options, String reportTitle) {
+		Options mergeOptions = new Options();
+		for (String name : new String[] { "merge", "output" }) {
+			mergeOptions.addOption(options.getOption(name));
+		}
+
+		CommandLine cmd;
+		try {
+			cmd = new BasicParser().parse(mergeOptions, args);
+		} catch (ParseException e) {
+			System.err.println("ERROR: " + e.getLocalizedMessage() + " (only --output can be used with --merge)");
+			return -1;
+		}
+
+		List<File> files = new ArrayList<>();
+		for (String file : cmd.getOptionValues("merge")) {
+			files.add(new File(file));
+		}
+		String output = cmd.getOptionValue("output");
+		String outputDir = output != null ? output + File.separator + OUTPUT_DIR : OUTPUT_DIR;
+		String title = StringUtils.defaultIfBlank(reportTitle, "ldp-testsuite");
+
+		ShardMerge merge;
+		try {
+			merge = ShardMerge.read(files);
+		} catch (IOException | JsonParseException e) {
+			System.err.println("ERROR: " + e.getLocalizedMessage());
+			return -1;
+		}
+		System.out.println(String.format("Merging %d test results from %d shards", merge.size(), files.size()));
+
+		TestNG testng = merge.createTestNG();
+		if (output != null) {
+			testng.setOutputDirectory(output + File.separator + TestNG.DEFAULT_OUTPUTDIR);
+		}
+		LdpHtmlReporter reporter = new LdpHtmlReporter();
+		reporter.setTitle(title);
+		reporter.setOutputDirectory(outputDir);
+		testng.addListener(reporter);
+		if (merge.hasParameter("assertor")) {
+			LdpEarlReporter earlReport = new LdpEarlReporter();
+			earlReport.setTitle(title);
+			earlReport.setOutputDirectory(outputDir);
+			testng.addListener((ITestNGListener) earlReport);
+		}
+		testng.run();
+
+		return testng.getStatus();
+	}
+
+	private static RequestSpecification newBaseRequest(String auth) {
+		RequestSpecification spec = RestAssured.given();
+		if (StringUtils.contains(auth, ":")) {
+			spec.auth().preemptive().basic(StringUtils.substringBefore(auth, ":"), StringUtils.substringAfter(auth, ":"));
+		}
+		return spec;
+	}
 
 	private static void printUsage(Options options) {
 		HelpFormatter formatter = new HelpFormatter();
@@ -456,8 +1056,8 @@ public class LdpTestSuite {
 	public static OptionGroup addCommonOptions() {
 		OptionGroup common = new OptionGroup();
 		common.addOption(OptionBuilder.withLongOpt("server")
-				.withDescription("server url to run the test suite").hasArg()
-				.withArgName("server").isRequired().create());
+				.withDescription("server url to run the test suite, or one type=url for each of basic, direct and indirect to test several container types at once").hasArgs()
+				.withArgName("server").isRequired(false).create());
 
 		common.addOption(OptionBuilder.withLongOpt("auth")
 				.withDescription("server basic authentication credentials following the syntax username:password").hasArg()
@@ -501,6 +1101,131 @@ public class LdpTestSuite {
 		return common;
 	}
 
+	/**
+	 * Adds the options for how the tests run. They can be combined with each
+	 * other and with the common options, so they aren't in a group.
+	 */
+	@SuppressWarnings("static-access")
+	public static void addRunOptions(Options options) {
+		options.addOption(OptionBuilder.withLongOpt("threads")
+				.withDescription("number of threads used to run tests concurrently (" + DEFAULT_THREADS + " by default when --parallel is set)")
+				.hasArg().withArgName("threads")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("parallel")
+				.withDescription("run test methods or classes concurrently: methods (default) or classes")
+				.hasOptionalArg().withArgName("methods|classes")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("maxConnections")
+				.withDescription("maximum number of pooled HTTP connections per host (" + PooledHttpClientFactory.DEFAULT_MAX_CONNECTIONS + " by default)")
+				.hasArg().withArgName("connections")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("keepAlive")
+				.withDescription("seconds to keep idle HTTP connections alive if the server doesn't say (" + PooledHttpClientFactory.DEFAULT_KEEP_ALIVE + " by default, 0 disables keep-alive)")
+				.hasArg().withArgName("seconds")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("tlsSessionCache")
+				.withDescription("number of TLS sessions cached for resumption (" + PooledHttpClientFactory.DEFAULT_TLS_SESSION_CACHE + " by default, 0 for no limit)")
+				.hasArg().withArgName("sessions")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("cache")
+				.withDescription("cache GET responses with an ETag and revalidate them with If-None-Match")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("probe")
+				.withDescription("probe server capabilities first and skip the tests it can't support without running them")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("record")
+				.withDescription("record all HTTP requests and responses to a file for --replay")
+				.hasArg().withArgName("file")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("replay")
+				.withDescription("answer all HTTP requests from a file written with --record instead of the server")
+				.hasArg().withArgName("file")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("embedded")
+				.withDescription("run against an in-memory LDP server on a free local port instead of --server, "
+						+ "for testing the test suite and measuring its own overhead")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("compare")
+				.withDescription("run against several servers at once instead of --server, each given as name=url, "
+						+ "and write a side-by-side matrix of their outcomes and request times")
+				.hasArgs().withArgName("name=url").create());
+
+		options.addOption(OptionBuilder.withLongOpt("dashboard")
+				.withDescription("show the results, counts and request latencies live on a local web page while the suite runs, "
+						+ "on a free port unless one is given")
+				.hasOptionalArg().withArgName("port")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("cleanupThreads")
+				.withDescription("number of created resources deleted concurrently at the end (" + ResourceCleaner.DEFAULT_THREADS + " by default)")
+				.hasArg().withArgName("threads")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("shard")
+				.withDescription("only run the i-th of n equal parts of the tests, to split a run over several processes. "
+						+ "Tests depending on each other stay together; combine the results with --merge")
+				.hasArg().withArgName("i/n")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("merge")
+				.withDescription("only write the reports of a run split with --shard from the shard result files, then exit")
+				.hasArgs().withArgName("files")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("cleanup")
+				.withDescription("only delete the resources listed in the " + CreatedResources.MANIFEST_FILENAME + " of an earlier run that didn't finish, then exit")
+				.hasArg().withArgName("manifest")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("load")
+				.withDescription("only generate load with the requests of the tests for --duration, then report throughput and latency. "
+						+ "The optional mix weighs the create, read, update and upload operations (" + DEFAULT_LOAD_MIX + " by default)")
+				.hasOptionalArg().withArgName("mix")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("users")
+				.withDescription("number of virtual users running operations one after the other with --load (" + DEFAULT_LOAD_USERS + " by default)")
+				.hasArg().withArgName("users")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("rate")
+				.withDescription("operations started per second with --load no matter how long earlier ones take, instead of --users")
+				.hasArg().withArgName("operations/s")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("duration")
+				.withDescription("how long to generate load with --load (" + DEFAULT_LOAD_DURATION + " by default)")
+				.hasArg().withArgName("seconds")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("maxErrorRate")
+				.withDescription("the percentage of failed --load operations above which the run fails (" + DEFAULT_LOAD_MAX_ERROR_RATE + " by default). "
+						+ "It always fails if no operation succeeded")
+				.hasArg().withArgName("percent")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("benchmark")
+				.withDescription("also fill a new container with members and report how its GET latency, size, parse time and heap use scale. "
+						+ "The optional sizes are comma separated member counts (" + LargeContainerBenchmark.DEFAULT_SIZES + " by default)")
+				.hasOptionalArg().withArgName("sizes")
+				.isRequired(false).create());
+
+		options.addOption(OptionBuilder.withLongOpt("virtualThreads")
+				.withDescription("run load, test resource setup and cleanup on virtual threads, "
+						+ "raise --maxConnections to match (needs Java 21 and a build with -Pvirtual-threads)")
+				.isRequired(false).create());
+	}
+
 	@SuppressWarnings("static-access")
 	public static OptionGroup addEarlOptions() {
 		OptionGroup earl = new OptionGroup();
@@ -14,6 +14,7 @@ public class RunLdpTestSuite {
 		Logger.getRootLogger().setLevel(Level.OFF);
 
 		options.addOptionGroup(LdpTestSuite.addCommonOptions());
+		LdpTestSuite.addRunOptions(options);
 		options.addOptionGroup(LdpTestSuite.addEarlOptions());
 		addContainerOptions();
 
@@ -0,0 +1,53 @@
+package org.w3.ldp.testsuite;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+/**
+ * Runs only the test methods whose names match one of the
+ * <code>--test</code> patterns. Patterns only support * as a wildcard to keep
+ * the command line simple, see {@link LdpTestSuite#wildcardPatternToRegex(String)}.
+ */
+public class TestNameFilter implements IMethodInterceptor {
+
+	private final Pattern[] patterns;
+
+	public TestNameFilter(String... wildcardPatterns) {
+		patterns = new Pattern[wildcardPatterns.length];
+		for (int i = 0; i < wildcardPatterns.length; i++) {
+			// compiled once rather than for every method
+			patterns[i] = Pattern.compile(LdpTestSuite.wildcardPatternToRegex(wildcardPatterns[i]));
+		}
+	}
+
+	/**
+	 * @return true if {@code methodName} matches any of the patterns
+	 */
+	public boolean matches(String methodName) {
+		for (Pattern pattern : patterns) {
+			if (pattern.matcher(methodName).matches()) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+		List<IMethodInstance> toRun = new ArrayList<>();
+		for (IMethodInstance method : methods) {
+			if (matches(method.getMethod().getMethodName())) {
+				toRun.add(method);
+			}
+		}
+
+		return toRun;
+	}
+
+}
@@ -0,0 +1,44 @@
+package org.w3.ldp.testsuite.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.w3.ldp.testsuite.http.HttpMethod;
+
+/**
+ * Server capabilities a test (or all tests of a class) needs. Tests can be
+ * skipped without sending a request when the capability probe finds the
+ * server lacks them.
+ *
+ * @see org.w3.ldp.testsuite.capability.CapabilityHook
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface Requires {
+
+	/**
+	 * HTTP methods the resource under test must allow
+	 */
+	public HttpMethod[] methods() default {};
+
+	/**
+	 * Whether the server must accept arbitrary triples on POST, which isn't
+	 * the case when custom POST content was given with postTtl
+	 */
+	public boolean unrestrictedPostContent() default false;
+
+	/**
+	 * Whether the container must support creating resources with PUT
+	 */
+	public boolean putToCreate() default false;
+
+	/**
+	 * Whether the container must accept non-RDF sources (LDP-NRs)
+	 */
+	public boolean nonRdfSource() default false;
+
+}
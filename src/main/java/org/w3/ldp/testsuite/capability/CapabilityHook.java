@@ -0,0 +1,136 @@
+package org.w3.ldp.testsuite.capability;
+
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.apache.commons.lang3.StringUtils;
+import org.testng.IHookCallBack;
+import org.testng.IHookable;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.w3.ldp.testsuite.annotations.Requires;
+import org.w3.ldp.testsuite.exception.SkipException;
+import org.w3.ldp.testsuite.reporter.LdpComparisonReporter;
+import org.w3.ldp.testsuite.test.CommonContainerTest;
+import org.w3.ldp.testsuite.test.CommonResourceTest;
+import org.w3.ldp.testsuite.test.LdpTest;
+
+/**
+ * Skips the tests that {@link Requires require} something the server doesn't
+ * support before they send any request. A resource is probed when the first
+ * test runs against it, once the fixtures of its test class exist, so only
+ * the resources of tests that actually run are probed. Each server of a
+ * <code>--compare</code> run gets its own profile.
+ */
+public class CapabilityHook implements IHookable {
+
+	// by compared server, "" when there is only one
+	private final ConcurrentMap<String, CapabilityProfile> profiles = new ConcurrentHashMap<>();
+
+	// the probe of each resource by server, the tests of a suite can use different ones
+	private final ConcurrentMap<String, FutureTask<Void>> probes = new ConcurrentHashMap<>();
+
+	@Override
+	public void run(IHookCallBack callBack, ITestResult testResult) {
+		ITestNGMethod method = testResult.getMethod();
+		Requires requires = getRequirements(method);
+		if (requires != null) {
+			Object instance = testResult.getInstance();
+			String uri = getResourceUri(instance);
+			CapabilityProfile profile = getProfile(testResult.getTestContext().getCurrentXmlTest().getAllParameters(),
+					uri, instance instanceof CommonContainerTest);
+			String reason = profile.getSkipReason(requires, uri);
+			if (reason != null) {
+				throw new SkipException(method.getMethodName(), reason, LdpTest.getSkipLog());
+			}
+		}
+
+		callBack.runTestMethod(testResult);
+	}
+
+	private CapabilityProfile getProfile(Map<String, String> parameters, String uri, boolean container) {
+		final String server = StringUtils.defaultString(parameters.get(LdpComparisonReporter.SERVER_NAME));
+		CapabilityProfile profile = profiles.get(server);
+		if (profile == null) {
+			CapabilityProfile created = new CapabilityProfile();
+			created.setPostContentRestricted(parameters.get("postTtl") != null);
+			profile = profiles.putIfAbsent(server, created);
+			if (profile == null) {
+				profile = created;
+			}
+		}
+		if (uri == null) {
+			// no resource, only what's known about the server as a whole applies
+			return profile;
+		}
+
+		// the first test of a resource probes it, the others wait for that
+		// instead of all tests waiting for each other
+		final String key = server + " " + uri;
+		FutureTask<Void> probe = probes.get(key);
+		if (probe == null) {
+			final CapabilityProfile serverProfile = profile;
+			final List<String> resources = Collections.singletonList(uri);
+			final List<String> containers = container ? resources : Collections.<String>emptyList();
+			final CapabilityProbe prober = new CapabilityProbe(parameters.get("auth"));
+			FutureTask<Void> task = new FutureTask<>(new Runnable() {
+				@Override
+				public void run() {
+					prober.probe(serverProfile, resources, containers);
+					PrintWriter httpLog = LdpTest.getHttpLog();
+					if (httpLog != null) {
+						// in one piece, other resources are probed at the same time
+						synchronized (httpLog) {
+							httpLog.println(server.isEmpty() ? "Server capabilities:" : "Server capabilities of " + server + ":");
+							httpLog.println(serverProfile);
+							httpLog.println();
+						}
+					}
+				}
+			}, null);
+			probe = probes.putIfAbsent(key, task);
+			if (probe == null) {
+				probe = task;
+				task.run();
+			}
+		}
+
+		try {
+			probe.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			// the next test of the resource tries again
+			probes.remove(key, probe);
+			throw new IllegalStateException("ERROR: probing <" + uri + "> failed", e.getCause());
+		}
+
+		return profile;
+	}
+
+	private static String getResourceUri(Object instance) {
+		if (instance instanceof CommonResourceTest) {
+			return ((CommonResourceTest) instance).getTestResourceUri();
+		}
+
+		return null;
+	}
+
+	private static Requires getRequirements(ITestNGMethod method) {
+		Method m = method.getConstructorOrMethod().getMethod();
+		Requires requires = m != null ? m.getAnnotation(Requires.class) : null;
+		if (requires == null) {
+			Class<?> testClass = method.getRealClass();
+			requires = testClass.getAnnotation(Requires.class);
+		}
+
+		return requires;
+	}
+}
@@ -0,0 +1,129 @@
+package org.w3.ldp.testsuite.capability;
+
+import java.util.Collection;
+
+import javax.ws.rs.core.UriBuilder;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpStatus;
+import org.w3.ldp.testsuite.http.MediaTypes;
+import org.w3.ldp.testsuite.replay.ResourceNames;
+import org.w3.ldp.testsuite.test.LdpTest;
+
+import com.jayway.restassured.RestAssured;
+import com.jayway.restassured.response.Response;
+import com.jayway.restassured.specification.RequestSpecification;
+
+import static org.w3.ldp.testsuite.http.HttpHeaders.*;
+import static org.w3.ldp.testsuite.http.LdpPreferences.PREFER_CONTAINMENT;
+import static org.w3.ldp.testsuite.matcher.HttpStatusSuccessMatcher.isSuccessful;
+
+/**
+ * Finds out what the server supports before any test runs, using as few
+ * requests as possible.
+ */
+public class CapabilityProbe {
+
+	private static final String PROBE_CONTENT = "<> a <" + LdpTest.DEFAULT_MODEL_TYPE + "> ;\n"
+			+ "  <http://purl.org/dc/terms/title> \"LDP Test Suite capability probe\" .\n";
+
+	private final String username;
+	private final String password;
+
+	/**
+	 * @param auth
+	 *            basic authentication credentials as username:password, may be
+	 *            {@code null}
+	 */
+	public CapabilityProbe(String auth) {
+		if (StringUtils.isNotBlank(auth) && auth.contains(":")) {
+			username = StringUtils.substringBefore(auth, ":");
+			password = StringUtils.substringAfter(auth, ":");
+		} else {
+			username = null;
+			password = null;
+		}
+	}
+
+	/**
+	 * Adds resources to a profile. What is known about the server as a whole
+	 * isn't probed again.
+	 *
+	 * @param profile
+	 *            the profile of the server
+	 * @param resources
+	 *            resources tests will run against
+	 * @param containers
+	 *            the containers among them
+	 */
+	public void probe(CapabilityProfile profile, Collection<String> resources, Collection<String> containers) {
+		for (String uri : resources) {
+			probeOptions(profile, uri);
+		}
+
+		for (String container : containers) {
+			Boolean nonRdfSource = CapabilityProfile.acceptsNonRdfSource(profile.getAcceptPost(container));
+			if (nonRdfSource != null) {
+				profile.setNonRdfSource(nonRdfSource);
+			}
+			if (profile.getPrefer() == null) {
+				profile.setPrefer(probePrefer(container));
+			}
+			if (profile.getPutToCreate() == null && !profile.isPostContentRestricted()) {
+				profile.setPutToCreate(probePutToCreate(container));
+			}
+		}
+	}
+
+	private void probeOptions(CapabilityProfile profile, String uri) {
+		ResourceOptions options = OptionsCache.get(uri, newRequest());
+		if (!options.getAllowedMethods().isEmpty()) {
+			// no Allow header at all says nothing about what is supported
+			profile.setAllowedMethods(uri, options.getAllowedMethods());
+		}
+		if (options.getAcceptPost() != null) {
+			profile.setAcceptPost(uri, options.getAcceptPost());
+		}
+	}
+
+	private Boolean probePrefer(String container) {
+		Response response = newRequest()
+				.header(ACCEPT, MediaTypes.TEXT_TURTLE)
+				.header(PREFER, LdpTest.include(PREFER_CONTAINMENT))
+				.get(container);
+		if (response.getStatusCode() != HttpStatus.SC_OK) {
+			return null;
+		}
+
+		return response.getHeaders().hasHeaderWithName(PREFERNCE_APPLIED);
+	}
+
+	private Boolean probePutToCreate(String container) {
+		String target = UriBuilder.fromUri(container).path(ResourceNames.next(container)).build().toString();
+		Response response = newRequest()
+				.contentType(MediaTypes.TEXT_TURTLE)
+				.body(PROBE_CONTENT)
+				.put(target);
+		int status = response.getStatusCode();
+		if (status == HttpStatus.SC_METHOD_NOT_ALLOWED || status == HttpStatus.SC_CONFLICT) {
+			return false;
+		}
+		if (!isSuccessful().matches(status)) {
+			// like 401, 403 or 5xx, which don't tell if PUT creates resources
+			return null;
+		}
+
+		String location = response.getHeader(LOCATION);
+		newRequest().delete(location != null ? LdpTest.resolveIfRelative(target, location) : target);
+		return true;
+	}
+
+	private RequestSpecification newRequest() {
+		RequestSpecification spec = RestAssured.given();
+		if (username != null) {
+			spec.auth().preemptive().basic(username, password);
+		}
+
+		return spec;
+	}
+}
@@ -0,0 +1,172 @@
+package org.w3.ldp.testsuite.capability;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.w3.ldp.testsuite.annotations.Requires;
+import org.w3.ldp.testsuite.http.HttpMethod;
+import org.w3.ldp.testsuite.http.MediaTypes;
+
+/**
+ * What the server under test supports, as found by {@link CapabilityProbe}.
+ * Capabilities that could not be determined are {@code null} and never cause
+ * a test to be deselected.
+ */
+public class CapabilityProfile {
+
+	private final Map<String, Set<String>> allowedMethods = new ConcurrentHashMap<>();
+	private final Map<String, List<String>> acceptPost = new ConcurrentHashMap<>();
+
+	private volatile Boolean putToCreate;
+	private volatile Boolean prefer;
+	private volatile Boolean nonRdfSource;
+	private volatile boolean postContentRestricted;
+
+	public void setAllowedMethods(String uri, Set<String> methods) {
+		allowedMethods.put(uri, Collections.unmodifiableSet(methods));
+	}
+
+	/**
+	 * @return the methods in the Allow header of {@code uri} or {@code null}
+	 *         if the resource wasn't probed
+	 */
+	public Set<String> getAllowedMethods(String uri) {
+		return allowedMethods.get(uri);
+	}
+
+	public void setAcceptPost(String uri, List<String> mediaTypes) {
+		acceptPost.put(uri, Collections.unmodifiableList(mediaTypes));
+	}
+
+	/**
+	 * @return the media types in the Accept-Post header of {@code uri} or
+	 *         {@code null} if there was none
+	 */
+	public List<String> getAcceptPost(String uri) {
+		return acceptPost.get(uri);
+	}
+
+	public Boolean getPutToCreate() {
+		return putToCreate;
+	}
+
+	public void setPutToCreate(Boolean putToCreate) {
+		this.putToCreate = putToCreate;
+	}
+
+	public Boolean getPrefer() {
+		return prefer;
+	}
+
+	public void setPrefer(Boolean prefer) {
+		this.prefer = prefer;
+	}
+
+	public Boolean getNonRdfSource() {
+		return nonRdfSource;
+	}
+
+	public void setNonRdfSource(Boolean nonRdfSource) {
+		this.nonRdfSource = nonRdfSource;
+	}
+
+	public boolean isPostContentRestricted() {
+		return postContentRestricted;
+	}
+
+	public void setPostContentRestricted(boolean postContentRestricted) {
+		this.postContentRestricted = postContentRestricted;
+	}
+
+	/**
+	 * Checks the requirements of a test against this profile.
+	 *
+	 * @param requires
+	 *            the requirements, may be {@code null}
+	 * @param uri
+	 *            the resource the test runs against, may be {@code null}
+	 * @return why the test can't run or {@code null} if it can (or it isn't
+	 *         known)
+	 */
+	public String getSkipReason(Requires requires, String uri) {
+		if (requires == null) {
+			return null;
+		}
+
+		Set<String> allowed = uri != null ? allowedMethods.get(uri) : null;
+		if (allowed != null) {
+			for (HttpMethod method : requires.methods()) {
+				if (!allowed.contains(method.getName())) {
+					return "Skipping test because the server does not advertise " + method.getName()
+							+ " support through the HTTP OPTIONS response of <" + uri + ">. "
+							+ "This HTTP method is needed for this test.";
+				}
+			}
+		}
+
+		if (requires.unrestrictedPostContent() && postContentRestricted) {
+			return "Skipping test because there are restrictions on POST content. "
+					+ "The requirement needs to be tested manually.";
+		}
+
+		if (requires.putToCreate() && Boolean.FALSE.equals(putToCreate)) {
+			return "Skipping test because the server does not support creating resources with PUT.";
+		}
+
+		if (requires.nonRdfSource() && Boolean.FALSE.equals(nonRdfSource)) {
+			return "Skipping test because the server does not accept non-RDF sources (LDP-NRs).";
+		}
+
+		return null;
+	}
+
+	/**
+	 * Guesses if a container accepts LDP-NRs from its Accept-Post media types.
+	 *
+	 * @return {@code null} if there's no Accept-Post header
+	 */
+	static Boolean acceptsNonRdfSource(List<String> mediaTypes) {
+		if (mediaTypes == null) {
+			return null;
+		}
+
+		for (String mediaType : mediaTypes) {
+			String type = StringUtils.substringBefore(mediaType, ";").trim();
+			if (!MediaTypes.TEXT_TURTLE.equals(type)
+					&& !MediaTypes.APPLICATION_RDF_XML.equals(type)
+					&& !MediaTypes.APPLICATION_JSON.equals(type)
+					&& !MediaTypes.APPLICATION_LD_JSON.equals(type)) {
+				// includes wildcards like */* or image/*
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		List<String> lines = new ArrayList<>();
+		for (Map.Entry<String, Set<String>> entry : allowedMethods.entrySet()) {
+			lines.add("Allow <" + entry.getKey() + ">: " + StringUtils.join(entry.getValue(), ", "));
+		}
+		for (Map.Entry<String, List<String>> entry : acceptPost.entrySet()) {
+			lines.add("Accept-Post <" + entry.getKey() + ">: " + StringUtils.join(entry.getValue(), ", "));
+		}
+		lines.add("PUT to create: " + toString(putToCreate));
+		lines.add("Prefer: " + toString(prefer));
+		lines.add("LDP-NR: " + toString(nonRdfSource));
+		lines.add("POST content restricted: " + postContentRestricted);
+
+		return StringUtils.join(lines, System.lineSeparator());
+	}
+
+	private static String toString(Boolean supported) {
+		return supported == null ? "unknown" : supported.toString();
+	}
+}
@@ -0,0 +1,68 @@
+package org.w3.ldp.testsuite.capability;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import com.jayway.restassured.specification.RequestSpecification;
+
+/**
+ * Suite-wide cache of the HTTP OPTIONS response of each resource, so test
+ * classes testing the same resources don't ask for them again. Each resource
+ * is only requested once, even when several threads ask for it at the same
+ * time.
+ */
+public class OptionsCache {
+
+	private static final ConcurrentMap<String, FutureTask<ResourceOptions>> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the options of a resource, sending an OPTIONS request if they
+	 * aren't known yet.
+	 *
+	 * @param uri
+	 *            the resource URI
+	 * @param spec
+	 *            the request to use if an OPTIONS request is needed
+	 * @return the resource options
+	 */
+	public static ResourceOptions get(final String uri, final RequestSpecification spec) {
+		FutureTask<ResourceOptions> task = cache.get(uri);
+		if (task == null) {
+			FutureTask<ResourceOptions> newTask = new FutureTask<>(new Callable<ResourceOptions>() {
+				@Override
+				public ResourceOptions call() {
+					return ResourceOptions.fromResponse(spec.options(uri));
+				}
+			});
+
+			task = cache.putIfAbsent(uri, newTask);
+			if (task == null) {
+				task = newTask;
+				task.run();
+			}
+		}
+
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			// don't keep failures, the next caller tries again
+			cache.remove(uri, task);
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	public static void clear() {
+		cache.clear();
+	}
+
+}
@@ -0,0 +1,96 @@
+package org.w3.ldp.testsuite.capability;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.w3.ldp.testsuite.http.LinkHeaders;
+
+import com.jayway.restassured.response.Header;
+import com.jayway.restassured.response.Headers;
+import com.jayway.restassured.response.Response;
+
+import static org.w3.ldp.testsuite.http.HttpHeaders.*;
+
+/**
+ * The parsed headers of an HTTP OPTIONS response for a resource.
+ *
+ * @see OptionsCache
+ */
+public class ResourceOptions {
+
+	private final Set<String> allowedMethods;
+	private final List<String> acceptPost;
+	private final List<String> acceptPatch;
+	private final Set<String> linkTypes;
+
+	public ResourceOptions(Set<String> allowedMethods, List<String> acceptPost, List<String> acceptPatch, Set<String> linkTypes) {
+		this.allowedMethods = Collections.unmodifiableSet(allowedMethods);
+		this.acceptPost = acceptPost != null ? Collections.unmodifiableList(acceptPost) : null;
+		this.acceptPatch = acceptPatch != null ? Collections.unmodifiableList(acceptPatch) : null;
+		this.linkTypes = Collections.unmodifiableSet(linkTypes);
+	}
+
+	public static ResourceOptions fromResponse(Response response) {
+		Headers headers = response.getHeaders();
+
+		Set<String> allowedMethods = new LinkedHashSet<>();
+		for (String method : getValues(headers, ALLOW)) {
+			allowedMethods.add(method);
+		}
+
+		return new ResourceOptions(allowedMethods,
+				headers.hasHeaderWithName(ACCEPT_POST) ? getValues(headers, ACCEPT_POST) : null,
+				headers.hasHeaderWithName(ACCEPT_PATCH) ? getValues(headers, ACCEPT_PATCH) : null,
+				LinkHeaders.getTypes(headers));
+	}
+
+	private static List<String> getValues(Headers headers, String name) {
+		List<String> values = new ArrayList<>();
+		for (Header header : headers.getList(name)) {
+			if (header.getValue() != null) {
+				for (String value : header.getValue().split(",")) {
+					if (StringUtils.isNotBlank(value)) {
+						values.add(value.trim());
+					}
+				}
+			}
+		}
+
+		return values;
+	}
+
+	/**
+	 * @return the methods in the Allow header
+	 */
+	public Set<String> getAllowedMethods() {
+		return allowedMethods;
+	}
+
+	/**
+	 * @return the media types in the Accept-Post header or {@code null} if
+	 *         there was none
+	 */
+	public List<String> getAcceptPost() {
+		return acceptPost;
+	}
+
+	/**
+	 * @return the media types in the Accept-Patch header or {@code null} if
+	 *         there was none
+	 */
+	public List<String> getAcceptPatch() {
+		return acceptPatch;
+	}
+
+	/**
+	 * @return the targets of the rel="type" links
+	 */
+	public Set<String> getLinkTypes() {
+		return linkTypes;
+	}
+
+}
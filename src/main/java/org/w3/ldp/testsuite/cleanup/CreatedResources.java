@@ -0,0 +1,225 @@
+package org.w3.ldp.testsuite.cleanup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Suite-wide registry of the resources the test suite created on the server.
+ * Tests can leave the deletion of what they created to the end of the suite,
+ * where all remaining resources are deleted at once by a
+ * {@link ResourceCleaner}.
+ * <p>
+ * Every resource is also appended to a manifest file as soon as it's created,
+ * so resources left behind by a run that didn't finish can be deleted later
+ * with the <code>--cleanup</code> option.
+ */
+public class CreatedResources {
+
+	public static final String MANIFEST_FILENAME = "created-resources.txt";
+
+	private static final Set<String> resources = new LinkedHashSet<>();
+
+	private static File manifest;
+
+	private static PrintWriter manifestWriter;
+
+	// not synchronized, writing the manifest while holding a monitor would
+	// pin virtual threads to their carrier
+	private static final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Starts the manifest in {@code dir}. Resources registered before are
+	 * written to it right away.
+	 *
+	 * @param dir
+	 *            the output directory
+	 */
+	public static void openManifest(File dir) {
+		lock.lock();
+		try {
+			closeManifestWriter();
+			manifest = new File(dir, MANIFEST_FILENAME);
+			try {
+				manifestWriter = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+						new FileOutputStream(manifest, true), StandardCharsets.UTF_8)));
+				manifestWriter.println("# LDP Test Suite: created resources (" + DateFormat.getDateTimeInstance().format(new Date()) + ")");
+				for (String uri : resources) {
+					manifestWriter.println(uri);
+				}
+				manifestWriter.flush();
+			} catch (IOException e) {
+				System.err.println(String.format("WARNING: Error creating %s, leftover resources can't be cleaned up later", MANIFEST_FILENAME));
+				e.printStackTrace();
+				manifestWriter = null;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Records a resource the test suite created. Registering the same resource
+	 * again has no effect.
+	 *
+	 * @param uri
+	 *            the resource URI, typically the Location of a 201 response
+	 */
+	public static void register(String uri) {
+		lock.lock();
+		try {
+			if (StringUtils.isBlank(uri) || !resources.add(uri)) {
+				return;
+			}
+
+			if (manifestWriter != null) {
+				// flush every entry, the manifest is for runs that never finish
+				manifestWriter.println(uri);
+				manifestWriter.flush();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Forgets a resource that no longer exists on the server.
+	 *
+	 * @param uri
+	 *            the resource URI
+	 */
+	public static void deleted(String uri) {
+		lock.lock();
+		try {
+			if (uri != null) {
+				resources.remove(uri);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the resources that still need to be deleted
+	 */
+	public static List<String> getPending() {
+		lock.lock();
+		try {
+			return new ArrayList<>(resources);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Deletes all pending resources and finishes the manifest. Afterwards the
+	 * manifest only lists the resources that couldn't be deleted, and it is
+	 * removed if there are none.
+	 *
+	 * @param cleaner
+	 *            deletes the resources
+	 */
+	public static void deleteAll(ResourceCleaner cleaner) {
+		List<String> pending = getPending();
+		if (!pending.isEmpty()) {
+			List<String> failed = cleaner.delete(pending);
+			pending.removeAll(failed);
+			for (String uri : pending) {
+				deleted(uri);
+			}
+			if (!failed.isEmpty()) {
+				System.err.println(String.format("WARNING: Could not delete %d of %d created resources, see %s",
+						failed.size(), pending.size(), MANIFEST_FILENAME));
+			}
+		}
+
+		lock.lock();
+		try {
+			closeManifestWriter();
+			if (manifest != null) {
+				try {
+					writeManifest(manifest, resources);
+				} catch (IOException e) {
+					System.err.println(String.format("WARNING: Error writing %s", MANIFEST_FILENAME));
+					e.printStackTrace();
+				}
+				manifest = null;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Reads the resource URIs from a manifest.
+	 *
+	 * @param file
+	 *            the manifest
+	 * @return the resource URIs in the order they were created
+	 */
+	public static List<String> readManifest(File file) throws IOException {
+		Set<String> uris = new LinkedHashSet<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (line.length() > 0 && !line.startsWith("#")) {
+					uris.add(line);
+				}
+			}
+		}
+
+		return new ArrayList<>(uris);
+	}
+
+	/**
+	 * Replaces the contents of a manifest, deleting it if there are no
+	 * resources left.
+	 *
+	 * @param file
+	 *            the manifest
+	 * @param uris
+	 *            the resources that still exist
+	 */
+	public static void writeManifest(File file, Collection<String> uris) throws IOException {
+		if (uris.isEmpty()) {
+			if (file.exists() && !file.delete()) {
+				throw new IOException("Unable to delete " + file);
+			}
+			return;
+		}
+
+		try (PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(file, false), StandardCharsets.UTF_8)))) {
+			writer.println("# LDP Test Suite: resources not deleted (" + DateFormat.getDateTimeInstance().format(new Date()) + ")");
+			for (String uri : uris) {
+				writer.println(uri);
+			}
+		}
+	}
+
+	private static void closeManifestWriter() {
+		if (manifestWriter != null) {
+			manifestWriter.close();
+			manifestWriter = null;
+		}
+	}
+
+}
@@ -0,0 +1,59 @@
+package org.w3.ldp.testsuite.cleanup;
+
+import java.net.URI;
+import java.util.Locale;
+
+import org.apache.http.HttpStatus;
+import org.w3.ldp.testsuite.http.HttpMethod;
+
+import com.jayway.restassured.filter.Filter;
+import com.jayway.restassured.filter.FilterContext;
+import com.jayway.restassured.response.Response;
+import com.jayway.restassured.specification.FilterableRequestSpecification;
+import com.jayway.restassured.specification.FilterableResponseSpecification;
+
+import static org.w3.ldp.testsuite.http.HttpHeaders.LOCATION;
+
+/**
+ * RestAssured filter registering every resource created with POST or PUT in
+ * {@link CreatedResources}, and unregistering resources once they are
+ * deleted.
+ */
+public class CreatedResourcesFilter implements Filter {
+
+	@Override
+	public Response filter(FilterableRequestSpecification requestSpec,
+			FilterableResponseSpecification responseSpec, FilterContext ctx) {
+		final Response response = ctx.next(requestSpec, responseSpec);
+		final String method = String.valueOf(ctx.getRequestMethod()).toUpperCase(Locale.ENGLISH);
+		final String uri = ctx.getCompleteRequestPath();
+		final int status = response.getStatusCode();
+
+		if (status == HttpStatus.SC_CREATED) {
+			if (HttpMethod.POST.getName().equals(method)) {
+				CreatedResources.register(resolve(uri, response.getHeader(LOCATION)));
+			} else if (HttpMethod.PUT.getName().equals(method)) {
+				// the Location header is optional for PUT, the request URI is the resource
+				String location = response.getHeader(LOCATION);
+				CreatedResources.register(location != null ? resolve(uri, location) : uri);
+			}
+		} else if (HttpMethod.DELETE.getName().equals(method) && status >= 200 && status < 300) {
+			CreatedResources.deleted(uri);
+		}
+
+		return response;
+	}
+
+	private static String resolve(String base, String location) {
+		if (location == null) {
+			return null;
+		}
+
+		try {
+			return new URI(base).resolve(location).toString();
+		} catch (Exception e) {
+			return location;
+		}
+	}
+
+}
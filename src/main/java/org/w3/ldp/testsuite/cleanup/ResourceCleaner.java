@@ -0,0 +1,92 @@
+package org.w3.ldp.testsuite.cleanup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpStatus;
+import org.w3.ldp.testsuite.util.TaskExecutors;
+
+import com.jayway.restassured.response.Response;
+import com.jayway.restassured.specification.RequestSpecification;
+
+/**
+ * Deletes resources concurrently, at most {@code threads} at a time.
+ */
+public abstract class ResourceCleaner {
+
+	public static final int DEFAULT_THREADS = 8;
+
+	private static final long TIMEOUT = 5; // minutes
+
+	private final int threads;
+
+	public ResourceCleaner() {
+		this(DEFAULT_THREADS);
+	}
+
+	public ResourceCleaner(int threads) {
+		this.threads = threads;
+	}
+
+	/**
+	 * Builds the request for one DELETE, including any authentication.
+	 *
+	 * @return a new request specification
+	 */
+	protected abstract RequestSpecification newRequest();
+
+	/**
+	 * Deletes resources. Resources that are already gone count as deleted.
+	 *
+	 * @param uris
+	 *            the resources to delete
+	 * @return the resources that could not be deleted
+	 */
+	public List<String> delete(Collection<String> uris) {
+		final Set<String> deleted = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+		ExecutorService executor = TaskExecutors.newExecutor("ldp-cleanup", Math.min(threads, uris.size()));
+		for (final String uri : uris) {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						Response response = newRequest().delete(uri);
+						if (isDeleted(response.getStatusCode())) {
+							deleted.add(uri);
+						}
+					} catch (Exception e) {
+						// reported as failed below
+					}
+				}
+			});
+		}
+
+		if (!TaskExecutors.shutdownAndWait(executor, TIMEOUT, TimeUnit.MINUTES)) {
+			System.err.println("WARNING: Timed out deleting created resources");
+			executor.shutdownNow();
+		}
+
+		// anything not deleted in time counts as failed too
+		List<String> failed = new ArrayList<>();
+		for (String uri : uris) {
+			if (!deleted.contains(uri)) {
+				failed.add(uri);
+			}
+		}
+
+		return failed;
+	}
+
+	private static boolean isDeleted(int status) {
+		return (status >= 200 && status < 300)
+				|| status == HttpStatus.SC_NOT_FOUND
+				|| status == HttpStatus.SC_GONE;
+	}
+
+}
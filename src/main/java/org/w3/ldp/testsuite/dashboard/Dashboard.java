@@ -0,0 +1,319 @@
+package org.w3.ldp.testsuite.dashboard;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpStatus;
+import org.apache.jena.atlas.json.JSON;
+import org.apache.jena.atlas.json.JsonObject;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.internal.Utils;
+import org.w3.ldp.testsuite.metrics.LatencyHistogram;
+import org.w3.ldp.testsuite.metrics.LatencyKey;
+import org.w3.ldp.testsuite.metrics.LatencyRecorder;
+import org.w3.ldp.testsuite.util.TaskExecutors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local web page showing the results of a run while it is going on. The page
+ * at <code>/</code> receives the events of <code>/events</code> as
+ * server-sent events:
+ * <ul>
+ * <li><code>result</code>, a finished test</li>
+ * <li><code>counts</code>, the running, passed, failed and skipped tests</li>
+ * <li><code>latency</code>, the requests of the last second by HTTP method and
+ * role of the target, in microseconds</li>
+ * <li><code>end</code>, when the run is over</li>
+ * </ul>
+ * Clients connecting late get the current counts and the latest results
+ * first.
+ */
+public class Dashboard implements ITestListener, LatencyRecorder.Listener {
+
+	private static final String PASS = "Passed";
+	private static final String FAIL = "Failed";
+	private static final String SKIP = "Skipped";
+
+	// results sent to clients that connect late
+	private static final int HISTORY = 500;
+
+	// events queued for a client that doesn't keep up are dropped
+	private static final int CLIENT_QUEUE = 10000;
+
+	// also the number of pages that can be open at once
+	private static final int THREADS = 16;
+
+	private static final long KEEP_ALIVE_SECONDS = 15;
+
+	private static final String END = "event: end\ndata: {}\n\n";
+
+	private final HttpServer server;
+
+	private final ExecutorService executor;
+
+	private final ScheduledExecutorService ticker;
+
+	private final byte[] page;
+
+	private final List<BlockingQueue<String>> clients = new CopyOnWriteArrayList<>();
+
+	// guarded by itself, also keeps clients from missing events while they connect
+	private final Deque<String> history = new ArrayDeque<>();
+
+	private final Set<ITestResult> running = Collections.newSetFromMap(new ConcurrentHashMap<ITestResult, Boolean>());
+	private final AtomicInteger passed = new AtomicInteger();
+	private final AtomicInteger failed = new AtomicInteger();
+	private final AtomicInteger skipped = new AtomicInteger();
+
+	// requests of the current second by "METHOD role"
+	private final AtomicReference<ConcurrentMap<String, LatencyHistogram>> latencies = new AtomicReference<>();
+
+	private Dashboard(int port) throws IOException {
+		try (InputStream in = Dashboard.class.getResourceAsStream("/dashboard/index.html")) {
+			page = IOUtils.toByteArray(in);
+		}
+		latencies.set(new ConcurrentHashMap<String, LatencyHistogram>());
+
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		executor = TaskExecutors.newExecutor("ldp-dashboard", THREADS);
+		server.setExecutor(executor);
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				try {
+					if ("/events".equals(exchange.getRequestURI().getPath())) {
+						stream(exchange);
+					} else {
+						sendPage(exchange);
+					}
+				} finally {
+					exchange.close();
+				}
+			}
+		});
+
+		ticker = TaskExecutors.newScheduledExecutor("ldp-dashboard-ticker");
+		ticker.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				sendLatencies();
+			}
+		}, 1, 1, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Starts the dashboard on the loopback interface.
+	 *
+	 * @param port
+	 *            the port, 0 for a free one
+	 * @return the running dashboard, not yet listening for test results
+	 */
+	public static Dashboard start(int port) throws IOException {
+		Dashboard dashboard = new Dashboard(port);
+		dashboard.server.start();
+		LatencyRecorder.addListener(dashboard);
+		return dashboard;
+	}
+
+	public String getUri() {
+		return "http://localhost:" + server.getAddress().getPort() + "/";
+	}
+
+	/**
+	 * Tells the open pages the run is over and stops the server.
+	 */
+	public void stop() {
+		LatencyRecorder.removeListener(this);
+		ticker.shutdownNow();
+		sendLatencies();
+		broadcast(END, false);
+		server.stop(1);
+		TaskExecutors.shutdownAndWait(executor, 10, TimeUnit.SECONDS);
+	}
+
+	@Override
+	public void onStart(ITestContext context) {
+	}
+
+	@Override
+	public void onFinish(ITestContext context) {
+	}
+
+	@Override
+	public void onTestStart(ITestResult result) {
+		running.add(result);
+		sendCounts();
+	}
+
+	@Override
+	public void onTestSuccess(ITestResult result) {
+		finished(result, PASS, passed);
+	}
+
+	@Override
+	public void onTestFailure(ITestResult result) {
+		finished(result, FAIL, failed);
+	}
+
+	@Override
+	public void onTestSkipped(ITestResult result) {
+		finished(result, SKIP, skipped);
+	}
+
+	@Override
+	public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+		finished(result, PASS, passed);
+	}
+
+	@Override
+	public void recorded(LatencyKey key, long nanos) {
+		String name = key.getMethod() + " " + key.getRole();
+		ConcurrentMap<String, LatencyHistogram> window = latencies.get();
+		LatencyHistogram histogram = window.get(name);
+		if (histogram == null) {
+			histogram = new LatencyHistogram();
+			LatencyHistogram existing = window.putIfAbsent(name, histogram);
+			if (existing != null) {
+				histogram = existing;
+			}
+		}
+
+		histogram.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	private void finished(ITestResult result, String status, AtomicInteger count) {
+		// skipped tests might not have started
+		running.remove(result);
+		count.incrementAndGet();
+
+		JsonObject o = new JsonObject();
+		o.put("test", result.getName());
+		o.put("class", result.getTestClass().getRealClass().getSimpleName());
+		o.put("status", status);
+		o.put("groups", Arrays.toString(result.getMethod().getGroups()));
+		o.put("millis", Math.max(0, result.getEndMillis() - result.getStartMillis()));
+		Throwable thrown = result.getThrowable();
+		if (thrown != null) {
+			o.put("message", Utils.stackTrace(thrown, false)[0].split("\n", 2)[0]);
+		}
+		broadcast(event("result", o), true);
+		sendCounts();
+	}
+
+	private void sendCounts() {
+		broadcast(countsEvent(), false);
+	}
+
+	private String countsEvent() {
+		JsonObject o = new JsonObject();
+		o.put("running", running.size());
+		o.put("passed", passed.get());
+		o.put("failed", failed.get());
+		o.put("skipped", skipped.get());
+		return event("counts", o);
+	}
+
+	private void sendLatencies() {
+		Map<String, LatencyHistogram> window = latencies.getAndSet(new ConcurrentHashMap<String, LatencyHistogram>());
+		JsonObject o = new JsonObject();
+		for (Map.Entry<String, LatencyHistogram> entry : window.entrySet()) {
+			LatencyHistogram histogram = entry.getValue();
+			JsonObject l = new JsonObject();
+			l.put("count", histogram.getCount());
+			l.put("p50", histogram.getValueAtPercentile(50.0));
+			l.put("max", histogram.getMax());
+			o.put(entry.getKey(), l);
+		}
+		broadcast(event("latency", o), false);
+	}
+
+	private static String event(String name, JsonObject data) {
+		return "event: " + name + "\ndata: " + JSON.toStringFlat(data) + "\n\n";
+	}
+
+	private void broadcast(String event, boolean keep) {
+		synchronized (history) {
+			if (keep) {
+				history.addLast(event);
+				if (history.size() > HISTORY) {
+					history.removeFirst();
+				}
+			}
+			for (BlockingQueue<String> client : clients) {
+				client.offer(event);
+			}
+		}
+	}
+
+	private void stream(HttpExchange exchange) throws IOException {
+		BlockingQueue<String> queue = new LinkedBlockingQueue<>(CLIENT_QUEUE);
+		synchronized (history) {
+			queue.offer(countsEvent());
+			for (String event : new ArrayList<>(history)) {
+				queue.offer(event);
+			}
+			clients.add(queue);
+		}
+
+		try {
+			exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=UTF-8");
+			exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+			exchange.sendResponseHeaders(HttpStatus.SC_OK, 0);
+			try (OutputStream out = exchange.getResponseBody()) {
+				while (true) {
+					String event = queue.poll(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+					if (event == null) {
+						event = ": keep-alive\n\n";
+					}
+					out.write(event.getBytes(StandardCharsets.UTF_8));
+					out.flush();
+					if (END.equals(event)) {
+						break;
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			// also when the page was closed and the write failed
+			clients.remove(queue);
+		}
+	}
+
+	private void sendPage(HttpExchange exchange) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+		exchange.sendResponseHeaders(HttpStatus.SC_OK, page.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(page);
+		}
+	}
+
+}
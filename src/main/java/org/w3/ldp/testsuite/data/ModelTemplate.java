@@ -0,0 +1,111 @@
+package org.w3.ldp.testsuite.data;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.compose.Delta;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.w3.ldp.testsuite.mapper.RdfObjectMapper;
+
+/**
+ * An immutable RDF model to create request content from, like the content of
+ * the <code>postTtl</code> test parameter. The template is never changed after
+ * it's created, so it can be shared by tests running in parallel.
+ * <p>
+ * {@link #newModel()} returns a copy-on-write view: changes go to the view
+ * only, and creating one doesn't copy any triples. As long as a view isn't
+ * changed, {@link RdfObjectMapper} sends the serialization cached in the
+ * template instead of serializing the view again.
+ */
+public class ModelTemplate {
+
+	private final Model model;
+
+	// media type -> serialized template
+	private final ConcurrentMap<String, byte[]> serialized = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a template with a copy of {@code model}.
+	 */
+	public ModelTemplate(Model model) {
+		this.model = ModelFactory.createDefaultModel().add(model);
+		this.model.setNsPrefixes(model.getNsPrefixMap());
+	}
+
+	/**
+	 * Creates a model with the template's triples. It can be changed without
+	 * affecting the template or other copies.
+	 *
+	 * @return a new copy-on-write view of the template
+	 */
+	public Model newModel() {
+		Model view = ModelFactory.createModelForGraph(new TemplateView(this));
+		view.setNsPrefixes(model.getNsPrefixMap());
+		return view;
+	}
+
+	/**
+	 * Gets the template serialized with no base URI, so the null relative
+	 * URI stays relative.
+	 *
+	 * @param mediaType
+	 *            Turtle, RDF/XML or JSON-LD
+	 * @return the serialized template, which must not be changed
+	 */
+	public byte[] getBytes(String mediaType) {
+		byte[] bytes = serialized.get(mediaType);
+		if (bytes == null) {
+			// serializing twice in a race is harmless
+			bytes = new RdfObjectMapper().write(model, mediaType);
+			serialized.putIfAbsent(mediaType, bytes);
+		}
+
+		return bytes;
+	}
+
+	/**
+	 * Gets the template of a model created with {@link #newModel()}.
+	 *
+	 * @param model
+	 *            any model
+	 * @return the template or {@code null} if {@code model} isn't an
+	 *         unchanged view of a template
+	 */
+	public static ModelTemplate getTemplate(Model model) {
+		Graph graph = model.getGraph();
+		if (graph instanceof TemplateView) {
+			TemplateView view = (TemplateView) graph;
+			if (!view.modified) {
+				return view.template;
+			}
+		}
+
+		return null;
+	}
+
+	private static class TemplateView extends Delta {
+		private final ModelTemplate template;
+		private volatile boolean modified;
+
+		TemplateView(ModelTemplate template) {
+			super(template.model.getGraph());
+			this.template = template;
+		}
+
+		@Override
+		public void performAdd(Triple t) {
+			modified = true;
+			super.performAdd(t);
+		}
+
+		@Override
+		public void performDelete(Triple t) {
+			modified = true;
+			super.performDelete(t);
+		}
+	}
+
+}
@@ -11,8 +11,6 @@ public class SkipException extends org.testng.SkipException {
 
 	private static final long serialVersionUID = 1L;
 
-	public static final DateFormat df = DateFormat.getDateTimeInstance();
-
 	public SkipException(String test, String skipMessage) {
 		this(test, skipMessage, null);
 	}
@@ -20,7 +18,8 @@ public class SkipException extends org.testng.SkipException {
 	public SkipException(String test, String skipMessage, PrintWriter skipLog) {
 		super(skipMessage);
 		if (skipLog != null) {
-			skipLog.println(String.format("[%s] skipped test %s: %s", df.format(new Date()), test, skipMessage));
+			// a DateFormat isn't thread-safe and tests are skipped concurrently
+			skipLog.println(String.format("[%s] skipped test %s: %s", DateFormat.getDateTimeInstance().format(new Date()), test, skipMessage));
 		}
 	}
 
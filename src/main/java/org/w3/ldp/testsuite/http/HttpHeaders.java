@@ -6,12 +6,18 @@ public interface HttpHeaders {
 	public static final String ACCEPT_PATCH = "Accept-Patch";
 	public static final String ACCEPT_POST = "Accept-Post";
 	public static final String ALLOW = "Allow";
+	public static final String CONTENT_LOCATION = "Content-Location";
 	public static final String ETAG = "ETAG";
 	public static final String IF_MATCH = "If-Match";
 	public static final String LINK = "Link";
 	public static final String LINK_REL_TYPE = "type";
 	public static final String LINK_REL_DESCRIBEDBY = "describedby";
 	public static final String LINK_REL_CONSTRAINEDBY = "http://www.w3.org/ns/ldp#constrainedBy";
+	public static final String LINK_REL_CANONICAL = "canonical";
+	public static final String LINK_REL_FIRST = "first";
+	public static final String LINK_REL_LAST = "last";
+	public static final String LINK_REL_NEXT = "next";
+	public static final String LINK_REL_PREV = "prev";
 	public static final String LOCATION = "Location";
 	public static final String PREFER = "Prefer";
 	public static final String PREFERNCE_APPLIED = "Preference-Applied";
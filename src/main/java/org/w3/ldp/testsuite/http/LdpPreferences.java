@@ -13,4 +13,7 @@ public interface LdpPreferences {
 	public static final String PREFER_MINIMAL_CONTAINER = LDP.NAMESPACE + "PreferMinimalContainer";
 	public static final String PREFER_CONTAINMENT = LDP.NAMESPACE + "PreferContainment";
 	public static final String PREFER_MEMBERSHIP = LDP.NAMESPACE + "PreferMembership";
+
+	// LDP Paging page size hint, a parameter of return=representation
+	public static final String PREFERENCE_MAX_TRIPLE_COUNT = "max-triple-count";
 }
@@ -0,0 +1,88 @@
+package org.w3.ldp.testsuite.http;
+
+import org.apache.jena.rdf.model.Model;
+import org.w3.ldp.testsuite.mapper.RdfObjectMapper;
+
+import com.jayway.restassured.specification.RequestSpecification;
+
+import static org.w3.ldp.testsuite.http.HttpHeaders.ACCEPT;
+import static org.w3.ldp.testsuite.http.HttpHeaders.IF_MATCH;
+import static org.w3.ldp.testsuite.http.HttpHeaders.PREFER;
+import static org.w3.ldp.testsuite.http.HttpHeaders.SLUG;
+import static org.w3.ldp.testsuite.http.MediaTypes.TEXT_TURTLE;
+
+/**
+ * The LDP requests the tests make most often, shared by the tests and the
+ * <code>--load</code> workload so both send exactly the same requests.
+ */
+public class LdpRequests {
+
+	/**
+	 * Request to create an LDP-RS, as in <code>POST {container}</code>.
+	 *
+	 * @param spec
+	 *            the base request
+	 * @param model
+	 *            the content, using the null relative URI for the new resource
+	 */
+	public static RequestSpecification createRdfSource(RequestSpecification spec, Model model) {
+		return spec.contentType(TEXT_TURTLE).body(model, new RdfObjectMapper());
+	}
+
+	/**
+	 * Request to get an LDP-RS as Turtle.
+	 *
+	 * @param spec
+	 *            the base request
+	 * @param prefer
+	 *            the Prefer header value, may be null
+	 */
+	public static RequestSpecification getRdfSource(RequestSpecification spec, String prefer) {
+		spec.header(ACCEPT, TEXT_TURTLE);
+		if (prefer != null) {
+			spec.header(PREFER, prefer);
+		}
+
+		return spec;
+	}
+
+	/**
+	 * Request to replace an LDP-RS only if it hasn't changed, as in
+	 * <code>PUT {resourceUri}</code> with <code>If-Match</code>.
+	 *
+	 * @param spec
+	 *            the base request
+	 * @param model
+	 *            the new content
+	 * @param eTag
+	 *            the ETag of the representation the new content is based on
+	 * @param resourceUri
+	 *            the resource URI, serialized as a relative URI
+	 */
+	public static RequestSpecification replaceRdfSource(RequestSpecification spec, Model model, String eTag, String resourceUri) {
+		return spec.contentType(TEXT_TURTLE)
+				.header(IF_MATCH, eTag)
+				.body(model, new RdfObjectMapper(resourceUri));
+	}
+
+	/**
+	 * Request to create an LDP-NR, as in <code>POST {container}</code>.
+	 *
+	 * @param spec
+	 *            the base request
+	 * @param slug
+	 *            the Slug header value, may be null
+	 * @param content
+	 *            the binary content
+	 * @param mimeType
+	 *            its media type
+	 */
+	public static RequestSpecification createNonRdfSource(RequestSpecification spec, String slug, byte[] content, String mimeType) {
+		if (slug != null) {
+			spec.header(SLUG, slug);
+		}
+
+		return spec.body(content).contentType(mimeType);
+	}
+
+}
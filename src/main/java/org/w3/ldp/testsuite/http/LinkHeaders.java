@@ -0,0 +1,254 @@
+package org.w3.ldp.testsuite.http;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.jayway.restassured.response.Header;
+import com.jayway.restassured.response.Headers;
+
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_TYPE;
+
+/**
+ * Parsing of HTTP Link headers.
+ *
+ * @see <a href="http://tools.ietf.org/html/rfc5988">RFC 5988</a>
+ */
+public class LinkHeaders {
+
+	/**
+	 * Splits an HTTP Link header that might have multiple links separated by a
+	 * comma.
+	 *
+	 * @param value
+	 *			the link header value
+	 * @return the list of link-values as defined in RFC 5988 (for example,
+	 *		 {@code "<http://example.com/bt/bug432>; rel=related"})
+	 * @see <a href="http://tools.ietf.org/html/rfc5988#page-7">RFC 5988: The Link Header Field</a>
+	 */
+	// LinkDelegate doesn't handle this for us
+	public static List<String> split(String value) {
+		final ArrayList<String> links = new ArrayList<>();
+
+		// Track the beginning index for the current link-value.
+		int beginIndex = 0;
+
+		// Is the current char inside a URI-Reference?
+		boolean inUriRef = false;
+
+		// Split the string on commas, but only if not in a URI-Reference
+		// delimited by angle brackets.
+		for (int i = 0; i < value.length(); ++i) {
+			final char c = value.charAt(i);
+
+			if (c == ',' && !inUriRef) {
+				// Found a comma not in a URI-Reference. Split the string.
+				final String link = value.substring(beginIndex, i).trim();
+				links.add(link);
+
+				// Assign the next begin index for the next link.
+				beginIndex = i + 1;
+			} else if (c == '<') {
+				// Angle brackets are not legal characters in a URI, so they can
+				// only be used to mark the start and end of a URI-Reference.
+				// See http://tools.ietf.org/html/rfc3986#section-2
+				inUriRef = true;
+			} else if (c == '>') {
+				inUriRef = false;
+			}
+		}
+
+		// There should be one more link in the string.
+		final String link = value.substring(beginIndex, value.length()).trim();
+		links.add(link);
+
+		return links;
+	}
+
+	/**
+	 * Parses an HTTP Link header in one pass, without splitting it first.
+	 * Relative targets and anchors are resolved against {@code base}.
+	 * Malformed link-values are skipped.
+	 *
+	 * @param value
+	 *			the link header value
+	 * @param base
+	 *			the request URI, may be null to leave relative URIs as they are
+	 * @return the links in header order
+	 */
+	public static List<ParsedLink> parse(String value, String base) {
+		final List<ParsedLink> links = new ArrayList<>();
+		final URI baseUri = toUri(base);
+		final int length = value.length();
+		int i = 0;
+		while (i < length) {
+			char c = value.charAt(i);
+			if (c == ',' || Character.isWhitespace(c)) {
+				i++;
+				continue;
+			}
+
+			int end = c == '<' ? value.indexOf('>', i + 1) : -1;
+			if (end < 0) {
+				i = skipLinkValue(value, i);
+				continue;
+			}
+
+			final String target = value.substring(i + 1, end).trim();
+			final Map<String, String> params = new HashMap<>(4);
+			i = end + 1;
+
+			// link-params: *( OWS ";" OWS link-param )
+			while (true) {
+				i = skipWhitespace(value, i);
+				if (i >= length || value.charAt(i) != ';') {
+					break;
+				}
+				i = skipWhitespace(value, i + 1);
+
+				int nameStart = i;
+				while (i < length && "=;, \t".indexOf(value.charAt(i)) < 0) {
+					i++;
+				}
+				final String name = value.substring(nameStart, i).toLowerCase(Locale.ENGLISH);
+				i = skipWhitespace(value, i);
+
+				String paramValue = "";
+				if (i < length && value.charAt(i) == '=') {
+					i = skipWhitespace(value, i + 1);
+					if (i < length && value.charAt(i) == '"') {
+						// quoted-string, unescaping only if there is a quoted-pair
+						int close = i + 1;
+						boolean escaped = false;
+						while (close < length && value.charAt(close) != '"') {
+							if (value.charAt(close) == '\\') {
+								escaped = true;
+								close++;
+							}
+							close++;
+						}
+						paramValue = value.substring(i + 1, Math.min(close, length));
+						if (escaped) {
+							paramValue = paramValue.replaceAll("\\\\(.)", "$1");
+						}
+						i = close + 1;
+					} else {
+						int valueStart = i;
+						while (i < length && ";, \t".indexOf(value.charAt(i)) < 0) {
+							i++;
+						}
+						paramValue = value.substring(valueStart, i);
+					}
+				}
+
+				// only the first occurrence of a parameter counts
+				if (name.length() > 0 && !params.containsKey(name)) {
+					params.put(name, paramValue);
+				}
+			}
+			i = skipLinkValue(value, i);
+
+			final String rel = params.get("rel");
+			final List<String> rels = rel == null
+					? Collections.<String>emptyList()
+					: Arrays.asList(StringUtils.split(rel));
+			final String anchor = params.get("anchor");
+			links.add(new ParsedLink(resolve(baseUri, target),
+					anchor != null ? resolve(baseUri, anchor) : base, rels, params));
+		}
+
+		return links;
+	}
+
+	/**
+	 * Gets the targets of all rel="type" links.
+	 *
+	 * @param headers
+	 *			the response headers
+	 * @return the type URIs, for instance {@code http://www.w3.org/ns/ldp#BasicContainer}
+	 */
+	public static Set<String> getTypes(Headers headers) {
+		Set<String> types = new LinkedHashSet<>();
+		for (Header linkHeader : headers.getList(LINK)) {
+			for (ParsedLink link : parse(linkHeader.getValue(), null)) {
+				if (link.getRels().contains(LINK_REL_TYPE)) {
+					types.add(link.getTarget());
+				}
+			}
+		}
+
+		return types;
+	}
+
+	private static int skipWhitespace(String value, int i) {
+		while (i < value.length() && Character.isWhitespace(value.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	// moves to the comma ending the current link-value, ignoring commas in quotes
+	private static int skipLinkValue(String value, int i) {
+		boolean quoted = false;
+		while (i < value.length()) {
+			char c = value.charAt(i);
+			if (c == '"') {
+				quoted = !quoted;
+			} else if (c == ',' && !quoted) {
+				break;
+			}
+			i++;
+		}
+		return i;
+	}
+
+	private static URI toUri(String base) {
+		if (base == null) {
+			return null;
+		}
+
+		try {
+			return new URI(base);
+		} catch (URISyntaxException e) {
+			return null;
+		}
+	}
+
+	private static String resolve(URI base, String uri) {
+		if (base == null || hasScheme(uri)) {
+			return uri;
+		}
+
+		try {
+			return base.resolve(uri).toString();
+		} catch (IllegalArgumentException e) {
+			return uri;
+		}
+	}
+
+	// cheaper than parsing the URI just to call isAbsolute()
+	private static boolean hasScheme(String uri) {
+		for (int i = 0; i < uri.length(); i++) {
+			char c = uri.charAt(i);
+			if (c == ':') {
+				return i > 0;
+			}
+			if (!(Character.isLetterOrDigit(c) || c == '+' || c == '-' || c == '.')) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+}
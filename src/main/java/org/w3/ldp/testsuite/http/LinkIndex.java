@@ -0,0 +1,112 @@
+package org.w3.ldp.testsuite.http;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.jayway.restassured.response.Header;
+import com.jayway.restassured.response.Response;
+
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK;
+
+/**
+ * The Link headers of a response indexed by relation type. An index is built
+ * the first time it's requested for a response and then reused, so checking
+ * several links of the same response parses its headers only once.
+ */
+public class LinkIndex {
+
+	// responses are only referenced weakly, so the index goes away with them
+	private static final Map<Response, LinkIndex> indexes =
+			Collections.synchronizedMap(new WeakHashMap<Response, LinkIndex>());
+
+	private final String base;
+
+	// rel -> links in header order
+	private final Map<String, List<ParsedLink>> links = new HashMap<>();
+
+	private LinkIndex(Response response, String base) {
+		this.base = base;
+		for (Header header : response.getHeaders().getList(LINK)) {
+			for (ParsedLink link : LinkHeaders.parse(header.getValue(), base)) {
+				for (String rel : link.getRels()) {
+					List<ParsedLink> forRel = links.get(rel);
+					if (forRel == null) {
+						forRel = new ArrayList<>(2);
+						links.put(rel, forRel);
+					}
+					forRel.add(link);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the link index of a response.
+	 *
+	 * @param response
+	 *            the HTTP response
+	 * @param requestUri
+	 *            the HTTP request URI, for resolving relative URIs
+	 * @return the index
+	 */
+	public static LinkIndex of(Response response, String requestUri) {
+		LinkIndex index = indexes.get(response);
+		if (index == null || !equals(index.base, requestUri)) {
+			index = new LinkIndex(response, requestUri);
+			indexes.put(response, index);
+		}
+
+		return index;
+	}
+
+	/**
+	 * @param rel
+	 *            the link relation
+	 * @return the links with relation {@code rel}, possibly empty
+	 */
+	public List<ParsedLink> get(String rel) {
+		List<ParsedLink> forRel = links.get(rel);
+		return forRel != null ? Collections.unmodifiableList(forRel) : Collections.<ParsedLink>emptyList();
+	}
+
+	/**
+	 * @param rel
+	 *            the link relation
+	 * @param context
+	 *            the expected link context
+	 * @return the first link with relation {@code rel} and context
+	 *         {@code context}, or {@code null} if there is none
+	 */
+	public ParsedLink getFirst(String rel, String context) {
+		for (ParsedLink link : get(rel)) {
+			if (link.getContext() != null && link.getContext().equals(context)) {
+				return link;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return true if there is a link from {@code context} to
+	 *         {@code target} with relation {@code rel}
+	 */
+	public boolean contains(String context, String rel, String target) {
+		for (ParsedLink link : get(rel)) {
+			if (target.equals(link.getTarget()) && link.getContext() != null && link.getContext().equals(context)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean equals(String a, String b) {
+		return a == null ? b == null : a.equals(b);
+	}
+
+}
@@ -0,0 +1,66 @@
+package org.w3.ldp.testsuite.http;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * One link-value of an HTTP Link header with its target and context URIs
+ * resolved against the request URI.
+ *
+ * @see LinkHeaders#parse(String, String)
+ * @see <a href="http://tools.ietf.org/html/rfc5988">RFC 5988</a>
+ */
+public class ParsedLink {
+
+	private final String target;
+	private final String context;
+	private final List<String> rels;
+	private final Map<String, String> params;
+
+	ParsedLink(String target, String context, List<String> rels, Map<String, String> params) {
+		this.target = target;
+		this.context = context;
+		this.rels = Collections.unmodifiableList(rels);
+		this.params = Collections.unmodifiableMap(params);
+	}
+
+	/**
+	 * @return the link target, resolved if it was relative
+	 */
+	public String getTarget() {
+		return target;
+	}
+
+	/**
+	 * @return the anchor parameter, resolved if it was relative, or the
+	 *         request URI if there is no anchor
+	 */
+	public String getContext() {
+		return context;
+	}
+
+	/**
+	 * @return the relation types of the rel parameter
+	 */
+	public List<String> getRels() {
+		return rels;
+	}
+
+	/**
+	 * @param name
+	 *            the parameter name in lower case
+	 * @return the unquoted parameter value, or {@code null} if missing
+	 */
+	public String getParam(String name) {
+		return params.get(name);
+	}
+
+	@Override
+	public String toString() {
+		return "<" + target + ">; rel=\"" + StringUtils.join(rels, ' ') + "\"; anchor=\"" + context + "\"";
+	}
+
+}
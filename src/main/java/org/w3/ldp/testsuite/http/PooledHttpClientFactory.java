@@ -0,0 +1,250 @@
+package org.w3.ldp.testsuite.http;
+
+import java.io.IOException;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.params.HttpClientParams;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.routing.HttpRoutePlanner;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.impl.NoConnectionReuseStrategy;
+import org.apache.http.impl.client.AbstractHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+
+import com.jayway.restassured.RestAssured;
+import com.jayway.restassured.config.HttpClientConfig;
+
+/**
+ * Creates the single pooled HTTP client all RestAssured requests of the test
+ * suite share, so connections are kept alive and TLS sessions are resumed
+ * across tests instead of being set up again for every request.
+ *
+ * @see #install(PooledHttpClientFactory)
+ */
+@SuppressWarnings("deprecation")
+public class PooledHttpClientFactory implements HttpClientConfig.HttpClientFactory {
+
+	public static final int DEFAULT_MAX_CONNECTIONS = 20;
+	public static final int DEFAULT_KEEP_ALIVE = 30; // seconds
+	public static final int DEFAULT_TLS_SESSION_CACHE = 100;
+	public static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT = 60; // seconds
+
+	private final int maxConnections;
+	private final int keepAlive;
+	private final int tlsSessionCache;
+	private final boolean relaxedHttpsValidation;
+
+	private HttpHost standIn;
+
+	private volatile DefaultHttpClient client;
+
+	public PooledHttpClientFactory() {
+		this(DEFAULT_MAX_CONNECTIONS, DEFAULT_KEEP_ALIVE, DEFAULT_TLS_SESSION_CACHE, false);
+	}
+
+	/**
+	 * @param maxConnections
+	 *            the maximum number of connections per route (host)
+	 * @param keepAlive
+	 *            how long idle connections are kept alive in seconds when the
+	 *            server doesn't say, 0 disables connection reuse
+	 * @param tlsSessionCache
+	 *            the number of TLS sessions to cache for resumption, 0 for no
+	 *            limit
+	 * @param relaxedHttpsValidation
+	 *            trust any server certificate and host name (for development
+	 *            servers with self-signed certificates)
+	 */
+	public PooledHttpClientFactory(int maxConnections, int keepAlive, int tlsSessionCache, boolean relaxedHttpsValidation) {
+		this.maxConnections = maxConnections;
+		this.keepAlive = keepAlive;
+		this.tlsSessionCache = tlsSessionCache;
+		this.relaxedHttpsValidation = relaxedHttpsValidation;
+	}
+
+	/**
+	 * Makes every request built with {@link RestAssured#given()} use the
+	 * client created by {@code factory}.
+	 *
+	 * @param factory
+	 *            the factory of the shared client
+	 */
+	public static void install(PooledHttpClientFactory factory) {
+		RestAssured.config = RestAssured.config().httpClient(HttpClientConfig.httpClientConfig()
+				.reuseHttpClientInstance()
+				.httpClientFactory(factory));
+	}
+
+	/**
+	 * Sends all requests to a local stand-in for the real servers instead,
+	 * like a {@link org.w3.ldp.testsuite.replay.ReplayServer}. The stand-in
+	 * is used as a plain HTTP proxy, even for https URIs, so it sees the full
+	 * request URI. Must be called before the client is created.
+	 *
+	 * @param standIn
+	 *            the address of the stand-in
+	 */
+	public synchronized void setStandIn(HttpHost standIn) {
+		if (client != null) {
+			throw new IllegalStateException("HTTP client already created");
+		}
+
+		this.standIn = standIn;
+	}
+
+	@Override
+	public AbstractHttpClient createHttpClient() {
+		// called for every request, only lock until the client exists
+		DefaultHttpClient result = client;
+		if (result == null) {
+			synchronized (this) {
+				result = client;
+				if (result == null) {
+					result = client = newHttpClient();
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Closes all pooled connections.
+	 */
+	public synchronized void shutdown() {
+		if (client != null) {
+			client.getConnectionManager().shutdown();
+			client = null;
+		}
+	}
+
+	private DefaultHttpClient newHttpClient() {
+		SchemeRegistry schemeRegistry = new SchemeRegistry();
+		schemeRegistry.register(new Scheme("http", 80, PlainSocketFactory.getSocketFactory()));
+		schemeRegistry.register(new Scheme("https", 443, newSSLSocketFactory()));
+
+		PoolingClientConnectionManager connectionManager = new PoolingClientConnectionManager(schemeRegistry);
+		connectionManager.setDefaultMaxPerRoute(maxConnections);
+		connectionManager.setMaxTotal(maxConnections * 2);
+
+		DefaultHttpClient httpClient = standIn != null
+				? new StandInHttpClient(connectionManager, standIn) : new DefaultHttpClient(connectionManager);
+		// a connection that is never released fails the request instead of
+		// blocking the run once the pool is empty
+		HttpClientParams.setConnectionManagerTimeout(httpClient.getParams(),
+				TimeUnit.SECONDS.toMillis(DEFAULT_CONNECTION_REQUEST_TIMEOUT));
+		// tests don't read every response, and RestAssured doesn't read empty
+		// ones, so the body is read right away and the connection goes back
+		// to the pool before the response is returned
+		httpClient.addResponseInterceptor(new HttpResponseInterceptor() {
+			@Override
+			public void process(HttpResponse response, HttpContext context) throws IOException {
+				HttpEntity entity = response.getEntity();
+				if (entity != null && entity.isStreaming()) {
+					HttpEntity buffered = new BufferedHttpEntity(entity);
+					EntityUtils.consume(entity);
+					response.setEntity(buffered);
+				}
+			}
+		});
+		if (keepAlive > 0) {
+			httpClient.setKeepAliveStrategy(new ConnectionKeepAliveStrategy() {
+				private final ConnectionKeepAliveStrategy serverStrategy = new DefaultConnectionKeepAliveStrategy();
+
+				@Override
+				public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+					// honor the server's Keep-Alive timeout if there is one
+					long duration = serverStrategy.getKeepAliveDuration(response, context);
+					return duration > 0 ? duration : TimeUnit.SECONDS.toMillis(keepAlive);
+				}
+			});
+		} else {
+			httpClient.setReuseStrategy(new NoConnectionReuseStrategy());
+		}
+
+		return httpClient;
+	}
+
+	private SSLSocketFactory newSSLSocketFactory() {
+		try {
+			// A single SSL context for all connections, its session cache is
+			// what allows abbreviated handshakes on new connections.
+			SSLContext sslContext = SSLContext.getInstance("TLS");
+			if (relaxedHttpsValidation) {
+				sslContext.init(null, new TrustManager[] { new TrustAllManager() }, null);
+			} else {
+				sslContext.init(null, null, null);
+			}
+
+			SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+			if (sessionContext != null) {
+				sessionContext.setSessionCacheSize(tlsSessionCache);
+			}
+
+			return new SSLSocketFactory(sslContext, relaxedHttpsValidation
+					? SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER
+					: SSLSocketFactory.BROWSER_COMPATIBLE_HOSTNAME_VERIFIER);
+		} catch (NoSuchAlgorithmException | KeyManagementException e) {
+			throw new IllegalStateException("Unable to initialize TLS", e);
+		}
+	}
+
+	/**
+	 * Client routing every request through the stand-in. RestAssured sets
+	 * its own route planner before each request, which is ignored here.
+	 */
+	private static class StandInHttpClient extends DefaultHttpClient {
+
+		StandInHttpClient(PoolingClientConnectionManager connectionManager, final HttpHost standIn) {
+			super(connectionManager);
+			super.setRoutePlanner(new HttpRoutePlanner() {
+				@Override
+				public HttpRoute determineRoute(HttpHost target, HttpRequest request, HttpContext context) {
+					// not tunneled, so the stand-in gets https requests in plain text too
+					return new HttpRoute(target, null, standIn, false);
+				}
+			});
+		}
+
+		@Override
+		public synchronized void setRoutePlanner(HttpRoutePlanner routePlanner) {
+		}
+	}
+
+	private static class TrustAllManager implements X509TrustManager {
+		@Override
+		public void checkClientTrusted(X509Certificate[] chain, String authType) {
+		}
+
+		@Override
+		public void checkServerTrusted(X509Certificate[] chain, String authType) {
+		}
+
+		@Override
+		public X509Certificate[] getAcceptedIssuers() {
+			return new X509Certificate[0];
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package org.w3.ldp.testsuite.http;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpStatus;
+
+import com.jayway.restassured.builder.ResponseBuilder;
+import com.jayway.restassured.filter.Filter;
+import com.jayway.restassured.filter.FilterContext;
+import com.jayway.restassured.response.Headers;
+import com.jayway.restassured.response.Response;
+import com.jayway.restassured.specification.FilterableRequestSpecification;
+import com.jayway.restassured.specification.FilterableResponseSpecification;
+
+import static org.w3.ldp.testsuite.http.HttpHeaders.*;
+
+/**
+ * RestAssured filter caching GET responses that have an entity tag. Cached
+ * responses are revalidated with <code>If-None-Match</code> on every request,
+ * so the full representation is only transferred (and parsed) again when it
+ * has changed. Entries are keyed by request URI, Accept and Prefer headers,
+ * and dropped whenever the test suite itself changes the resource or its
+ * container.
+ */
+public class ResponseCacheFilter implements Filter {
+
+	public static final String IF_NONE_MATCH = "If-None-Match";
+
+	// request URI -> (Accept and Prefer -> cached response)
+	private final ConcurrentMap<String, ConcurrentMap<String, CachedResponse>> cache = new ConcurrentHashMap<>();
+
+	@Override
+	public Response filter(FilterableRequestSpecification requestSpec,
+			FilterableResponseSpecification responseSpec, FilterContext ctx) {
+		final String method = String.valueOf(ctx.getRequestMethod()).toUpperCase(Locale.ENGLISH);
+		final String uri = ctx.getCompleteRequestPath();
+
+		if (HttpMethod.GET.getName().equals(method)) {
+			return get(uri, requestSpec, responseSpec, ctx);
+		}
+
+		if (isUnsafe(method)) {
+			invalidate(uri);
+			Response response = ctx.next(requestSpec, responseSpec);
+			// again, in case a concurrent GET cached the old state in the meantime
+			invalidate(uri);
+			return response;
+		}
+
+		return ctx.next(requestSpec, responseSpec);
+	}
+
+	/**
+	 * Removes all cached responses.
+	 */
+	public void clear() {
+		cache.clear();
+	}
+
+	private Response get(String uri, FilterableRequestSpecification requestSpec,
+			FilterableResponseSpecification responseSpec, FilterContext ctx) {
+		final Headers requestHeaders = requestSpec.getHeaders();
+		if (requestHeaders.hasHeaderWithName(IF_NONE_MATCH) || requestHeaders.hasHeaderWithName(IF_MATCH)) {
+			// the test is doing its own conditional request
+			return ctx.next(requestSpec, responseSpec);
+		}
+
+		final String variant = StringUtils.defaultString(requestHeaders.getValue(ACCEPT)) + '\n'
+				+ StringUtils.defaultString(requestHeaders.getValue(PREFER));
+		final CachedResponse cached = variants(uri).get(variant);
+		if (cached != null) {
+			requestSpec.header(IF_NONE_MATCH, cached.etag);
+		}
+
+		final Response response = ctx.next(requestSpec, responseSpec);
+		if (cached != null && response.getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+			return cached.toResponse(response);
+		}
+
+		final String etag = response.getHeader(ETAG);
+		if (response.getStatusCode() != HttpStatus.SC_OK || etag == null) {
+			return response;
+		}
+
+		// Read the body once and hand a copy to the caller, the original stream is consumed.
+		final CachedResponse fresh = new CachedResponse(etag, response);
+		variants(uri).put(variant, fresh);
+		return fresh.toResponse(response);
+	}
+
+	private ConcurrentMap<String, CachedResponse> variants(String uri) {
+		ConcurrentMap<String, CachedResponse> variants = cache.get(uri);
+		if (variants == null) {
+			variants = new ConcurrentHashMap<>();
+			ConcurrentMap<String, CachedResponse> existing = cache.putIfAbsent(uri, variants);
+			if (existing != null) {
+				variants = existing;
+			}
+		}
+
+		return variants;
+	}
+
+	private void invalidate(String uri) {
+		// creating, changing or deleting a resource changes its container
+		String container = getContainer(uri);
+		for (String key : new String[] { uri, container, StringUtils.removeEnd(container, "/") }) {
+			if (key != null) {
+				cache.remove(key);
+			}
+		}
+	}
+
+	private static String getContainer(String uri) {
+		String path = StringUtils.removeEnd(StringUtils.substringBefore(uri, "?"), "/");
+		int index = path.lastIndexOf('/');
+		if (index < 0 || path.lastIndexOf("//") == index - 1) {
+			return null;
+		}
+
+		return path.substring(0, index + 1);
+	}
+
+	private static boolean isUnsafe(String method) {
+		return HttpMethod.POST.getName().equals(method)
+				|| HttpMethod.PUT.getName().equals(method)
+				|| HttpMethod.DELETE.getName().equals(method)
+				|| HttpMethod.PATCH.getName().equals(method);
+	}
+
+	private static class CachedResponse {
+		private final String etag;
+		private final int statusCode;
+		private final String statusLine;
+		private final Headers headers;
+		private final String contentType;
+		private final byte[] body;
+
+		CachedResponse(String etag, Response response) {
+			this.etag = etag;
+			this.statusCode = response.getStatusCode();
+			this.statusLine = response.getStatusLine();
+			this.headers = response.getHeaders();
+			this.contentType = response.getContentType();
+			this.body = response.asByteArray();
+		}
+
+		/**
+		 * Builds a response from the cached state, keeping the request
+		 * specific settings of {@code current}.
+		 */
+		Response toResponse(Response current) {
+			return new ResponseBuilder()
+					.clone(current)
+					.setStatusCode(statusCode)
+					.setStatusLine(statusLine)
+					.setHeaders(headers)
+					.setContentType(contentType)
+					.setBody(body)
+					.build();
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package org.w3.ldp.testsuite.load;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.w3.ldp.testsuite.util.TaskExecutors;
+
+import com.jayway.restassured.response.Response;
+
+import static org.w3.ldp.testsuite.matcher.HttpStatusSuccessMatcher.isSuccessful;
+
+/**
+ * Drives a {@link Workload} with a weighted mix of {@link LoadOperation}s,
+ * either closed-loop with a fixed number of virtual users, or open-loop at a
+ * fixed rate.
+ */
+public class LoadGenerator {
+
+	// how long to wait for operations still running at the end
+	private static final long GRACE_PERIOD = 60; // seconds
+
+	private final Workload workload;
+
+	private final LoadOperation[] operations;
+
+	// cumulative weights, parallel to operations
+	private final int[] weights;
+
+	/**
+	 * @param workload
+	 *            what the operations work on
+	 * @param mix
+	 *            the weight of each operation
+	 */
+	public LoadGenerator(Workload workload, Map<LoadOperation, Integer> mix) {
+		this.workload = workload;
+		this.operations = mix.keySet().toArray(new LoadOperation[mix.size()]);
+		this.weights = new int[operations.length];
+		int total = 0;
+		for (int i = 0; i < operations.length; i++) {
+			total += mix.get(operations[i]);
+			weights[i] = total;
+		}
+		if (total <= 0) {
+			throw new IllegalArgumentException("ERROR: the load mix has no operations");
+		}
+	}
+
+	/**
+	 * Closed-loop load: each user runs one operation after the other, so the
+	 * load goes down when the server slows down.
+	 *
+	 * @param users
+	 *            the number of concurrent virtual users
+	 * @param seconds
+	 *            how long to run
+	 * @return the results
+	 */
+	public LoadReport runUsers(int users, int seconds) {
+		final LoadReport report = new LoadReport(users + " users", Arrays.asList(operations));
+		final long start = System.nanoTime();
+		final long end = start + TimeUnit.SECONDS.toNanos(seconds);
+
+		ExecutorService executor = TaskExecutors.newExecutor("ldp-load", users);
+		for (int i = 0; i < users; i++) {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					while (System.nanoTime() < end) {
+						long operationStart = System.nanoTime();
+						execute(nextOperation(), operationStart, report);
+					}
+				}
+			});
+		}
+		awaitEnd(executor, seconds, report);
+
+		report.setElapsed(System.nanoTime() - start);
+		return report;
+	}
+
+	/**
+	 * Open-loop load: operations start at a fixed rate no matter how long
+	 * earlier ones take. Latency is measured from when an operation was due,
+	 * so waiting for a free connection counts as well.
+	 *
+	 * @param rate
+	 *            operations started per second
+	 * @param seconds
+	 *            how long to run
+	 * @param maxConcurrency
+	 *            the maximum number of operations running at once
+	 * @return the results
+	 */
+	public LoadReport runRate(int rate, int seconds, int maxConcurrency) {
+		final LoadReport report = new LoadReport(rate + " operations/s", Arrays.asList(operations));
+		final long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+		final long start = System.nanoTime();
+		final long end = start + TimeUnit.SECONDS.toNanos(seconds);
+
+		ExecutorService executor = TaskExecutors.newExecutor("ldp-load", maxConcurrency);
+		for (long due = start; due < end; due += interval) {
+			long wait = due - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+
+			final long scheduled = due;
+			final LoadOperation operation = nextOperation();
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					execute(operation, scheduled, report);
+				}
+			});
+		}
+		// all operations are due by now, wait for the queued ones
+		awaitEnd(executor, 0, report);
+
+		report.setElapsed(System.nanoTime() - start);
+		return report;
+	}
+
+	private void execute(LoadOperation operation, long start, LoadReport report) {
+		boolean success;
+		try {
+			Response response = operation.execute(workload);
+			success = isSuccessful().matches(response.getStatusCode());
+		} catch (Exception e) {
+			success = false;
+		}
+
+		report.record(operation, System.nanoTime() - start, success);
+	}
+
+	private LoadOperation nextOperation() {
+		int n = ThreadLocalRandom.current().nextInt(weights[weights.length - 1]);
+		for (int i = 0; i < weights.length; i++) {
+			if (n < weights[i]) {
+				return operations[i];
+			}
+		}
+
+		return operations[operations.length - 1];
+	}
+
+	private static void awaitEnd(ExecutorService executor, int seconds, LoadReport report) {
+		if (!TaskExecutors.shutdownAndWait(executor, seconds + GRACE_PERIOD, TimeUnit.SECONDS)) {
+			System.err.println("WARNING: Some load operations didn't finish in time");
+			// the ones still queued count as errors
+			report.addDropped(executor.shutdownNow().size());
+		}
+	}
+
+}
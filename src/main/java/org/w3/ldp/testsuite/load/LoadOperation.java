@@ -0,0 +1,133 @@
+package org.w3.ldp.testsuite.load;
+
+import java.util.Locale;
+
+import org.apache.http.HttpStatus;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.DCTerms;
+import org.w3.ldp.testsuite.mapper.RdfObjectMapper;
+import org.w3.ldp.testsuite.test.LdpTest;
+
+import com.jayway.restassured.response.Response;
+
+import static org.w3.ldp.testsuite.http.HttpHeaders.ETAG;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LOCATION;
+import static org.w3.ldp.testsuite.http.LdpPreferences.PREFER_MINIMAL_CONTAINER;
+import static org.w3.ldp.testsuite.http.LdpRequests.createNonRdfSource;
+import static org.w3.ldp.testsuite.http.LdpRequests.createRdfSource;
+import static org.w3.ldp.testsuite.http.LdpRequests.getRdfSource;
+import static org.w3.ldp.testsuite.http.LdpRequests.replaceRdfSource;
+import static org.w3.ldp.testsuite.matcher.HttpStatusSuccessMatcher.isSuccessful;
+
+/**
+ * The operations of a <code>--load</code> workload. Each one sends the same
+ * requests as the tests it's named after.
+ */
+public enum LoadOperation {
+
+	/**
+	 * POST an LDP-RS to the container, see
+	 * <code>CommonContainerTest.testPostResponseStatusAndLocation()</code>.
+	 */
+	CREATE {
+		@Override
+		Response execute(Workload workload) {
+			Response response = createRdfSource(workload.newRequest(), workload.getTemplate().newModel())
+					.post(workload.getContainer());
+			String location = response.getHeader(LOCATION);
+			if (response.getStatusCode() == HttpStatus.SC_CREATED && location != null) {
+				workload.created(LdpTest.resolveIfRelative(workload.getContainer(), location));
+			}
+
+			return response;
+		}
+	},
+
+	/**
+	 * GET the container with a Prefer header. Asks for a minimal container so
+	 * the response doesn't grow with the resources the workload creates.
+	 */
+	READ {
+		@Override
+		Response execute(Workload workload) {
+			return getRdfSource(workload.newRequest(), LdpTest.include(PREFER_MINIMAL_CONTAINER))
+					.get(workload.getContainer());
+		}
+	},
+
+	/**
+	 * GET a resource the workload created and replace its title with a
+	 * conditional PUT, see <code>RdfSourceTest.putReplaceResource()</code>.
+	 * Creates the resource first if there is none yet.
+	 */
+	UPDATE {
+		@Override
+		Response execute(Workload workload) {
+			String resourceUri = workload.getCreatedResource();
+			if (resourceUri == null) {
+				Response response = CREATE.execute(workload);
+				String location = response.getHeader(LOCATION);
+				if (!isSuccessful().matches(response.getStatusCode()) || location == null) {
+					return response;
+				}
+				resourceUri = LdpTest.resolveIfRelative(workload.getContainer(), location);
+			}
+
+			Response response = getRdfSource(workload.newRequest(), null).get(resourceUri);
+			String eTag = response.getHeader(ETAG);
+			if (!isSuccessful().matches(response.getStatusCode()) || eTag == null) {
+				return response;
+			}
+
+			Model model = response.as(Model.class, new RdfObjectMapper(resourceUri));
+			Resource resource = LdpTest.getPrimaryTopic(model, resourceUri);
+			resource.removeAll(DCTerms.title);
+			model.add(resource, DCTerms.title, "This resources content has been replaced (" + System.currentTimeMillis() + ")");
+
+			return replaceRdfSource(workload.newRequest(), model, eTag, resourceUri).put(resourceUri);
+		}
+	},
+
+	/**
+	 * POST an LDP-NR to the container, see
+	 * <code>NonRDFSourceTest.createTestResource()</code>.
+	 */
+	UPLOAD {
+		@Override
+		Response execute(Workload workload) {
+			return createNonRdfSource(workload.newRequest(), null, workload.getBinaryContent(), workload.getBinaryMediaType())
+					.post(workload.getContainer());
+		}
+	};
+
+	/**
+	 * Sends the requests of the operation.
+	 *
+	 * @return the last response, which tells whether the operation succeeded
+	 */
+	abstract Response execute(Workload workload);
+
+	/**
+	 * @return the name used in the <code>--load</code> mix and the reports
+	 */
+	public String getName() {
+		return name().toLowerCase(Locale.ENGLISH);
+	}
+
+	/**
+	 * @param name
+	 *            the name of an operation, as in the <code>--load</code> mix
+	 * @return the operation
+	 */
+	public static LoadOperation forName(String name) {
+		for (LoadOperation operation : values()) {
+			if (operation.getName().equalsIgnoreCase(name.trim())) {
+				return operation;
+			}
+		}
+
+		throw new IllegalArgumentException("ERROR: invalid load operation " + name + ", expected create, read, update or upload");
+	}
+
+}
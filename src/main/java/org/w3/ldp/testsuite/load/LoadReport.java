@@ -0,0 +1,177 @@
+package org.w3.ldp.testsuite.load;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.jena.atlas.json.JSON;
+import org.apache.jena.atlas.json.JsonArray;
+import org.apache.jena.atlas.json.JsonNumber;
+import org.apache.jena.atlas.json.JsonObject;
+import org.w3.ldp.testsuite.metrics.LatencyHistogram;
+import org.w3.ldp.testsuite.reporter.LdpLatencyReporter;
+
+/**
+ * Throughput, errors and latency percentiles of each operation of a
+ * <code>--load</code> run.
+ */
+public class LoadReport {
+
+	private final String mode;
+
+	private final Map<LoadOperation, LatencyHistogram> latencies = new EnumMap<>(LoadOperation.class);
+
+	private final Map<LoadOperation, AtomicLong> errors = new EnumMap<>(LoadOperation.class);
+
+	// operations that were due but never started
+	private final AtomicLong dropped = new AtomicLong();
+
+	private volatile long elapsedNanos;
+
+	/**
+	 * @param mode
+	 *            how the load was generated, for instance "10 users"
+	 * @param operations
+	 *            the operations of the workload
+	 */
+	LoadReport(String mode, Collection<LoadOperation> operations) {
+		this.mode = mode;
+		// the maps are never changed after this, only their values
+		for (LoadOperation operation : operations) {
+			latencies.put(operation, new LatencyHistogram());
+			errors.put(operation, new AtomicLong());
+		}
+	}
+
+	void record(LoadOperation operation, long nanos, boolean success) {
+		latencies.get(operation).record(nanos, TimeUnit.NANOSECONDS);
+		if (!success) {
+			errors.get(operation).incrementAndGet();
+		}
+	}
+
+	void addDropped(long count) {
+		dropped.addAndGet(count);
+	}
+
+	void setElapsed(long nanos) {
+		this.elapsedNanos = nanos;
+	}
+
+	/**
+	 * @return the number of operations that failed or didn't get a 2xx response
+	 */
+	public long getErrors() {
+		long total = 0;
+		for (AtomicLong count : errors.values()) {
+			total += count.get();
+		}
+
+		return total;
+	}
+
+	/**
+	 * @return the number of operations that were due at the end of the run
+	 *         but never started
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	/**
+	 * @return the number of operations that finished, successfully or not
+	 */
+	public long getCount() {
+		long total = 0;
+		for (LatencyHistogram histogram : latencies.values()) {
+			total += histogram.getCount();
+		}
+
+		return total;
+	}
+
+	/**
+	 * @return the percentage of failed and dropped operations, 100 if there
+	 *         were none at all
+	 */
+	public double getErrorRate() {
+		long total = getCount() + getDropped();
+		if (total == 0) {
+			return 100;
+		}
+
+		return 100.0 * (getErrors() + getDropped()) / total;
+	}
+
+	/**
+	 * Prints a table of the results with latencies in milliseconds.
+	 */
+	public void print(PrintStream out) {
+		double seconds = elapsedNanos / 1e9;
+		out.println(String.format("Load: %s for %.1f s", mode, seconds));
+		StringBuilder header = new StringBuilder(String.format("%-10s %10s %10s %8s", "operation", "count", "ops/s", "errors"));
+		for (double percentile : LdpLatencyReporter.PERCENTILES) {
+			header.append(String.format(" %9s", "p" + (int) percentile + " ms"));
+		}
+		header.append(String.format(" %9s", "max ms"));
+		out.println(header);
+
+		for (Map.Entry<LoadOperation, LatencyHistogram> entry : latencies.entrySet()) {
+			LatencyHistogram histogram = entry.getValue();
+			StringBuilder row = new StringBuilder(String.format("%-10s %10d %10.1f %8d",
+					entry.getKey().getName(), histogram.getCount(), histogram.getCount() / seconds,
+					errors.get(entry.getKey()).get()));
+			for (double percentile : LdpLatencyReporter.PERCENTILES) {
+				row.append(String.format(" %9.1f", histogram.getValueAtPercentile(percentile) / 1000.0));
+			}
+			row.append(String.format(" %9.1f", histogram.getMax() / 1000.0));
+			out.println(row);
+		}
+		if (dropped.get() > 0) {
+			out.println(String.format("%d operations were due but never started", dropped.get()));
+		}
+	}
+
+	/**
+	 * Writes the results as JSON with latencies in microseconds, like
+	 * {@link LdpLatencyReporter}.
+	 */
+	public void write(File file) throws IOException {
+		double seconds = elapsedNanos / 1e9;
+		JsonObject report = new JsonObject();
+		report.put("mode", mode);
+		report.put("seconds", JsonNumber.value(seconds));
+		report.put("unit", "us");
+
+		JsonArray operations = new JsonArray();
+		for (Map.Entry<LoadOperation, LatencyHistogram> entry : latencies.entrySet()) {
+			LatencyHistogram histogram = entry.getValue();
+			JsonObject o = new JsonObject();
+			o.put("operation", entry.getKey().getName());
+			o.put("count", histogram.getCount());
+			o.put("throughput", JsonNumber.value(histogram.getCount() / seconds));
+			o.put("errors", errors.get(entry.getKey()).get());
+			for (double percentile : LdpLatencyReporter.PERCENTILES) {
+				o.put("p" + (int) percentile, histogram.getValueAtPercentile(percentile));
+			}
+			o.put("max", histogram.getMax());
+			operations.add(o);
+		}
+		report.put("operations", operations);
+		report.put("dropped", dropped.get());
+
+		file.getAbsoluteFile().getParentFile().mkdirs();
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+			JSON.write(out, report);
+		}
+	}
+
+}
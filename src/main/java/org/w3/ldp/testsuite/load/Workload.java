@@ -0,0 +1,87 @@
+package org.w3.ldp.testsuite.load;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.w3.ldp.testsuite.data.ModelTemplate;
+
+import com.jayway.restassured.specification.RequestSpecification;
+
+/**
+ * What the {@link LoadOperation}s work on: the container, the content to
+ * create resources with, and the resources created so far.
+ */
+public abstract class Workload {
+
+	// the most recent resources created, for updates
+	private static final int RECENT_RESOURCES = 256;
+
+	private final String container;
+	private final ModelTemplate template;
+	private final byte[] binaryContent;
+	private final String binaryMediaType;
+
+	private final AtomicReferenceArray<String> created = new AtomicReferenceArray<>(RECENT_RESOURCES);
+	private final AtomicInteger createdCount = new AtomicInteger();
+
+	/**
+	 * @param container
+	 *            the container to create resources in
+	 * @param template
+	 *            the content for LDP-RSs
+	 * @param binaryContent
+	 *            the content for LDP-NRs, may be null if there are no uploads
+	 * @param binaryMediaType
+	 *            its media type
+	 */
+	public Workload(String container, ModelTemplate template, byte[] binaryContent, String binaryMediaType) {
+		this.container = container;
+		this.template = template;
+		this.binaryContent = binaryContent;
+		this.binaryMediaType = binaryMediaType;
+	}
+
+	/**
+	 * @return a new request with the authentication of the test suite
+	 */
+	protected abstract RequestSpecification newRequest();
+
+	public String getContainer() {
+		return container;
+	}
+
+	public ModelTemplate getTemplate() {
+		return template;
+	}
+
+	public byte[] getBinaryContent() {
+		return binaryContent;
+	}
+
+	public String getBinaryMediaType() {
+		return binaryMediaType;
+	}
+
+	/**
+	 * Remembers an LDP-RS the workload created, so it can be updated. Like
+	 * everything the test suite creates, it's deleted at the end anyway.
+	 */
+	void created(String uri) {
+		created.set((createdCount.getAndIncrement() & Integer.MAX_VALUE) % RECENT_RESOURCES, uri);
+	}
+
+	/**
+	 * @return one of the LDP-RSs created recently, or null if there is none yet
+	 */
+	String getCreatedResource() {
+		int count = createdCount.get();
+		count = count < 0 ? RECENT_RESOURCES : Math.min(count, RECENT_RESOURCES);
+		if (count == 0) {
+			return null;
+		}
+
+		return created.get(ThreadLocalRandom.current().nextInt(count));
+	}
+
+}
@@ -0,0 +1,267 @@
+package org.w3.ldp.testsuite.mapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+
+/**
+ * Read-only graph for checking large responses, smaller and faster to fill
+ * than a Jena model. Every term is replaced by an int from a dictionary and
+ * each triple is packed into a long, sorted once in subject-predicate-object
+ * and once in predicate-object-subject order, so a pattern is answered by a
+ * binary search on the matching index. Terms are compared as RDF terms, not
+ * by literal value. Filled by a {@link Builder} from the parser, see
+ * {@link RdfObjectMapper#readGraph}.
+ */
+public class CompactGraph {
+
+	// bits of each term id in a packed triple
+	private static final int ID_BITS = 21;
+	private static final long ID_MASK = (1L << ID_BITS) - 1;
+
+	/**
+	 * Maximum number of distinct terms in a graph.
+	 */
+	public static final int MAX_TERMS = 1 << ID_BITS;
+
+	// term ids of an unbound pattern position and of a term not in the graph
+	private static final int ANY = -1;
+	private static final int NOT_FOUND = -2;
+
+	private final Node[] terms;
+
+	private final Map<Node, Integer> ids;
+
+	// sorted, without duplicates
+	private final long[] spo;
+
+	private final long[] pos;
+
+	/**
+	 * Collects the triples of a parser, see {@link #build()}.
+	 */
+	public static class Builder extends StreamRDFBase {
+
+		private final List<Node> terms = new ArrayList<>();
+
+		private final Map<Node, Integer> ids = new HashMap<>();
+
+		private long[] triples = new long[1024];
+
+		private int size;
+
+		@Override
+		public void triple(Triple triple) {
+			if (size == triples.length) {
+				triples = Arrays.copyOf(triples, size * 2);
+			}
+			triples[size++] = pack(id(triple.getSubject()), id(triple.getPredicate()), id(triple.getObject()));
+		}
+
+		private long id(Node node) {
+			Integer id = ids.get(node);
+			if (id == null) {
+				if (terms.size() == MAX_TERMS) {
+					throw new IllegalStateException("More than " + MAX_TERMS + " distinct RDF terms");
+				}
+				id = terms.size();
+				ids.put(node, id);
+				terms.add(node);
+			}
+
+			return id;
+		}
+
+		public CompactGraph build() {
+			long[] spo = distinct(Arrays.copyOf(triples, size));
+			long[] pos = new long[spo.length];
+			for (int i = 0; i < spo.length; i++) {
+				long t = spo[i];
+				pos[i] = pack(second(t), third(t), first(t));
+			}
+			Arrays.sort(pos);
+
+			return new CompactGraph(terms.toArray(new Node[terms.size()]), ids, spo, pos);
+		}
+	}
+
+	private CompactGraph(Node[] terms, Map<Node, Integer> ids, long[] spo, long[] pos) {
+		this.terms = terms;
+		this.ids = ids;
+		this.spo = spo;
+		this.pos = pos;
+	}
+
+	/**
+	 * @return the number of distinct triples
+	 */
+	public int size() {
+		return spo.length;
+	}
+
+	public boolean isEmpty() {
+		return spo.length == 0;
+	}
+
+	/**
+	 * Checks for a triple matching a pattern.
+	 *
+	 * @param s
+	 *            the subject, {@code null} or {@link Node#ANY} for any
+	 * @param p
+	 *            the predicate, {@code null} or {@link Node#ANY} for any
+	 * @param o
+	 *            the object, {@code null} or {@link Node#ANY} for any
+	 * @return true if there is at least one
+	 */
+	public boolean contains(Node s, Node p, Node o) {
+		return !find(s, p, o, 1).isEmpty();
+	}
+
+	/**
+	 * @return the objects of a subject and predicate
+	 */
+	public List<Node> getObjects(Node s, Node p) {
+		List<Node> objects = new ArrayList<>();
+		for (long t : find(s, p, null, Integer.MAX_VALUE)) {
+			objects.add(terms[third(t)]);
+		}
+
+		return objects;
+	}
+
+	/**
+	 * @return an object of a subject and predicate, {@code null} if there is
+	 *         none
+	 */
+	public Node getObject(Node s, Node p) {
+		List<Long> found = find(s, p, null, 1);
+		return found.isEmpty() ? null : terms[third(found.get(0))];
+	}
+
+	/**
+	 * @return the subjects with a predicate and object
+	 */
+	public List<Node> getSubjects(Node p, Node o) {
+		List<Node> subjects = new ArrayList<>();
+		for (long t : find(null, p, o, Integer.MAX_VALUE)) {
+			subjects.add(terms[first(t)]);
+		}
+
+		return subjects;
+	}
+
+	/**
+	 * Finds the triples matching a pattern, in subject-predicate-object form.
+	 */
+	private List<Long> find(Node s, Node p, Node o, int limit) {
+		int sid = id(s);
+		int pid = id(p);
+		int oid = id(o);
+		if (sid == NOT_FOUND || pid == NOT_FOUND || oid == NOT_FOUND) {
+			return Collections.emptyList();
+		}
+
+		List<Long> found = new ArrayList<>();
+		if (sid != ANY) {
+			// subject, subject-predicate or the whole triple, object filtered if the predicate is open
+			int[] range = pid != ANY ? range(spo, pack(sid, pid, oid != ANY ? oid : 0), oid != ANY ? 0 : ID_BITS)
+					: range(spo, pack(sid, 0, 0), 2 * ID_BITS);
+			for (int i = range[0]; i < range[1] && found.size() < limit; i++) {
+				if (oid == ANY || third(spo[i]) == oid) {
+					found.add(spo[i]);
+				}
+			}
+		} else if (pid != ANY) {
+			int[] range = oid != ANY ? range(pos, pack(pid, oid, 0), ID_BITS) : range(pos, pack(pid, 0, 0), 2 * ID_BITS);
+			for (int i = range[0]; i < range[1] && found.size() < limit; i++) {
+				long t = pos[i];
+				// back from predicate-object-subject
+				found.add(pack(third(t), first(t), second(t)));
+			}
+		} else {
+			// object only or nothing bound, no index for that
+			for (int i = 0; i < spo.length && found.size() < limit; i++) {
+				if (oid == ANY || third(spo[i]) == oid) {
+					found.add(spo[i]);
+				}
+			}
+		}
+
+		return found;
+	}
+
+	private int id(Node node) {
+		if (node == null || Node.ANY.equals(node)) {
+			return ANY;
+		}
+
+		Integer id = ids.get(node);
+		return id != null ? id : NOT_FOUND;
+	}
+
+	/**
+	 * @return the first and after the last index of the packed triples
+	 *         starting with the bits of {@code prefix} above {@code openBits}
+	 */
+	private static int[] range(long[] index, long prefix, int openBits) {
+		long low = prefix & ~((1L << openBits) - 1);
+		long high = low | ((1L << openBits) - 1);
+		return new int[] { search(index, low, false), search(index, high, true) };
+	}
+
+	/**
+	 * @return the first index of a value greater or equal to the key, or only
+	 *         greater with {@code after}
+	 */
+	private static int search(long[] index, long key, boolean after) {
+		int low = 0;
+		int high = index.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (index[mid] < key || after && index[mid] == key) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+
+		return low;
+	}
+
+	private static long[] distinct(long[] triples) {
+		Arrays.sort(triples);
+		int n = 0;
+		for (int i = 0; i < triples.length; i++) {
+			if (n == 0 || triples[i] != triples[n - 1]) {
+				triples[n++] = triples[i];
+			}
+		}
+
+		return n == triples.length ? triples : Arrays.copyOf(triples, n);
+	}
+
+	private static long pack(long first, long second, long third) {
+		return first << (2 * ID_BITS) | second << ID_BITS | third;
+	}
+
+	private static int first(long triple) {
+		return (int) (triple >>> (2 * ID_BITS) & ID_MASK);
+	}
+
+	private static int second(long triple) {
+		return (int) (triple >>> ID_BITS & ID_MASK);
+	}
+
+	private static int third(long triple) {
+		return (int) (triple & ID_MASK);
+	}
+
+}
@@ -0,0 +1,233 @@
+package org.w3.ldp.testsuite.mapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.vocabulary.RDF;
+import org.w3.ldp.testsuite.util.JsonUtils;
+
+/**
+ * Writes a model as compact JSON-LD in one pass over its triples. The
+ * <code>@context</code> has the prefixes of the model, which shorten the
+ * properties and types. A single subject is written as the top-level node
+ * object, several subjects as a <code>@graph</code> without an
+ * <code>@id</code>. IRIs are written as they are, so the null relative URI
+ * stays relative to the request.
+ */
+class CompactJsonLdWriter {
+
+	private final Writer out;
+
+	private final Model model;
+
+	// namespace -> prefix, usable in compact IRIs
+	private final Map<String, String> prefixes = new LinkedHashMap<>();
+
+	// blank node labels are renumbered in the order they are written
+	private final Map<Node, String> blankNodes = new HashMap<>();
+
+	CompactJsonLdWriter(Writer out, Model model) {
+		this.out = out;
+		this.model = model;
+		for (Entry<String, String> prefix : model.getNsPrefixMap().entrySet()) {
+			// the empty prefix can't be a JSON-LD term, and JSON-LD 1.1 only
+			// expands prefixes ending with a gen-delim character
+			String namespace = prefix.getValue();
+			if (!prefix.getKey().isEmpty() && !"_".equals(prefix.getKey())
+					&& !namespace.isEmpty() && ":/?#[]@".indexOf(namespace.charAt(namespace.length() - 1)) != -1) {
+				prefixes.put(prefix.getValue(), prefix.getKey());
+			}
+		}
+	}
+
+	void write() throws IOException {
+		Graph graph = model.getGraph();
+		Set<Node> subjects = new LinkedHashSet<>();
+		ExtendedIterator<Triple> triples = graph.find(Node.ANY, Node.ANY, Node.ANY);
+		try {
+			while (triples.hasNext()) {
+				subjects.add(triples.next().getSubject());
+			}
+		} finally {
+			triples.close();
+		}
+
+		out.write('{');
+		writeContext();
+		if (subjects.size() == 1) {
+			out.write(',');
+			Node subject = subjects.iterator().next();
+			writeId(subject);
+			writeProperties(graph, subject);
+		} else if (subjects.size() > 1) {
+			out.write(",\"@graph\":[");
+			boolean first = true;
+			for (Node subject : subjects) {
+				out.write(first ? "{" : ",{");
+				first = false;
+				writeId(subject);
+				writeProperties(graph, subject);
+				out.write('}');
+			}
+			out.write(']');
+		}
+		out.write('}');
+		out.flush();
+	}
+
+	private void writeContext() throws IOException {
+		out.write("\"@context\":{");
+		boolean first = true;
+		for (Entry<String, String> prefix : prefixes.entrySet()) {
+			if (!first) {
+				out.write(',');
+			}
+			first = false;
+			quote(prefix.getValue());
+			out.write(':');
+			quote(prefix.getKey());
+		}
+		out.write('}');
+	}
+
+	private void writeId(Node subject) throws IOException {
+		out.write("\"@id\":");
+		quote(id(subject));
+	}
+
+	private void writeProperties(Graph graph, Node subject) throws IOException {
+		// grouped by predicate, types first as @type
+		Map<Node, List<Node>> properties = new LinkedHashMap<>();
+		properties.put(RDF.type.asNode(), new ArrayList<Node>());
+		ExtendedIterator<Triple> triples = graph.find(subject, Node.ANY, Node.ANY);
+		try {
+			while (triples.hasNext()) {
+				Triple triple = triples.next();
+				List<Node> values = properties.get(triple.getPredicate());
+				if (values == null) {
+					values = new ArrayList<>();
+					properties.put(triple.getPredicate(), values);
+				}
+				values.add(triple.getObject());
+			}
+		} finally {
+			triples.close();
+		}
+
+		for (Entry<Node, List<Node>> property : properties.entrySet()) {
+			List<Node> values = property.getValue();
+			if (values.isEmpty()) {
+				continue;
+			}
+
+			boolean types = RDF.type.asNode().equals(property.getKey()) && allIris(values);
+			out.write(',');
+			quote(types ? "@type" : compact(property.getKey().getURI()));
+			out.write(':');
+			if (values.size() > 1) {
+				out.write('[');
+			}
+			for (int i = 0; i < values.size(); i++) {
+				if (i > 0) {
+					out.write(',');
+				}
+				if (types) {
+					quote(compact(values.get(i).getURI()));
+				} else {
+					writeValue(values.get(i));
+				}
+			}
+			if (values.size() > 1) {
+				out.write(']');
+			}
+		}
+	}
+
+	private static boolean allIris(List<Node> values) {
+		for (Node value : values) {
+			if (!value.isURI()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void writeValue(Node object) throws IOException {
+		if (!object.isLiteral()) {
+			out.write("{\"@id\":");
+			quote(id(object));
+			out.write('}');
+			return;
+		}
+
+		String language = object.getLiteralLanguage();
+		String datatype = object.getLiteralDatatypeURI();
+		boolean plain = (language == null || language.isEmpty())
+				&& (datatype == null || XSDDatatype.XSDstring.getURI().equals(datatype));
+		if (plain) {
+			quote(object.getLiteralLexicalForm());
+			return;
+		}
+
+		out.write("{\"@value\":");
+		quote(object.getLiteralLexicalForm());
+		if (language != null && !language.isEmpty()) {
+			out.write(",\"@language\":");
+			quote(language);
+		} else {
+			out.write(",\"@type\":");
+			quote(compact(datatype));
+		}
+		out.write('}');
+	}
+
+	private String id(Node node) {
+		if (!node.isBlank()) {
+			return node.getURI();
+		}
+
+		String label = blankNodes.get(node);
+		if (label == null) {
+			label = "_:b" + blankNodes.size();
+			blankNodes.put(node, label);
+		}
+		return label;
+	}
+
+	/**
+	 * @return the IRI as prefix:name if a prefix of the model matches
+	 */
+	private String compact(String iri) {
+		String best = null;
+		for (String namespace : prefixes.keySet()) {
+			if (iri.startsWith(namespace) && iri.length() > namespace.length()
+					&& (best == null || namespace.length() > best.length())) {
+				best = namespace;
+			}
+		}
+		if (best == null || iri.startsWith("//", best.length())) {
+			return iri;
+		}
+
+		return prefixes.get(best) + ":" + iri.substring(best.length());
+	}
+
+	private void quote(String s) throws IOException {
+		JsonUtils.quote(out, s);
+	}
+
+}
@@ -1,20 +1,29 @@
 package org.w3.ldp.testsuite.mapper;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
-
-import org.apache.commons.io.IOUtils;
-import org.apache.jena.atlas.json.JSON;
-import org.apache.jena.atlas.json.JsonArray;
-import org.apache.jena.atlas.json.JsonObject;
-import org.apache.jena.atlas.json.JsonValue;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PushbackInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.input.ReaderInputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.w3.ldp.testsuite.data.ModelTemplate;
 import org.w3.ldp.testsuite.http.MediaTypes;
 import org.w3.ldp.testsuite.matcher.HeaderMatchers;
 
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.RDFWriter;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
 import com.jayway.restassured.mapper.ObjectMapper;
 import com.jayway.restassured.mapper.ObjectMapperDeserializationContext;
 import com.jayway.restassured.mapper.ObjectMapperSerializationContext;
@@ -34,10 +43,14 @@ public class RdfObjectMapper implements ObjectMapper {
 	private String getLang(String mediaType) {
 		if (HeaderMatchers.isTurtleCompatibleContentType().matches(mediaType)) {
 			return "TURTLE";
-		} else if (MediaTypes.APPLICATION_RDF_XML.equals(mediaType)) {
+		}
+
+		// ignore any parameters like charset
+		String type = StringUtils.substringBefore(mediaType, ";").trim();
+		if (MediaTypes.APPLICATION_RDF_XML.equals(type)) {
 			return "RDF/XML";
-		} else if (MediaTypes.APPLICATION_JSON.equals(mediaType) ||
-				MediaTypes.APPLICATION_LD_JSON.equals(mediaType)) {
+		} else if (MediaTypes.APPLICATION_JSON.equals(type) ||
+				MediaTypes.APPLICATION_LD_JSON.equals(type)) {
 			return "JSON-LD";
 		}
 
@@ -46,60 +59,137 @@ public class RdfObjectMapper implements ObjectMapper {
 
 	@Override
 	public Object deserialize(ObjectMapperDeserializationContext context) {
-		String input = context.getDataToDeserialize().asString();
+		// Parse straight from the response stream rather than buffering the
+		// whole (possibly very large) representation as a String first.
+		InputStream content = context.getDataToDeserialize().asInputStream();
+		if (CompactGraph.class.equals(context.getType())) {
+			return readGraph(content, context.getContentType());
+		}
+		return read(content, context.getContentType());
+	}
+
+	/**
+	 * Parses a model.
+	 *
+	 * @param content
+	 *            the representation, closed when done
+	 * @param contentType
+	 *            Turtle, RDF/XML or JSON-LD, possibly with a charset
+	 * @return the model, empty if there is no content
+	 */
+	public Model read(InputStream content, String contentType) {
 		Model m = ModelFactory.createDefaultModel();
+		parse(content, contentType, StreamRDFLib.graph(m.getGraph()));
+		return m;
+	}
+
+	/**
+	 * Parses a read-only {@link CompactGraph}, for responses that are only
+	 * checked for some triples.
+	 *
+	 * @param content
+	 *            the representation, closed when done
+	 * @param contentType
+	 *            Turtle, RDF/XML or JSON-LD, possibly with a charset
+	 * @return the graph, empty if there is no content
+	 */
+	public CompactGraph readGraph(InputStream content, String contentType) {
+		CompactGraph.Builder builder = new CompactGraph.Builder();
+		parse(content, contentType, builder);
+		return builder.build();
+	}
 
-		if (!input.isEmpty()) {
-			m.read(IOUtils.toInputStream(input), baseURI, getLang(context.getContentType()));
+	private void parse(InputStream content, String contentType, StreamRDF sink) {
+		Lang lang = RDFLanguages.nameToLang(getLang(contentType));
+
+		try (PushbackInputStream in = new PushbackInputStream(content)) {
+			int first = in.read();
+			if (first == -1) {
+				return;
+			}
+			in.unread(first);
+
+			Charset charset = getCharset(contentType);
+			if (charset == null || StandardCharsets.UTF_8.equals(charset) || RDFLanguages.RDFXML.equals(lang)) {
+				// UTF-8 is the default for Turtle and JSON-LD, RDF/XML declares its own encoding
+				RDFDataMgr.parse(sink, in, baseURI, lang);
+			} else {
+				RDFDataMgr.parse(sink, new ReaderInputStream(new InputStreamReader(in, charset), StandardCharsets.UTF_8), baseURI, lang);
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
 		}
+	}
 
-		return m;
+	/**
+	 * Gets the charset parameter of a media type.
+	 *
+	 * @param mediaType
+	 *            the media type, possibly with parameters
+	 * @return the charset or {@code null} if there is none or it isn't supported
+	 */
+	private Charset getCharset(String mediaType) {
+		if (mediaType == null) {
+			return null;
+		}
+
+		for (String param : mediaType.split(";")) {
+			String[] nameValue = param.split("=", 2);
+			if (nameValue.length == 2 && "charset".equalsIgnoreCase(nameValue[0].trim())) {
+				String charset = StringUtils.strip(nameValue[1].trim(), "\"");
+				try {
+					return Charset.forName(charset);
+				} catch (IllegalArgumentException e) {
+					return null;
+				}
+			}
+		}
+
+		return null;
 	}
 
 	@Override
 	public Object serialize(ObjectMapperSerializationContext context) {
 		Model model = context.getObjectToSerializeAs(Model.class);
-		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		if (baseURI.isEmpty()) {
+			// unchanged copies of a template are serialized only once
+			ModelTemplate template = ModelTemplate.getTemplate(model);
+			if (template != null) {
+				return template.getBytes(context.getContentType());
+			}
+		}
 
-		String lang = getLang(context.getContentType());
-		RDFWriter rdfWriter = model.getWriter(lang);
-		rdfWriter.setProperty("relativeURIs", "same-document");
-		rdfWriter.setProperty("allowBadURIs", "true");
-		rdfWriter.write(model, out, baseURI);
+		return write(model, context.getContentType());
+	}
+
+	/**
+	 * Serializes a model.
+	 *
+	 * @param model
+	 *            the model
+	 * @param mediaType
+	 *            Turtle, RDF/XML or JSON-LD
+	 * @return the serialized model
+	 */
+	public byte[] write(Model model, String mediaType) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
 
+		String lang = getLang(mediaType);
 		if ("JSON-LD".equals(lang)) {
-			// Do some additional processing to simplify the JSON-LD if
-			// possible and remove Jena's urn:x-arq:DefaultGraphNode.
+			// simplified compact form written directly, see CompactJsonLdWriter
 			try {
-				JsonObject json = JSON.parse(out.toString("UTF-8"));
-				JsonValue graph = json.get("@graph");
-				JsonValue jsonContext = json.get("@context");
-				if (graph != null && graph.isArray()) {
-					out = new ByteArrayOutputStream();
-					JsonArray a = graph.getAsArray();
-
-					if (a.size() == 1) {
-						// If size is 1, @graph isn't necessary.
-						JsonObject content = a.get(0).getAsObject();
-						if (jsonContext != null) {
-							// Preserve the context if it's there.
-							content.put("@context", jsonContext);
-						}
-
-						JSON.write(out, content);
-					} else {
-						// Remove graph ID urn:x-arq:DefaultGraphNode. If @id is
-						// left out, it is the implicit default graph.
-						// See https://issues.apache.org/jira/browse/JENA-794
-						json.remove("@id");
-						JSON.write(out, json);
-					}
-				}
-			} catch (UnsupportedEncodingException e) {
+				new CompactJsonLdWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)), model).write();
+			} catch (IOException e) {
 				throw new RuntimeException(e);
 			}
+			return out.toByteArray();
 		}
 
+		RDFWriter rdfWriter = model.getWriter(lang);
+		rdfWriter.setProperty("relativeURIs", "same-document");
+		rdfWriter.setProperty("allowBadURIs", "true");
+		rdfWriter.write(model, out, baseURI);
+
 		return out.toByteArray();
 	}
 }
@@ -0,0 +1,95 @@
+package org.w3.ldp.testsuite.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How a container behaves as it grows, measured at each size step of the
+ * large container benchmark.
+ */
+public class ContainerScaling {
+
+	private static final List<Step> steps = new ArrayList<>();
+
+	/**
+	 * The measurements for one container size.
+	 */
+	public static class Step {
+
+		private final int members;
+		private final long latencyMicros;
+		private final long bytes;
+		private final long parseMicros;
+		private final long heapBytes;
+		private final int missing;
+
+		/**
+		 * @param members
+		 *            the number of members created in the container
+		 * @param latencyMicros
+		 *            the time until the container GET response was read
+		 * @param bytes
+		 *            the size of the representation
+		 * @param parseMicros
+		 *            the time to parse the representation
+		 * @param heapBytes
+		 *            the client heap used by the parsed model
+		 * @param missing
+		 *            the number of members without an ldp:contains triple
+		 */
+		public Step(int members, long latencyMicros, long bytes, long parseMicros, long heapBytes, int missing) {
+			this.members = members;
+			this.latencyMicros = latencyMicros;
+			this.bytes = bytes;
+			this.parseMicros = parseMicros;
+			this.heapBytes = heapBytes;
+			this.missing = missing;
+		}
+
+		public int getMembers() {
+			return members;
+		}
+
+		public long getLatencyMicros() {
+			return latencyMicros;
+		}
+
+		public long getBytes() {
+			return bytes;
+		}
+
+		public long getParseMicros() {
+			return parseMicros;
+		}
+
+		public long getHeapBytes() {
+			return heapBytes;
+		}
+
+		public int getMissing() {
+			return missing;
+		}
+	}
+
+	public static void record(Step step) {
+		synchronized (steps) {
+			steps.add(step);
+		}
+	}
+
+	/**
+	 * @return the steps in the order they were measured
+	 */
+	public static List<Step> getSteps() {
+		synchronized (steps) {
+			return new ArrayList<>(steps);
+		}
+	}
+
+	public static boolean isEmpty() {
+		synchronized (steps) {
+			return steps.isEmpty();
+		}
+	}
+
+}
@@ -0,0 +1,84 @@
+package org.w3.ldp.testsuite.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import com.jayway.restassured.filter.Filter;
+import com.jayway.restassured.filter.FilterContext;
+import com.jayway.restassured.response.Response;
+import com.jayway.restassured.specification.FilterableRequestSpecification;
+import com.jayway.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * RestAssured filter measuring the latency of every request for the
+ * {@link LatencyRecorder}. Requests are attributed to the test (or
+ * configuration) method running on the current thread, whose result also
+ * keeps the number of requests and their total time.
+ */
+public class LatencyFilter implements Filter {
+
+	public static final String NO_TEST = "(no test)";
+
+	private static final String REQUESTS = LatencyFilter.class.getName() + ".requests";
+	private static final String REQUEST_NANOS = LatencyFilter.class.getName() + ".requestNanos";
+
+	@Override
+	public Response filter(FilterableRequestSpecification requestSpec,
+			FilterableResponseSpecification responseSpec, FilterContext ctx) {
+		final long start = System.nanoTime();
+		final Response response = ctx.next(requestSpec, responseSpec);
+		final long elapsed = System.nanoTime() - start;
+
+		final ITestResult result = Reporter.getCurrentTestResult();
+		LatencyRecorder.record(getTest(result),
+				String.valueOf(ctx.getRequestMethod()).toUpperCase(Locale.ENGLISH),
+				ctx.getCompleteRequestPath(), response, elapsed);
+		if (result != null) {
+			add(result, REQUESTS, 1);
+			add(result, REQUEST_NANOS, elapsed);
+		}
+
+		return response;
+	}
+
+	/**
+	 * @return the number of requests sent by a test
+	 */
+	public static long getRequests(ITestResult result) {
+		return get(result, REQUESTS);
+	}
+
+	/**
+	 * @return the total time of the requests sent by a test
+	 */
+	public static long getRequestNanos(ITestResult result) {
+		return get(result, REQUEST_NANOS);
+	}
+
+	private static void add(ITestResult result, String name, long value) {
+		// only the thread running the test sends its requests
+		AtomicLong total = (AtomicLong) result.getAttribute(name);
+		if (total == null) {
+			total = new AtomicLong();
+			result.setAttribute(name, total);
+		}
+		total.addAndGet(value);
+	}
+
+	private static long get(ITestResult result, String name) {
+		AtomicLong total = (AtomicLong) result.getAttribute(name);
+		return total != null ? total.get() : 0;
+	}
+
+	private static String getTest(ITestResult result) {
+		if (result == null || result.getTestClass() == null) {
+			return NO_TEST;
+		}
+
+		return result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+	}
+
+}
@@ -0,0 +1,117 @@
+package org.w3.ldp.testsuite.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with log-linear buckets in the style of
+ * HdrHistogram. Values are kept in microseconds with a relative error of at
+ * most 1/64 (about 1.6%), from 1 microsecond up to several days, in a fixed
+ * number of buckets.
+ */
+public class LatencyHistogram {
+
+	// values below 2^SUB_BUCKET_BITS are counted exactly
+	private static final int SUB_BUCKET_BITS = 7;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int HALF_COUNT = SUB_BUCKET_COUNT / 2;
+	private static final int MAX_SHIFT = 33;
+	private static final long HIGHEST_VALUE = ((long) SUB_BUCKET_COUNT << MAX_SHIFT) - 1;
+
+	private final AtomicLongArray counts = new AtomicLongArray(SUB_BUCKET_COUNT + MAX_SHIFT * HALF_COUNT);
+	private final AtomicLong totalCount = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a latency.
+	 */
+	public void record(long duration, TimeUnit unit) {
+		long value = Math.min(Math.max(unit.toMicros(duration), 0), HIGHEST_VALUE);
+		counts.incrementAndGet(indexOf(value));
+		totalCount.incrementAndGet();
+
+		long current;
+		while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+			// retry
+		}
+	}
+
+	/**
+	 * Adds all values recorded by another histogram to this one.
+	 */
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < counts.length(); i++) {
+			long count = other.counts.get(i);
+			if (count != 0) {
+				counts.addAndGet(i, count);
+			}
+		}
+		totalCount.addAndGet(other.totalCount.get());
+
+		long current;
+		long value = other.max.get();
+		while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+			// retry
+		}
+	}
+
+	public long getCount() {
+		return totalCount.get();
+	}
+
+	/**
+	 * @return the highest recorded value in microseconds
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Gets the value below which a percentage of the recorded values fall.
+	 *
+	 * @param percentile
+	 *            the percentile, for instance 99.0
+	 * @return the value in microseconds (the upper bound of its bucket), or 0
+	 *         if nothing was recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long total = totalCount.get();
+		if (total == 0) {
+			return 0;
+		}
+
+		long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * total));
+		long seen = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			seen += counts.get(i);
+			if (seen >= target) {
+				return Math.min(highestValueIn(i), getMax());
+			}
+		}
+
+		return getMax();
+	}
+
+	static int indexOf(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+
+		// keep the SUB_BUCKET_BITS - 1 bits after the highest one
+		int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+		int subBucket = (int) (value >>> shift) - HALF_COUNT;
+		return SUB_BUCKET_COUNT + (shift - 1) * HALF_COUNT + subBucket;
+	}
+
+	static long highestValueIn(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+
+		int shift = (index - SUB_BUCKET_COUNT) / HALF_COUNT + 1;
+		long subBucket = (index - SUB_BUCKET_COUNT) % HALF_COUNT + HALF_COUNT;
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+}
@@ -0,0 +1,96 @@
+package org.w3.ldp.testsuite.metrics;
+
+/**
+ * What a latency was recorded for: the test method, the HTTP method, the role
+ * of the target resource and the status class of the response.
+ */
+public class LatencyKey implements Comparable<LatencyKey> {
+
+	public static final String ALL_TESTS = "*";
+
+	private final String test;
+	private final String method;
+	private final String role;
+	private final String status;
+
+	public LatencyKey(String test, String method, String role, String status) {
+		this.test = test;
+		this.method = method;
+		this.role = role;
+		this.status = status;
+	}
+
+	/**
+	 * @return the test method as class.method, or a name for requests outside
+	 *         of tests
+	 */
+	public String getTest() {
+		return test;
+	}
+
+	public String getMethod() {
+		return method;
+	}
+
+	/**
+	 * @return the role of the target, see {@link LatencyRecorder}
+	 */
+	public String getRole() {
+		return role;
+	}
+
+	/**
+	 * @return the status class, for instance 2xx
+	 */
+	public String getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return the same key for all tests
+	 */
+	public LatencyKey withoutTest() {
+		return new LatencyKey(ALL_TESTS, method, role, status);
+	}
+
+	@Override
+	public int compareTo(LatencyKey o) {
+		int c = test.compareTo(o.test);
+		if (c == 0) {
+			c = method.compareTo(o.method);
+		}
+		if (c == 0) {
+			c = role.compareTo(o.role);
+		}
+		if (c == 0) {
+			c = status.compareTo(o.status);
+		}
+		return c;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof LatencyKey)) {
+			return false;
+		}
+
+		LatencyKey other = (LatencyKey) obj;
+		return test.equals(other.test) && method.equals(other.method)
+				&& role.equals(other.role) && status.equals(other.status);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = test.hashCode();
+		result = 31 * result + method.hashCode();
+		result = 31 * result + role.hashCode();
+		result = 31 * result + status.hashCode();
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return test + " " + method + " " + role + " " + status;
+	}
+
+}
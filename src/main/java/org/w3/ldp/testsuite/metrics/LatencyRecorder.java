@@ -0,0 +1,152 @@
+package org.w3.ldp.testsuite.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.w3.ldp.testsuite.http.HttpMethod;
+import org.w3.ldp.testsuite.http.LinkHeaders;
+import org.w3.ldp.testsuite.vocab.LDP;
+
+import com.jayway.restassured.response.Response;
+
+/**
+ * Suite-wide latency histograms of all HTTP requests, see
+ * {@link LatencyFilter}.
+ */
+public class LatencyRecorder {
+
+	public static final String CONTAINER = "container";
+	public static final String MEMBER = "member";
+	public static final String NON_RDF_SOURCE = "LDP-NR";
+	public static final String OTHER = "other";
+
+	private static final ConcurrentMap<LatencyKey, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+	// the role of each resource, learned from the type links of its responses
+	private static final ConcurrentMap<String, String> roles = new ConcurrentHashMap<>();
+
+	private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Notified of every recorded request, on the thread that sent it.
+	 */
+	public interface Listener {
+
+		void recorded(LatencyKey key, long nanos);
+
+	}
+
+	public static void addListener(Listener listener) {
+		listeners.add(listener);
+	}
+
+	public static void removeListener(Listener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Records the latency of one request.
+	 *
+	 * @param test
+	 *            the test method
+	 * @param method
+	 *            the request method
+	 * @param uri
+	 *            the request URI
+	 * @param response
+	 *            the response
+	 * @param nanos
+	 *            the time until the response was received
+	 */
+	public static void record(String test, String method, String uri, Response response, long nanos) {
+		LatencyKey key = new LatencyKey(test, method, getRole(method, uri, response), response.getStatusCode() / 100 + "xx");
+		LatencyHistogram histogram = histograms.get(key);
+		if (histogram == null) {
+			histogram = new LatencyHistogram();
+			LatencyHistogram existing = histograms.putIfAbsent(key, histogram);
+			if (existing != null) {
+				histogram = existing;
+			}
+		}
+
+		histogram.record(nanos, TimeUnit.NANOSECONDS);
+		for (Listener listener : listeners) {
+			listener.recorded(key, nanos);
+		}
+	}
+
+	/**
+	 * @return the histograms of each test
+	 */
+	public static SortedMap<LatencyKey, LatencyHistogram> getHistograms() {
+		return new TreeMap<>(histograms);
+	}
+
+	/**
+	 * @return the histograms of all tests together
+	 */
+	public static SortedMap<LatencyKey, LatencyHistogram> getTotals() {
+		SortedMap<LatencyKey, LatencyHistogram> totals = new TreeMap<>();
+		for (Map.Entry<LatencyKey, LatencyHistogram> entry : histograms.entrySet()) {
+			LatencyKey key = entry.getKey().withoutTest();
+			LatencyHistogram total = totals.get(key);
+			if (total == null) {
+				total = new LatencyHistogram();
+				totals.put(key, total);
+			}
+			total.add(entry.getValue());
+		}
+
+		return totals;
+	}
+
+	public static boolean isEmpty() {
+		return histograms.isEmpty();
+	}
+
+	public static void clear() {
+		histograms.clear();
+		roles.clear();
+	}
+
+	private static String getRole(String method, String uri, Response response) {
+		// only these responses describe the request URI
+		if (HttpMethod.GET.getName().equals(method)
+				|| HttpMethod.HEAD.getName().equals(method)
+				|| HttpMethod.OPTIONS.getName().equals(method)) {
+			String role = getRole(LinkHeaders.getTypes(response.getHeaders()));
+			if (role != null) {
+				roles.put(uri, role);
+				return role;
+			}
+		}
+
+		String role = roles.get(uri);
+		return role != null ? role : OTHER;
+	}
+
+	private static String getRole(Set<String> types) {
+		if (types.contains(LDP.BasicContainer.stringValue())
+				|| types.contains(LDP.DirectContainer.stringValue())
+				|| types.contains(LDP.IndirectContainer.stringValue())
+				|| types.contains(LDP.Container.stringValue())) {
+			return CONTAINER;
+		}
+		if (types.contains(LDP.NonRDFSource.stringValue())) {
+			return NON_RDF_SOURCE;
+		}
+		if (types.contains(LDP.RDFSource.stringValue()) || types.contains(LDP.Resource.stringValue())) {
+			return MEMBER;
+		}
+
+		return null;
+	}
+
+}
@@ -0,0 +1,103 @@
+package org.w3.ldp.testsuite.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-page latency and throughput of the page sequences walked by the LDP
+ * Paging tests.
+ */
+public class PageTraversals {
+
+	private static final List<Traversal> traversals = new ArrayList<>();
+
+	/**
+	 * One walk through the pages of a paged resource.
+	 */
+	public static class Traversal {
+
+		private final String test;
+		private final String resource;
+		private final LatencyHistogram latencies = new LatencyHistogram();
+		private long triples;
+		private long elapsedNanos;
+
+		/**
+		 * @param test
+		 *            the test method walking the pages
+		 * @param resource
+		 *            the paged resource
+		 */
+		public Traversal(String test, String resource) {
+			this.test = test;
+			this.resource = resource;
+		}
+
+		/**
+		 * Records one page.
+		 *
+		 * @param nanos
+		 *            the time until the page was received
+		 * @param pageTriples
+		 *            the number of triples on the page
+		 */
+		public void page(long nanos, long pageTriples) {
+			latencies.record(nanos, TimeUnit.NANOSECONDS);
+			triples += pageTriples;
+		}
+
+		public void setElapsed(long nanos) {
+			this.elapsedNanos = nanos;
+		}
+
+		public String getTest() {
+			return test;
+		}
+
+		public String getResource() {
+			return resource;
+		}
+
+		public long getPages() {
+			return latencies.getCount();
+		}
+
+		public long getTriples() {
+			return triples;
+		}
+
+		/**
+		 * @return the page latencies in microseconds
+		 */
+		public LatencyHistogram getLatencies() {
+			return latencies;
+		}
+
+		public double getPagesPerSecond() {
+			return elapsedNanos > 0 ? getPages() / (elapsedNanos / 1e9) : 0;
+		}
+	}
+
+	public static void record(Traversal traversal) {
+		synchronized (traversals) {
+			traversals.add(traversal);
+		}
+	}
+
+	/**
+	 * @return the traversals in the order they finished
+	 */
+	public static List<Traversal> getTraversals() {
+		synchronized (traversals) {
+			return new ArrayList<>(traversals);
+		}
+	}
+
+	public static boolean isEmpty() {
+		synchronized (traversals) {
+			return traversals.isEmpty();
+		}
+	}
+
+}
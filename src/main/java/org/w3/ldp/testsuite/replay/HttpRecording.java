@@ -0,0 +1,92 @@
+package org.w3.ldp.testsuite.replay;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Locale;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * The on-disk format of HTTP recordings, written by {@link RecordingWriter}
+ * and read by {@link RecordingReader}.
+ * <p>
+ * A recording starts with {@link #MAGIC}, {@link #VERSION} and the seed of
+ * the {@link ResourceNames} of the run, followed by one record per exchange. Each record is an int with its length and then the
+ * request method, request URI, request variant (see {@link #variant}),
+ * status code, status line, the response headers as a count and name/value
+ * pairs, and the response body as a length and bytes. Strings are written as
+ * a length and UTF-8 bytes. Records are only ever appended, so a recording
+ * interrupted by a crash can still be read up to the last complete record.
+ * <p>
+ * When a recording is closed normally, an index of all records follows: a
+ * count, then the request key, variant and file offset of each record, and
+ * finally the offset of the index and {@link #INDEX_MAGIC}. Without an index
+ * the records are scanned when the recording is opened.
+ */
+public class HttpRecording {
+
+	public static final int MAGIC = 0x4c445052; // "LDPR"
+	public static final short VERSION = 2;
+	public static final int HEADER_LENGTH = 14;
+	public static final int SEED_OFFSET = 6;
+
+	public static final int INDEX_MAGIC = 0x4c445049; // "LDPI"
+	public static final int TRAILER_LENGTH = 12; // index offset and magic
+
+	private HttpRecording() {
+	}
+
+	/**
+	 * Gets the key recorded responses are looked up with.
+	 *
+	 * @param method
+	 *            the request method
+	 * @param uri
+	 *            the absolute request URI
+	 * @return the key
+	 */
+	public static String key(String method, String uri) {
+		return method.toUpperCase(Locale.ENGLISH) + ' ' + normalize(uri);
+	}
+
+	/**
+	 * Gets the request headers that select a representation, so responses
+	 * recorded for different Accept or Prefer headers are told apart.
+	 */
+	public static String variant(String accept, String prefer) {
+		if ("*/*".equals(StringUtils.trim(accept))) {
+			// what the HTTP client sends when there's no Accept header
+			accept = null;
+		}
+
+		return StringUtils.trimToEmpty(accept) + '\n' + StringUtils.trimToEmpty(prefer);
+	}
+
+	private static String normalize(String uri) {
+		final URI u;
+		try {
+			u = new URI(uri).normalize();
+		} catch (URISyntaxException e) {
+			return uri;
+		}
+		if (u.getScheme() == null || u.getHost() == null) {
+			return uri;
+		}
+
+		// http://Example.com:80/a/./b and http://example.com/a/b are the same request
+		StringBuilder builder = new StringBuilder();
+		String scheme = u.getScheme().toLowerCase(Locale.ENGLISH);
+		builder.append(scheme).append("://").append(u.getHost().toLowerCase(Locale.ENGLISH));
+		int port = u.getPort();
+		if (port != -1 && !("http".equals(scheme) && port == 80) && !("https".equals(scheme) && port == 443)) {
+			builder.append(':').append(port);
+		}
+		builder.append(StringUtils.defaultIfEmpty(u.getRawPath(), "/"));
+		if (u.getRawQuery() != null) {
+			builder.append('?').append(u.getRawQuery());
+		}
+
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,61 @@
+package org.w3.ldp.testsuite.replay;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.jayway.restassured.builder.ResponseBuilder;
+import com.jayway.restassured.filter.Filter;
+import com.jayway.restassured.filter.FilterContext;
+import com.jayway.restassured.response.Header;
+import com.jayway.restassured.response.Headers;
+import com.jayway.restassured.response.Response;
+import com.jayway.restassured.specification.FilterableRequestSpecification;
+import com.jayway.restassured.specification.FilterableResponseSpecification;
+
+import static org.w3.ldp.testsuite.http.HttpHeaders.ACCEPT;
+import static org.w3.ldp.testsuite.http.HttpHeaders.PREFER;
+
+/**
+ * RestAssured filter recording every request and response so a later run can
+ * replay them with a {@link ReplayServer} instead of using the server.
+ */
+public class RecordingFilter implements Filter {
+
+	private final RecordingWriter writer;
+
+	public RecordingFilter(RecordingWriter writer) {
+		this.writer = writer;
+	}
+
+	@Override
+	public Response filter(FilterableRequestSpecification requestSpec,
+			FilterableResponseSpecification responseSpec, FilterContext ctx) {
+		final Headers requestHeaders = requestSpec.getHeaders();
+		final String method = String.valueOf(ctx.getRequestMethod()).toUpperCase(Locale.ENGLISH);
+		final String uri = ctx.getCompleteRequestPath();
+		final String variant = HttpRecording.variant(requestHeaders.getValue(ACCEPT), requestHeaders.getValue(PREFER));
+
+		final Response response = ctx.next(requestSpec, responseSpec);
+
+		// Read the body once and hand a copy to the caller, the original stream is consumed.
+		final byte[] body = response.asByteArray();
+		final List<Map.Entry<String, String>> headers = new ArrayList<>();
+		for (Header header : response.getHeaders()) {
+			headers.add(new AbstractMap.SimpleImmutableEntry<>(header.getName(), header.getValue()));
+		}
+
+		try {
+			writer.append(method, uri, variant, response.getStatusCode(), response.getStatusLine(), headers, body);
+		} catch (IOException e) {
+			System.err.println("WARNING: Error recording " + method + " " + uri);
+			e.printStackTrace();
+		}
+
+		return new ResponseBuilder().clone(response).setBody(body).build();
+	}
+
+}
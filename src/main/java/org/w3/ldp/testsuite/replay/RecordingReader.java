@@ -0,0 +1,236 @@
+package org.w3.ldp.testsuite.replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves recorded responses from a memory-mapped recording. When the same
+ * request was recorded several times, the responses are returned in the order
+ * they were recorded, and the last one is repeated after that. This way a
+ * GET before and after a change gets the right response.
+ *
+ * @see HttpRecording
+ */
+public class RecordingReader {
+
+	private final ByteBuffer buffer;
+
+	// request key -> responses by variant, and in any variant
+	private final Map<String, Map<String, Sequence>> byVariant = new HashMap<>();
+	private final Map<String, Sequence> anyVariant = new HashMap<>();
+
+	private int size;
+
+	private final long seed;
+
+	public RecordingReader(File file) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+				FileChannel channel = raf.getChannel()) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Recording too large: " + file);
+			}
+
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			this.buffer = mapped.asReadOnlyBuffer();
+		}
+
+		if (buffer.limit() < HttpRecording.HEADER_LENGTH
+				|| buffer.getInt(0) != HttpRecording.MAGIC
+				|| buffer.getShort(4) != HttpRecording.VERSION) {
+			throw new IOException("Not an LDP test suite HTTP recording: " + file);
+		}
+		seed = buffer.getLong(HttpRecording.SEED_OFFSET);
+
+		if (!readIndex()) {
+			scan();
+		}
+	}
+
+	/**
+	 * @return the number of recorded exchanges
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the seed for the {@link ResourceNames} of the recorded run
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Gets the next recorded response for a request.
+	 *
+	 * @param method
+	 *            the request method
+	 * @param uri
+	 *            the absolute request URI
+	 * @param variant
+	 *            the request variant, see {@link HttpRecording#variant}
+	 * @return the response or {@code null} if the request wasn't recorded
+	 */
+	public RecordedResponse next(String method, String uri, String variant) {
+		String key = HttpRecording.key(method, uri);
+		Sequence sequence = null;
+		Map<String, Sequence> variants = byVariant.get(key);
+		if (variants != null) {
+			sequence = variants.get(variant);
+		}
+		if (sequence == null) {
+			// recorded with different headers, still better than nothing
+			sequence = anyVariant.get(key);
+		}
+		if (sequence == null) {
+			return null;
+		}
+
+		return read(sequence.next());
+	}
+
+	private boolean readIndex() {
+		int limit = buffer.limit();
+		if (limit < HttpRecording.HEADER_LENGTH + HttpRecording.TRAILER_LENGTH
+				|| buffer.getInt(limit - 4) != HttpRecording.INDEX_MAGIC) {
+			return false;
+		}
+
+		ByteBuffer in = buffer.duplicate();
+		in.position((int) buffer.getLong(limit - HttpRecording.TRAILER_LENGTH));
+		int count = in.getInt();
+		for (int i = 0; i < count; i++) {
+			String key = readString(in);
+			String variant = readString(in);
+			add(key, variant, (int) in.getLong());
+		}
+
+		return true;
+	}
+
+	private void scan() {
+		// no index, the recording wasn't closed
+		int limit = buffer.limit();
+		int position = HttpRecording.HEADER_LENGTH;
+		ByteBuffer in = buffer.duplicate();
+		while (position + 4 <= limit) {
+			int length = buffer.getInt(position);
+			if (length < 0 || position + 4 + length > limit) {
+				break; // incomplete last record
+			}
+
+			in.position(position + 4);
+			String method = readString(in);
+			String uri = readString(in);
+			String variant = readString(in);
+			add(HttpRecording.key(method, uri), variant, position);
+			position += 4 + length;
+		}
+	}
+
+	private void add(String key, String variant, int offset) {
+		Map<String, Sequence> variants = byVariant.get(key);
+		if (variants == null) {
+			variants = new HashMap<>();
+			byVariant.put(key, variants);
+		}
+		sequence(variants, variant).offsets.add(offset);
+		sequence(anyVariant, key).offsets.add(offset);
+		size++;
+	}
+
+	private static Sequence sequence(Map<String, Sequence> map, String key) {
+		Sequence sequence = map.get(key);
+		if (sequence == null) {
+			sequence = new Sequence();
+			map.put(key, sequence);
+		}
+		return sequence;
+	}
+
+	private RecordedResponse read(int offset) {
+		ByteBuffer in = buffer.duplicate();
+		in.position(offset + 4);
+		readString(in); // method
+		readString(in); // uri
+		readString(in); // variant
+		int status = in.getInt();
+		String statusLine = readString(in);
+		int headerCount = in.getInt();
+		List<Map.Entry<String, String>> headers = new ArrayList<>(headerCount);
+		for (int i = 0; i < headerCount; i++) {
+			headers.add(new AbstractMap.SimpleImmutableEntry<>(readString(in), readString(in)));
+		}
+		int bodyLength = in.getInt();
+		in.limit(in.position() + bodyLength);
+
+		return new RecordedResponse(status, statusLine, Collections.unmodifiableList(headers), in.slice());
+	}
+
+	private static String readString(ByteBuffer in) {
+		int length = in.getInt();
+		if (length == 0) {
+			return "";
+		}
+		byte[] bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static class Sequence {
+		final List<Integer> offsets = new ArrayList<>();
+		final AtomicInteger next = new AtomicInteger();
+
+		int next() {
+			int i = next.getAndIncrement();
+			return offsets.get(Math.min(i, offsets.size() - 1));
+		}
+	}
+
+	/**
+	 * A recorded response. The body is a read-only view of the mapped
+	 * recording.
+	 */
+	public static class RecordedResponse {
+		private final int status;
+		private final String statusLine;
+		private final List<Map.Entry<String, String>> headers;
+		private final ByteBuffer body;
+
+		RecordedResponse(int status, String statusLine, List<Map.Entry<String, String>> headers, ByteBuffer body) {
+			this.status = status;
+			this.statusLine = statusLine;
+			this.headers = headers;
+			this.body = body;
+		}
+
+		public int getStatus() {
+			return status;
+		}
+
+		public String getStatusLine() {
+			return statusLine;
+		}
+
+		public List<Map.Entry<String, String>> getHeaders() {
+			return headers;
+		}
+
+		public ByteBuffer getBody() {
+			return body.duplicate();
+		}
+	}
+
+}
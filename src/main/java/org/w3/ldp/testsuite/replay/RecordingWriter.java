@@ -0,0 +1,160 @@
+package org.w3.ldp.testsuite.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends HTTP exchanges to a recording. Safe to use from several threads.
+ *
+ * @see HttpRecording
+ */
+public class RecordingWriter implements Closeable {
+
+	private final DataOutputStream out;
+
+	private final List<IndexEntry> index = new ArrayList<>();
+
+	private long position;
+
+	private boolean closed;
+
+	private final long seed;
+
+	// guards the stream, a monitor would pin virtual threads while writing
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Starts a new recording, replacing {@code file} if it exists.
+	 */
+	public RecordingWriter(File file) throws IOException {
+		// new for each recording, so the names don't clash with earlier runs
+		this.seed = ThreadLocalRandom.current().nextLong();
+		this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, false)));
+		out.writeInt(HttpRecording.MAGIC);
+		out.writeShort(HttpRecording.VERSION);
+		out.writeLong(seed);
+		out.flush();
+		position = HttpRecording.HEADER_LENGTH;
+	}
+
+	/**
+	 * @return the seed for the {@link ResourceNames} of the recorded run
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Appends one exchange.
+	 *
+	 * @param method
+	 *            the request method
+	 * @param uri
+	 *            the absolute request URI
+	 * @param variant
+	 *            the request variant, see {@link HttpRecording#variant}
+	 * @param status
+	 *            the response status code
+	 * @param statusLine
+	 *            the response status line
+	 * @param headers
+	 *            the response headers, as name and value pairs
+	 * @param body
+	 *            the response body
+	 */
+	public void append(String method, String uri, String variant, int status, String statusLine,
+			List<Map.Entry<String, String>> headers, byte[] body) throws IOException {
+		// serialize outside the lock, only the write needs it
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length + 512);
+		DataOutputStream record = new DataOutputStream(bytes);
+		writeString(record, method);
+		writeString(record, uri);
+		writeString(record, variant);
+		record.writeInt(status);
+		writeString(record, statusLine);
+		record.writeInt(headers.size());
+		for (Map.Entry<String, String> header : headers) {
+			writeString(record, header.getKey());
+			writeString(record, header.getValue());
+		}
+		record.writeInt(body.length);
+		record.write(body);
+		record.flush();
+
+		lock.lock();
+		try {
+			if (closed) {
+				throw new IOException("Recording is closed");
+			}
+
+			index.add(new IndexEntry(HttpRecording.key(method, uri), variant, position));
+			out.writeInt(bytes.size());
+			bytes.writeTo(out);
+			position += 4 + bytes.size();
+			// keep what's recorded so far readable if the run is aborted
+			out.flush();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Writes the index and closes the recording.
+	 */
+	@Override
+	public void close() throws IOException {
+		lock.lock();
+		try {
+			if (closed) {
+				return;
+			}
+
+			closed = true;
+			try {
+				long indexOffset = position;
+				out.writeInt(index.size());
+				for (IndexEntry entry : index) {
+					writeString(out, entry.key);
+					writeString(out, entry.variant);
+					out.writeLong(entry.offset);
+				}
+				out.writeLong(indexOffset);
+				out.writeInt(HttpRecording.INDEX_MAGIC);
+			} finally {
+				out.close();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	static void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = (s != null ? s : "").getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static class IndexEntry {
+		final String key;
+		final String variant;
+		final long offset;
+
+		IndexEntry(String key, String variant, long offset) {
+			this.key = key;
+			this.variant = variant;
+			this.offset = offset;
+		}
+	}
+
+}
@@ -0,0 +1,164 @@
+package org.w3.ldp.testsuite.replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpStatus;
+import org.w3.ldp.testsuite.util.TaskExecutors;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import static org.w3.ldp.testsuite.http.HttpHeaders.ACCEPT;
+import static org.w3.ldp.testsuite.http.HttpHeaders.PREFER;
+
+/**
+ * Local stand-in for the server under test that answers with the responses
+ * of a recording. The HTTP client uses it as a proxy for all requests,
+ * including https ones (see {@link org.w3.ldp.testsuite.http.PooledHttpClientFactory#setStandIn}),
+ * so it sees the original request URIs.
+ * <p>
+ * Requests that weren't recorded get a 502 response. The URIs the test suite
+ * makes up itself, like the target of <code>testPutToCreate</code>, are the
+ * recorded ones as long as the {@link ResourceNames} use the seed of the
+ * recording, see {@link #getSeed()}.
+ */
+public class ReplayServer {
+
+	// set by the stand-in itself or meaningless for the recorded body
+	private static final Set<String> SKIPPED_HEADERS = new HashSet<>(Arrays.asList(
+			"content-length", "transfer-encoding", "content-encoding", "connection", "keep-alive"));
+
+	private final RecordingReader recording;
+
+	private final HttpServer server;
+
+	private final ExecutorService executor;
+
+	private ReplayServer(RecordingReader recording, int threads) throws IOException {
+		this.recording = recording;
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		this.executor = TaskExecutors.newExecutor("ldp-replay", threads);
+		server.setExecutor(executor);
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				try {
+					replay(exchange);
+				} finally {
+					exchange.close();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Starts a stand-in on a free port of the loopback interface.
+	 *
+	 * @param file
+	 *            the recording
+	 * @param threads
+	 *            the number of requests to handle concurrently
+	 * @return the running stand-in
+	 */
+	public static ReplayServer start(File file, int threads) throws IOException {
+		ReplayServer replayServer = new ReplayServer(new RecordingReader(file), threads);
+		replayServer.server.start();
+		return replayServer;
+	}
+
+	/**
+	 * @return the address to use as proxy
+	 */
+	public HttpHost getAddress() {
+		InetSocketAddress address = server.getAddress();
+		return new HttpHost(address.getAddress().getHostAddress(), address.getPort(), "http");
+	}
+
+	public int getRecordedExchanges() {
+		return recording.size();
+	}
+
+	/**
+	 * @return the seed for the {@link ResourceNames} of the recorded run
+	 */
+	public long getSeed() {
+		return recording.getSeed();
+	}
+
+	public void stop() {
+		server.stop(0);
+		TaskExecutors.shutdownAndWait(executor, 10, TimeUnit.SECONDS);
+	}
+
+	private void replay(HttpExchange exchange) throws IOException {
+		final Headers requestHeaders = exchange.getRequestHeaders();
+		final String method = exchange.getRequestMethod().toUpperCase(Locale.ENGLISH);
+		String uri = exchange.getRequestURI().toString();
+		if (!exchange.getRequestURI().isAbsolute()) {
+			// not sent as a proxy request
+			uri = URI.create("http://" + requestHeaders.getFirst("Host")).resolve(uri).toString();
+		}
+
+		// the request body doesn't matter, but the client expects it to be read
+		try (InputStream in = exchange.getRequestBody()) {
+			byte[] discard = new byte[8192];
+			while (in.read(discard) != -1) {
+				// skip
+			}
+		}
+
+		RecordingReader.RecordedResponse response = recording.next(method, uri,
+				HttpRecording.variant(requestHeaders.getFirst(ACCEPT), requestHeaders.getFirst(PREFER)));
+		if (response == null) {
+			byte[] message = ("No recorded response for " + method + " " + uri).getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+			exchange.sendResponseHeaders(HttpStatus.SC_BAD_GATEWAY, message.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(message);
+			}
+			return;
+		}
+
+		Headers responseHeaders = exchange.getResponseHeaders();
+		for (Map.Entry<String, String> header : response.getHeaders()) {
+			if (!SKIPPED_HEADERS.contains(header.getKey().toLowerCase(Locale.ENGLISH))) {
+				responseHeaders.add(header.getKey(), header.getValue());
+			}
+		}
+
+		ByteBuffer body = response.getBody();
+		int status = response.getStatus();
+		boolean noBody = "HEAD".equals(method) || status == HttpStatus.SC_NO_CONTENT
+				|| status == HttpStatus.SC_NOT_MODIFIED || !body.hasRemaining();
+		exchange.sendResponseHeaders(status, noBody ? -1 : body.remaining());
+		if (!noBody) {
+			try (OutputStream out = exchange.getResponseBody()) {
+				byte[] chunk = new byte[8192];
+				while (body.hasRemaining()) {
+					int length = Math.min(chunk.length, body.remaining());
+					body.get(chunk, 0, length);
+					out.write(chunk, 0, length);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,94 @@
+package org.w3.ldp.testsuite.replay;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+/**
+ * Names for the resources the test suite creates with PUT, which it has to
+ * make up itself, and the slugs it suggests with POST. Normally they're
+ * random. While recording or
+ * replaying, they're name-based UUIDs from the seed of the recording, the
+ * parent URI, the current test method and a count per parent and method. So a
+ * replay asks for the same URIs as the recorded run, even when tests run in a
+ * different order.
+ *
+ * @see HttpRecording
+ */
+public class ResourceNames {
+
+	private static final int SLUG_LENGTH = 6;
+
+	private static volatile Long seed;
+
+	private static final ConcurrentMap<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+	private ResourceNames() {
+	}
+
+	/**
+	 * Makes names reproducible from {@code seed}, or random again with
+	 * {@code null}.
+	 */
+	public static void setSeed(Long seed) {
+		ResourceNames.seed = seed;
+		counts.clear();
+	}
+
+	/**
+	 * Gets the name for a new resource.
+	 *
+	 * @param parent
+	 *            the URI the resource is created in
+	 * @return a UUID as string
+	 */
+	public static String next(String parent) {
+		final Long s = seed;
+		if (s == null) {
+			return UUID.randomUUID().toString();
+		}
+
+		final ITestResult test = Reporter.getCurrentTestResult();
+		final String key = parent + '\n' + (test != null ? test.getMethod().getMethodName() : "");
+		AtomicInteger count = counts.get(key);
+		if (count == null) {
+			AtomicInteger existing = counts.putIfAbsent(key, count = new AtomicInteger());
+			if (existing != null) {
+				count = existing;
+			}
+		}
+
+		final String name = Long.toHexString(s) + '\n' + key + '\n' + count.getAndIncrement();
+		return UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)).toString();
+	}
+
+	/**
+	 * Gets a slug to suggest for a new resource. It's short and only letters,
+	 * so the server is likely to use it unchanged.
+	 *
+	 * @param parent
+	 *            the container the resource is created in
+	 * @return six letters
+	 */
+	public static String slug(String parent) {
+		if (seed == null) {
+			return RandomStringUtils.randomAlphabetic(SLUG_LENGTH);
+		}
+
+		// the hex digits of a name as letters a to p
+		final String name = next(parent).replace("-", "");
+		final StringBuilder slug = new StringBuilder(SLUG_LENGTH);
+		for (int i = 0; i < SLUG_LENGTH; i++) {
+			slug.append((char) ('a' + Character.digit(name.charAt(i), 16)));
+		}
+
+		return slug.toString();
+	}
+
+}
@@ -0,0 +1,158 @@
+package org.w3.ldp.testsuite.reporter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ResIterator;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.util.iterator.ExtendedIterator;
+
+import static org.w3.ldp.testsuite.util.JsonUtils.quote;
+
+/**
+ * Appends EARL triples to a Turtle file and a JSON-LD file as they are
+ * produced, so no graph of the whole run is kept. The Turtle file has the
+ * prefixes followed by one triple per line and stays valid after every
+ * {@link #write(Model)}; the JSON-LD file is a <code>@graph</code> of node
+ * objects that is closed by {@link #close()}.
+ */
+class EarlStreamWriter implements Closeable {
+
+	private final Writer turtle;
+
+	private final Writer json;
+
+	private boolean firstNode = true;
+
+	EarlStreamWriter(Writer turtle, Writer json, Map<String, String> prefixes) throws IOException {
+		this.turtle = turtle;
+		this.json = json;
+
+		json.write("{\n  \"@context\": {");
+		boolean first = true;
+		for (Entry<String, String> prefix : prefixes.entrySet()) {
+			turtle.write("@prefix " + prefix.getKey() + ": <" + prefix.getValue() + "> .\n");
+			json.write(first ? "\n" : ",\n");
+			json.write("    " + quote(prefix.getKey()) + ": " + quote(prefix.getValue()));
+			first = false;
+		}
+		turtle.write("\n");
+		json.write("\n  },\n  \"@graph\": [");
+		flush();
+	}
+
+	/**
+	 * Writes the triples of a small graph, usually one assertion, and flushes
+	 * both files.
+	 */
+	synchronized void write(Model model) throws IOException {
+		ExtendedIterator<Triple> triples = model.getGraph().find(Node.ANY, Node.ANY, Node.ANY);
+		try {
+			while (triples.hasNext()) {
+				Triple triple = triples.next();
+				turtle.write(str(triple.getSubject()) + " "
+						+ str(triple.getPredicate()) + " "
+						+ str(triple.getObject()) + " .\n");
+			}
+		} finally {
+			triples.close();
+		}
+
+		ResIterator subjects = model.listSubjects();
+		try {
+			while (subjects.hasNext()) {
+				writeNode(model, subjects.next());
+			}
+		} finally {
+			subjects.close();
+		}
+
+		flush();
+	}
+
+	private void writeNode(Model model, Resource subject) throws IOException {
+		Node node = subject.asNode();
+		json.write(firstNode ? "\n" : ",\n");
+		firstNode = false;
+		json.write("    { \"@id\": " + quote(id(node)));
+
+		Map<String, List<String>> properties = new LinkedHashMap<>();
+		ExtendedIterator<Triple> triples = model.getGraph().find(node, Node.ANY, Node.ANY);
+		try {
+			while (triples.hasNext()) {
+				Triple triple = triples.next();
+				String predicate = triple.getPredicate().getURI();
+				List<String> values = properties.get(predicate);
+				if (values == null) {
+					values = new ArrayList<>();
+					properties.put(predicate, values);
+				}
+				values.add(value(triple.getObject()));
+			}
+		} finally {
+			triples.close();
+		}
+
+		for (Entry<String, List<String>> property : properties.entrySet()) {
+			json.write(", " + quote(property.getKey()) + ": [ " + StringUtils.join(property.getValue(), ", ") + " ]");
+		}
+		json.write(" }");
+	}
+
+	private static String str(Node node) {
+		return node.isBlank() ? id(node) : NodeFmtLib.str(node);
+	}
+
+	// blank node labels are encoded the same way in both files
+	private static String id(Node node) {
+		return node.isBlank() ? "_:" + NodeFmtLib.encodeBNodeLabel(node.getBlankNodeLabel()) : node.getURI();
+	}
+
+	private static String value(Node object) {
+		if (!object.isLiteral()) {
+			return "{ \"@id\": " + quote(id(object)) + " }";
+		}
+
+		String value = "{ \"@value\": " + quote(object.getLiteralLexicalForm());
+		String language = object.getLiteralLanguage();
+		String datatype = object.getLiteralDatatypeURI();
+		if (language != null && !language.isEmpty()) {
+			value += ", \"@language\": " + quote(language);
+		} else if (datatype != null && !XSDDatatype.XSDstring.getURI().equals(datatype)) {
+			value += ", \"@type\": " + quote(datatype);
+		}
+		return value + " }";
+	}
+
+	private void flush() throws IOException {
+		turtle.flush();
+		json.flush();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			json.write("\n  ]\n}\n");
+			flush();
+		} finally {
+			try {
+				turtle.close();
+			} finally {
+				json.close();
+			}
+		}
+	}
+
+}
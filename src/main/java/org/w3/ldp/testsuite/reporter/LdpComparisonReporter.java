@@ -0,0 +1,330 @@
+package org.w3.ldp.testsuite.reporter;
+
+import static org.rendersnake.HtmlAttributesFactory.class_;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jena.atlas.json.JSON;
+import org.apache.jena.atlas.json.JsonArray;
+import org.apache.jena.atlas.json.JsonObject;
+import org.apache.jena.rdf.model.Property;
+import org.rendersnake.HtmlCanvas;
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.w3.ldp.testsuite.LdpTestSuite;
+import org.w3.ldp.testsuite.metrics.LatencyFilter;
+import org.w3.ldp.testsuite.vocab.Earl;
+
+/**
+ * Writes the results of a <code>--compare</code> run side by side, one
+ * column per server: the EARL outcome of each test, as in the
+ * {@link LdpEarlReporter} assertions, and the number and total time of its
+ * HTTP requests. Each server is a test of the suite with the
+ * {@link #SERVER_NAME} parameter. The matrix is written as HTML and as JSON,
+ * with times in microseconds.
+ */
+public class LdpComparisonReporter implements IReporter {
+
+	/**
+	 * The test parameter naming the server of a test.
+	 */
+	public static final String SERVER_NAME = "compareName";
+
+	private static final String[] CONTAINER_PARAMETERS = { "basicContainer", "directContainer", "indirectContainer" };
+
+	private static final class Cell {
+
+		private Property outcome;
+
+		private long requests;
+
+		private long requestNanos;
+
+		private void add(ITestResult result) {
+			Property o = LdpEarlReporter.getOutcome(result);
+			// a test with several results fails if any of them does
+			if (outcome == null || rank(o) > rank(outcome)) {
+				outcome = o;
+			}
+			requests += LatencyFilter.getRequests(result);
+			requestNanos += LatencyFilter.getRequestNanos(result);
+		}
+
+		private static int rank(Property outcome) {
+			if (Earl.failed.equals(outcome)) {
+				return 2;
+			}
+			return Earl.passed.equals(outcome) ? 1 : 0;
+		}
+	}
+
+	private static final class Server {
+
+		private final String name;
+
+		private final String uri;
+
+		private int passed;
+
+		private int failed;
+
+		private int untested;
+
+		private long requestNanos;
+
+		private Server(String name, String uri) {
+			this.name = name;
+			this.uri = uri;
+		}
+	}
+
+	private String outputName = "ldp-testsuite";
+
+	private String outputDirectory = LdpTestSuite.OUTPUT_DIR;
+
+	public void setOutputDirectory(String outputDirectory) {
+		this.outputDirectory = outputDirectory;
+	}
+
+	public void setTitle(String title) {
+		this.outputName = title;
+	}
+
+	@Override
+	public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+		List<Server> servers = new ArrayList<>();
+		// by Class.method, then server
+		SortedMap<String, Map<Server, Cell>> tests = new TreeMap<>();
+		for (ISuite suite : suites) {
+			for (XmlTest xmlTest : suite.getXmlSuite().getTests()) {
+				ISuiteResult suiteResult = suite.getResults().get(xmlTest.getName());
+				if (suiteResult == null) {
+					continue;
+				}
+
+				Server server = new Server(getServerName(xmlTest), getServerUri(xmlTest));
+				servers.add(server);
+				ITestContext context = suiteResult.getTestContext();
+				addResults(tests, server, context.getPassedTests().getAllResults());
+				addResults(tests, server, context.getFailedTests().getAllResults());
+				addResults(tests, server, context.getSkippedTests().getAllResults());
+			}
+		}
+		if (servers.isEmpty()) {
+			return;
+		}
+
+		for (Map<Server, Cell> cells : tests.values()) {
+			for (Map.Entry<Server, Cell> entry : cells.entrySet()) {
+				Server server = entry.getKey();
+				Cell cell = entry.getValue();
+				if (Earl.passed.equals(cell.outcome)) {
+					server.passed++;
+				} else if (Earl.failed.equals(cell.outcome)) {
+					server.failed++;
+				} else {
+					server.untested++;
+				}
+				server.requestNanos += cell.requestNanos;
+			}
+		}
+
+		File dir = new File(this.outputDirectory);
+		dir.mkdirs();
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(new File(dir, outputName + "-comparison.json")))) {
+			JSON.write(out, toJson(servers, tests));
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		try (Writer writer = new BufferedWriter(new FileWriter(new File(dir, outputName + "-comparison.html")))) {
+			writeHtml(new HtmlCanvas(writer), servers, tests);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private static void addResults(SortedMap<String, Map<Server, Cell>> tests, Server server, Iterable<ITestResult> results) {
+		for (ITestResult result : results) {
+			String test = result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+			Map<Server, Cell> cells = tests.get(test);
+			if (cells == null) {
+				cells = new LinkedHashMap<>();
+				tests.put(test, cells);
+			}
+			Cell cell = cells.get(server);
+			if (cell == null) {
+				cell = new Cell();
+				cells.put(server, cell);
+			}
+			cell.add(result);
+		}
+	}
+
+	private static String getServerName(XmlTest xmlTest) {
+		String name = xmlTest.getParameter(SERVER_NAME);
+		return name != null ? name : xmlTest.getName();
+	}
+
+	private static String getServerUri(XmlTest xmlTest) {
+		for (String parameter : CONTAINER_PARAMETERS) {
+			String uri = xmlTest.getLocalParameters().get(parameter);
+			if (uri != null) {
+				return uri;
+			}
+		}
+
+		return "";
+	}
+
+	/**
+	 * @return true if the servers don't all have the same outcome
+	 */
+	private static boolean differs(List<Server> servers, Map<Server, Cell> cells) {
+		Property first = getOutcome(cells.get(servers.get(0)));
+		for (Server server : servers) {
+			if (!first.equals(getOutcome(cells.get(server)))) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static Property getOutcome(Cell cell) {
+		// not run against that server at all
+		return cell != null ? cell.outcome : Earl.untested;
+	}
+
+	private JsonObject toJson(List<Server> servers, SortedMap<String, Map<Server, Cell>> tests) {
+		JsonObject report = new JsonObject();
+		report.put("unit", "us");
+
+		JsonArray serverArray = new JsonArray();
+		for (Server server : servers) {
+			JsonObject o = new JsonObject();
+			o.put("name", server.name);
+			o.put("uri", server.uri);
+			o.put("passed", server.passed);
+			o.put("failed", server.failed);
+			o.put("untested", server.untested);
+			o.put("requestTime", toMicros(server.requestNanos));
+			serverArray.add(o);
+		}
+		report.put("servers", serverArray);
+
+		JsonArray testArray = new JsonArray();
+		for (Map.Entry<String, Map<Server, Cell>> entry : tests.entrySet()) {
+			JsonObject o = new JsonObject();
+			o.put("test", entry.getKey());
+			o.put("differs", differs(servers, entry.getValue()));
+			JsonObject results = new JsonObject();
+			for (Server server : servers) {
+				Cell cell = entry.getValue().get(server);
+				if (cell == null) {
+					continue;
+				}
+				JsonObject c = new JsonObject();
+				c.put("outcome", cell.outcome.getLocalName());
+				c.put("requests", cell.requests);
+				c.put("requestTime", toMicros(cell.requestNanos));
+				results.put(server.name, c);
+			}
+			o.put("results", results);
+			testArray.add(o);
+		}
+		report.put("tests", testArray);
+
+		return report;
+	}
+
+	private void writeHtml(HtmlCanvas html, List<Server> servers, SortedMap<String, Map<Server, Cell>> tests) throws IOException {
+		html.html().head();
+		html.style().write("body { font-family: sans-serif; } "
+				+ "table { border-collapse: collapse; } "
+				+ "td, th { padding: 2px 8px; text-align: left; border-bottom: 1px solid #ddd; } "
+				+ "tr.differs { background: #fff3c4; } "
+				+ ".passed { color: #a2bf2f; } "
+				+ ".failed { color: #a80000; } "
+				+ ".untested { color: #606060; }")._style();
+		html.title().content(LdpTestSuite.NAME + " Comparison")._head().body();
+		html.h1().content(LdpTestSuite.NAME + " Comparison");
+
+		html.table();
+		html.tr().th().content("Server");
+		html.th().content("URI");
+		html.th().content("Passed");
+		html.th().content("Failed");
+		html.th().content("Untested");
+		html.th().content("Request time (ms)")._tr();
+		for (Server server : servers) {
+			html.tr();
+			html.td().content(server.name);
+			html.td().content(server.uri);
+			html.td(class_("passed")).content(Integer.toString(server.passed));
+			html.td(class_("failed")).content(Integer.toString(server.failed));
+			html.td(class_("untested")).content(Integer.toString(server.untested));
+			html.td().content(toMillis(server.requestNanos));
+			html._tr();
+		}
+		html._table();
+
+		html.h2().content("Results by test (rows with different outcomes are highlighted)");
+		html.table();
+		html.tr().th().content("Test");
+		for (Server server : servers) {
+			html.th().content(server.name);
+			html.th().content("Requests");
+			html.th().content("ms");
+		}
+		html._tr();
+		for (Map.Entry<String, Map<Server, Cell>> entry : tests.entrySet()) {
+			html.tr(class_(differs(servers, entry.getValue()) ? "differs" : "same"));
+			html.td().content(entry.getKey());
+			for (Server server : servers) {
+				Cell cell = entry.getValue().get(server);
+				if (cell == null) {
+					html.td(class_("untested")).content("not run");
+					html.td()._td();
+					html.td()._td();
+					continue;
+				}
+				String outcome = cell.outcome.getLocalName();
+				html.td(class_(outcome)).content(outcome);
+				html.td().content(Long.toString(cell.requests));
+				html.td().content(toMillis(cell.requestNanos));
+			}
+			html._tr();
+		}
+		html._table();
+
+		html._body()._html();
+	}
+
+	private static long toMicros(long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+
+	private static String toMillis(long nanos) {
+		return String.format("%.1f", nanos / 1000000.0);
+	}
+
+}
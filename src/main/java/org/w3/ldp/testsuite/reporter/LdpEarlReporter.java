@@ -4,16 +4,18 @@ import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.GregorianCalendar;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 import org.testng.IReporter;
 import org.testng.IResultMap;
 import org.testng.ISuite;
+import org.testng.ISuiteListener;
 import org.testng.ISuiteResult;
 import org.testng.ITestContext;
+import org.testng.ITestListener;
 import org.testng.ITestNGMethod;
 import org.testng.ITestResult;
 import org.testng.annotations.Test;
@@ -25,6 +27,8 @@ import org.w3.ldp.testsuite.annotations.SpecTest.METHOD;
 import org.w3.ldp.testsuite.vocab.Earl;
 import org.w3.ldp.testsuite.vocab.LDP;
 
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.ResourceFactory;
@@ -36,9 +40,10 @@ import org.apache.jena.vocabulary.RDF;
 /**
  * Earl Reporter for the LDP Test Suite. Takes in the results of the test suite
  * and reports the information to a Turtle file and a JSON-LD file, both of
- * which contains Earl vocabulary.
+ * which contains Earl vocabulary. Each assertion is appended to the files as
+ * soon as its test finishes.
  */
-public class LdpEarlReporter extends AbstractEarlReporter implements IReporter {
+public class LdpEarlReporter extends AbstractEarlReporter implements IReporter, ISuiteListener, ITestListener {
 
 	private static final String PASS = "TEST PASSED";
 	private static final String FAIL = "TEST FAILED";
@@ -54,24 +59,25 @@ public class LdpEarlReporter extends AbstractEarlReporter implements IReporter {
 	// private static String basic;
 	// private static String indirect;
 
-	private static String software;
-	private static String developer;
-	private static String homepage;
-	private static String assertor;
-	private static String language;
-	private static String mbox;
-	private static String description;
-	private static String shortname;
-	private static ArrayList<String> missingParms = new ArrayList<>();
+	private String software;
+	private String developer;
+	private String homepage;
+	private String assertor;
+	private String language;
+	private String mbox;
+	private String description;
+	private String shortname;
+	private List<String> missingParms = new ArrayList<>();
 
 	private static Property ranAsClass = ResourceFactory
 			.createProperty(LDP.LDPT_NAMESPACE + "ranAsClass");
 
 	private static String TITLE = "ldp-testsuite";
 
-	private IResultMap passedTests;
-	private IResultMap failedTests;
-	private IResultMap skippedTests;
+	private EarlStreamWriter stream;
+
+	// results whose outcome depends on other tests, written when their test context finishes
+	private final List<ITestResult> indirect = Collections.synchronizedList(new ArrayList<ITestResult>());
 
 	private String outputDirectory = LdpTestSuite.OUTPUT_DIR;
 
@@ -79,17 +85,83 @@ public class LdpEarlReporter extends AbstractEarlReporter implements IReporter {
 		this.outputDirectory = outputDirectory;
 	}
 
+	@Override
+	public void onStart(ISuite suite) {
+		if (stream == null) {
+			try {
+				createWriter(this.outputDirectory, "");
+				stream = new EarlStreamWriter(writerTurtle, writerJson, prefixes);
+			} catch (IOException e) {
+				e.printStackTrace(System.err);
+				System.exit(1);
+			}
+		}
+		write(createSubject(suite));
+	}
+
+	@Override
+	public void onFinish(ISuite suite) {
+	}
+
+	@Override
+	public void onStart(ITestContext context) {
+	}
+
+	@Override
+	public void onFinish(ITestContext context) {
+		synchronized (indirect) {
+			for (Iterator<ITestResult> i = indirect.iterator(); i.hasNext();) {
+				ITestResult result = i.next();
+				if (result.getTestContext() == context) {
+					write(makeResultResource(result, getIndirectStatus(result, context)));
+					i.remove();
+				}
+			}
+		}
+	}
+
+	@Override
+	public void onTestStart(ITestResult result) {
+	}
+
+	@Override
+	public void onTestSuccess(ITestResult result) {
+		assertResult(result, PASS);
+	}
+
+	@Override
+	public void onTestFailure(ITestResult result) {
+		assertResult(result, FAIL);
+	}
+
+	@Override
+	public void onTestSkipped(ITestResult result) {
+		assertResult(result, SKIP);
+	}
+
+	@Override
+	public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+	}
+
+	/**
+	 * Closes the EARL files. The assertions were already written by the
+	 * listener methods as the tests finished; when the reporter wasn't
+	 * registered as a listener the results of the suites are written now.
+	 */
 	@Override
 	public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
-		try {
-			createWriter(this.outputDirectory, "");
-		} catch (IOException e) {
-			e.printStackTrace(System.err);
-			System.exit(1);
+		if (stream == null) {
+			for (ISuite suite : suites) {
+				onStart(suite);
+				for (ISuiteResult results : suite.getResults().values()) {
+					ITestContext testContext = results.getTestContext();
+					getResultProperties(testContext.getFailedTests(), FAIL);
+					getResultProperties(testContext.getSkippedTests(), SKIP);
+					getResultProperties(testContext.getPassedTests(), PASS);
+					onFinish(testContext);
+				}
+			}
 		}
-		createModel();
-		createAssertions(suites);
-		write();
 		if (missingParms.size() > 0) {
 			System.out.print("EARL report missing values for parameters: ");
 			boolean first=true;
@@ -104,108 +176,186 @@ public class LdpEarlReporter extends AbstractEarlReporter implements IReporter {
 			}
 			System.out.println(o);
 		}
+		if (stream == null) {
+			return;
+		}
 		try {
-			endWriter();
+			stream.close();
+			stream = null;
 		} catch (IOException e) {
 			e.printStackTrace(System.err);
 			System.exit(1);
 		}
 	}
 
-	private void createAssertions(List<ISuite> suites) {
-		for (ISuite suite : suites) {
-			// Acquire parameters
-			// direct = suite.getParameter("directContainer");
-			// member = suite.getParameter("memberResource");
-			// basic = suite.getParameter("basicContainer");
-			// indirect = suite.getParameter("indirectContainer");
-
-			homepage = suite.getParameter("homepage");
-			if (homepage == null) missingParms.add("homepage");
-			
-			assertor = suite.getParameter("assertor");
-			if (assertor == null) missingParms.add("assertor");
-			
-			software = suite.getParameter("software");
-			if (software == null) missingParms.add("software");
-			
-			developer = suite.getParameter("developer");
-			if (developer == null) missingParms.add("developer");
-			
-			language = suite.getParameter("language");
-			if (language == null) missingParms.add("language");
-
-			mbox = suite.getParameter("mail");
-			if (mbox == null) missingParms.add("mail");
-
-			description = suite.getParameter("description");
-			if (description == null) missingParms.add("description");
-
-			shortname = suite.getParameter("shortname");
-			if (shortname == null) missingParms.add("shortname");
-
-			// Make the Assertor Resource (the thing doing the testing) 
-			Resource assertorRes = model.createResource(assertor);
-			assertorRes.addProperty(RDF.type, Earl.Assertor);
-			
-			// Create the subject resource (the thing being tested)
-			Resource subjectResource = model.createResource(homepage,
-					Earl.TestSubject);
-
-			if (description != null)
-				subjectResource.addProperty(DOAP.description, description);
-
-			/* Developer Resource (Person) */
-			Resource personResource = model.createResource(null, FOAF.Person);
-			if (mbox != null)
-				personResource.addProperty(FOAF.mbox, mbox);
-			if(developer != null)
-				personResource.addProperty(FOAF.name, developer);
-
-			subjectResource.addProperty(DOAP.developer, personResource);
-
-			/* Software Resource */
-			Resource softResource = model
-					.createResource(homepage, Earl.Software);
-			if (software != null)
-				softResource.addProperty(DCTerms.title, software);
-
-			if(shortname != null)
-				softResource.addProperty(DOAP.name, shortname);
-
-			/* Add properties to the Test Subject Resource */
-			subjectResource.addProperty(RDF.type, DOAP.Project);
-
-			if (homepage != null)
-				subjectResource.addProperty(DOAP.homepage, homepage);
-
-			if (language != null)
-				subjectResource
-						.addProperty(DOAP.programming_language, language);
-
-			Map<String, ISuiteResult> tests = suite.getResults();
-
-			for (ISuiteResult results : tests.values()) {
-				ITestContext testContext = results.getTestContext();
-				passedTests = testContext.getPassedTests();
-				failedTests = testContext.getFailedTests();
-				skippedTests = testContext.getSkippedTests();
-				getResultProperties(failedTests, FAIL);
-				getResultProperties(skippedTests, SKIP);
-				getResultProperties(passedTests, PASS);
+	private Model createSubject(ISuite suite) {
+		Model model = ModelFactory.createDefaultModel();
+
+		// Acquire parameters
+		homepage = suite.getParameter("homepage");
+		if (homepage == null) missingParms.add("homepage");
+		
+		assertor = suite.getParameter("assertor");
+		if (assertor == null) missingParms.add("assertor");
+		
+		software = suite.getParameter("software");
+		if (software == null) missingParms.add("software");
+		
+		developer = suite.getParameter("developer");
+		if (developer == null) missingParms.add("developer");
+		
+		language = suite.getParameter("language");
+		if (language == null) missingParms.add("language");
+
+		mbox = suite.getParameter("mail");
+		if (mbox == null) missingParms.add("mail");
+
+		description = suite.getParameter("description");
+		if (description == null) missingParms.add("description");
+
+		shortname = suite.getParameter("shortname");
+		if (shortname == null) missingParms.add("shortname");
+
+		// Make the Assertor Resource (the thing doing the testing) 
+		Resource assertorRes = model.createResource(assertor);
+		assertorRes.addProperty(RDF.type, Earl.Assertor);
+		
+		// Create the subject resource (the thing being tested)
+		Resource subjectResource = model.createResource(homepage,
+				Earl.TestSubject);
+
+		if (description != null)
+			subjectResource.addProperty(DOAP.description, description);
+
+		/* Developer Resource (Person) */
+		Resource personResource = model.createResource(null, FOAF.Person);
+		if (mbox != null)
+			personResource.addProperty(FOAF.mbox, mbox);
+		if(developer != null)
+			personResource.addProperty(FOAF.name, developer);
+
+		subjectResource.addProperty(DOAP.developer, personResource);
+
+		/* Software Resource */
+		Resource softResource = model
+				.createResource(homepage, Earl.Software);
+		if (software != null)
+			softResource.addProperty(DCTerms.title, software);
+
+		if(shortname != null)
+			softResource.addProperty(DOAP.name, shortname);
+
+		/* Add properties to the Test Subject Resource */
+		subjectResource.addProperty(RDF.type, DOAP.Project);
+
+		if (homepage != null)
+			subjectResource.addProperty(DOAP.homepage, homepage);
+
+		if (language != null)
+			subjectResource
+					.addProperty(DOAP.programming_language, language);
+
+		return model;
+	}
+
+	private void getResultProperties(IResultMap tests, String status) {
+		for (ITestResult result : tests.getAllResults()) {
+			assertResult(result, status);
+		}
+	}
+
+	private void assertResult(ITestResult result, String status) {
+		if (isIndirect(result)) {
+			// the tests covering it might not have run yet
+			indirect.add(result);
+		} else {
+			write(makeResultResource(result, status));
+		}
+	}
+
+	private void write(Model model) {
+		try {
+			stream.write(model);
+		} catch (IOException e) {
+			e.printStackTrace(System.err);
+		}
+	}
+
+	private static boolean isIndirect(ITestResult result) {
+		SpecTest specTest = result.getMethod().getConstructorOrMethod().getMethod().getAnnotation(SpecTest.class);
+		return specTest != null && specTest.coveredByGroups().length > 0;
+	}
+
+	/**
+	 * Evaluates the results of the tests covering an indirect test. If one of
+	 * the tests fails, then the entire indirect test fails; if there are only
+	 * pass and skipped tests (none failed), then it passes; if there are only
+	 * skipped (none passed or failed), then it is skipped.
+	 */
+	private static String getIndirectStatus(ITestResult result, ITestContext context) {
+		String status = result.getStatus() == ITestResult.SUCCESS ? PASS
+				: result.getStatus() == ITestResult.FAILURE ? FAIL : SKIP;
+		SpecTest specTest = result.getMethod().getConstructorOrMethod().getMethod().getAnnotation(SpecTest.class);
+		ArrayList<String> testResults = new ArrayList<String>();
+		for(Class<?> classVal : specTest.coveredByTests()){
+			Method[] classMethod = classVal.getDeclaredMethods();
+			for(Method methodName : classMethod) {
+				if(methodName.getAnnotation(Test.class) != null) {
+					String group = Arrays.toString(methodName.getAnnotation(Test.class).groups());
+					for(String groupCover : specTest.coveredByGroups()) {
+						if(group.contains(groupCover) && !methodName.getName().contains("Conforms")) {
+							testResults.add(findTestResult(context, methodName.getName()));
+						}
+					}
+				}
 			}
+		}
+		if(testResults.size() > 0){
+			if(testResults.contains(FAIL))
+				status = FAIL;
+			else if(testResults.contains(PASS) && !testResults.contains(FAIL))
+				status = PASS;
+			else if(testResults.contains(SKIP) && !testResults.contains(FAIL) && !testResults.contains(PASS))
+				status = SKIP;
+		}
+		return status;
+	}
 
+	/**
+	 * @return the EARL outcome of a finished test, with the outcome of an
+	 *         indirect test taken from the tests covering it in its context
+	 */
+	static Property getOutcome(ITestResult result) {
+		if (isIndirect(result)) {
+			return toOutcome(getIndirectStatus(result, result.getTestContext()));
 		}
 
+		switch (result.getStatus()) {
+		case ITestResult.SUCCESS:
+		case ITestResult.SUCCESS_PERCENTAGE_FAILURE:
+			return Earl.passed;
+		case ITestResult.FAILURE:
+			return Earl.failed;
+		default:
+			return Earl.untested;
+		}
 	}
 
-	private void getResultProperties(IResultMap tests, String status) {
-		for (ITestResult result : tests.getAllResults()) {
-			makeResultResource(result, status);
+	private static Property toOutcome(String status) {
+		switch (status) {
+		case FAIL:
+			return Earl.failed;
+		case PASS:
+			return Earl.passed;
+		case SKIP:
+			return Earl.untested;
+		default:
+			return null;
 		}
 	}
 
-	private void makeResultResource(ITestResult result, String status) {
+	private Model makeResultResource(ITestResult result, String status) {
+		Model model = ModelFactory.createDefaultModel();
 		String className = result.getTestClass().getName();
 		className = className.substring(className
 				.lastIndexOf(".") + 1);
@@ -214,60 +364,19 @@ public class LdpEarlReporter extends AbstractEarlReporter implements IReporter {
 
 		Resource resultResource = model.createResource(null, Earl.TestResult);
 
-		Resource subjectResource = model.getResource(homepage);
-		Resource assertorResource = model.getResource(assertor);
+		Resource subjectResource = model.createResource(homepage);
+		Resource assertorResource = model.createResource(assertor);
 
 		assertionResource.addProperty(Earl.testSubject, subjectResource);
 
 		assertionResource.addProperty(
 				Earl.test,
-				model.getResource(createTestCaseURL(className, result.getName())));
+				model.createResource(createTestCaseURL(className, result.getName())));
 
 		/* Test Result Resource */
-		Method method = result.getMethod().getConstructorOrMethod().getMethod();
-		if(method.getAnnotation(SpecTest.class) != null){
-			SpecTest specTest = method.getAnnotation(SpecTest.class);
-			if(specTest.coveredByGroups().length > 0 && specTest.coveredByGroups().length > 0){
-				ArrayList<String> testResults = new ArrayList<String>();
-				for(Class<?> classVal : specTest.coveredByTests()){
-					Method[] classMethod = classVal.getDeclaredMethods();
-					for(Method methodName : classMethod) {
-						if(methodName.getAnnotation(Test.class) != null) {
-							String group = Arrays.toString(methodName.getAnnotation(Test.class).groups());
-							for(String groupCover : specTest.coveredByGroups()) {
-								if(group.contains(groupCover) && !methodName.getName().contains("Conforms")) {
-									testResults.add(findTestResult(methodName.getName()));
-								}
-							}
-						}
-					}
-				}
-				// evaluate the testResults for the Indirect Test
-				// if one of the tests fails, then the entire indirect test fails
-				// if there are only pass and skipped tests (none failed), then it passes
-				// if there are only skipped (none passed or failed), then it is skipped
-				if(testResults.size() > 0){
-					if(testResults.contains(FAIL))
-						status = FAIL;
-					else if(testResults.contains(PASS) && !testResults.contains(FAIL))
-						status = PASS;
-					else if(testResults.contains(SKIP) && !testResults.contains(FAIL) && !testResults.contains(PASS))
-						status = SKIP;
-				}
-			}
-		}
-		switch (status) {
-		case FAIL:
-			resultResource.addProperty(Earl.outcome, Earl.failed);
-			break;
-		case PASS:
-			resultResource.addProperty(Earl.outcome, Earl.passed);
-			break;
-		case SKIP:
-			resultResource.addProperty(Earl.outcome, Earl.untested);
-			break;
-		default:
-			break;
+		Property outcome = toOutcome(status);
+		if (outcome != null) {
+			resultResource.addProperty(Earl.outcome, outcome);
 		}
 
 		if (result.getThrowable() != null) {
@@ -307,6 +416,7 @@ public class LdpEarlReporter extends AbstractEarlReporter implements IReporter {
 		 */
 		assertionResource.addProperty(Earl.testResult, resultResource);
 
+		return model;
 	}
 
 	private void createExceptionProperty(Throwable thrown, Resource resource) {
@@ -317,8 +427,8 @@ public class LdpEarlReporter extends AbstractEarlReporter implements IReporter {
 					Utils.stackTrace(thrown, false)[0]);
 	}
 
-	private String  findTestResult(String methodName) {
-		Iterator<ITestNGMethod> passed = passedTests.getAllMethods().iterator();
+	private static String findTestResult(ITestContext context, String methodName) {
+		Iterator<ITestNGMethod> passed = context.getPassedTests().getAllMethods().iterator();
 		while(passed.hasNext()){
 			ITestNGMethod method = passed.next();
 			if(method.getMethodName().equals(methodName)){
@@ -326,7 +436,7 @@ public class LdpEarlReporter extends AbstractEarlReporter implements IReporter {
 			}
 		}
 
-		Iterator<ITestNGMethod> skipped = skippedTests.getAllMethods().iterator();
+		Iterator<ITestNGMethod> skipped = context.getSkippedTests().getAllMethods().iterator();
 		while(skipped.hasNext()){
 			ITestNGMethod method = skipped.next();
 			if(method.getMethodName().equals(methodName)){
@@ -334,7 +444,7 @@ public class LdpEarlReporter extends AbstractEarlReporter implements IReporter {
 			}
 		}
 
-		Iterator<ITestNGMethod> failed = failedTests.getAllMethods().iterator();
+		Iterator<ITestNGMethod> failed = context.getFailedTests().getAllMethods().iterator();
 		while(failed.hasNext()){
 			ITestNGMethod method = failed.next();
 			if(method.getMethodName().equals(methodName)){
@@ -10,7 +10,7 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -38,6 +38,11 @@ import org.w3.ldp.testsuite.LdpTestSuite;
 import org.w3.ldp.testsuite.annotations.SpecTest;
 import org.w3.ldp.testsuite.annotations.SpecTest.METHOD;
 import org.w3.ldp.testsuite.annotations.SpecTest.STATUS;
+import org.w3.ldp.testsuite.metrics.ContainerScaling;
+import org.w3.ldp.testsuite.metrics.LatencyHistogram;
+import org.w3.ldp.testsuite.metrics.LatencyKey;
+import org.w3.ldp.testsuite.metrics.LatencyRecorder;
+import org.w3.ldp.testsuite.metrics.PageTraversals;
 
 /**
  * HTML reporter for the LDP test suite. Takes the results of the test methods
@@ -80,9 +85,10 @@ public class LdpHtmlReporter implements IReporter {
 
 	private List<ITestNGMethod> indirect = new ArrayList<ITestNGMethod>();
 	
-	private static StringWriter graphs = new StringWriter();
+	// the report file, the canvas and the chart scripts write through to it
+	private Writer writer;
 	
-	private static ArrayList<String> colors = new ArrayList<String>(Arrays.asList("#42d992", "#1cbfbb", "#1d0b4e", "#bf1c56"));
+	private static final List<String> colors = new ArrayList<String>(Arrays.asList("#42d992", "#1cbfbb", "#1d0b4e", "#bf1c56"));
 
 	private String outputDirectory = LdpTestSuite.OUTPUT_DIR;
 
@@ -93,72 +99,95 @@ public class LdpHtmlReporter implements IReporter {
 	public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
 		try {
 			for (ISuite suite : suites) {
-				html = new HtmlCanvas();
-				html.html().head();
-
-				writeCss();
-				html.title().content(LdpTestSuite.NAME + " Report")._head()
-						.body();
-				html.h1().content(LdpTestSuite.NAME + " Summary");
-
-				// Getting the results for the said suite
-				Map<String, ISuiteResult> suiteResults = suite.getResults();
-
-				for (ISuiteResult sr : suiteResults.values()) {
-
-					ITestContext tc = sr.getTestContext();
-					passedTests = tc.getPassedTests();
-					failedTests = tc.getFailedTests();
-					skippedTests = tc.getSkippedTests();
+				reset();
+				new File(this.outputDirectory).mkdirs();
+				writer = new BufferedWriter(new FileWriter(this.outputDirectory
+						+ "/" + outputName + "-execution-report.html"));
+				try {
+					writeReport(suite, suites);
+				} finally {
+					writer.close();
 				}
-				
-				// Initialize variables for charts
-				passClasses = getClasses(passedTests);
-				failClasses = getClasses(failedTests);
-				skipClasses = getClasses(skippedTests);
-				
-				html.h2().content("Overall Coverage Bar Charts");
-				
-				html.span(class_("chartStart"));
-				html.label(class_("label")).b().write("Test Results by Specification Requirement")._b()._label();
-				html.div(class_("barChart").id("overallChart1"))._div(); // svg chart
-				writePassFailLegend();
-				
-				html._span();
-				
-				html.span(class_("chartStart"));
-				html.label(class_("label")).b().write("Test Results by Test Class")._b()._label();
-				html.div(class_("barChart").id("resourcesChart"))._div();
-				writeTestClassLegend();
-				html._span();
-				
-				html.br();
-				generateOverallSummaryReport(suites, "summary");
-				displayGroupsInfo(suites);
-				displayMethodsSummary(suites);
-				toTop();
-				generateMethodDetails(suites);
-
-				html.script().content(
-						StringResource.get("/raphael/raphael-min.js"), NO_ESCAPE);
-				html.script().content(
-						StringResource.get("/prototype/prototype.js"), NO_ESCAPE);
-				html.script().content(
-						StringResource.get("/grafico/grafico-min.js"), NO_ESCAPE);
-				
-				writeOverallBarChart();
-				writeResourcesBarChart();
-		
-				html.write(graphs.toString(), NO_ESCAPE);
-				html._body()._html();
-
-				// send html to a file
-				createWriter(this.outputDirectory, html.toHtml(), outputName);
 			}
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
+
+	/**
+	 * Writes the sections of the report straight to the file as they are
+	 * generated, so the whole page is never held in memory.
+	 */
+	private void writeReport(ISuite suite, List<ISuite> suites) throws IOException {
+		html = new HtmlCanvas(writer);
+		html.html().head();
+
+		writeCss();
+		html.title().content(LdpTestSuite.NAME + " Report")._head()
+				.body();
+		html.h1().content(LdpTestSuite.NAME + " Summary");
+
+		// Getting the results for the said suite
+		Map<String, ISuiteResult> suiteResults = suite.getResults();
+
+		// Initialize variables for charts, over all tests of the suite
+		passClasses = new HashMap<String, Integer>();
+		failClasses = new HashMap<String, Integer>();
+		skipClasses = new HashMap<String, Integer>();
+		for (ISuiteResult sr : suiteResults.values()) {
+
+			ITestContext tc = sr.getTestContext();
+			addClasses(passClasses, tc.getPassedTests());
+			addClasses(failClasses, tc.getFailedTests());
+			addClasses(skipClasses, tc.getSkippedTests());
+		}
+		
+		html.h2().content("Overall Coverage Bar Charts");
+		
+		html.span(class_("chartStart"));
+		html.label(class_("label")).b().write("Test Results by Specification Requirement")._b()._label();
+		html.div(class_("barChart").id("overallChart1"))._div(); // svg chart
+		writePassFailLegend();
+		
+		html._span();
+		
+		html.span(class_("chartStart"));
+		html.label(class_("label")).b().write("Test Results by Test Class")._b()._label();
+		html.div(class_("barChart").id("resourcesChart"))._div();
+		writeTestClassLegend();
+		html._span();
+		
+		html.br();
+		generateOverallSummaryReport(suites, "summary");
+		displayGroupsInfo(suites);
+		displayMethodsSummary(suites);
+		toTop();
+		displayLatency();
+		displayContainerScaling();
+		displayPageTraversals();
+		generateMethodDetails(suites);
+
+		html.script().content(
+				StringResource.get("/raphael/raphael-min.js"), NO_ESCAPE);
+		html.script().content(
+				StringResource.get("/prototype/prototype.js"), NO_ESCAPE);
+		html.script().content(
+				StringResource.get("/grafico/grafico-min.js"), NO_ESCAPE);
+		
+		writeOverallBarChart();
+		writeResourcesBarChart();
+		writeContainerScalingChart();
+		
+		html._body()._html();
+	}
+
+	private void reset() {
+		passed = failed = skipped = total = 0;
+		mustPass = shouldPass = mayPass = 0;
+		mustFailed = shouldFailed = mayFailed = 0;
+		mustSkip = shouldSkip = maySkip = 0;
+		indirect.clear();
+	}
 	
 	public void setTitle(String title) {
 		this.outputName = title;
@@ -170,24 +199,6 @@ public class LdpHtmlReporter implements IReporter {
 				._style();
 	}
 
-	private void createWriter(String directory, String output, String title) {
-		BufferedWriter writer = null;
-		new File(directory).mkdirs();
-		try {
-			writer = new BufferedWriter(new FileWriter(directory
-					+ "/" + title + "-execution-report.html"));
-			writer.write(output);
-
-		} catch (IOException e) {
-		} finally {
-			try {
-				if (writer != null)
-					writer.close();
-			} catch (IOException e) {
-			}
-		}
-	}
-
 	private void generateOverallSummaryReport(List<ISuite> suites, String id)
 			throws IOException {
 		html.table(class_("summary"));
@@ -268,9 +279,9 @@ public class LdpHtmlReporter implements IReporter {
 					}
 
 				}
-				passed = tc.getPassedTests().getAllResults().size();
-				failed = tc.getFailedTests().getAllResults().size();
-				skipped = tc.getSkippedTests().getAllResults().size();
+				passed += tc.getPassedTests().getAllResults().size();
+				failed += tc.getFailedTests().getAllResults().size();
+				skipped += tc.getSkippedTests().getAllResults().size();
 			}
 			total = passed + failed + skipped;
 			generateSummaryTableStart(date, suite.getName());
@@ -345,14 +356,29 @@ public class LdpHtmlReporter implements IReporter {
 				ITestContext overview = results.getTestContext();
 				String[] excluded = overview.getExcludedGroups();
 				String[] included = overview.getIncludedGroups();
+				String name = getName(testSuite, overview);
 				generateList(included,
-						"Included Groups for " + testSuite.getName());
+						"Included Groups for " + name);
 				generateList(excluded,
-						"Excluded Groups for " + testSuite.getName());
+						"Excluded Groups for " + name);
 			}
 		}
 	}
 
+	/**
+	 * @return the suite name, with the test name when the suite has several
+	 */
+	private static String getName(ISuite suite, ITestContext context) {
+		return suite.getResults().size() > 1 ? suite.getName() + " (" + context.getName() + ")" : suite.getName();
+	}
+
+	// the results indirect tests are looked up in
+	private void setResults(ITestContext context) {
+		passedTests = context.getPassedTests();
+		failedTests = context.getFailedTests();
+		skippedTests = context.getSkippedTests();
+	}
+
 	private void generateList(String[] list, String title) throws IOException {
 		html.h2().write(title)._h2();
 		if (list.length == 0) {
@@ -373,6 +399,10 @@ public class LdpHtmlReporter implements IReporter {
 			Map<String, ISuiteResult> r = suite.getResults();
 			for (ISuiteResult r2 : r.values()) {
 				ITestContext testContext = r2.getTestContext();
+				setResults(testContext);
+				if (r.size() > 1) {
+					html.h1(class_("center")).content(testContext.getName());
+				}
 				makeMethodsList(testContext);
 			}
 		}
@@ -382,6 +412,7 @@ public class LdpHtmlReporter implements IReporter {
 		IResultMap failed = testContext.getFailedTests();
 		IResultMap passed = testContext.getPassedTests();
 		IResultMap skipped = testContext.getSkippedTests();
+		indirect.clear();
 
 		html.h1(class_("center")).content("Methods called");
 		html.a(href("#Skipped")).write("Go To Skipped Tests").br()._a();
@@ -413,7 +444,9 @@ public class LdpHtmlReporter implements IReporter {
 		html.th(class_(title)).content("Description of Test Method")._tr();
 		for (ITestResult result : tests.getAllResults()) {
 			ITestNGMethod method = result.getMethod();
-			if(method.getConstructorOrMethod().getMethod().getAnnotation(SpecTest.class).testMethod().equals(METHOD.INDIRECT)){
+			// benchmarks aren't spec tests and have no annotation
+			SpecTest spec = method.getConstructorOrMethod().getMethod().getAnnotation(SpecTest.class);
+			if(spec != null && spec.testMethod().equals(METHOD.INDIRECT)){
 				// do nothing, will add this in a separate table that specifically defines indirect tests
 				indirect.add(method);
 				
@@ -431,7 +464,7 @@ public class LdpHtmlReporter implements IReporter {
 					.a(href("#" + method.getTestClass().getName() + "_"
 							+ method.getMethodName()))
 					.write(normalizedName)._a();
-				if (method.getConstructorOrMethod().getMethod().getAnnotation(SpecTest.class).approval() == STATUS.WG_PENDING) {
+				if (spec != null && spec.approval() == STATUS.WG_PENDING) {
 					html.br().b().em().write("WG Approval Pending")._em()._b();
 				}
 				html._td();
@@ -495,12 +528,127 @@ public class LdpHtmlReporter implements IReporter {
 		html._table();
 	}
 
+	private void displayLatency() throws IOException {
+		if (LatencyRecorder.isEmpty()) {
+			return;
+		}
+
+		html.h1(class_("center")).a(id("Latency")).write("HTTP Request Latency")._a()._h1();
+		makeLatencyTable(LatencyRecorder.getTotals(), "All Tests");
+		html.br();
+		makeLatencyTable(LatencyRecorder.getHistograms(), "Test Method");
+		toTop();
+	}
+
+	private void makeLatencyTable(Map<LatencyKey, LatencyHistogram> histograms, String title)
+			throws IOException {
+		html.table(class_("indented"));
+		html.tr().th().content(title);
+		html.th().content("HTTP Method");
+		html.th().content("Target");
+		html.th().content("Status");
+		html.th().content("Requests");
+		for (double percentile : LdpLatencyReporter.PERCENTILES) {
+			html.th().content("p" + (int) percentile + " (ms)");
+		}
+		html.th().content("max (ms)")._tr();
+
+		for (Map.Entry<LatencyKey, LatencyHistogram> entry : histograms.entrySet()) {
+			LatencyKey key = entry.getKey();
+			LatencyHistogram histogram = entry.getValue();
+			html.tr();
+			html.td().content(key.getTest());
+			html.td().content(key.getMethod());
+			html.td().content(key.getRole());
+			html.td().content(key.getStatus());
+			html.td().content(Long.toString(histogram.getCount()));
+			for (double percentile : LdpLatencyReporter.PERCENTILES) {
+				html.td().content(toMillis(histogram.getValueAtPercentile(percentile)));
+			}
+			html.td().content(toMillis(histogram.getMax()));
+			html._tr();
+		}
+		html._table();
+	}
+
+	private void displayContainerScaling() throws IOException {
+		if (ContainerScaling.isEmpty()) {
+			return;
+		}
+
+		html.h1(class_("center")).a(id("ContainerScaling")).write("Large Container Scaling")._a()._h1();
+		html.span(class_("chartStart"));
+		html.label(class_("label")).b().write("Container GET and Parse Time (ms) by Members")._b()._label();
+		html.div(class_("barChart").id("scalingChart"))._div();
+		html._span();
+
+		html.table(class_("indented"));
+		html.tr().th().content("Members");
+		html.th().content("GET (ms)");
+		html.th().content("Size (KB)");
+		html.th().content("Parse (ms)");
+		html.th().content("Heap (MB)");
+		html.th().content("Missing ldp:contains")._tr();
+		for (ContainerScaling.Step step : ContainerScaling.getSteps()) {
+			html.tr();
+			html.td().content(Integer.toString(step.getMembers()));
+			html.td().content(toMillis(step.getLatencyMicros()));
+			html.td().content(String.format("%.1f", step.getBytes() / 1024.0));
+			html.td().content(toMillis(step.getParseMicros()));
+			html.td().content(String.format("%.1f", step.getHeapBytes() / (1024.0 * 1024.0)));
+			html.td().content(Integer.toString(step.getMissing()));
+			html._tr();
+		}
+		html._table();
+		toTop();
+	}
+
+	private void displayPageTraversals() throws IOException {
+		if (PageTraversals.isEmpty()) {
+			return;
+		}
+
+		html.h1(class_("center")).a(id("PageTraversals")).write("Page Traversals")._a()._h1();
+		html.table(class_("indented"));
+		html.tr().th().content("Test Method");
+		html.th().content("Paged Resource");
+		html.th().content("Pages");
+		html.th().content("Triples");
+		html.th().content("Pages/s");
+		for (double percentile : LdpLatencyReporter.PERCENTILES) {
+			html.th().content("p" + (int) percentile + " (ms)");
+		}
+		html.th().content("max (ms)")._tr();
+
+		for (PageTraversals.Traversal traversal : PageTraversals.getTraversals()) {
+			LatencyHistogram latencies = traversal.getLatencies();
+			html.tr();
+			html.td().content(traversal.getTest());
+			html.td().content(traversal.getResource());
+			html.td().content(Long.toString(traversal.getPages()));
+			html.td().content(Long.toString(traversal.getTriples()));
+			html.td().content(String.format("%.1f", traversal.getPagesPerSecond()));
+			for (double percentile : LdpLatencyReporter.PERCENTILES) {
+				html.td().content(toMillis(latencies.getValueAtPercentile(percentile)));
+			}
+			html.td().content(toMillis(latencies.getMax()));
+			html._tr();
+		}
+		html._table();
+		toTop();
+	}
+
+	private static String toMillis(long micros) {
+		return String.format("%.1f", micros / 1000.0);
+	}
+
 	private void generateMethodDetails(List<ISuite> suites) throws IOException {
 		html.h1().content("Test Method Details");
 		for (ISuite suite : suites) {
 			Map<String, ISuiteResult> r = suite.getResults();
 			for (ISuiteResult r2 : r.values()) {
 				ITestContext testContext = r2.getTestContext();
+				setResults(testContext);
 
 				generateDetail(testContext.getFailedTests());
 				generateDetail(testContext.getSkippedTests());
@@ -660,46 +808,78 @@ public class LdpHtmlReporter implements IReporter {
 		html.p(class_("totop")).a(href("#top")).content("Back to Top")._p();
 	}
 	private void writeOverallBarChart() throws IOException {
-		graphs.write("<script>");
-		graphs.write("Event.observe(window, 'load', function() {");
-		graphs.write("var summary_bar = new Grafico.StackedBarGraph($('overallChart1'),");
-		graphs.write("{ passed: [ " + mustPass + ", " + shouldPass + ", "
+		writer.write("<script>");
+		writer.write("Event.observe(window, 'load', function() {");
+		writer.write("var summary_bar = new Grafico.StackedBarGraph($('overallChart1'),");
+		writer.write("{ passed: [ " + mustPass + ", " + shouldPass + ", "
 				+ mayPass + " ],");
-		graphs.write("failed: [" + mustFailed + ", " + shouldFailed + ", "
+		writer.write("failed: [" + mustFailed + ", " + shouldFailed + ", "
 				+ mayFailed + " ], ");
-		graphs.write("skipped: [" + mustSkip + ", " + shouldSkip + ", " + maySkip + " ]");
-		graphs.write("},");
-		graphs.write("{ labels: [ \"MUST\", \"SHOULD\", \"MAY\" ],");
-		graphs.write("colors: { passed: '#a2bf2f', failed: '#a80000', skipped: '#606060' },");
-		graphs.write("hover_color: \"#ccccff\",");
+		writer.write("skipped: [" + mustSkip + ", " + shouldSkip + ", " + maySkip + " ]");
+		writer.write("},");
+		writer.write("{ labels: [ \"MUST\", \"SHOULD\", \"MAY\" ],");
+		writer.write("colors: { passed: '#a2bf2f', failed: '#a80000', skipped: '#606060' },");
+		writer.write("hover_color: \"#ccccff\",");
 
-		graphs.write("datalabels: { passed: [ \"" + mustPass + " Passed\", \""
+		writer.write("datalabels: { passed: [ \"" + mustPass + " Passed\", \""
 				+ shouldPass + " Passed\", \"" + mayPass + " Passed\"],");
-		graphs.write("failed: [ \"" + mustFailed + " Failed\" , \""
+		writer.write("failed: [ \"" + mustFailed + " Failed\" , \""
 				+ shouldFailed + " Failed\" , \"" + mayFailed
 				+ " Failed\" ],");
-		graphs.write("skipped: [ \"" + mustSkip + " Skipped\", \"" + shouldSkip
+		writer.write("skipped: [ \"" + mustSkip + " Skipped\", \"" + shouldSkip
 				+ " Skipped\", \"" + maySkip + " Skipped\" ]");
-		graphs.write("},");
+		writer.write("},");
 
-		graphs.write("}); });");
-		graphs.write("</script>");
+		writer.write("}); });");
+		writer.write("</script>");
 	}
 
 	private void writeResourcesBarChart() throws IOException {
 
-		graphs.write("<script>");
-		graphs.write("Event.observe(window, 'load', function() {");
-		graphs.write("var resource_bar = new Grafico.StackedBarGraph($('resourcesChart'),");
+		writer.write("<script>");
+		writer.write("Event.observe(window, 'load', function() {");
+		writer.write("var resource_bar = new Grafico.StackedBarGraph($('resourcesChart'),");
 		writeChartValues(passClasses, failClasses, skipClasses);
-		graphs.write("{ labels: [ \"Passed\", \"Failed\", \"Skipped\" ],");
-		graphs.write("hover_color: \"#ccccff\",");
+		writer.write("{ labels: [ \"Passed\", \"Failed\", \"Skipped\" ],");
+		writer.write("hover_color: \"#ccccff\",");
 		writeChartColors(passClasses);
 		writeChartLabels(passClasses, failClasses, skipClasses);
-		graphs.write("}); });");
-		graphs.write("</script>");
+		writer.write("}); });");
+		writer.write("</script>");
 	}
 	
+	private void writeContainerScalingChart() throws IOException {
+		List<ContainerScaling.Step> steps = ContainerScaling.getSteps();
+		if (steps.isEmpty()) {
+			return;
+		}
+
+		StringBuilder latency = new StringBuilder();
+		StringBuilder parse = new StringBuilder();
+		StringBuilder labels = new StringBuilder();
+		for (ContainerScaling.Step step : steps) {
+			if (labels.length() > 0) {
+				latency.append(", ");
+				parse.append(", ");
+				labels.append(", ");
+			}
+			latency.append(toMillis(step.getLatencyMicros()));
+			parse.append(toMillis(step.getParseMicros()));
+			labels.append("\"").append(step.getMembers()).append("\"");
+		}
+
+		writer.write("<script>");
+		writer.write("Event.observe(window, 'load', function() {");
+		writer.write("var scaling_line = new Grafico.LineGraph($('scalingChart'),");
+		writer.write("{ get: [" + latency + "], parse: [" + parse + "] },");
+		writer.write("{ labels: [" + labels + "],");
+		writer.write("colors: { get: '#1cbfbb', parse: '#bf1c56' },");
+		writer.write("show_vertical_labels: true,");
+		writer.write("datalabels: { get: \"GET\", parse: \"Parse\" }");
+		writer.write("}); });");
+		writer.write("</script>");
+	}
+
 	private void writePassFailLegend() throws IOException {
 		html.write("<svg id=\"passFailLegend\" width=\"150\" height=\"250\">", NO_ESCAPE);
 		html.write("<rect width=\"15\" height=\"15\" x=\"0\" y=\"0\" style=\"fill:#a2bf2f\"/>", NO_ESCAPE);
@@ -720,10 +900,11 @@ public class LdpHtmlReporter implements IReporter {
 		int rectY = 0;
 		int getColor = 0;
 		
-		while (label.hasNext() && getColor != colors.size()) {
+		// colors repeat if there are more classes than colors
+		while (label.hasNext()) {
 			String className = label.next();
 			html.write("<rect width=\"15\" height=\"15\" x=\"0\" y=\"" + rectY
-					+ "\" style=\"fill:" + colors.get(getColor) + "\"/>",
+					+ "\" style=\"fill:" + colors.get(getColor % colors.size()) + "\"/>",
 					NO_ESCAPE);
 			html.write("<text x=\"20\" y=\"" + textY + "\" fill=\"black\">"
 					+ className + "</text>", NO_ESCAPE);
@@ -738,58 +919,56 @@ public class LdpHtmlReporter implements IReporter {
 	
 	private void writeChartLabels(HashMap<String, Integer> passClasses,
 			HashMap<String, Integer> failClasses,
-			HashMap<String, Integer> skipClasses) {
-		graphs.write("datalabels: {");
+			HashMap<String, Integer> skipClasses) throws IOException {
+		writer.write("datalabels: {");
 		Set<String> names = passClasses.keySet();
 		Iterator<String> label = names.iterator();
 		while (label.hasNext()) {
 			String className = label.next();
-			graphs.write(className + ": [ \"" + passClasses.get(className)
+			writer.write(className + ": [ \"" + passClasses.get(className)
 					+ " " + className + "\", \"" + failClasses.get(className)
 					+ " " + className + "\", \"" + skipClasses.get(className)
 					+ " " + className + "\" ]");
 			if (label.hasNext())
-				graphs.write(",");
+				writer.write(",");
 		}
-		graphs.write("},");
+		writer.write("},");
 	}
 	
-	private void writeChartColors(HashMap<String, Integer> passClasses) {
-		graphs.write("colors: {");
+	private void writeChartColors(HashMap<String, Integer> passClasses) throws IOException {
+		writer.write("colors: {");
 		Set<String> names = passClasses.keySet();
 		Iterator<String> label = names.iterator();
 		int getColor = 0;
-		while (label.hasNext() && getColor != colors.size()) {
+		while (label.hasNext()) {
 			String className = label.next();
-
+			writer.write(className + ": '" + colors.get(getColor % colors.size()) + "'");
 			if (label.hasNext())
-				graphs.write(className + ": '" + colors.get(getColor) + "', ");
-			else
-				graphs.write(className+ ": '" + colors.get(getColor) + "' },");
+				writer.write(", ");
 			getColor++;
 		}
+		writer.write(" },");
 	}
 
 	private void writeChartValues(HashMap<String, Integer> passClasses,
 			HashMap<String, Integer> failClasses,
-			HashMap<String, Integer> skipClasses) {
-		graphs.write("{");
+			HashMap<String, Integer> skipClasses) throws IOException {
+		writer.write("{");
 		Set<String> names = passClasses.keySet();
 		Iterator<String> label = names.iterator();
 		while (label.hasNext()) {
 			String className = label.next();
 
-			graphs.write(className + ": [" + passClasses.get(className) + ", "
+			writer.write(className + ": [" + passClasses.get(className) + ", "
 					+ failClasses.get(className) + ", "
 					+ skipClasses.get(className) + " ]");
 			if (label.hasNext())
-				graphs.write(",");
+				writer.write(",");
 		}
-		graphs.write(" },");
+		writer.write(" },");
 	}
 
-	private HashMap<String, Integer> getClasses(IResultMap tests) {
-		HashMap<String, Integer> classes = new HashMap<String, Integer>();
+	private void addClasses(HashMap<String, Integer> classes, IResultMap tests) {
 		Iterator<ITestResult> results = tests.getAllResults().iterator();
 		while (results.hasNext()) {
 			String name = results.next().getTestClass().getName().toString();
@@ -800,7 +979,6 @@ public class LdpHtmlReporter implements IReporter {
 			else
 				classes.put(name, classes.get(name) + 1);
 		}
-		return classes;
 	}
 
 }
@@ -0,0 +1,133 @@
+package org.w3.ldp.testsuite.reporter;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jena.atlas.json.JSON;
+import org.apache.jena.atlas.json.JsonArray;
+import org.apache.jena.atlas.json.JsonNumber;
+import org.apache.jena.atlas.json.JsonObject;
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.xml.XmlSuite;
+import org.w3.ldp.testsuite.LdpTestSuite;
+import org.w3.ldp.testsuite.metrics.ContainerScaling;
+import org.w3.ldp.testsuite.metrics.LatencyHistogram;
+import org.w3.ldp.testsuite.metrics.LatencyKey;
+import org.w3.ldp.testsuite.metrics.LatencyRecorder;
+import org.w3.ldp.testsuite.metrics.PageTraversals;
+
+/**
+ * Writes the HTTP request latency percentiles recorded during the run as
+ * JSON, for tools watching for regressions. Values are in microseconds. A
+ * <code>--benchmark</code> run adds the container scaling curve, and the
+ * paging tests their page traversals.
+ */
+public class LdpLatencyReporter implements IReporter {
+
+	public static final double[] PERCENTILES = { 50.0, 90.0, 99.0 };
+
+	private String outputName = "ldp-testsuite";
+
+	private String outputDirectory = LdpTestSuite.OUTPUT_DIR;
+
+	public void setOutputDirectory(String outputDirectory) {
+		this.outputDirectory = outputDirectory;
+	}
+
+	public void setTitle(String title) {
+		this.outputName = title;
+	}
+
+	@Override
+	public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+		if (LatencyRecorder.isEmpty() && ContainerScaling.isEmpty() && PageTraversals.isEmpty()) {
+			return;
+		}
+
+		JsonObject report = new JsonObject();
+		report.put("unit", "us");
+		report.put("totals", toJson(LatencyRecorder.getTotals(), false));
+		report.put("tests", toJson(LatencyRecorder.getHistograms(), true));
+		if (!ContainerScaling.isEmpty()) {
+			report.put("containerScaling", toJson(ContainerScaling.getSteps()));
+		}
+		if (!PageTraversals.isEmpty()) {
+			report.put("pageTraversals", toJsonTraversals(PageTraversals.getTraversals()));
+		}
+
+		File dir = new File(this.outputDirectory);
+		dir.mkdirs();
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(new File(dir, outputName + "-latency.json")))) {
+			JSON.write(out, report);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private JsonArray toJson(Map<LatencyKey, LatencyHistogram> histograms, boolean includeTest) {
+		JsonArray array = new JsonArray();
+		for (Map.Entry<LatencyKey, LatencyHistogram> entry : histograms.entrySet()) {
+			LatencyKey key = entry.getKey();
+			LatencyHistogram histogram = entry.getValue();
+
+			JsonObject o = new JsonObject();
+			if (includeTest) {
+				o.put("test", key.getTest());
+			}
+			o.put("method", key.getMethod());
+			o.put("target", key.getRole());
+			o.put("status", key.getStatus());
+			o.put("count", histogram.getCount());
+			for (double percentile : PERCENTILES) {
+				o.put("p" + (int) percentile, histogram.getValueAtPercentile(percentile));
+			}
+			o.put("max", histogram.getMax());
+			array.add(o);
+		}
+
+		return array;
+	}
+
+	private JsonArray toJson(List<ContainerScaling.Step> steps) {
+		JsonArray array = new JsonArray();
+		for (ContainerScaling.Step step : steps) {
+			JsonObject o = new JsonObject();
+			o.put("members", step.getMembers());
+			o.put("latency", step.getLatencyMicros());
+			o.put("bytes", step.getBytes());
+			o.put("parse", step.getParseMicros());
+			o.put("heapBytes", step.getHeapBytes());
+			o.put("missing", step.getMissing());
+			array.add(o);
+		}
+
+		return array;
+	}
+
+	private JsonArray toJsonTraversals(List<PageTraversals.Traversal> traversals) {
+		JsonArray array = new JsonArray();
+		for (PageTraversals.Traversal traversal : traversals) {
+			LatencyHistogram latencies = traversal.getLatencies();
+			JsonObject o = new JsonObject();
+			o.put("test", traversal.getTest());
+			o.put("resource", traversal.getResource());
+			o.put("pages", traversal.getPages());
+			o.put("triples", traversal.getTriples());
+			o.put("pagesPerSecond", JsonNumber.value(traversal.getPagesPerSecond()));
+			for (double percentile : PERCENTILES) {
+				o.put("p" + (int) percentile, latencies.getValueAtPercentile(percentile));
+			}
+			o.put("max", latencies.getMax());
+			array.add(o);
+		}
+
+		return array;
+	}
+
+}
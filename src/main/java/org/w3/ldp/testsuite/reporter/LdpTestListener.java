@@ -14,26 +14,32 @@ public class LdpTestListener extends TestListenerAdapter {
 	private static final String SKIP = "Skipped";
 	private static final String PASSED = "Passed";
 
-	private long startTime;
-	private StringBuffer errors;
+	// kept with each test, several of them can run at once
+	private static final String START_TIME = LdpTestListener.class.getName() + ".startTime";
+	private static final String ERRORS = LdpTestListener.class.getName() + ".errors";
 
 	@Override
 	public void onStart(ITestContext testContext) {
-		startTime = System.currentTimeMillis();
-		errors = new StringBuffer();
+		testContext.setAttribute(START_TIME, System.currentTimeMillis());
+		testContext.setAttribute(ERRORS, new StringBuffer());
 	}
 
 	@Override
 	public void onFinish(ITestContext testContext) {
 		long now = System.currentTimeMillis();
-		double timeInSeconds = (double) (now - startTime) / 1000;
+		double timeInSeconds = (double) (now - (Long) testContext.getAttribute(START_TIME)) / 1000;
 		System.out.printf("%nTotal Time: %.2fs%n", timeInSeconds);
 		
+		StringBuffer errors = getErrors(testContext);
 		if (errors.length() != 0) {
 			System.err.println(errors);
 		}
 	}
 
+	private static StringBuffer getErrors(ITestContext testContext) {
+		return (StringBuffer) testContext.getAttribute(ERRORS);
+	}
+
 	@Override
 	public void onTestFailure(ITestResult tr) {
 		log(tr, FAIL);
@@ -41,6 +47,7 @@ public class LdpTestListener extends TestListenerAdapter {
 	}
 
 	protected void printErrorDetails(ITestResult tr) {
+		StringBuffer errors = getErrors(tr.getTestContext());
 		errors.append("\n[FAILURE] ");
 		errors.append(tr.getTestClass().getRealClass().getSimpleName());
 		errors.append(".");
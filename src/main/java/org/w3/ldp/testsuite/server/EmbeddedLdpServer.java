@@ -0,0 +1,988 @@
+package org.w3.ldp.testsuite.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.http.HttpStatus;
+import org.apache.jena.query.QueryParseException;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.rdf.model.StmtIterator;
+import org.apache.jena.sparql.vocabulary.FOAF;
+import org.apache.jena.update.UpdateAction;
+import org.apache.jena.update.UpdateFactory;
+import org.apache.jena.vocabulary.DCTerms;
+import org.apache.jena.vocabulary.RDF;
+import org.w3.ldp.testsuite.http.LinkHeaders;
+import org.w3.ldp.testsuite.http.ParsedLink;
+import org.w3.ldp.testsuite.mapper.RdfObjectMapper;
+import org.w3.ldp.testsuite.util.TaskExecutors;
+import org.w3.ldp.testsuite.vocab.LDP;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import static org.w3.ldp.testsuite.http.HttpHeaders.ACCEPT;
+import static org.w3.ldp.testsuite.http.HttpHeaders.ACCEPT_PATCH;
+import static org.w3.ldp.testsuite.http.HttpHeaders.ACCEPT_POST;
+import static org.w3.ldp.testsuite.http.HttpHeaders.ALLOW;
+import static org.w3.ldp.testsuite.http.HttpHeaders.ETAG;
+import static org.w3.ldp.testsuite.http.HttpHeaders.IF_MATCH;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_CANONICAL;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_DESCRIBEDBY;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_FIRST;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_LAST;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_NEXT;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_PREV;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_TYPE;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LOCATION;
+import static org.w3.ldp.testsuite.http.HttpHeaders.PREFER;
+import static org.w3.ldp.testsuite.http.HttpHeaders.PREFERNCE_APPLIED;
+import static org.w3.ldp.testsuite.http.HttpHeaders.SLUG;
+import static org.w3.ldp.testsuite.http.LdpPreferences.PREFERENCE_INCLUDE;
+import static org.w3.ldp.testsuite.http.LdpPreferences.PREFERENCE_MAX_TRIPLE_COUNT;
+import static org.w3.ldp.testsuite.http.LdpPreferences.PREFERENCE_OMIT;
+import static org.w3.ldp.testsuite.http.LdpPreferences.PREFER_CONTAINMENT;
+import static org.w3.ldp.testsuite.http.LdpPreferences.PREFER_MEMBERSHIP;
+import static org.w3.ldp.testsuite.http.LdpPreferences.PREFER_MINIMAL_CONTAINER;
+import static org.w3.ldp.testsuite.http.MediaTypes.APPLICATION_JSON;
+import static org.w3.ldp.testsuite.http.MediaTypes.APPLICATION_LD_JSON;
+import static org.w3.ldp.testsuite.http.MediaTypes.APPLICATION_RDF_XML;
+import static org.w3.ldp.testsuite.http.MediaTypes.TEXT_TURTLE;
+
+/**
+ * In-memory LDP server on a free port of the loopback interface, for running
+ * the test suite without a server under test (<code>--embedded</code>). It
+ * answers without any I/O, so a run against it measures the overhead of the
+ * test suite itself.
+ * <p>
+ * It has a basic, a direct and an indirect container to run the tests
+ * against and supports LDP-RSs and LDP-NRs, ETags and If-Match, Prefer
+ * include and omit, PATCH with SPARQL Update and LDP Paging when a client
+ * asks for it with a <code>max-triple-count</code> preference.
+ * <p>
+ * Every server starts with empty containers on a new port, and everything is
+ * dropped when it stops, so nothing is left over from an earlier run. Within
+ * a run, the members tests create stay in the containers until the test
+ * suite deletes them at the end.
+ */
+public class EmbeddedLdpServer {
+
+	public static final String BASIC_CONTAINER = "basic/";
+	public static final String DIRECT_CONTAINER = "direct/";
+	public static final String INDIRECT_CONTAINER = "indirect/";
+
+	private static final String SPARQL_UPDATE = "application/sparql-update";
+	private static final String TEXT_PLAIN = "text/plain; charset=UTF-8";
+	private static final String CONTENT_TYPE = "Content-Type";
+	private static final String IF_NONE_MATCH = "If-None-Match";
+
+	// RFC 6585, not in HttpStatus
+	private static final int SC_PRECONDITION_REQUIRED = 428;
+
+	// query parameters of page URIs
+	private static final String PAGE = "page";
+	private static final String PAGE_SIZE = "pageSize";
+
+	private static final Set<String> RDF_MEDIA_TYPES = new HashSet<>(Arrays.asList(
+			TEXT_TURTLE, APPLICATION_LD_JSON, APPLICATION_JSON, APPLICATION_RDF_XML));
+
+	private static final Set<String> INTERACTION_MODELS = new HashSet<>(Arrays.asList(
+			LDP.RDFSource.stringValue(), LDP.NonRDFSource.stringValue(), LDP.BasicContainer.stringValue(),
+			LDP.DirectContainer.stringValue(), LDP.IndirectContainer.stringValue()));
+
+	private final HttpServer server;
+
+	private final ExecutorService executor;
+
+	private final String base;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	// the fields below are guarded by the lock
+
+	private final Map<String, StoredResource> resources = new HashMap<>();
+
+	// URIs aren't reused, so deleted ones are remembered
+	private final Set<String> deleted = new HashSet<>();
+
+	private final Set<String> membershipContainers = new LinkedHashSet<>();
+
+	private long versions;
+
+	private long ids;
+
+	private EmbeddedLdpServer(int threads) throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		this.executor = TaskExecutors.newExecutor("ldp-embedded", threads);
+		InetSocketAddress address = server.getAddress();
+		this.base = "http://" + address.getAddress().getHostAddress() + ":" + address.getPort() + "/";
+		server.setExecutor(executor);
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				try {
+					serve(exchange);
+				} finally {
+					exchange.close();
+				}
+			}
+		});
+
+		create(base + BASIC_CONTAINER, LDP.BasicContainer.stringValue(), null, null, null);
+		create(base + DIRECT_CONTAINER, LDP.DirectContainer.stringValue(), null, null, null);
+		StoredResource indirect = create(base + INDIRECT_CONTAINER, LDP.IndirectContainer.stringValue(), null, null, null);
+		Resource self = indirect.getContent().getResource(indirect.getUri());
+		self.removeAll(StoredResource.INSERTED_CONTENT_RELATION);
+		self.addProperty(StoredResource.INSERTED_CONTENT_RELATION, FOAF.primaryTopic);
+	}
+
+	/**
+	 * Starts a server on a free port of the loopback interface.
+	 *
+	 * @param threads
+	 *            the number of requests to handle concurrently
+	 * @return the running server
+	 */
+	public static EmbeddedLdpServer start(int threads) throws IOException {
+		EmbeddedLdpServer embeddedServer = new EmbeddedLdpServer(threads);
+		embeddedServer.server.start();
+		return embeddedServer;
+	}
+
+	public String getBaseUri() {
+		return base;
+	}
+
+	public String getBasicContainer() {
+		return base + BASIC_CONTAINER;
+	}
+
+	public String getDirectContainer() {
+		return base + DIRECT_CONTAINER;
+	}
+
+	public String getIndirectContainer() {
+		return base + INDIRECT_CONTAINER;
+	}
+
+	public void stop() {
+		server.stop(0);
+		TaskExecutors.shutdownAndWait(executor, 10, TimeUnit.SECONDS);
+
+		Lock write = lock.writeLock();
+		write.lock();
+		try {
+			resources.clear();
+			deleted.clear();
+			membershipContainers.clear();
+		} finally {
+			write.unlock();
+		}
+	}
+
+	private void serve(HttpExchange exchange) throws IOException {
+		final String method = exchange.getRequestMethod().toUpperCase(Locale.ENGLISH);
+		final String uri = base + StringUtils.removeStart(exchange.getRequestURI().getRawPath(), "/");
+		final byte[] body;
+		try (InputStream in = exchange.getRequestBody()) {
+			body = IOUtils.toByteArray(in);
+		}
+
+		Reply reply;
+		try {
+			switch (method) {
+			case "GET":
+			case "HEAD":
+				reply = get(exchange, uri);
+				break;
+			case "OPTIONS":
+				reply = options(exchange, uri);
+				break;
+			case "POST":
+				reply = post(exchange, uri, body);
+				break;
+			case "PUT":
+				reply = put(exchange, uri, body);
+				break;
+			case "PATCH":
+				reply = patch(exchange, uri, body);
+				break;
+			case "DELETE":
+				reply = delete(exchange, uri);
+				break;
+			default:
+				reply = new Reply(HttpStatus.SC_NOT_IMPLEMENTED, method + " is not supported");
+				break;
+			}
+		} catch (ClientError e) {
+			exchange.getResponseHeaders().clear();
+			reply = new Reply(e.status, e.getMessage());
+		}
+
+		if (reply.message != null) {
+			exchange.getResponseHeaders().set(CONTENT_TYPE, TEXT_PLAIN);
+		}
+
+		byte[] content = reply.getContent();
+		boolean noBody = "HEAD".equals(method) || content.length == 0;
+		exchange.sendResponseHeaders(reply.status, noBody ? -1 : content.length);
+		if (!noBody) {
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(content);
+			}
+		}
+	}
+
+	private Reply get(HttpExchange exchange, String uri) {
+		Headers request = exchange.getRequestHeaders();
+		Headers headers = exchange.getResponseHeaders();
+		Preferences preferences = new Preferences(request.get(PREFER));
+
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			StoredResource resource = getResource(uri);
+			String query = exchange.getRequestURI().getRawQuery();
+			if (query != null && !resource.isNonRdfSource()) {
+				return getPage(exchange, resource, query, preferences);
+			}
+
+			if (resource.isNonRdfSource()) {
+				addResourceHeaders(headers, resource);
+				headers.set(ETAG, resource.getETag());
+				if (matches(request.getFirst(IF_NONE_MATCH), resource.getETag(), true)) {
+					return new Reply(HttpStatus.SC_NOT_MODIFIED);
+				}
+				headers.set(CONTENT_TYPE, resource.getBinaryType());
+				return new Reply(HttpStatus.SC_OK, resource.getBinary());
+			}
+
+			List<Statement> triples = getRepresentation(resource, preferences);
+			if (preferences.maxTripleCount > 0 && triples.size() > preferences.maxTripleCount) {
+				headers.set(LOCATION, getPageUri(uri, 1, preferences.maxTripleCount));
+				headers.set("Vary", "Accept, Prefer");
+				return new Reply(HttpStatus.SC_SEE_OTHER);
+			}
+
+			addResourceHeaders(headers, resource);
+			headers.set("Vary", "Accept, Prefer");
+			String mediaType = negotiate(request.getFirst(ACCEPT));
+			if (mediaType == null) {
+				return new Reply(HttpStatus.SC_NOT_ACCEPTABLE, "Supported media types are " + TEXT_TURTLE + ", "
+						+ APPLICATION_LD_JSON + " and " + APPLICATION_RDF_XML);
+			}
+
+			headers.set(ETAG, resource.getETag());
+			if (matches(request.getFirst(IF_NONE_MATCH), resource.getETag(), true)) {
+				return new Reply(HttpStatus.SC_NOT_MODIFIED);
+			}
+			if (preferences.isRepresentation()) {
+				headers.set(PREFERNCE_APPLIED, "return=representation");
+			}
+			headers.set(CONTENT_TYPE, mediaType);
+			return new Reply(HttpStatus.SC_OK, write(uri, triples, mediaType));
+		} finally {
+			read.unlock();
+		}
+	}
+
+	/**
+	 * GETs an in-sequence page. The page URI has the page number and size,
+	 * so pages are the same for any client asking for that size.
+	 */
+	private Reply getPage(HttpExchange exchange, StoredResource resource, String query, Preferences preferences) {
+		Headers headers = exchange.getResponseHeaders();
+		Map<String, String> params = new HashMap<>();
+		for (String param : query.split("&")) {
+			params.put(StringUtils.substringBefore(param, "="), StringUtils.substringAfter(param, "="));
+		}
+		int page = NumberUtils.toInt(params.get(PAGE));
+		int size = NumberUtils.toInt(params.get(PAGE_SIZE));
+		if (page < 1 || size < 1) {
+			throw new ClientError(HttpStatus.SC_NOT_FOUND, "Not a page of <" + resource.getUri() + ">");
+		}
+
+		String uri = resource.getUri();
+		List<Statement> triples = getRepresentation(resource, preferences);
+		int pages = Math.max(1, (triples.size() + size - 1) / size);
+		if (page > pages) {
+			throw new ClientError(HttpStatus.SC_NOT_FOUND, "<" + uri + "> has only " + pages + " pages");
+		}
+
+		// on all responses, so clients can tell if the resource changed
+		headers.add(LINK, "<" + uri + ">; rel=\"" + LINK_REL_CANONICAL + "\"; etag=\""
+				+ resource.getETag().replace("\"", "\\\"") + "\"");
+		String mediaType = negotiate(exchange.getRequestHeaders().getFirst(ACCEPT));
+		if (mediaType == null) {
+			return new Reply(HttpStatus.SC_NOT_ACCEPTABLE, "Supported media types are " + TEXT_TURTLE + ", "
+					+ APPLICATION_LD_JSON + " and " + APPLICATION_RDF_XML);
+		}
+
+		headers.add(LINK, "<" + LDP.Page.stringValue() + ">; rel=\"" + LINK_REL_TYPE + "\"");
+		headers.add(LINK, "<" + getPageUri(uri, 1, size) + ">; rel=\"" + LINK_REL_FIRST + "\"");
+		headers.add(LINK, "<" + getPageUri(uri, pages, size) + ">; rel=\"" + LINK_REL_LAST + "\"");
+		if (page > 1) {
+			headers.add(LINK, "<" + getPageUri(uri, page - 1, size) + ">; rel=\"" + LINK_REL_PREV + "\"");
+		}
+		if (page < pages) {
+			headers.add(LINK, "<" + getPageUri(uri, page + 1, size) + ">; rel=\"" + LINK_REL_NEXT + "\"");
+		}
+		headers.set(ETAG, StringUtils.removeEnd(resource.getETag(), "\"") + "-" + page + "-" + size + "\"");
+		headers.set("Vary", "Accept, Prefer");
+		headers.set(CONTENT_TYPE, mediaType);
+
+		List<Statement> onPage = triples.subList((page - 1) * size, Math.min(page * size, triples.size()));
+		return new Reply(HttpStatus.SC_OK, write(getPageUri(uri, page, size), onPage, mediaType));
+	}
+
+	private static String getPageUri(String uri, int page, int size) {
+		return uri + "?" + PAGE + "=" + page + "&" + PAGE_SIZE + "=" + size;
+	}
+
+	private Reply options(HttpExchange exchange, String uri) {
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			addResourceHeaders(exchange.getResponseHeaders(), getResource(uri));
+			return new Reply(HttpStatus.SC_NO_CONTENT);
+		} finally {
+			read.unlock();
+		}
+	}
+
+	private Reply post(HttpExchange exchange, String uri, byte[] body) {
+		Headers request = exchange.getRequestHeaders();
+		Headers headers = exchange.getResponseHeaders();
+
+		Lock write = lock.writeLock();
+		write.lock();
+		try {
+			StoredResource container = getResource(uri);
+			if (!container.isContainer()) {
+				addResourceHeaders(headers, container);
+				return new Reply(HttpStatus.SC_METHOD_NOT_ALLOWED, "<" + uri + "> is not a container");
+			}
+
+			String contentType = request.getFirst(CONTENT_TYPE);
+			String interactionModel = getInteractionModel(request, uri, contentType);
+			String location = mint(container, request.getFirst(SLUG), interactionModel);
+			StoredResource created = create(location, interactionModel, container, body, contentType);
+
+			headers.set(LOCATION, location);
+			if (created.getDescribedBy() != null) {
+				headers.add(LINK, "<" + created.getDescribedBy() + ">; rel=\"" + LINK_REL_DESCRIBEDBY
+						+ "\"; anchor=\"" + location + "\"");
+			}
+			return new Reply(HttpStatus.SC_CREATED);
+		} finally {
+			write.unlock();
+		}
+	}
+
+	private Reply put(HttpExchange exchange, String uri, byte[] body) {
+		Headers request = exchange.getRequestHeaders();
+		String contentType = request.getFirst(CONTENT_TYPE);
+		String ifMatch = request.getFirst(IF_MATCH);
+
+		Lock write = lock.writeLock();
+		write.lock();
+		try {
+			StoredResource resource = resources.get(uri);
+			if (resource == null) {
+				if (deleted.contains(uri)) {
+					return new Reply(HttpStatus.SC_CONFLICT, "<" + uri + "> was deleted, URIs are not reused");
+				}
+				if (ifMatch != null) {
+					return new Reply(HttpStatus.SC_PRECONDITION_FAILED, "<" + uri + "> doesn't exist");
+				}
+
+				// PUT to create, contained by the parent if it is a container
+				String parentUri = StringUtils.substringBeforeLast(StringUtils.removeEnd(uri, "/"), "/") + "/";
+				StoredResource parent = resources.get(parentUri);
+				create(uri, getInteractionModel(request, uri, contentType),
+						parent != null && parent.isContainer() ? parent : null, body, contentType);
+				exchange.getResponseHeaders().set(LOCATION, uri);
+				return new Reply(HttpStatus.SC_CREATED);
+			}
+
+			if (ifMatch == null) {
+				return new Reply(SC_PRECONDITION_REQUIRED, "PUT requests must be conditional, If-Match is missing");
+			}
+			if (!matches(ifMatch, resource.getETag(), false)) {
+				return new Reply(HttpStatus.SC_PRECONDITION_FAILED, "The ETag of <" + uri + "> is " + resource.getETag());
+			}
+
+			if (resource.isNonRdfSource()) {
+				resource.setBinary(body, StringUtils.defaultIfBlank(contentType, resource.getBinaryType()));
+			} else {
+				Model content = parse(uri, body, contentType);
+				removeServerManaged(resource, content);
+				resource.setContent(content);
+				if (resource.hasMembership()) {
+					resource.addMembershipDefaults();
+				}
+			}
+			touch(resource);
+			return new Reply(HttpStatus.SC_NO_CONTENT);
+		} finally {
+			write.unlock();
+		}
+	}
+
+	private Reply patch(HttpExchange exchange, String uri, byte[] body) {
+		Headers request = exchange.getRequestHeaders();
+		String ifMatch = request.getFirst(IF_MATCH);
+
+		Lock write = lock.writeLock();
+		write.lock();
+		try {
+			StoredResource resource = getResource(uri);
+			if (resource.isNonRdfSource()) {
+				addResourceHeaders(exchange.getResponseHeaders(), resource);
+				return new Reply(HttpStatus.SC_METHOD_NOT_ALLOWED, "LDP-NRs can't be patched");
+			}
+			if (!SPARQL_UPDATE.equals(getMediaType(request.getFirst(CONTENT_TYPE)))) {
+				return new Reply(HttpStatus.SC_UNSUPPORTED_MEDIA_TYPE, "PATCH only supports " + SPARQL_UPDATE);
+			}
+			if (ifMatch != null && !matches(ifMatch, resource.getETag(), false)) {
+				return new Reply(HttpStatus.SC_PRECONDITION_FAILED, "The ETag of <" + uri + "> is " + resource.getETag());
+			}
+
+			Model content = ModelFactory.createDefaultModel().add(resource.getContent());
+			try {
+				UpdateAction.execute(UpdateFactory.create(new String(body, StandardCharsets.UTF_8), uri), content);
+			} catch (QueryParseException e) {
+				return new Reply(HttpStatus.SC_BAD_REQUEST, e.getMessage());
+			}
+			if (content.contains(content.getResource(uri), StoredResource.CONTAINS)) {
+				return new Reply(HttpStatus.SC_CONFLICT, "Containment triples are managed by the server");
+			}
+
+			resource.setContent(content);
+			touch(resource);
+			return new Reply(HttpStatus.SC_NO_CONTENT);
+		} finally {
+			write.unlock();
+		}
+	}
+
+	private Reply delete(HttpExchange exchange, String uri) {
+		String ifMatch = exchange.getRequestHeaders().getFirst(IF_MATCH);
+
+		Lock write = lock.writeLock();
+		write.lock();
+		try {
+			StoredResource resource = getResource(uri);
+			if (ifMatch != null && !matches(ifMatch, resource.getETag(), false)) {
+				return new Reply(HttpStatus.SC_PRECONDITION_FAILED, "The ETag of <" + uri + "> is " + resource.getETag());
+			}
+
+			remove(resource);
+			return new Reply(HttpStatus.SC_NO_CONTENT);
+		} finally {
+			write.unlock();
+		}
+	}
+
+	private StoredResource getResource(String uri) {
+		StoredResource resource = resources.get(uri);
+		if (resource == null) {
+			if (deleted.contains(uri)) {
+				throw new ClientError(HttpStatus.SC_GONE, "<" + uri + "> was deleted");
+			}
+			throw new ClientError(HttpStatus.SC_NOT_FOUND, "<" + uri + "> doesn't exist");
+		}
+
+		return resource;
+	}
+
+	/**
+	 * Creates and stores a resource.
+	 *
+	 * @param parent
+	 *            the container, may be null
+	 * @param body
+	 *            the request body, may be null
+	 */
+	private StoredResource create(String uri, String interactionModel, StoredResource parent, byte[] body, String contentType) {
+		StoredResource created = new StoredResource(uri, interactionModel, parent != null ? parent.getUri() : null);
+		if (created.isNonRdfSource()) {
+			created.setBinary(body, StringUtils.defaultIfBlank(contentType, "application/octet-stream"));
+
+			// an LDP-RS describing it, deleted with it
+			StoredResource description = new StoredResource(unique(uri + ".meta"), LDP.RDFSource.stringValue(), null);
+			description.getContent().getResource(uri).addProperty(DCTerms.format, created.getBinaryType());
+			touch(description);
+			resources.put(description.getUri(), description);
+			created.setDescribedBy(description.getUri());
+		} else {
+			if (body != null) {
+				Model content = parse(uri, body, contentType);
+				content.removeAll(content.getResource(uri), StoredResource.CONTAINS, null);
+				created.setContent(content);
+			}
+			if (created.hasMembership()) {
+				created.addMembershipDefaults();
+				membershipContainers.add(uri);
+			}
+		}
+
+		touch(created);
+		resources.put(uri, created);
+		if (parent != null) {
+			parent.getChildren().add(uri);
+			touch(parent);
+			touchMembershipResource(parent);
+		}
+
+		return created;
+	}
+
+	private void remove(StoredResource resource) {
+		for (String child : new ArrayList<>(resource.getChildren())) {
+			remove(resources.get(child));
+		}
+		if (resource.getDescribedBy() != null) {
+			resources.remove(resource.getDescribedBy());
+			deleted.add(resource.getDescribedBy());
+		}
+
+		resources.remove(resource.getUri());
+		deleted.add(resource.getUri());
+		membershipContainers.remove(resource.getUri());
+
+		StoredResource parent = resource.getParent() != null ? resources.get(resource.getParent()) : null;
+		if (parent != null) {
+			parent.getChildren().remove(resource.getUri());
+			touch(parent);
+			touchMembershipResource(parent);
+		}
+	}
+
+	/**
+	 * Gives a resource a new ETag.
+	 */
+	private void touch(StoredResource resource) {
+		resource.setVersion(++versions);
+	}
+
+	/**
+	 * The membership triples of a resource change with the members of the
+	 * containers it is the membership resource of.
+	 */
+	private void touchMembershipResource(StoredResource container) {
+		if (container.hasMembership()) {
+			StoredResource membershipResource = resources.get(container.getMembershipResource());
+			if (membershipResource != null && membershipResource != container) {
+				touch(membershipResource);
+			}
+		}
+	}
+
+	/**
+	 * Mints the URI of a new member of a container from the Slug if there is
+	 * one.
+	 */
+	private String mint(StoredResource container, String slug, String interactionModel) {
+		String name = StringUtils.defaultString(slug).replaceAll("[^A-Za-z0-9._~-]", "");
+		if (name.isEmpty()) {
+			name = "res" + Long.toString(++ids, Character.MAX_RADIX);
+		}
+
+		String uri = unique(container.getUri() + name);
+		boolean isContainer = LDP.BasicContainer.stringValue().equals(interactionModel)
+				|| LDP.DirectContainer.stringValue().equals(interactionModel)
+				|| LDP.IndirectContainer.stringValue().equals(interactionModel);
+		return isContainer ? uri + "/" : uri;
+	}
+
+	private String unique(String uri) {
+		String unique = uri;
+		while (isTaken(unique)) {
+			unique = uri + "-" + Long.toString(++ids, Character.MAX_RADIX);
+		}
+
+		return unique;
+	}
+
+	private boolean isTaken(String uri) {
+		return resources.containsKey(uri) || resources.containsKey(uri + "/")
+				|| deleted.contains(uri) || deleted.contains(uri + "/");
+	}
+
+	/**
+	 * Gets the interaction model from the Link rel="type" headers of a
+	 * request, or from its media type if there is none.
+	 */
+	private static String getInteractionModel(Headers request, String uri, String contentType) {
+		String interactionModel = null;
+		List<String> links = request.get(LINK);
+		if (links != null) {
+			for (String value : links) {
+				for (ParsedLink link : LinkHeaders.parse(value, uri)) {
+					if (link.getRels().contains(LINK_REL_TYPE)) {
+						String type = link.getTarget();
+						if (LDP.Container.stringValue().equals(type)) {
+							type = LDP.BasicContainer.stringValue();
+						}
+						if (INTERACTION_MODELS.contains(type)
+								&& (interactionModel == null || LDP.RDFSource.stringValue().equals(interactionModel))) {
+							interactionModel = type;
+						}
+					}
+				}
+			}
+		}
+
+		boolean rdf = RDF_MEDIA_TYPES.contains(getMediaType(contentType));
+		if (interactionModel == null) {
+			return rdf ? LDP.RDFSource.stringValue() : LDP.NonRDFSource.stringValue();
+		}
+		if (!rdf && !LDP.NonRDFSource.stringValue().equals(interactionModel)) {
+			throw new ClientError(HttpStatus.SC_UNSUPPORTED_MEDIA_TYPE, "<" + interactionModel
+					+ "> needs RDF content, supported media types are " + TEXT_TURTLE + ", " + APPLICATION_LD_JSON
+					+ " and " + APPLICATION_RDF_XML);
+		}
+
+		return interactionModel;
+	}
+
+	private static Model parse(String uri, byte[] body, String contentType) {
+		if (!RDF_MEDIA_TYPES.contains(getMediaType(contentType))) {
+			throw new ClientError(HttpStatus.SC_UNSUPPORTED_MEDIA_TYPE, "Unsupported media type " + contentType);
+		}
+
+		try {
+			return new RdfObjectMapper(uri).read(new ByteArrayInputStream(body), contentType);
+		} catch (RuntimeException e) {
+			throw new ClientError(HttpStatus.SC_BAD_REQUEST, "Invalid RDF: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Takes the containment and membership triples out of a PUT request body.
+	 * Any containment triples have to match the current ones.
+	 */
+	private void removeServerManaged(StoredResource resource, Model content) {
+		Resource self = content.getResource(resource.getUri());
+		Set<String> contained = new HashSet<>();
+		StmtIterator containment = self.listProperties(StoredResource.CONTAINS);
+		try {
+			while (containment.hasNext()) {
+				RDFNode object = containment.next().getObject();
+				contained.add(object.isURIResource() ? object.asResource().getURI() : object.toString());
+			}
+		} finally {
+			containment.close();
+		}
+		if (!contained.isEmpty() && !contained.equals(resource.getChildren())) {
+			throw new ClientError(HttpStatus.SC_CONFLICT, "Containment triples are managed by the server");
+		}
+
+		self.removeAll(StoredResource.CONTAINS);
+		content.remove(getMembership(resource));
+	}
+
+	/**
+	 * Gets the triples of a representation in a stable order: the content,
+	 * the LDP types the client didn't send, then containment and membership
+	 * triples in the order the members were created. Adding members only
+	 * adds triples at the end.
+	 */
+	private List<Statement> getRepresentation(StoredResource resource, Preferences preferences) {
+		List<Statement> triples = resource.getContent().listStatements().toList();
+		Model content = resource.getContent();
+		Resource self = content.getResource(resource.getUri());
+		// server-managed, so a PUT without them doesn't remove them
+		for (String type : resource.getTypes()) {
+			Statement statement = content.createStatement(self, RDF.type, content.createResource(type));
+			if (!content.contains(statement)) {
+				triples.add(statement);
+			}
+		}
+		if (resource.isContainer() && preferences.include(PREFER_CONTAINMENT)) {
+			for (String child : resource.getChildren()) {
+				triples.add(content.createStatement(self, StoredResource.CONTAINS, content.createResource(child)));
+			}
+		}
+		if (preferences.include(PREFER_MEMBERSHIP)) {
+			triples.addAll(getMembership(resource));
+		}
+
+		return triples;
+	}
+
+	/**
+	 * @return the membership triples with the resource as subject
+	 */
+	private List<Statement> getMembership(StoredResource resource) {
+		List<Statement> triples = new ArrayList<>();
+		Model content = resource.getContent();
+		Resource self = content.getResource(resource.getUri());
+		for (String uri : membershipContainers) {
+			StoredResource container = resources.get(uri);
+			Property hasMember = container.getHasMemberRelation();
+			Property isMemberOf = container.getIsMemberOfRelation();
+			if (hasMember != null && resource.getUri().equals(container.getMembershipResource())) {
+				Property inserted = container.getInsertedContentRelation();
+				for (String child : container.getChildren()) {
+					if (inserted == null) {
+						triples.add(content.createStatement(self, hasMember, content.createResource(child)));
+					} else {
+						StoredResource member = resources.get(child);
+						StmtIterator objects = member.getContent().getResource(child).listProperties(inserted);
+						try {
+							while (objects.hasNext()) {
+								triples.add(content.createStatement(self, hasMember, objects.next().getObject()));
+							}
+						} finally {
+							objects.close();
+						}
+					}
+				}
+			} else if (isMemberOf != null && uri.equals(resource.getParent()) && container.getMembershipResource() != null) {
+				triples.add(content.createStatement(self, isMemberOf, content.createResource(container.getMembershipResource())));
+			}
+		}
+
+		return triples;
+	}
+
+	private static byte[] write(String uri, List<Statement> triples, String mediaType) {
+		Model model = ModelFactory.createDefaultModel();
+		model.setNsPrefix("ldp", LDP.NAMESPACE);
+		model.add(triples);
+		return new RdfObjectMapper(uri).write(model, mediaType);
+	}
+
+	private static void addResourceHeaders(Headers headers, StoredResource resource) {
+		headers.add(LINK, "<" + LDP.Resource.stringValue() + ">; rel=\"" + LINK_REL_TYPE + "\"");
+		headers.add(LINK, "<" + resource.getInteractionModel() + ">; rel=\"" + LINK_REL_TYPE + "\"");
+		if (resource.getDescribedBy() != null) {
+			headers.add(LINK, "<" + resource.getDescribedBy() + ">; rel=\"" + LINK_REL_DESCRIBEDBY + "\"");
+		}
+
+		if (resource.isContainer()) {
+			headers.set(ALLOW, "GET, HEAD, OPTIONS, POST, PUT, PATCH, DELETE");
+			// anything that isn't RDF becomes an LDP-NR
+			headers.set(ACCEPT_POST, TEXT_TURTLE + ", " + APPLICATION_LD_JSON + ", " + APPLICATION_RDF_XML + ", */*");
+		} else if (resource.isNonRdfSource()) {
+			headers.set(ALLOW, "GET, HEAD, OPTIONS, PUT, DELETE");
+		} else {
+			headers.set(ALLOW, "GET, HEAD, OPTIONS, PUT, PATCH, DELETE");
+		}
+		if (!resource.isNonRdfSource()) {
+			headers.set(ACCEPT_PATCH, SPARQL_UPDATE);
+		}
+	}
+
+	/**
+	 * @return the supported media type the client prefers, null if there is
+	 *         none
+	 */
+	private static String negotiate(String accept) {
+		if (StringUtils.isBlank(accept)) {
+			return TEXT_TURTLE;
+		}
+
+		String best = null;
+		double bestQuality = 0;
+		for (String range : accept.split(",")) {
+			String[] params = range.split(";");
+			double quality = 1;
+			for (int i = 1; i < params.length; i++) {
+				String param = params[i].trim();
+				if (param.startsWith("q=")) {
+					quality = NumberUtils.toDouble(param.substring(2), 0);
+				}
+			}
+
+			String mediaType;
+			switch (params[0].trim().toLowerCase(Locale.ENGLISH)) {
+			case "*/*":
+			case "text/*":
+			case TEXT_TURTLE:
+				mediaType = TEXT_TURTLE;
+				break;
+			case "application/*":
+			case APPLICATION_LD_JSON:
+			case APPLICATION_JSON:
+				mediaType = APPLICATION_LD_JSON;
+				break;
+			case APPLICATION_RDF_XML:
+				mediaType = APPLICATION_RDF_XML;
+				break;
+			default:
+				mediaType = null;
+				break;
+			}
+
+			if (mediaType != null && quality > bestQuality) {
+				best = mediaType;
+				bestQuality = quality;
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * @param header
+	 *            If-Match or If-None-Match, may be null
+	 * @param weak
+	 *            true to ignore W/ prefixes, as If-None-Match does
+	 */
+	private static boolean matches(String header, String etag, boolean weak) {
+		if (header == null) {
+			return false;
+		}
+
+		for (String value : header.split(",")) {
+			String tag = value.trim();
+			if (weak) {
+				tag = StringUtils.removeStart(tag, "W/");
+			}
+			if ("*".equals(tag) || etag.equals(tag)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static String getMediaType(String contentType) {
+		return StringUtils.substringBefore(StringUtils.defaultString(contentType), ";").trim().toLowerCase(Locale.ENGLISH);
+	}
+
+	/**
+	 * The parts of the Prefer request headers the server honors.
+	 */
+	private static class Preferences {
+
+		private final Set<String> include = new HashSet<>();
+		private final Set<String> omit = new HashSet<>();
+		private boolean representation;
+		private int maxTripleCount;
+
+		Preferences(List<String> headers) {
+			if (headers == null) {
+				return;
+			}
+
+			for (String header : headers) {
+				for (String preference : header.split("[;,]")) {
+					String name = StringUtils.substringBefore(preference, "=").trim();
+					String value = StringUtils.strip(StringUtils.substringAfter(preference, "=").trim(), "\"");
+					if ("return".equals(name)) {
+						representation = "representation".equals(value);
+					} else if (PREFERENCE_INCLUDE.equals(name)) {
+						include.addAll(Arrays.asList(StringUtils.split(value)));
+					} else if (PREFERENCE_OMIT.equals(name)) {
+						omit.addAll(Arrays.asList(StringUtils.split(value)));
+					} else if (PREFERENCE_MAX_TRIPLE_COUNT.equals(name)) {
+						maxTripleCount = NumberUtils.toInt(value);
+					}
+				}
+			}
+		}
+
+		/**
+		 * @return true if include or omit apply
+		 */
+		boolean isRepresentation() {
+			return representation && (!include.isEmpty() || !omit.isEmpty());
+		}
+
+		/**
+		 * @param preference
+		 *            {@link LDP#PreferContainment} or {@link LDP#PreferMembership}
+		 */
+		boolean include(String preference) {
+			if (omit.contains(preference)) {
+				return false;
+			}
+
+			boolean minimal = include.contains(PREFER_MINIMAL_CONTAINER)
+					|| include.contains(LDP.PreferEmptyContainer.stringValue());
+			return include.contains(preference) || !minimal;
+		}
+	}
+
+	private static class Reply {
+
+		private final int status;
+		private final byte[] content;
+		private final String message;
+
+		Reply(int status) {
+			this(status, new byte[0], null);
+		}
+
+		Reply(int status, byte[] content) {
+			this(status, content, null);
+		}
+
+		/**
+		 * An error with a plain text message.
+		 */
+		Reply(int status, String message) {
+			this(status, message.getBytes(StandardCharsets.UTF_8), message);
+		}
+
+		private Reply(int status, byte[] content, String message) {
+			this.status = status;
+			this.content = content;
+			this.message = message;
+		}
+
+		byte[] getContent() {
+			return content;
+		}
+	}
+
+	/**
+	 * Stops handling a request with an error status.
+	 */
+	private static class ClientError extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int status;
+
+		ClientError(int status, String message) {
+			super(message);
+			this.status = status;
+		}
+	}
+
+}
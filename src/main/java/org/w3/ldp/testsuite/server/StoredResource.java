@@ -0,0 +1,216 @@
+package org.w3.ldp.testsuite.server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.w3.ldp.testsuite.vocab.LDP;
+
+/**
+ * One resource of the {@link EmbeddedLdpServer}. RDF sources keep the triples
+ * clients sent, the server-managed types, containment and membership triples
+ * are added when the resource is read.
+ */
+class StoredResource {
+
+	static final Property CONTAINS = property(LDP.contains.stringValue());
+	static final Property MEMBERSHIP_RESOURCE = property(LDP.membershipResource.stringValue());
+	static final Property HAS_MEMBER_RELATION = property(LDP.hasMemberRelation.stringValue());
+	static final Property IS_MEMBER_OF_RELATION = property(LDP.isMemberOfRelation.stringValue());
+	static final Property INSERTED_CONTENT_RELATION = property(LDP.insertedContentRelation.stringValue());
+
+	private final String uri;
+
+	private final String interactionModel;
+
+	private final String parent;
+
+	// containers only, in the order the members were created
+	private final Set<String> children = new LinkedHashSet<>();
+
+	private Model content;
+
+	// LDP-NRs only
+	private byte[] binary;
+
+	private String binaryType;
+
+	private String describedBy;
+
+	private long version;
+
+	/**
+	 * @param interactionModel
+	 *            an LDP type like {@link LDP#BasicContainer}
+	 * @param parent
+	 *            the container, may be null
+	 */
+	StoredResource(String uri, String interactionModel, String parent) {
+		this.uri = uri;
+		this.interactionModel = interactionModel;
+		this.parent = parent;
+		this.content = ModelFactory.createDefaultModel();
+	}
+
+	private static Property property(String uri) {
+		return ResourceFactory.createProperty(uri);
+	}
+
+	String getUri() {
+		return uri;
+	}
+
+	String getInteractionModel() {
+		return interactionModel;
+	}
+
+	String getParent() {
+		return parent;
+	}
+
+	boolean isContainer() {
+		return LDP.BasicContainer.stringValue().equals(interactionModel)
+				|| LDP.DirectContainer.stringValue().equals(interactionModel)
+				|| LDP.IndirectContainer.stringValue().equals(interactionModel);
+	}
+
+	/**
+	 * @return true for direct and indirect containers
+	 */
+	boolean hasMembership() {
+		return LDP.DirectContainer.stringValue().equals(interactionModel)
+				|| LDP.IndirectContainer.stringValue().equals(interactionModel);
+	}
+
+	boolean isNonRdfSource() {
+		return LDP.NonRDFSource.stringValue().equals(interactionModel);
+	}
+
+	/**
+	 * @return the LDP types of an RDF source: its interaction model,
+	 *         ldp:Container for containers and ldp:RDFSource
+	 */
+	List<String> getTypes() {
+		List<String> types = new ArrayList<>();
+		if (isNonRdfSource()) {
+			return types;
+		}
+
+		if (isContainer()) {
+			types.add(interactionModel);
+			types.add(LDP.Container.stringValue());
+		}
+		types.add(LDP.RDFSource.stringValue());
+
+		return types;
+	}
+
+	Set<String> getChildren() {
+		return children;
+	}
+
+	Model getContent() {
+		return content;
+	}
+
+	void setContent(Model content) {
+		this.content = content;
+	}
+
+	byte[] getBinary() {
+		return binary;
+	}
+
+	String getBinaryType() {
+		return binaryType;
+	}
+
+	void setBinary(byte[] binary, String binaryType) {
+		this.binary = binary;
+		this.binaryType = binaryType;
+	}
+
+	/**
+	 * @return the LDP-RS describing an LDP-NR, or null
+	 */
+	String getDescribedBy() {
+		return describedBy;
+	}
+
+	void setDescribedBy(String describedBy) {
+		this.describedBy = describedBy;
+	}
+
+	/**
+	 * @param version
+	 *            a server-wide counter, so versions are never reused
+	 */
+	void setVersion(long version) {
+		this.version = version;
+	}
+
+	String getETag() {
+		return "\"" + Long.toString(version, Character.MAX_RADIX) + "\"";
+	}
+
+	/**
+	 * @return the ldp:membershipResource of a direct or indirect container
+	 */
+	String getMembershipResource() {
+		return getObjectUri(MEMBERSHIP_RESOURCE);
+	}
+
+	Property getHasMemberRelation() {
+		String relation = getObjectUri(HAS_MEMBER_RELATION);
+		return relation != null ? property(relation) : null;
+	}
+
+	Property getIsMemberOfRelation() {
+		String relation = getObjectUri(IS_MEMBER_OF_RELATION);
+		return relation != null ? property(relation) : null;
+	}
+
+	/**
+	 * @return the ldp:insertedContentRelation, null for ldp:MemberSubject
+	 */
+	Property getInsertedContentRelation() {
+		String relation = getObjectUri(INSERTED_CONTENT_RELATION);
+		return relation != null && !LDP.MemberSubject.stringValue().equals(relation) ? property(relation) : null;
+	}
+
+	private String getObjectUri(Property property) {
+		Statement statement = content.getResource(uri).getProperty(property);
+		if (statement == null) {
+			return null;
+		}
+
+		RDFNode object = statement.getObject();
+		return object.isURIResource() ? object.asResource().getURI() : null;
+	}
+
+	/**
+	 * Adds the membership properties a direct or indirect container needs
+	 * if the client left them out.
+	 */
+	void addMembershipDefaults() {
+		Resource self = content.getResource(uri);
+		if (!self.hasProperty(MEMBERSHIP_RESOURCE)) {
+			self.addProperty(MEMBERSHIP_RESOURCE, self);
+		}
+		if (!self.hasProperty(HAS_MEMBER_RELATION) && !self.hasProperty(IS_MEMBER_OF_RELATION)) {
+			self.addProperty(HAS_MEMBER_RELATION, content.createResource(LDP.member.stringValue()));
+		}
+		if (LDP.IndirectContainer.stringValue().equals(interactionModel) && !self.hasProperty(INSERTED_CONTENT_RELATION)) {
+			self.addProperty(INSERTED_CONTENT_RELATION, content.createResource(LDP.MemberSubject.stringValue()));
+		}
+	}
+
+}
@@ -0,0 +1,129 @@
+package org.w3.ldp.testsuite.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+/**
+ * Runs only the test methods of one <code>--shard i/n</code>. Methods are
+ * assigned by a hash of their class and name, so every process of a sharded
+ * run gets the same partition no matter the order TestNG lists them in.
+ * Methods linked by <code>dependsOnMethods</code> always end up in the same
+ * shard, under the key of the first of them by name.
+ */
+public class ShardFilter implements IMethodInterceptor {
+
+	private final int index;
+
+	private final int count;
+
+	/**
+	 * @param index
+	 *            the shard to run, from 1 to {@code count}
+	 * @param count
+	 *            the number of shards
+	 */
+	public ShardFilter(int index, int count) {
+		if (count < 1 || index < 1 || index > count) {
+			throw new IllegalArgumentException("ERROR: invalid shard " + index + "/" + count + ", it must be i/n with 1 <= i <= n");
+		}
+		this.index = index;
+		this.count = count;
+	}
+
+	/**
+	 * Parses the <code>i/n</code> argument of <code>--shard</code>.
+	 */
+	public static ShardFilter parse(String shard) {
+		String[] parts = shard.trim().split("/");
+		if (parts.length != 2) {
+			throw new IllegalArgumentException("ERROR: invalid shard " + shard + ", it must be i/n");
+		}
+		try {
+			return new ShardFilter(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("ERROR: invalid shard " + shard + ", " + e.getLocalizedMessage());
+		}
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the shard from 1 to n a key is assigned to
+	 */
+	public int shardOf(String key) {
+		CRC32 crc = new CRC32();
+		crc.update(key.getBytes(StandardCharsets.UTF_8));
+		return (int) (crc.getValue() % count) + 1;
+	}
+
+	@Override
+	public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+		// union-find over the methods depending on each other
+		Map<String, String> parents = new HashMap<>();
+		for (IMethodInstance method : methods) {
+			ITestNGMethod m = method.getMethod();
+			String key = keyOf(m);
+			find(parents, key);
+			for (String dependency : m.getMethodsDependedUpon()) {
+				// qualified by the declaring class, but always in the same test class
+				String name = dependency.substring(dependency.lastIndexOf('.') + 1);
+				union(parents, key, m.getRealClass().getName() + "." + name);
+			}
+		}
+
+		List<IMethodInstance> toRun = new ArrayList<>();
+		for (IMethodInstance method : methods) {
+			if (shardOf(find(parents, keyOf(method.getMethod()))) == index) {
+				toRun.add(method);
+			}
+		}
+
+		return toRun;
+	}
+
+	private static String keyOf(ITestNGMethod method) {
+		return method.getRealClass().getName() + "." + method.getMethodName();
+	}
+
+	private static String find(Map<String, String> parents, String key) {
+		String parent = parents.get(key);
+		if (parent == null) {
+			parents.put(key, key);
+			return key;
+		}
+		if (parent.equals(key)) {
+			return key;
+		}
+
+		String root = find(parents, parent);
+		parents.put(key, root);
+		return root;
+	}
+
+	private static void union(Map<String, String> parents, String a, String b) {
+		String rootA = find(parents, a);
+		String rootB = find(parents, b);
+		// the smaller name is the root, so the key doesn't depend on the order
+		if (rootA.compareTo(rootB) < 0) {
+			parents.put(rootB, rootA);
+		} else if (rootB.compareTo(rootA) < 0) {
+			parents.put(rootA, rootB);
+		}
+	}
+
+}
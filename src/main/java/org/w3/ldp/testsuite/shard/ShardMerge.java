@@ -0,0 +1,259 @@
+package org.w3.ldp.testsuite.shard;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.jena.atlas.json.JSON;
+import org.apache.jena.atlas.json.JsonObject;
+import org.apache.jena.atlas.json.JsonValue;
+import org.testng.IConfigurable;
+import org.testng.IConfigureCallBack;
+import org.testng.IHookCallBack;
+import org.testng.IHookable;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+/**
+ * Combines the results of the shards of a run, written by
+ * {@link ShardResultsWriter}, into one TestNG run. The recorded test methods
+ * run again without contacting the server: each one ends the way it did in its
+ * shard, and configuration methods don't run at all. The reporters added to
+ * the {@link TestNG} of {@link #createTestNG()} then see the results of the
+ * whole run, as if it had run in one process.
+ */
+public class ShardMerge implements IMethodInterceptor, IHookable, IConfigurable {
+
+	private static final class Outcome {
+
+		private final String status;
+
+		private final String message;
+
+		// index/count, or the results file if it doesn't say
+		private final String shard;
+
+		private Outcome(String status, String message, String shard) {
+			this.status = status;
+			this.message = message;
+			this.shard = shard;
+		}
+	}
+
+	private static final class RecordedSuite {
+
+		private final Map<String, String> parameters = new HashMap<>();
+
+		private final Set<String> includedGroups = new LinkedHashSet<>();
+
+		private final Set<String> excludedGroups = new LinkedHashSet<>();
+
+		// the classes of each test
+		private final Map<String, Set<String>> tests = new LinkedHashMap<>();
+	}
+
+	private final Map<String, RecordedSuite> suites = new LinkedHashMap<>();
+
+	// by test, class and method
+	private final Map<String, Outcome> outcomes = new HashMap<>();
+
+	/**
+	 * Reads the results of all shards.
+	 */
+	public static ShardMerge read(List<File> files) throws IOException {
+		ShardMerge merge = new ShardMerge();
+		for (File file : files) {
+			merge.readFile(file);
+		}
+
+		return merge;
+	}
+
+	private void readFile(File file) throws IOException {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+			RecordedSuite suite = null;
+			String shard = file.getName();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (StringUtils.isBlank(line)) {
+					continue;
+				}
+
+				JsonObject o = JSON.parse(line);
+				if (o.hasKey(ShardResultsWriter.SUITE)) {
+					suite = readSuite(o);
+					if (o.hasKey(ShardResultsWriter.SHARD)) {
+						shard = getString(o, ShardResultsWriter.SHARD);
+					}
+				} else if (suite == null) {
+					throw new IOException(file + " doesn't start with a suite");
+				} else {
+					readResult(suite, o, shard);
+				}
+			}
+		}
+	}
+
+	private RecordedSuite readSuite(JsonObject o) {
+		String name = getString(o, ShardResultsWriter.SUITE);
+		RecordedSuite suite = suites.get(name);
+		if (suite == null) {
+			suite = new RecordedSuite();
+			suites.put(name, suite);
+		}
+
+		JsonObject parameters = o.get(ShardResultsWriter.PARAMETERS).getAsObject();
+		for (String key : parameters.keys()) {
+			suite.parameters.put(key, getString(parameters, key));
+		}
+		for (JsonValue group : o.get(ShardResultsWriter.INCLUDED_GROUPS).getAsArray()) {
+			suite.includedGroups.add(group.getAsString().value());
+		}
+		for (JsonValue group : o.get(ShardResultsWriter.EXCLUDED_GROUPS).getAsArray()) {
+			suite.excludedGroups.add(group.getAsString().value());
+		}
+
+		return suite;
+	}
+
+	private void readResult(RecordedSuite suite, JsonObject o, String shard) {
+		String test = getString(o, ShardResultsWriter.TEST);
+		String className = getString(o, ShardResultsWriter.CLASS);
+		Set<String> classes = suite.tests.get(test);
+		if (classes == null) {
+			classes = new LinkedHashSet<>();
+			suite.tests.put(test, classes);
+		}
+		classes.add(className);
+
+		String message = o.hasKey(ShardResultsWriter.MESSAGE) ? getString(o, ShardResultsWriter.MESSAGE) : null;
+		outcomes.put(key(test, className, getString(o, ShardResultsWriter.METHOD)),
+				new Outcome(getString(o, ShardResultsWriter.STATUS), message, shard));
+	}
+
+	private static String getString(JsonObject o, String key) {
+		return o.get(key).getAsString().value();
+	}
+
+	private static String key(String test, String className, String method) {
+		return test + "|" + className + "." + method;
+	}
+
+	private static String key(ITestContext context, ITestNGMethod method) {
+		return key(context.getName(), method.getRealClass().getName(), method.getMethodName());
+	}
+
+	/**
+	 * @return true if any shard had the suite parameter
+	 */
+	public boolean hasParameter(String name) {
+		for (RecordedSuite suite : suites.values()) {
+			if (suite.parameters.containsKey(name)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return the number of recorded test results
+	 */
+	public int size() {
+		return outcomes.size();
+	}
+
+	/**
+	 * @return a TestNG running the recorded tests, without reporters
+	 */
+	public TestNG createTestNG() {
+		List<XmlSuite> xmlSuites = new ArrayList<>();
+		for (Map.Entry<String, RecordedSuite> entry : suites.entrySet()) {
+			RecordedSuite recorded = entry.getValue();
+			XmlSuite xmlSuite = new XmlSuite();
+			xmlSuite.setName(entry.getKey());
+			xmlSuite.setParameters(recorded.parameters);
+			for (String group : recorded.includedGroups) {
+				xmlSuite.addIncludedGroup(group);
+			}
+			for (String group : recorded.excludedGroups) {
+				xmlSuite.addExcludedGroup(group);
+			}
+
+			List<XmlTest> tests = new ArrayList<>();
+			for (Map.Entry<String, Set<String>> test : recorded.tests.entrySet()) {
+				XmlTest xmlTest = new XmlTest(xmlSuite);
+				xmlTest.setName(test.getKey());
+				List<XmlClass> classes = new ArrayList<>();
+				for (String className : test.getValue()) {
+					classes.add(new XmlClass(className));
+				}
+				xmlTest.setXmlClasses(classes);
+				tests.add(xmlTest);
+			}
+			xmlSuite.setTests(tests);
+			xmlSuites.add(xmlSuite);
+		}
+
+		TestNG testng = new TestNG();
+		testng.setXmlSuites(xmlSuites);
+		testng.addListener(this);
+		return testng;
+	}
+
+	@Override
+	public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+		List<IMethodInstance> toRun = new ArrayList<>();
+		for (IMethodInstance method : methods) {
+			if (outcomes.containsKey(key(context, method.getMethod()))) {
+				toRun.add(method);
+			}
+		}
+
+		return toRun;
+	}
+
+	@Override
+	public void run(IHookCallBack callBack, ITestResult testResult) {
+		Outcome outcome = outcomes.get(key(testResult.getTestContext(), testResult.getMethod()));
+		if (outcome == null) {
+			throw new SkipException("Not run in any shard");
+		}
+
+		switch (outcome.status) {
+		case ShardResultsWriter.FAIL:
+			// a failure without a message, such as a NullPointerException
+			throw new AssertionError(outcome.message != null ? outcome.message : "Failed in shard " + outcome.shard);
+		case ShardResultsWriter.SKIP:
+			throw new SkipException(outcome.message);
+		default:
+			// passed, the test method isn't run
+			break;
+		}
+	}
+
+	@Override
+	public void run(IConfigureCallBack callBack, ITestResult testResult) {
+		// the shards already set up and cleaned up the server
+	}
+
+}
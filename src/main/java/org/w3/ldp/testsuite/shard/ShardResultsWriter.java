@@ -0,0 +1,186 @@
+package org.w3.ldp.testsuite.shard;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.apache.jena.atlas.json.JSON;
+import org.apache.jena.atlas.json.JsonArray;
+import org.apache.jena.atlas.json.JsonObject;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+/**
+ * Writes the results of one shard for {@link ShardMerge}, one JSON object per
+ * line. The first line of each suite has its name, the shard, its groups and
+ * parameters, every other line one test result. Lines are flushed as they are
+ * written, so an interrupted shard still leaves the results it got to.
+ */
+public class ShardResultsWriter implements ISuiteListener, ITestListener {
+
+	static final String SUITE = "suite";
+	static final String SHARD = "shard";
+	static final String PARAMETERS = "parameters";
+	static final String INCLUDED_GROUPS = "includedGroups";
+	static final String EXCLUDED_GROUPS = "excludedGroups";
+	static final String TEST = "test";
+	static final String CLASS = "class";
+	static final String METHOD = "method";
+	static final String STATUS = "status";
+	static final String MESSAGE = "message";
+
+	static final String PASS = "PASS";
+	static final String FAIL = "FAIL";
+	static final String SKIP = "SKIP";
+
+	// credentials stay out of the results
+	private static final String AUTH = "auth";
+
+	private final File file;
+
+	// index/count
+	private final String shard;
+
+	private Writer writer;
+
+	/**
+	 * @param directory
+	 *            the output directory
+	 * @param title
+	 *            the report title
+	 * @param shard
+	 *            the shard of this process
+	 */
+	public ShardResultsWriter(String directory, String title, ShardFilter shard) {
+		this.file = new File(directory, getFilename(title, shard.getIndex(), shard.getCount()));
+		this.shard = shard.getIndex() + "/" + shard.getCount();
+	}
+
+	public static String getFilename(String title, int index, int count) {
+		return title + "-shard-" + index + "-of-" + count + ".jsonl";
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	@Override
+	public synchronized void onStart(ISuite suite) {
+		try {
+			if (writer == null) {
+				file.getAbsoluteFile().getParentFile().mkdirs();
+				writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+			}
+
+			XmlSuite xmlSuite = suite.getXmlSuite();
+			JsonObject header = new JsonObject();
+			header.put(SUITE, suite.getName());
+			header.put(SHARD, shard);
+			JsonObject parameters = new JsonObject();
+			for (Map.Entry<String, String> parameter : xmlSuite.getParameters().entrySet()) {
+				if (!AUTH.equals(parameter.getKey()) && parameter.getValue() != null) {
+					parameters.put(parameter.getKey(), parameter.getValue());
+				}
+			}
+			header.put(PARAMETERS, parameters);
+			header.put(INCLUDED_GROUPS, toArray(xmlSuite.getIncludedGroups()));
+			header.put(EXCLUDED_GROUPS, toArray(xmlSuite.getExcludedGroups()));
+			writeLine(header);
+		} catch (IOException e) {
+			System.err.println("WARNING: Error writing the shard results to " + file);
+			e.printStackTrace();
+		}
+	}
+
+	@Override
+	public synchronized void onFinish(ISuite suite) {
+		if (writer == null) {
+			return;
+		}
+		try {
+			writer.close();
+		} catch (IOException e) {
+			System.err.println("WARNING: Error closing the shard results " + file);
+			e.printStackTrace();
+		}
+		writer = null;
+	}
+
+	@Override
+	public void onStart(ITestContext context) {
+	}
+
+	@Override
+	public void onFinish(ITestContext context) {
+	}
+
+	@Override
+	public void onTestStart(ITestResult result) {
+	}
+
+	@Override
+	public void onTestSuccess(ITestResult result) {
+		write(result, PASS);
+	}
+
+	@Override
+	public void onTestFailure(ITestResult result) {
+		write(result, FAIL);
+	}
+
+	@Override
+	public void onTestSkipped(ITestResult result) {
+		write(result, SKIP);
+	}
+
+	@Override
+	public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+		write(result, PASS);
+	}
+
+	private synchronized void write(ITestResult result, String status) {
+		if (writer == null) {
+			return;
+		}
+
+		JsonObject o = new JsonObject();
+		o.put(TEST, result.getTestContext().getName());
+		o.put(CLASS, result.getTestClass().getRealClass().getName());
+		o.put(METHOD, result.getMethod().getMethodName());
+		o.put(STATUS, status);
+		Throwable thrown = result.getThrowable();
+		if (thrown != null && thrown.getMessage() != null) {
+			o.put(MESSAGE, thrown.getMessage());
+		}
+		try {
+			writeLine(o);
+		} catch (IOException e) {
+			System.err.println("WARNING: Error writing the shard results to " + file);
+			e.printStackTrace();
+		}
+	}
+
+	private void writeLine(JsonObject o) throws IOException {
+		writer.write(JSON.toStringFlat(o));
+		writer.write('\n');
+		writer.flush();
+	}
+
+	private static JsonArray toArray(Iterable<String> values) {
+		JsonArray array = new JsonArray();
+		for (String value : values) {
+			array.add(value);
+		}
+		return array;
+	}
+
+}
@@ -8,19 +8,21 @@ import org.apache.jena.vocabulary.DCTerms;
 import org.apache.jena.vocabulary.RDF;
 import com.jayway.restassured.response.Response;
 import com.jayway.restassured.specification.RequestSpecification;
-import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.http.HttpStatus;
 import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 import org.testng.annotations.Test;
 import org.w3.ldp.testsuite.LdpTestSuite;
+import org.w3.ldp.testsuite.annotations.Requires;
 import org.w3.ldp.testsuite.annotations.SpecTest;
 import org.w3.ldp.testsuite.annotations.SpecTest.METHOD;
 import org.w3.ldp.testsuite.annotations.SpecTest.STATUS;
 import org.w3.ldp.testsuite.exception.SkipException;
 import org.w3.ldp.testsuite.http.HttpMethod;
+import org.w3.ldp.testsuite.mapper.CompactGraph;
 import org.w3.ldp.testsuite.mapper.RdfObjectMapper;
 import org.w3.ldp.testsuite.matcher.HeaderMatchers;
+import org.w3.ldp.testsuite.replay.ResourceNames;
 import org.w3.ldp.testsuite.vocab.LDP;
 
 import javax.ws.rs.core.UriBuilder;
@@ -28,11 +30,12 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.UUID;
 
 import static org.hamcrest.core.IsNot.not;
 import static org.testng.Assert.*;
 import static org.w3.ldp.testsuite.http.HttpHeaders.*;
+import static org.w3.ldp.testsuite.http.LdpRequests.createRdfSource;
+import static org.w3.ldp.testsuite.http.LdpRequests.getRdfSource;
 import static org.w3.ldp.testsuite.http.LdpPreferences.PREFER_CONTAINMENT;
 import static org.w3.ldp.testsuite.http.LdpPreferences.PREFER_MINIMAL_CONTAINER;
 import static org.w3.ldp.testsuite.http.MediaTypes.APPLICATION_LD_JSON;
@@ -62,7 +65,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			approval = STATUS.WG_APPROVED)
 	public void testPutToCreate() {
 		String location = putToCreate();
-		buildBaseRequestSpecification().delete(location);
+		deleteLater(getResourceUri(), location);
 	}
 
 	@Test(
@@ -78,6 +81,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED,
 			comment = "Covers only part of the specification requirement. ")
+	@Requires(methods = HttpMethod.POST, unrestrictedPostContent = true)
 	public void testRelativeUriResolutionPost(@Optional String relativeUri) {
 		skipIfMethodNotAllowed(HttpMethod.POST);
 
@@ -129,7 +133,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 					"Response does not have expected triple: <" + location + "> dcterms:relation <" + relationAbsoluteUri + ">."
 			);
 		} finally {
-			buildBaseRequestSpecification().delete(location);
+			deleteLater(containerUri, location);
 		}
 	}
 
@@ -142,12 +146,12 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED)
 	public void testNoRdfBagSeqOrList() {
-		Model containerModel = getAsModel(getResourceUri());
-		assertFalse(containerModel.listResourcesWithProperty(RDF.type, RDF.Bag)
-				.hasNext(), "LDPC representations should not use rdf:Bag");
-		assertFalse(containerModel.listResourcesWithProperty(RDF.type, RDF.Seq)
-				.hasNext(), "LDPC representations should not use rdf:Seq");
-		assertFalse(containerModel.listResourcesWithProperty(RDF.type, RDF.List).hasNext(),
+		CompactGraph containerGraph = getAsGraph(getResourceUri());
+		assertFalse(containerGraph.contains(null, RDF.type.asNode(), RDF.Bag.asNode()),
+				"LDPC representations should not use rdf:Bag");
+		assertFalse(containerGraph.contains(null, RDF.type.asNode(), RDF.Seq.asNode()),
+				"LDPC representations should not use rdf:Seq");
+		assertFalse(containerGraph.contains(null, RDF.type.asNode(), RDF.List.asNode()),
 				"LDPC representations should not use rdf:List"
 		);
 	}
@@ -226,6 +230,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			specRefUri = LdpTestSuite.SPEC_URI + "#ldpc-post-created201",
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED)
+	@Requires(methods = HttpMethod.POST)
 	public void testPostResponseStatusAndLocation() throws URISyntaxException {
 		skipIfMethodNotAllowed(HttpMethod.POST);
 
@@ -233,15 +238,15 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 
 		try {
 			Model model = postContent();
-			Response postResponse = buildBaseRequestSpecification().contentType(TEXT_TURTLE)
-					.body(model, new RdfObjectMapper()).expect()
+			Response postResponse = createRdfSource(buildBaseRequestSpecification(), model)
+					.expect()
 					.statusCode(HttpStatus.SC_CREATED).when()
 					.post(getResourceUri());
 
 			location = postResponse.getHeader(LOCATION);
 			assertNotNull(location, MSG_LOC_NOTFOUND);
 		} finally {
-			buildBaseRequestSpecification().delete(location);
+			deleteLater(getResourceUri(), location);
 		}
 	}
 
@@ -254,14 +259,13 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			specRefUri = LdpTestSuite.SPEC_URI + "#ldpc-post-createdmbr-contains",
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED)
+	@Requires(methods = HttpMethod.POST)
 	public void testPostContainer() throws URISyntaxException {
 		skipIfMethodNotAllowed(HttpMethod.POST);
 
 		Model model = postContent();
 		String containerUri = getResourceUri();
-		Response postResponse = buildBaseRequestSpecification()
-					.contentType(TEXT_TURTLE)
-					.body(model, new RdfObjectMapper())
+		Response postResponse = createRdfSource(buildBaseRequestSpecification(), model)
 				.expect()
 					.statusCode(HttpStatus.SC_CREATED)
 					.header(LOCATION, HeaderMatchers.headerPresent())
@@ -271,9 +275,8 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 		String location = postResponse.getHeader(LOCATION);
 
 		try {
-			Response getResponse = buildBaseRequestSpecification()
-					.header(ACCEPT, TEXT_TURTLE)
-					.header(PREFER, include(PREFER_CONTAINMENT)) // hint to the server that we want containment triples
+			// hint to the server that we want containment triples
+			Response getResponse = getRdfSource(buildBaseRequestSpecification(), include(PREFER_CONTAINMENT))
 				.expect()
 					.statusCode(isSuccessful())
 				.when()
@@ -292,7 +295,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 							+ location + ">."
 			);
 		} finally {
-			buildBaseRequestSpecification().delete(location);
+			deleteLater(containerUri, location);
 		}
 	}
 
@@ -325,7 +328,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 		// Cleanup if it actually created something
 		String location = postResponse.getHeader(LOCATION);
 		if (postResponse.statusCode() == HttpStatus.SC_CREATED && location !=null)
-			buildBaseRequestSpecification().delete(location);
+			deleteLater(containerAsResource, location);
 
 		assertNotEquals(postResponse.statusCode(), HttpStatus.SC_CREATED, "Resources with interaction model of only ldp:Resources shouldn't allow container POST-create behavior.");
 
@@ -388,6 +391,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			specRefUri = LdpTestSuite.SPEC_URI + "#ldpc-post-turtle",
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED)
+	@Requires(methods = HttpMethod.POST)
 	public void testAcceptTurtle() {
 		skipIfMethodNotAllowed(HttpMethod.POST);
 
@@ -400,7 +404,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 		// Delete the resource to clean up.
 		String location = postResponse.getHeader(LOCATION);
 		if (location != null) {
-			buildBaseRequestSpecification().delete(location);
+			deleteLater(getResourceUri(), location);
 		}
 	}
 
@@ -413,6 +417,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			specRefUri = LdpTestSuite.SPEC_URI + "#ldpc-post-contenttype",
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED)
+	@Requires(methods = HttpMethod.POST)
 	public void testContentTypeHeader() throws URISyntaxException {
 		skipIfMethodNotAllowed(HttpMethod.POST);
 
@@ -463,7 +468,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 					"created with non-RDF Content-Type");
 		} finally {
 			// Clean up.
-			buildBaseRequestSpecification().delete(location);
+			deleteLater(getResourceUri(), location);
 		}
 	}
 
@@ -479,6 +484,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			specRefUri = LdpTestSuite.SPEC_URI + "#ldpc-post-rdfnullrel",
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED)
+	@Requires(methods = HttpMethod.POST)
 	public void testNullRelativeUriPost() throws URISyntaxException {
 		skipIfMethodNotAllowed(HttpMethod.POST);
 
@@ -516,7 +522,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			);
 		} finally {
 			// Delete the resource to clean up.
-			buildBaseRequestSpecification().delete(location);
+			deleteLater(getResourceUri(), location);
 		}
 	}
 
@@ -528,6 +534,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			specRefUri = LdpTestSuite.SPEC_URI + "#ldpc-post-serverassignuri",
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED)
+	@Requires(methods = HttpMethod.POST)
 	public void testPostNoSlug() {
 		skipIfMethodNotAllowed(HttpMethod.POST);
 
@@ -543,7 +550,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 				.post(getResourceUri());
 
 		// Delete the resource to clean up.
-		buildBaseRequestSpecification().delete(postResponse.getHeader(LOCATION));
+		deleteLater(getResourceUri(), postResponse.getHeader(LOCATION));
 	}
 
 	@Test(
@@ -557,6 +564,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			specRefUri = LdpTestSuite.SPEC_URI + "#ldpc-post-mincontraints",
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED)
+	@Requires(methods = HttpMethod.POST)
 	public void testCreateWithoutConstraints() throws URISyntaxException {
 		skipIfMethodNotAllowed(HttpMethod.POST);
 
@@ -576,7 +584,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 		// Delete the resource to clean up.
 		String location = postResponse.getHeader(LOCATION);
 		if (location != null) {
-			buildBaseRequestSpecification().delete(location);
+			deleteLater(getResourceUri(), location);
 		}
 
 	}
@@ -590,6 +598,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			approval = STATUS.WG_APPROVED,
 			comment = "Covers only part of the specification requirement. "
 					+ "testRestrictUriReUseNoSlug covers the rest.")
+	@Requires(methods = HttpMethod.POST)
 	public void testRestrictUriReUseSlug() throws URISyntaxException {
 		testRestrictUriReUse("uritest");
 	}
@@ -603,6 +612,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			approval = STATUS.WG_APPROVED,
 			comment = "Covers only part of the specification requirement. "
 					+ "testRestrictUriReUseSlug covers the rest.")
+	@Requires(methods = HttpMethod.POST)
 	public void testRestrictUriReUseNoSlug() throws URISyntaxException {
 		testRestrictUriReUse(null);
 	}
@@ -616,6 +626,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			specRefUri = LdpTestSuite.SPEC_URI + "#ldpc-post-acceptposthdr",
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED)
+	@Requires(methods = HttpMethod.POST)
 	public void testAcceptPostResponseHeader() {
 		skipIfMethodNotAllowed(HttpMethod.POST);
 
@@ -672,6 +683,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			specRefUri = LdpTestSuite.SPEC_URI + "#ldpc-put-create",
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED)
+	@Requires(putToCreate = true)
 	public void testRestrictPutReUseUri() {
 		String location = putToCreate();
 
@@ -703,6 +715,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			specRefUri = LdpTestSuite.SPEC_URI + "#ldpc-del-contremovesconttriple",
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED)
+	@Requires(methods = HttpMethod.POST)
 	public void testDeleteRemovesContainmentTriple() throws URISyntaxException {
 		skipIfMethodNotAllowed(HttpMethod.POST);
 
@@ -810,13 +823,14 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			specRefUri = LdpTestSuite.SPEC_URI + "#ldpc-post-slug",
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED)
+	@Requires(methods = HttpMethod.POST)
 	public void testServerHonorsSlug() {
 		skipIfMethodNotAllowed(HttpMethod.POST);
 
 		// Come up with a (probably) unique slug header. Try to find one that
 		// the server will accept unchanged, so avoid special characters or very
 		// long strings.
-		String slug = RandomStringUtils.randomAlphabetic(6);
+		String slug = ResourceNames.slug(getResourceUri());
 		Model content = postContent();
 		String location = post(content, slug);
 
@@ -827,7 +841,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			assertTrue(location.toLowerCase().contains(slug.toLowerCase()), "Slug is not part of the return Location");
 		} finally {
 			// Clean up.
-			buildBaseRequestSpecification().delete(location);
+			deleteLater(getResourceUri(), location);
 		}
 	}
 
@@ -840,6 +854,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			specRefUri = LdpTestSuite.SPEC_URI + "#ldpc-post-jsonld",
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED)
+	@Requires(methods = HttpMethod.POST)
 	public void testPostJsonLd() {
 		skipIfMethodNotAllowed(HttpMethod.POST);
 
@@ -922,7 +937,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 		try {
 			assertNotEquals(loc1, loc2, "Server reused URIs for POSTed resources.");
 		} finally {
-			buildBaseRequestSpecification().delete(loc2);
+			deleteLater(getResourceUri(), loc2);
 		}
 	}
 
@@ -950,7 +965,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 	protected String putToCreate() {
 		// Build a unique URI for the PUT request.
 		URI target = UriBuilder.fromUri(getResourceUri())
-				.path(UUID.randomUUID().toString()).build();
+				.path(ResourceNames.next(getResourceUri())).build();
 		Model model = postContent();
 		Response response = buildBaseRequestSpecification().contentType(TEXT_TURTLE)
 				.body(model, new RdfObjectMapper("")).expect()
@@ -961,7 +976,7 @@ public abstract class CommonContainerTest extends RdfSourceTest {
 			return target.toString();
 		}
 
-		return location;
+		return resolveIfRelative(target.toString(), location);
 	}
 
 }
@@ -1,36 +1,33 @@
 package org.w3.ldp.testsuite.test;
 
-import com.google.common.collect.ImmutableMap;
-import com.jayway.restassured.RestAssured;
-import com.jayway.restassured.response.Header;
-import com.jayway.restassured.response.Headers;
 import com.jayway.restassured.response.Response;
-import com.jayway.restassured.specification.RequestSpecification;
 import com.jayway.restassured.specification.ResponseSpecification;
-import org.apache.commons.io.output.WriterOutputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpStatus;
 import org.testng.ITestResult;
 import org.testng.annotations.*;
 import org.w3.ldp.testsuite.LdpTestSuite;
+import org.w3.ldp.testsuite.annotations.Requires;
 import org.w3.ldp.testsuite.annotations.SpecTest;
 import org.w3.ldp.testsuite.annotations.SpecTest.METHOD;
 import org.w3.ldp.testsuite.annotations.SpecTest.STATUS;
+import org.w3.ldp.testsuite.capability.OptionsCache;
 import org.w3.ldp.testsuite.exception.SkipException;
 import org.w3.ldp.testsuite.exception.SkipMethodNotAllowedException;
 import org.w3.ldp.testsuite.exception.SkipNotTestableException;
 import org.w3.ldp.testsuite.http.HttpMethod;
+import org.w3.ldp.testsuite.util.TaskExecutors;
 import org.w3.ldp.testsuite.vocab.LDP;
 
 import java.io.IOException;
-import java.io.PrintStream;
+import java.io.PrintWriter;
 import java.net.URISyntaxException;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
-import static com.jayway.restassured.config.LogConfig.logConfig;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.testng.Assert.assertEquals;
@@ -45,75 +42,97 @@ import static org.w3.ldp.testsuite.matcher.HttpStatusSuccessMatcher.isSuccessful
  */
 public abstract class CommonResourceTest extends LdpTest {
 
-	private Set<String> options = new HashSet<String>();
-
-	protected Map<String,String> auth;
+	private Set<String> options = Collections.emptySet();
 
 	protected abstract String getResourceUri();
 
+	/**
+	 * Gets the URI of the resource under test without skipping the current
+	 * test if there is none.
+	 *
+	 * @return the resource URI or {@code null} if there is no resource to test
+	 */
+	public String getTestResourceUri() {
+		try {
+			return getResourceUri();
+		} catch (SkipException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Fetches the options of all configured resources concurrently so test
+	 * classes don't have to wait for them one after the other.
+	 */
+	@BeforeSuite(alwaysRun = true)
+	@Parameters({"basicContainer", "directContainer", "indirectContainer", "memberResource", "containerAsResource"})
+	public void prefetchOptions(@Optional String basicContainer, @Optional String directContainer,
+			@Optional String indirectContainer, @Optional String memberResource, @Optional String containerAsResource) {
+		Set<String> uris = new LinkedHashSet<>();
+		for (String uri : new String[] { basicContainer, directContainer, indirectContainer, memberResource, containerAsResource }) {
+			if (StringUtils.isNotBlank(uri)) {
+				uris.add(uri);
+			}
+		}
+
+		ExecutorService executor = TaskExecutors.newExecutor("ldp-options", uris.size());
+		for (final String uri : uris) {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						OptionsCache.get(uri, buildBaseRequestSpecification());
+					} catch (Exception e) {
+						// determineOptions() tries again for the classes that need it
+						System.err.println("WARNING: HTTP OPTIONS request to <" + uri + "> failed");
+						e.printStackTrace();
+					}
+				}
+			});
+		}
+		TaskExecutors.shutdownAndWait(executor, 1, TimeUnit.MINUTES);
+	}
+
+	/**
+	 * The cache is static, another run in the same JVM must not see the
+	 * options of this one.
+	 */
+	@AfterSuite(alwaysRun = true)
+	public void clearOptions() {
+		OptionsCache.clear();
+	}
+
 	@BeforeClass(alwaysRun = true)
 	public void determineOptions() {
 		String uri = getResourceUri();
 		if (StringUtils.isNotBlank(uri)) {
 			// Use HTTP OPTIONS, which MUST be supported by LDP servers, to determine what methods are supported on this container.
-			Response optionsResponse = buildBaseRequestSpecification().options(uri);
-			Headers headers = optionsResponse.getHeaders();
-			List<Header> allowHeaders = headers.getList(ALLOW);
-			for (Header allowHeader : allowHeaders) {
-				String allow = allowHeader.getValue();
-				if (allow != null) {
-					String[] methods = allow.split("\\s*,\\s*");
-					for (String method : methods) {
-						options.add(method);
-					}
-				}
-			}
+			// The response is shared by all test classes testing the same resource.
+			options = OptionsCache.get(uri, buildBaseRequestSpecification()).getAllowedMethods();
 		}
 	}
 
 	@AfterMethod(alwaysRun = true)
 	public void addFailureToHttpLog(ITestResult result) {
-		if (httpLog != null && result.getStatus() == ITestResult.FAILURE) {
-			// Add the failure details after the HTTP trace so it's clear what test it belongs to.
-			httpLog.println(">>> [FAILURE] Test: " + result.getName());
-			Throwable thrown = result.getThrowable();
-			if (thrown != null) {
-				httpLog.append(thrown.getLocalizedMessage());
-				httpLog.println();
+		final PrintWriter log = httpLog;
+		if (log != null && result.getStatus() == ITestResult.FAILURE) {
+			// Keep the failure details together when tests run in parallel.
+			synchronized (log) {
+				// Add the failure details after the HTTP trace so it's clear what test it belongs to.
+				log.println(">>> [FAILURE] Test: " + result.getName());
+				Throwable thrown = result.getThrowable();
+				if (thrown != null) {
+					log.append(thrown.getLocalizedMessage());
+					log.println();
+				}
+				log.println();
 			}
-			httpLog.println();
 		}
 	}
 
 	@Parameters("auth")
 	public CommonResourceTest(@Optional String auth) throws IOException {
-		if (StringUtils.isNotBlank(auth) && auth.contains(":")) {
-			String[] split = auth.split(":");
-			if (split.length == 2 && StringUtils.isNotBlank(split[0]) && StringUtils.isNotBlank(split[1])) {
-				this.auth = ImmutableMap.of("username", split[0], "password", split[1]);
-			}
-		} else {
-			this.auth = null;
-		}
-	}
-
-	@Override
-	protected RequestSpecification buildBaseRequestSpecification() {
-		RequestSpecification spec = RestAssured.given();
-		if (auth != null) {
-			spec.auth().preemptive().basic(auth.get("username"), auth.get("password"));
-		}
-
-		if (httpLog != null) {
-			spec.config(RestAssured
-					.config()
-					.logConfig(logConfig()
-							.enableLoggingOfRequestAndResponseIfValidationFails()
-							.defaultStream(new PrintStream(new WriterOutputStream(httpLog)))
-							.enablePrettyPrinting(true)));
-		}
-
-		return spec;
+		super(auth);
 	}
 
 	@Test(
@@ -255,6 +274,7 @@ public abstract class CommonResourceTest extends LdpTest {
 			comment = "Covers only part of the specification requirement. "
 					+ "testConditionFailedStatusCode, testPreconditionRequiredStatusCode "
 					+ "and testPutBadETag covers the rest.")
+	@Requires(methods = HttpMethod.PUT)
 	public void testPutRequiresIfMatch() throws URISyntaxException {
 		skipIfMethodNotAllowed(HttpMethod.PUT);
 
@@ -292,6 +312,7 @@ public abstract class CommonResourceTest extends LdpTest {
 			comment = "Covers only part of the specification requirement. "
 					+ "testPutBadETag, testPreconditionRequiredStatusCode "
 					+ "and testPutRequiresIfMatch covers the rest.")
+	@Requires(methods = HttpMethod.PUT)
 	public void testConditionFailedStatusCode() {
 		skipIfMethodNotAllowed(HttpMethod.PUT);
 
@@ -330,6 +351,7 @@ public abstract class CommonResourceTest extends LdpTest {
 			comment = "Covers only part of the specification requirement. "
 					+ "testConditionFailedStatusCode,  testPutBadETag"
 					+ "and testPutRequiresIfMatch covers the rest.")
+	@Requires(methods = HttpMethod.PUT)
 	public void testPreconditionRequiredStatusCode() {
 		skipIfMethodNotAllowed(HttpMethod.PUT);
 
@@ -389,6 +411,7 @@ public abstract class CommonResourceTest extends LdpTest {
 			comment = "Covers only part of the specification requirement. "
 					+ "testConditionFailedStatusCode, testPreconditionRequiredStatusCode "
 					+ "and testPutRequiresIfMatch covers the rest.")
+	@Requires(methods = HttpMethod.PUT)
 	public void testPutBadETag() {
 		skipIfMethodNotAllowed(HttpMethod.PUT);
 
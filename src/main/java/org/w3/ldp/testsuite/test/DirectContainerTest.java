@@ -1,5 +1,7 @@
 package org.w3.ldp.testsuite.test;
 
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.Resource;
 import com.jayway.restassured.response.Header;
@@ -10,11 +12,13 @@ import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 import org.testng.annotations.Test;
 import org.w3.ldp.testsuite.LdpTestSuite;
+import org.w3.ldp.testsuite.annotations.Requires;
 import org.w3.ldp.testsuite.annotations.SpecTest;
 import org.w3.ldp.testsuite.annotations.SpecTest.METHOD;
 import org.w3.ldp.testsuite.annotations.SpecTest.STATUS;
 import org.w3.ldp.testsuite.exception.SkipException;
 import org.w3.ldp.testsuite.http.HttpMethod;
+import org.w3.ldp.testsuite.mapper.CompactGraph;
 import org.w3.ldp.testsuite.mapper.RdfObjectMapper;
 import org.w3.ldp.testsuite.matcher.HeaderMatchers;
 import org.w3.ldp.testsuite.vocab.LDP;
@@ -177,6 +181,7 @@ public class DirectContainerTest extends CommonContainerTest {
 			specRefUri = LdpTestSuite.SPEC_URI + "#ldpdc-post-createdmbr-member",
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED)
+	@Requires(methods = HttpMethod.POST)
 	public void testPostResourceUpdatesTriples() {
 		skipIfMethodNotAllowed(HttpMethod.POST);
 
@@ -206,7 +211,7 @@ public class DirectContainerTest extends CommonContainerTest {
 			}
 		} finally {
 			// Delete the resource to clean up.
-			buildBaseRequestSpecification().delete(location);
+			deleteLater(directContainer, location);
 		}
 	}
 
@@ -219,6 +224,7 @@ public class DirectContainerTest extends CommonContainerTest {
 			specRefUri = LdpTestSuite.SPEC_URI + "#ldpdc-del-contremovesmbrtriple",
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED)
+	@Requires(methods = HttpMethod.POST)
 	public void testDeleteResourceUpdatesTriples() {
 		skipIfMethodNotAllowed(HttpMethod.POST);
 
@@ -247,23 +253,25 @@ public class DirectContainerTest extends CommonContainerTest {
 					.statusCode(isSuccessful())
 				.when()
 					.get(directContainer);
-			Model containerModel = getResponse.as(Model.class, new RdfObjectMapper(directContainer));
+			CompactGraph containerGraph = getResponse.as(CompactGraph.class, new RdfObjectMapper(directContainer));
 
-			Resource container = containerModel.getResource(directContainer);
-			Resource membershipResource = container.getPropertyResourceValue(containerModel.createProperty(LDP.membershipResource.stringValue()));
-			Resource hasMemberRelation = container.getPropertyResourceValue(containerModel.createProperty(LDP.hasMemberRelation.stringValue()));
-			Resource isMemberOfRelation = null;
+			Node container = NodeFactory.createURI(directContainer);
+			Node member = NodeFactory.createURI(location);
+			Node membershipResource = containerGraph.getObject(container, NodeFactory.createURI(LDP.membershipResource.stringValue()));
+			Node hasMemberRelation = containerGraph.getObject(container, NodeFactory.createURI(LDP.hasMemberRelation.stringValue()));
+			Node isMemberOfRelation = null;
 			assertNotNull(membershipResource, MSG_MBRRES_NOTFOUND);
 
 			// First verify the membership triples exist
 			if (hasMemberRelation != null) {
-				assertTrue(membershipResource.hasProperty(containerModel.createProperty(hasMemberRelation.getURI()), containerModel.getResource(location)),
+				assertTrue(containerGraph.contains(membershipResource, hasMemberRelation, member),
 						"The LDPC server must have a corresponding membership triple when an LDPR is added (hasMemberRelation).");
 			} else {
 				// Not if membership triple is not of form: (container, membership predicate, member), it may be the inverse.
-				isMemberOfRelation = container.getPropertyResourceValue(containerModel.createProperty(LDP.isMemberOfRelation.stringValue()));
+				isMemberOfRelation = containerGraph.getObject(container, NodeFactory.createURI(LDP.isMemberOfRelation.stringValue()));
+				assertNotNull(isMemberOfRelation, "LDP DirectContainer must have either ldp:hasMemberRelation or ldp:isMemberOfRelation");
 				// Check the container for the triple.
-				if (!containerModel.contains(containerModel.getResource(location), containerModel.createProperty(isMemberOfRelation.getURI()), membershipResource)) {
+				if (!containerGraph.contains(member, isMemberOfRelation, membershipResource)) {
 					List<Header> preferenceAppliedHeaders = getResponse.getHeaders().getList(PREFERNCE_APPLIED);
 					assertFalse(
 							!preferenceAppliedHeaders.isEmpty() && hasReturnRepresentation(preferenceAppliedHeaders),
@@ -271,8 +279,8 @@ public class DirectContainerTest extends CommonContainerTest {
 				}
 
 				// Check the resource has the triple as well.
-				Model memberResourceModel = getAsModel(location);
-				assertTrue(memberResourceModel.contains(memberResourceModel.getResource(location), memberResourceModel.createProperty(isMemberOfRelation.getURI()), membershipResource),
+				CompactGraph memberResourceGraph = getAsGraph(location);
+				assertTrue(memberResourceGraph.contains(member, isMemberOfRelation, membershipResource),
 						"The LDPC server must have a corresponding membership triple when an LDPR is added (isMemberOfRelation).");
 			}
 
@@ -288,23 +296,21 @@ public class DirectContainerTest extends CommonContainerTest {
 					.statusCode(isSuccessful())
 				.when()
 					.get(directContainer);
-			containerModel = getResponse.as(Model.class, new RdfObjectMapper(directContainer));
-			membershipResource = containerModel.getResource(membershipResource.getURI());
+			containerGraph = getResponse.as(CompactGraph.class, new RdfObjectMapper(directContainer));
 
 			// Now verify the membership triples DON"T exist
 			if (hasMemberRelation != null) {
-				assertFalse(membershipResource.hasProperty(containerModel.createProperty(hasMemberRelation.getURI()), containerModel.getResource(location)),
+				assertFalse(containerGraph.contains(membershipResource, hasMemberRelation, member),
 						"The LDPC server must remove the corresponding membership triple when an LDPR is deleted (hasMemberRelation).");
 			} else {
 				// Not if membership triple is not of form: (container, membership predicate, member), it may be the inverse.
-				isMemberOfRelation = container.getPropertyResourceValue(containerModel.createProperty(LDP.isMemberOfRelation.stringValue()));
-				assertFalse(containerModel.contains(containerModel.getResource(location), containerModel.createProperty(isMemberOfRelation.getURI()), membershipResource),
+				assertFalse(containerGraph.contains(member, isMemberOfRelation, membershipResource),
 						"The LDPC server must remove the corresponding membership triple when an LDPR is deleted (isMemberOfRelation).");
 			}
 		} finally {
 			// If an assertion failed before we could delete the resource, clean up now.
 			if (!deleted) {
-				buildBaseRequestSpecification().delete(location);
+				deleteLater(directContainer, location);
 			}
 		}
 	}
@@ -324,20 +330,21 @@ public class DirectContainerTest extends CommonContainerTest {
 		throw new org.testng.SkipException("Covered indirectly by the MUST tests defined in CommonContainerTest class");
 	}
 
-	private boolean hasMembershipTriples(Model containerModel) {
-		Resource container = containerModel.getResource(directContainer);
-		Resource membershipResource = container.getPropertyResourceValue(containerModel.createProperty(LDP.membershipResource.stringValue()));
-		Resource hasMemberRelation = container.getPropertyResourceValue(containerModel.createProperty(LDP.hasMemberRelation.stringValue()));
+	private boolean hasMembershipTriples(CompactGraph containerGraph) {
+		Node container = NodeFactory.createURI(directContainer);
+		Node membershipResource = containerGraph.getObject(container, NodeFactory.createURI(LDP.membershipResource.stringValue()));
+		Node hasMemberRelation = containerGraph.getObject(container, NodeFactory.createURI(LDP.hasMemberRelation.stringValue()));
 		assertNotNull(membershipResource, MSG_MBRRES_NOTFOUND);
 
 		// First verify the membership triples exist
 		if (hasMemberRelation != null) {
-			return membershipResource.hasProperty(containerModel.createProperty(hasMemberRelation.getURI()));
+			return containerGraph.contains(membershipResource, hasMemberRelation, null);
 		}
 
 		// Not if membership triple is not of form: (container, membership predicate, member), it may be the inverse.
-		Resource isMemberOfRelation = container.getPropertyResourceValue(containerModel.createProperty(LDP.isMemberOfRelation.stringValue()));
-		return containerModel.contains(null, containerModel.createProperty(isMemberOfRelation.getURI()), membershipResource);
+		Node isMemberOfRelation = containerGraph.getObject(container, NodeFactory.createURI(LDP.isMemberOfRelation.stringValue()));
+		assertNotNull(isMemberOfRelation, "LDP DirectContainer must have either ldp:hasMemberRelation or ldp:isMemberOfRelation");
+		return containerGraph.contains(null, isMemberOfRelation, membershipResource);
 	}
 
 	@Test(
@@ -354,7 +361,7 @@ public class DirectContainerTest extends CommonContainerTest {
 			comment = "Covers only part of the specification requirement. ")
 	public void testPreferMembershipTriples() {
 		Response response;
-		Model model;
+		CompactGraph graph;
 
 		// Ask for membership triples.
 		response = buildBaseRequestSpecification()
@@ -364,11 +371,11 @@ public class DirectContainerTest extends CommonContainerTest {
 					.statusCode(isSuccessful())
 				.when()
 					.get(directContainer);
-		model = response.as(Model.class, new RdfObjectMapper(directContainer));
+		graph = response.as(CompactGraph.class, new RdfObjectMapper(directContainer));
 
 		// Assumes the container is not empty.
 		checkPreferenceAppliedHeader(response);
-		assertTrue(hasMembershipTriples(model), "Container does not have membership triples");
+		assertTrue(hasMembershipTriples(graph), "Container does not have membership triples");
 
 		// Ask for a minimal container.
 		response = buildBaseRequestSpecification()
@@ -378,10 +385,10 @@ public class DirectContainerTest extends CommonContainerTest {
 					.statusCode(isSuccessful())
 				.when()
 					.get(directContainer);
-		model = response.as(Model.class, new RdfObjectMapper(directContainer));
+		graph = response.as(CompactGraph.class, new RdfObjectMapper(directContainer));
 
 		checkPreferenceAppliedHeader(response);
-		assertFalse(hasMembershipTriples(model), "Container has membership triples when minimal container was requested");
+		assertFalse(hasMembershipTriples(graph), "Container has membership triples when minimal container was requested");
 
 		// Ask to omit membership.
 		response = buildBaseRequestSpecification()
@@ -391,10 +398,10 @@ public class DirectContainerTest extends CommonContainerTest {
 					.statusCode(isSuccessful())
 				.when()
 					.get(directContainer);
-		model = response.as(Model.class, new RdfObjectMapper(directContainer));
+		graph = response.as(CompactGraph.class, new RdfObjectMapper(directContainer));
 
 		checkPreferenceAppliedHeader(response);
-		assertFalse(hasMembershipTriples(model), "Container has membership triples when client requested server omit them");
+		assertFalse(hasMembershipTriples(graph), "Container has membership triples when client requested server omit them");
 
 		// Ask for a minimal container, but include membership. (Example from spec.)
 		response = buildBaseRequestSpecification()
@@ -404,12 +411,12 @@ public class DirectContainerTest extends CommonContainerTest {
 					.statusCode(isSuccessful())
 				.when()
 					.get(directContainer);
-		model = response.as(Model.class, new RdfObjectMapper(directContainer));
+		graph = response.as(CompactGraph.class, new RdfObjectMapper(directContainer));
 
 		// Assumes the container is not empty.
 		checkPreferenceAppliedHeader(response);
-		assertTrue(hasMembershipTriples(model), "Container does not have membership triples");
-		assertFalse(model.contains(model.getResource(directContainer), model.createProperty(LDP.contains.stringValue())),
+		assertTrue(hasMembershipTriples(graph), "Container does not have membership triples");
+		assertFalse(graph.contains(NodeFactory.createURI(directContainer), NodeFactory.createURI(LDP.contains.stringValue()), null),
 				"Container has containment triples when minimal container was requested");
 	}
 
@@ -15,6 +15,7 @@ import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 import org.testng.annotations.Test;
 import org.w3.ldp.testsuite.LdpTestSuite;
+import org.w3.ldp.testsuite.annotations.Requires;
 import org.w3.ldp.testsuite.annotations.SpecTest;
 import org.w3.ldp.testsuite.annotations.SpecTest.METHOD;
 import org.w3.ldp.testsuite.annotations.SpecTest.STATUS;
@@ -170,6 +171,7 @@ public class IndirectContainerTest extends CommonContainerTest {
 			specRefUri = LdpTestSuite.SPEC_URI + "#ldpic-post-indirectmbrrel",
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_PENDING)
+	@Requires(methods = HttpMethod.POST)
 	public void testPostResource() {
 		skipIfMethodNotAllowed(HttpMethod.POST);
 		
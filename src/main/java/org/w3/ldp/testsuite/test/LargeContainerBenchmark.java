@@ -0,0 +1,223 @@
+package org.w3.ldp.testsuite.test;
+
+import com.jayway.restassured.response.Response;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.http.HttpStatus;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.NodeIterator;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Optional;
+import org.testng.annotations.Parameters;
+import org.testng.annotations.Test;
+import org.w3.ldp.testsuite.annotations.Requires;
+import org.w3.ldp.testsuite.exception.SkipException;
+import org.w3.ldp.testsuite.http.HttpMethod;
+import org.w3.ldp.testsuite.http.PooledHttpClientFactory;
+import org.w3.ldp.testsuite.mapper.RdfObjectMapper;
+import org.w3.ldp.testsuite.metrics.ContainerScaling;
+import org.w3.ldp.testsuite.util.TaskExecutors;
+import org.w3.ldp.testsuite.vocab.LDP;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LOCATION;
+import static org.w3.ldp.testsuite.http.LdpPreferences.PREFER_CONTAINMENT;
+import static org.w3.ldp.testsuite.http.LdpRequests.createRdfSource;
+import static org.w3.ldp.testsuite.http.LdpRequests.getRdfSource;
+import static org.w3.ldp.testsuite.matcher.HttpStatusSuccessMatcher.isSuccessful;
+
+/**
+ * Fills a scratch container with more and more members and measures how
+ * reading it scales. Not a conformance test, it only runs with
+ * <code>--benchmark</code>.
+ */
+public class LargeContainerBenchmark extends LdpTest {
+
+	public static final String BENCHMARK = "benchmark";
+
+	public static final String DEFAULT_SIZES = "1000,10000";
+
+	// how long one size step may take to populate
+	private static final long STEP_TIMEOUT = 30; // minutes
+
+	private String parentContainer;
+
+	private int[] sizes;
+
+	private int threads;
+
+	@Parameters("auth")
+	public LargeContainerBenchmark(@Optional String auth) throws IOException {
+		super(auth);
+	}
+
+	/**
+	 * @param benchmarkSizes
+	 *            comma separated member counts to measure at, for instance
+	 *            "1000,10000,100000"
+	 * @param benchmarkThreads
+	 *            the number of concurrent POSTs
+	 */
+	@BeforeClass(alwaysRun = true)
+	@Parameters({"basicContainer", "directContainer", "indirectContainer", "benchmarkSizes", "benchmarkThreads"})
+	public void setUp(@Optional String basicContainer, @Optional String directContainer,
+			@Optional String indirectContainer, @Optional String benchmarkSizes, @Optional String benchmarkThreads) {
+		if (StringUtils.isNotBlank(basicContainer)) {
+			parentContainer = basicContainer;
+		} else if (StringUtils.isNotBlank(directContainer)) {
+			parentContainer = directContainer;
+		} else {
+			parentContainer = indirectContainer;
+		}
+
+		String[] values = StringUtils.split(StringUtils.defaultIfBlank(benchmarkSizes, DEFAULT_SIZES), ", ");
+		sizes = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			sizes[i] = NumberUtils.toInt(values[i], -1);
+			if (sizes[i] <= 0) {
+				throw new IllegalArgumentException("ERROR: invalid benchmark size " + values[i]);
+			}
+		}
+		Arrays.sort(sizes);
+
+		threads = NumberUtils.toInt(benchmarkThreads, PooledHttpClientFactory.DEFAULT_MAX_CONNECTIONS);
+	}
+
+	@Test(
+			groups = {BENCHMARK},
+			description = "Populates a scratch container step by step and measures the "
+					+ "container GET latency, representation size, parse time and client "
+					+ "heap use at each size, checking every member has an ldp:contains triple.")
+	@Requires(methods = HttpMethod.POST)
+	public void testLargeContainerScaling() {
+		String container = createScratchContainer();
+
+		// the Locations of all members, resolved, for constant time lookups
+		Set<String> members = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+		List<ContainerScaling.Step> steps = new ArrayList<>();
+		for (int size : sizes) {
+			populate(container, members, size);
+			assertEquals(members.size(), size, "Could not create all members of <" + container + ">");
+
+			ContainerScaling.Step step = measure(container, members);
+			ContainerScaling.record(step);
+			steps.add(step);
+		}
+
+		for (ContainerScaling.Step step : steps) {
+			assertEquals(step.getMissing(), 0, "Container <" + container + "> with "
+					+ step.getMembers() + " members is missing ldp:contains triples");
+		}
+	}
+
+	private String createScratchContainer() {
+		if (StringUtils.isBlank(parentContainer)) {
+			throw new SkipException("testLargeContainerScaling",
+					"There is no container to create the benchmark container in.", skipLog);
+		}
+
+		Model model = postContent();
+		Response response = createRdfSource(buildBaseRequestSpecification(), model)
+				.header(LINK, "<" + LDP.BasicContainer.stringValue() + ">;rel=\"type\"")
+				.post(parentContainer);
+		String location = response.getHeader(LOCATION);
+		if (response.getStatusCode() != HttpStatus.SC_CREATED || location == null) {
+			throw new SkipException("testLargeContainerScaling",
+					"Could not create a basic container in <" + parentContainer + ">, the server responded "
+					+ response.getStatusCode(), skipLog);
+		}
+
+		location = resolveIfRelative(parentContainer, location);
+		deleteLater(parentContainer, location);
+
+		return location;
+	}
+
+	/**
+	 * POSTs members concurrently until there are {@code size} of them. They
+	 * are deleted at the end with all resources the test suite created.
+	 */
+	private void populate(final String container, final Set<String> members, int size) {
+		ExecutorService executor = TaskExecutors.newExecutor("ldp-benchmark", threads);
+		for (int i = members.size(); i < size; i++) {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					Response response = createRdfSource(buildBaseRequestSpecification(), postContent())
+							.post(container);
+					String location = response.getHeader(LOCATION);
+					if (response.getStatusCode() == HttpStatus.SC_CREATED && location != null) {
+						members.add(resolveIfRelative(container, location));
+					}
+				}
+			});
+		}
+
+		if (!TaskExecutors.shutdownAndWait(executor, STEP_TIMEOUT, TimeUnit.MINUTES)) {
+			executor.shutdownNow();
+		}
+	}
+
+	private ContainerScaling.Step measure(String container, Set<String> members) {
+		long start = System.nanoTime();
+		Response response = getRdfSource(buildBaseRequestSpecification(), include(PREFER_CONTAINMENT))
+				.expect()
+					.statusCode(isSuccessful())
+				.when()
+					.get(container);
+		long latency = System.nanoTime() - start;
+		long bytes = response.asByteArray().length;
+
+		long heapBefore = usedHeap();
+		start = System.nanoTime();
+		Model model = response.as(Model.class, new RdfObjectMapper(container));
+		long parse = System.nanoTime() - start;
+		long heap = Math.max(0, usedHeap() - heapBefore);
+
+		// one pass over the containment triples, then hashed lookups
+		Set<String> contained = new HashSet<>();
+		Resource resource = model.getResource(container);
+		NodeIterator objects = model.listObjectsOfProperty(resource, model.createProperty(LDP.contains.stringValue()));
+		try {
+			while (objects.hasNext()) {
+				RDFNode object = objects.next();
+				if (object.isURIResource()) {
+					contained.add(object.asResource().getURI());
+				}
+			}
+		} finally {
+			objects.close();
+		}
+
+		int missing = 0;
+		for (String member : members) {
+			if (!contained.contains(member)) {
+				missing++;
+			}
+		}
+
+		return new ContainerScaling.Step(members.size(), TimeUnit.NANOSECONDS.toMicros(latency), bytes,
+				TimeUnit.NANOSECONDS.toMicros(parse), heap, missing);
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
@@ -1,5 +1,7 @@
 package org.w3.ldp.testsuite.test;
 
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.ResIterator;
@@ -7,30 +9,49 @@ import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.util.ResourceUtils;
 import org.apache.jena.vocabulary.DCTerms;
 import org.apache.jena.vocabulary.RDF;
+import com.google.common.collect.ImmutableMap;
+import com.jayway.restassured.RestAssured;
 import com.jayway.restassured.response.Header;
 import com.jayway.restassured.response.Response;
 import com.jayway.restassured.specification.RequestSpecification;
 
+import org.apache.commons.io.output.WriterOutputStream;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.marmotta.commons.vocabulary.LDP;
-import org.jboss.resteasy.plugins.delegates.LinkDelegate;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 import org.w3.ldp.testsuite.LdpTestSuite;
+import org.w3.ldp.testsuite.cleanup.CreatedResources;
+import org.w3.ldp.testsuite.cleanup.ResourceCleaner;
+import org.w3.ldp.testsuite.data.ModelTemplate;
+import org.w3.ldp.testsuite.http.LinkHeaders;
+import org.w3.ldp.testsuite.http.LinkIndex;
+import org.w3.ldp.testsuite.http.ParsedLink;
+import org.w3.ldp.testsuite.mapper.CompactGraph;
 import org.w3.ldp.testsuite.mapper.RdfObjectMapper;
-
-import javax.ws.rs.core.Link;
+import org.w3.ldp.testsuite.util.TaskExecutors;
 
 import java.io.*;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.text.DateFormat;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.jayway.restassured.config.LogConfig.logConfig;
 import static org.testng.Assert.assertTrue;
 import static org.w3.ldp.testsuite.http.HttpHeaders.*;
 import static org.w3.ldp.testsuite.http.LdpPreferences.PREFERENCE_INCLUDE;
@@ -43,39 +64,81 @@ public abstract class LdpTest {
 	public final static String SKIPPED_LOG_FILENAME = "skipped.log";
 
 	public final static String HTTP_LOG_FILENAME = "http.log";
-	public final static DateFormat df = DateFormat.getDateTimeInstance();
 
 	public final static String DEFAULT_MODEL_TYPE = "http://example.com/ns#Bug";
 
 	/*
 	 * The following properties are marked static because commonSetup() is only called
-	 * one time, even if several test classes inherit from LdpTest.
+	 * one time, even if several test classes inherit from LdpTest. They are volatile
+	 * since tests might run in parallel (see the --parallel option) and read them from
+	 * other threads than the one running commonSetup().
+	 */
+
+	/**
+	 * Alternate content to use on POST requests, set once in commonSetup()
+	 */
+	private static volatile ModelTemplate postTemplate;
+
+	/**
+	 * Default content for POST requests, see {@link #getDefaultModel()}
 	 */
+	private static volatile ModelTemplate defaultTemplate;
 
 	/**
-	 * Alternate content to use on POST requests
+	 * Templates read from Turtle files by {@link #readTemplate(String)}, by path
 	 */
-	private static Model postModel;
+	private static final ConcurrentMap<String, ModelTemplate> templates = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates the test resources of all test classes concurrently
+	 */
+	private static volatile ExecutorService fixtureExecutor;
+
+	private static final int FIXTURE_THREADS = 4;
+
+	private static final long FIXTURE_TIMEOUT = 2; // minutes
 
 	/**
 	 * For HTTP details on validation failures
 	 */
-	protected static PrintWriter httpLog;
+	protected static volatile PrintWriter httpLog;
 
 	/**
 	 * For skipped test logging
 	 */
-	protected static PrintWriter skipLog;
+	protected static volatile PrintWriter skipLog;
+
+	/**
+	 * Basic authentication credentials, {@code null} for none
+	 */
+	protected Map<String,String> auth;
+
+	protected LdpTest() {
+	}
+
+	/**
+	 * @param auth
+	 *            basic authentication credentials as username:password, may
+	 *            be {@code null}
+	 */
+	protected LdpTest(String auth) {
+		if (StringUtils.isNotBlank(auth) && auth.contains(":")) {
+			String[] split = auth.split(":");
+			if (split.length == 2 && StringUtils.isNotBlank(split[0]) && StringUtils.isNotBlank(split[1])) {
+				this.auth = ImmutableMap.of("username", split[0], "password", split[1]);
+			}
+		}
+	}
 
 	/**
 	 * Builds a model from a turtle representation in a file
 	 * @param path
 	 */
-	protected Model readModel(String path) {
+	protected static Model readModel(String path) {
 		Model model = null;
 		if (path != null) {
 			model = ModelFactory.createDefaultModel();
-			InputStream  inputStream = getClass().getClassLoader().getResourceAsStream(path);
+			InputStream  inputStream = LdpTest.class.getClassLoader().getResourceAsStream(path);
 
 			String fakeUri = "http://w3c.github.io/ldp-testsuite/fakesubject";
 			// Even though null relative URIs are used in the resource representation file,
@@ -101,24 +164,50 @@ public abstract class LdpTest {
 		return model;
 	}
 
+	/**
+	 * Builds an immutable template from a turtle representation in a file.
+	 * Each file is only read once.
+	 *
+	 * @param path
+	 * @return the template, or null if path is null
+	 */
+	protected static ModelTemplate readTemplate(String path) {
+		if (path == null) {
+			return null;
+		}
+
+		ModelTemplate template = templates.get(path);
+		if (template == null) {
+			template = new ModelTemplate(readModel(path));
+			ModelTemplate existing = templates.putIfAbsent(path, template);
+			if (existing != null) {
+				template = existing;
+			}
+		}
+
+		return template;
+	}
+
 	/**
 	 * Initialization of generic resource model. This will run only once
-	 * at the beginning of the test suite, so postModel static field
+	 * at the beginning of the test suite, so postTemplate static field
 	 * will be assigned once too.
 	 *
 	 * @param postTtl the resource with Turtle content to use for POST requests
 	 * @param httpLogging whether to log HTTP request and response details on errors
+	 * @param fixtureThreads the number of test resources to create in the background, 0 to create them when needed
 	 */
 	@BeforeSuite(alwaysRun = true)
-	@Parameters({"output", "postTtl", "httpLogging", "skipLogging"})
-	public void commonSetup(@Optional String outputDir, @Optional String postTtl, @Optional String httpLogging, @Optional String skipLogging) throws IOException {
+	@Parameters({"output", "postTtl", "httpLogging", "skipLogging", "fixtureThreads"})
+	public void commonSetup(@Optional String outputDir, @Optional String postTtl, @Optional String httpLogging, @Optional String skipLogging,
+			@Optional String fixtureThreads) throws IOException {
 
 		/*
 		 * Note: This method is only called one time, even if many classes inherit
 		 * from LdpTest. Don't set non-static members here.
 		 */
 
-		postModel = readModel(postTtl);
+		postTemplate = readTemplate(postTtl);
 
 		if (outputDir == null || outputDir.length() == 0)
 			outputDir = LdpTestSuite.OUTPUT_DIR;
@@ -126,11 +215,18 @@ public abstract class LdpTest {
 		File dir = new File(outputDir);
 		dir.mkdirs();
 
+		CreatedResources.openManifest(dir);
+
+		int threads = NumberUtils.toInt(fixtureThreads, FIXTURE_THREADS);
+		if (threads > 0) {
+			fixtureExecutor = TaskExecutors.newExecutor("ldp-fixtures", threads);
+		}
+
 		if ("true".equals(httpLogging)) {
 			File file = new File(dir, HTTP_LOG_FILENAME);
 			try {
 				httpLog = new PrintWriter(new BufferedWriter(new FileWriter(file, true)));
-				httpLog.println(String.format("LDP Test Suite: HTTP Log (%s)", df.format(new Date())));
+				httpLog.println(String.format("LDP Test Suite: HTTP Log (%s)", DateFormat.getDateTimeInstance().format(new Date())));
 				httpLog.println("---------------------------------------------------");
 			} catch (IOException e) {
 				System.err.println(String.format("WARNING: Error creating %s for detailed errors", HTTP_LOG_FILENAME));
@@ -142,7 +238,7 @@ public abstract class LdpTest {
 			File file = new File(dir, SKIPPED_LOG_FILENAME);
 			try {
 				skipLog = new PrintWriter(new BufferedWriter(new FileWriter(file, true)));
-				skipLog.println(String.format("LDP Test Suite: Skipped Tests Log (%s)", df.format(new Date())));
+				skipLog.println(String.format("LDP Test Suite: Skipped Tests Log (%s)", DateFormat.getDateTimeInstance().format(new Date())));
 				skipLog.println("------------------------------------------------------------");
 			} catch (IOException e) {
 				System.err.println(String.format("WARNING: Error creating %s for detailed errors", SKIPPED_LOG_FILENAME));
@@ -152,8 +248,30 @@ public abstract class LdpTest {
 
 	}
 
+	/**
+	 * Deletes the resources created by the test suite that still exist and
+	 * closes the logs.
+	 *
+	 * @param cleanupThreads the number of resources to delete concurrently
+	 */
 	@AfterSuite(alwaysRun = true)
-	public void commonTearDown() {
+	@Parameters("cleanupThreads")
+	public void commonTearDown(@Optional String cleanupThreads) {
+		// fixtures still being created are registered for deletion when done
+		ExecutorService executor = fixtureExecutor;
+		fixtureExecutor = null;
+		if (executor != null) {
+			TaskExecutors.shutdownAndWait(executor, FIXTURE_TIMEOUT, TimeUnit.MINUTES);
+		}
+
+		int threads = NumberUtils.toInt(cleanupThreads, ResourceCleaner.DEFAULT_THREADS);
+		CreatedResources.deleteAll(new ResourceCleaner(threads) {
+			@Override
+			protected RequestSpecification newRequest() {
+				return buildBaseRequestSpecification();
+			}
+		});
+
 		if (httpLog != null) {
 			httpLog.println();
 			httpLog.flush();
@@ -203,12 +321,92 @@ public abstract class LdpTest {
 	 *
 	 * @return RestAssured Request Specification
 	 */
-	protected abstract RequestSpecification buildBaseRequestSpecification();
+	protected RequestSpecification buildBaseRequestSpecification() {
+		RequestSpecification spec = RestAssured.given();
+		if (auth != null) {
+			spec.auth().preemptive().basic(auth.get("username"), auth.get("password"));
+		}
+
+		if (httpLog != null) {
+			spec.config(RestAssured
+					.config()
+					.logConfig(logConfig()
+							.enableLoggingOfRequestAndResponseIfValidationFails()
+							.defaultStream(new PrintStream(new WriterOutputStream(httpLog)))
+							.enablePrettyPrinting(true)));
+		}
+
+		return spec;
+	}
+
+	/**
+	 * Creates a test resource in the background, so the test classes don't
+	 * wait for each other's resources during setup.
+	 *
+	 * @param fixture
+	 *            creates the resource and returns its URI, or null on errors
+	 * @return the result, see {@link #awaitFixture(Future)}
+	 */
+	protected static Future<String> createFixture(Callable<String> fixture) {
+		ExecutorService executor = fixtureExecutor;
+		if (executor == null) {
+			FutureTask<String> task = new FutureTask<>(fixture);
+			task.run();
+			return task;
+		}
+
+		return executor.submit(fixture);
+	}
+
+	/**
+	 * Waits for a test resource created with {@link #createFixture(Callable)}.
+	 *
+	 * @return the resource URI, or null if it couldn't be created
+	 */
+	protected static String awaitFixture(Future<String> fixture) {
+		try {
+			return fixture.get(FIXTURE_TIMEOUT, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException | TimeoutException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Leaves the deletion of a resource the test created to the end of the
+	 * test suite, where all created resources are deleted concurrently. Use
+	 * this instead of deleting resources only to clean up.
+	 *
+	 * @param requestUri the URI the resource was created with, a relative location is resolved against it
+	 * @param location the URI of the created resource, may be null
+	 */
+	protected void deleteLater(String requestUri, String location) {
+		if (location != null) {
+			// the same URI as CreatedResourcesFilter registers, so it's only deleted once
+			CreatedResources.register(resolveIfRelative(requestUri, location));
+		}
+	}
 
 	public Model getAsModel(String uri) {
 		return getResourceAsModel(uri, TEXT_TURTLE);
 	}
 
+	/**
+	 * Gets a resource as a read-only {@link CompactGraph}, cheaper than a
+	 * model for large representations that are only checked.
+	 */
+	public CompactGraph getAsGraph(String uri) {
+		return buildBaseRequestSpecification()
+				.header(ACCEPT, TEXT_TURTLE)
+			.expect()
+				.statusCode(isSuccessful())
+			.when()
+				.get(uri).as(CompactGraph.class, new RdfObjectMapper(uri));
+	}
+
 	public Model getResourceAsModel(String uri, String mediaType) {
 		return buildBaseRequestSpecification()
 				.header(ACCEPT, mediaType)
@@ -218,17 +416,45 @@ public abstract class LdpTest {
 				.get(uri).as(Model.class, new RdfObjectMapper(uri));
 	}
 
+	/**
+	 * Default content for POST requests when there's no postTtl test
+	 * parameter. The returned model is a new copy that can be changed.
+	 *
+	 * @return the model to POST
+	 */
 	protected Model getDefaultModel() {
-		Model model = ModelFactory.createDefaultModel();
-		Resource resource = model.createResource("",
-				model.createResource(DEFAULT_MODEL_TYPE));
-		resource.addProperty(RDF.type, model.createResource(LDP.RDFSource.stringValue()));
-		resource.addProperty(
-				model.createProperty("http://example.com/ns#severity"), "High");
-		resource.addProperty(DCTerms.title, "Another bug to test.");
-		resource.addProperty(DCTerms.description, "Issues that need to be fixed.");
+		return getDefaultTemplate().newModel();
+	}
 
-		return model;
+	/**
+	 * The content the tests POST, for reusing it outside of the tests.
+	 *
+	 * @param postTtl
+	 *            the postTtl test parameter, may be null
+	 * @return the template of the postTtl file, or of the default content if
+	 *         there's none
+	 */
+	public static ModelTemplate getPostTemplate(String postTtl) {
+		ModelTemplate template = readTemplate(postTtl);
+		return template != null ? template : getDefaultTemplate();
+	}
+
+	private static ModelTemplate getDefaultTemplate() {
+		ModelTemplate template = defaultTemplate;
+		if (template == null) {
+			// racing threads build the same content, any of them will do
+			Model model = ModelFactory.createDefaultModel();
+			Resource resource = model.createResource("",
+					model.createResource(DEFAULT_MODEL_TYPE));
+			resource.addProperty(RDF.type, model.createResource(LDP.RDFSource.stringValue()));
+			resource.addProperty(
+					model.createProperty("http://example.com/ns#severity"), "High");
+			resource.addProperty(DCTerms.title, "Another bug to test.");
+			resource.addProperty(DCTerms.description, "Issues that need to be fixed.");
+			template = defaultTemplate = new ModelTemplate(model);
+		}
+
+		return template;
 	}
 
 	/**
@@ -242,7 +468,7 @@ public abstract class LdpTest {
 	 * @param location
 	 * @return Resource primary from model
 	 */
-	protected Resource getPrimaryTopic(Model model, String location) {
+	public static Resource getPrimaryTopic(Model model, String location) {
 		Resource loc = model.getResource(location);
 		ResIterator bugs = model.listSubjectsWithProperty(RDF.type, model.createResource(DEFAULT_MODEL_TYPE));
 		if (bugs.hasNext()) {
@@ -252,8 +478,24 @@ public abstract class LdpTest {
 		}
 	}
 
+	/**
+	 * The same as {@link #getPrimaryTopic(Model, String)} for a
+	 * {@link CompactGraph}.
+	 */
+	public static Node getPrimaryTopic(CompactGraph graph, String location) {
+		List<Node> bugs = graph.getSubjects(RDF.type.asNode(), NodeFactory.createURI(DEFAULT_MODEL_TYPE));
+		return bugs.isEmpty() ? NodeFactory.createURI(location) : bugs.get(0);
+	}
+
+	/**
+	 * Content to use on POST requests. Tests are free to modify the returned
+	 * model, it is always a new copy-on-write view of the shared template.
+	 *
+	 * @return the model to POST
+	 */
 	protected Model postContent() {
-		return postModel != null? postModel : getDefaultModel();
+		ModelTemplate template = postTemplate;
+		return template != null ? template.newModel() : getDefaultModel();
 	}
 
 	/**
@@ -271,7 +513,7 @@ public abstract class LdpTest {
 	 * @see RdfSourceTest#restrictionsOnTestResourceContent()
 	 */
 	protected boolean restrictionsOnPostContent() {
-		return postModel != null;
+		return postTemplate != null;
 	}
 
 	/**
@@ -299,21 +541,7 @@ public abstract class LdpTest {
 			String linkTarget,
 			String requestUri,
 			Response response) {
-		List<Header> linkHeaders = response.getHeaders().getList(LINK);
-		for (Header linkHeader : linkHeaders) {
-			for (String s : splitLinks(linkHeader)) {
-				Link nextLink = new LinkDelegate().fromString(s);
-				if (relation.equals(nextLink.getRel())) {
-					String actualLinkUri = resolveIfRelative(requestUri, nextLink.getUri());
-					if (linkMatchesContext(linkContext, requestUri, nextLink) &&
-							linkTarget.equals(actualLinkUri)) {
-						return true;
-					}
-				}
-			}
-		}
-
-		return false;
+		return LinkIndex.of(response, requestUri).contains(linkContext, relation, linkTarget);
 	}
 
 	/**
@@ -334,18 +562,8 @@ public abstract class LdpTest {
 	 * @see <a href="http://tools.ietf.org/html/rfc5988">RFC 5988</a>
 	 */
 	protected String getFirstLinkForRelation(String linkContext, String relation, String requestUri, Response response) {
-		List<Header> linkHeaders = response.getHeaders().getList(LINK);
-		for (Header header : linkHeaders) {
-			for (String s : splitLinks(header)) {
-				Link l = new LinkDelegate().fromString(s);
-				if (relation.equals(l.getRel()) &&
-						linkMatchesContext(linkContext, requestUri, l)) {
-					return resolveIfRelative(requestUri, l.getUri());
-				}
-			}
-		}
-
-		return null;
+		ParsedLink link = LinkIndex.of(response, requestUri).getFirst(relation, linkContext);
+		return link != null ? link.getTarget() : null;
 	}
 
 	/**
@@ -358,53 +576,8 @@ public abstract class LdpTest {
 	 *		 {@code "<http://example.com/bt/bug432>; rel=related"})
 	 * @see <a href="http://tools.ietf.org/html/rfc5988#page-7">RFC 5988: The Link Header Field</a>
 	 */
-	// LinkDelegate doesn't handle this for us
 	protected List<String> splitLinks(Header linkHeader) {
-		final ArrayList<String> links = new ArrayList<>();
-		final String value = linkHeader.getValue();
-
-		// Track the beginning index for the current link-value.
-		int beginIndex = 0;
-
-		// Is the current char inside a URI-Reference?
-		boolean inUriRef = false;
-
-		// Split the string on commas, but only if not in a URI-Reference
-		// delimited by angle brackets.
-		for (int i = 0; i < value.length(); ++i) {
-			final char c = value.charAt(i);
-
-			if (c == ',' && !inUriRef) {
-				// Found a comma not in a URI-Reference. Split the string.
-				final String link = value.substring(beginIndex, i).trim();
-				links.add(link);
-
-				// Assign the next begin index for the next link.
-				beginIndex = i + 1;
-			} else if (c == '<') {
-				// Angle brackets are not legal characters in a URI, so they can
-				// only be used to mark the start and end of a URI-Reference.
-				// See http://tools.ietf.org/html/rfc3986#section-2
-				inUriRef = true;
-			} else if (c == '>') {
-				inUriRef = false;
-			}
-		}
-
-		// There should be one more link in the string.
-		final String link = value.substring(beginIndex, value.length()).trim();
-		links.add(link);
-
-		return links;
-	}
-
-	private boolean linkMatchesContext(String expectedContext, String requestUri, Link link) {
-		String anchor = link.getParams().get("anchor");
-		if (anchor == null) {
-			anchor = requestUri;
-		}
-
-		return anchor.equals(expectedContext);
+		return LinkHeaders.split(linkHeader.getValue());
 	}
 
 	/**
@@ -438,6 +611,21 @@ public abstract class LdpTest {
 		return false;
 	}
 
+	/**
+	 * @return the log of HTTP details, {@code null} if they aren't logged
+	 */
+	public static PrintWriter getHttpLog() {
+		return httpLog;
+	}
+
+	/**
+	 * @return the log of skipped tests, {@code null} if skipped tests aren't
+	 *         logged
+	 */
+	public static PrintWriter getSkipLog() {
+		return skipLog;
+	}
+
 	public static String include(String... preferences) {
 		return ldpPreference(PREFERENCE_INCLUDE, preferences);
 	}
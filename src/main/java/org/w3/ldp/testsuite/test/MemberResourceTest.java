@@ -3,17 +3,18 @@ package org.w3.ldp.testsuite.test;
 import org.apache.jena.rdf.model.Model;
 import com.jayway.restassured.response.Response;
 import org.apache.http.HttpStatus;
-import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
+import org.w3.ldp.testsuite.data.ModelTemplate;
 import org.w3.ldp.testsuite.exception.SkipException;
-import org.w3.ldp.testsuite.mapper.RdfObjectMapper;
 
 import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 import static org.w3.ldp.testsuite.http.HttpHeaders.LOCATION;
-import static org.w3.ldp.testsuite.http.MediaTypes.TEXT_TURTLE;
+import static org.w3.ldp.testsuite.http.LdpRequests.createRdfSource;
 
 /**
  * Tests that run on an LDP-RS that is not a container.
@@ -22,7 +23,9 @@ public class MemberResourceTest extends RdfSourceTest {
 	private static final String SETUP_ERROR = "ERROR: Could not create test resource for MemberResourceTest. Skipping tests.";
 
 	private String container;
-	private String memberResource;
+	private volatile String memberResource;
+	/** Set while the member resource is created in the background */
+	private volatile Future<String> createdMemberResource;
 
 	@Parameters("auth")
 	public MemberResourceTest(@Optional String auth) throws IOException {
@@ -52,55 +55,67 @@ public class MemberResourceTest extends RdfSourceTest {
 		}
 
 		if (this.memberResource == null) {
-			try {
-				Model model = this.readModel(memberTtl);
-				if (model == null) {
-					model = this.getDefaultModel();
+			final ModelTemplate template = readTemplate(memberTtl);
+			createdMemberResource = createFixture(new Callable<String>() {
+				@Override
+				public String call() {
+					return postMemberResource(template);
 				}
+			});
+		}
+	}
 
-				Response postResponse = buildBaseRequestSpecification()
-						.contentType(TEXT_TURTLE)
-						.body(model, new RdfObjectMapper())
-						.post(this.container);
-				if (postResponse.getStatusCode() != HttpStatus.SC_CREATED) {
-					System.err.println(SETUP_ERROR);
-					System.err.println("POST failed with status code: " + postResponse.getStatusCode());
-					System.err.println();
-					return;
-				}
+	private String postMemberResource(ModelTemplate template) {
+		try {
+			Model model = template != null ? template.newModel() : this.getDefaultModel();
 
-				this.memberResource = postResponse.getHeader(LOCATION);
-				if (this.memberResource == null) {
-					System.err.println(SETUP_ERROR);
-					System.err.println("Location response header missing");
-					System.err.println();
-					return;
-				}
-			} catch (Exception e) {
+			Response postResponse = createRdfSource(buildBaseRequestSpecification(), model)
+					.post(this.container);
+			if (postResponse.getStatusCode() != HttpStatus.SC_CREATED) {
 				System.err.println(SETUP_ERROR);
-				e.printStackTrace();
+				System.err.println("POST failed with status code: " + postResponse.getStatusCode());
+				System.err.println();
+				return null;
 			}
+
+			String location = postResponse.getHeader(LOCATION);
+			if (location == null) {
+				System.err.println(SETUP_ERROR);
+				System.err.println("Location response header missing");
+				System.err.println();
+				return null;
+			}
+
+			// We created the resource ourselves, delete it with the other created resources after the suite.
+			deleteLater(this.container, location);
+			return location;
+		} catch (Exception e) {
+			System.err.println(SETUP_ERROR);
+			e.printStackTrace();
+			return null;
 		}
 	}
 
+	private String getMemberResource() {
+		if (memberResource == null && createdMemberResource != null) {
+			memberResource = awaitFixture(createdMemberResource);
+		}
+
+		return memberResource;
+	}
+
+	@Override
+	public String getTestResourceUri() {
+		return getMemberResource();
+	}
+
 	@Override
 	protected String getResourceUri() {
+		String memberResource = getMemberResource();
 		if (memberResource == null) {
 			throw new SkipException(Thread.currentThread().getStackTrace()[2].getMethodName(),
 					"Skipping test because test resource is null.", skipLog);
 		}
 		return memberResource;
 	}
-
-	/*
-	 * Deletes the test resource to clean up if it's wasn't provided using the
-	 * memberResource test parameter.
-	 */
-	@AfterSuite(alwaysRun = true)
-	public void deleteTestResource() {
-		// If container isn't null, we created the resource ourselves. To clean up, delete the resource.
-		if (container != null) {
-			buildBaseRequestSpecification().delete(memberResource);
-		}
-	}
 }
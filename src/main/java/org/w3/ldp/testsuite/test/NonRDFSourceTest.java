@@ -10,6 +10,7 @@ import org.apache.marmotta.commons.vocabulary.LDP;
 import org.testng.Assert;
 import org.testng.annotations.*;
 import org.w3.ldp.testsuite.LdpTestSuite;
+import org.w3.ldp.testsuite.annotations.Requires;
 import org.w3.ldp.testsuite.annotations.SpecTest;
 import org.w3.ldp.testsuite.annotations.SpecTest.METHOD;
 import org.w3.ldp.testsuite.annotations.SpecTest.STATUS;
@@ -18,10 +19,13 @@ import org.w3.ldp.testsuite.mapper.RdfObjectMapper;
 import org.w3.ldp.testsuite.matcher.HeaderMatchers;
 
 import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 import static org.w3.ldp.testsuite.http.HttpHeaders.*;
+import static org.w3.ldp.testsuite.http.LdpRequests.createNonRdfSource;
 import static org.w3.ldp.testsuite.http.MediaTypes.TEXT_TURTLE;
 import static org.w3.ldp.testsuite.matcher.HttpStatusNotFoundOrGoneMatcher.isNotFoundOrGone;
 import static org.w3.ldp.testsuite.matcher.HttpStatusSuccessMatcher.isSuccessful;
@@ -29,12 +33,15 @@ import static org.w3.ldp.testsuite.matcher.HttpStatusSuccessMatcher.isSuccessful
 /**
  * Tests Non-RDF Source LDP resources.
  */
+@Requires(nonRdfSource = true)
 public class NonRDFSourceTest extends CommonResourceTest {
 	private final static String SETUP_ERROR = "ERROR: Could not create test resource for NonRDFSourceTest. Skipping tests.";
 
 	private String container;
 	/** Resource for CommonResourceTest */
-	private String nonRdfSource;
+	private volatile String nonRdfSource;
+	/** Set while the resource is created in the background */
+	private volatile Future<String> createdNonRdfSource;
 
 	@Parameters("auth")
 	public NonRDFSourceTest(@Optional String auth) throws IOException {
@@ -56,46 +63,65 @@ public class NonRDFSourceTest extends CommonResourceTest {
 					skipLog);
 		}
 
+		// Create a resource to use for CommonResourceTest.
+		createdNonRdfSource = createFixture(new Callable<String>() {
+			@Override
+			public String call() {
+				return postNonRdfSource();
+			}
+		});
+	}
+
+	private String postNonRdfSource() {
 		final String slug = "non-rdf-source",
 				file = "test.png",
 				mimeType = "image/png";
 
-		// Create a resource to use for CommonResourceTest.
 		try {
-			Response response = buildBaseRequestSpecification()
-					.header(SLUG, slug)
-					.body(IOUtils.toByteArray(getClass().getResourceAsStream("/" + file)))
-					.contentType(mimeType)
+			Response response = createNonRdfSource(buildBaseRequestSpecification(), slug,
+					IOUtils.toByteArray(getClass().getResourceAsStream("/" + file)), mimeType)
 					.post(container);
 			if (response.getStatusCode() != HttpStatus.SC_CREATED) {
 				System.err.println(SETUP_ERROR);
 				System.err.println("POST failed with status code: " + response.getStatusCode());
 				System.err.println();
-				return;
+				return null;
 			}
 
-			nonRdfSource = response.getHeader(LOCATION);
-			if (nonRdfSource == null) {
+			String location = response.getHeader(LOCATION);
+			if (location == null) {
 				System.err.println(SETUP_ERROR);
 				System.err.println("Location response header missing");
 				System.err.println();
-				return;
+				return null;
 			}
+
+			// deleted with the other created resources after the suite
+			deleteLater(container, location);
+			return location;
 		} catch (Exception e) {
 			System.err.println(SETUP_ERROR);
 			e.printStackTrace();
+			return null;
 		}
 	}
 
-	@AfterSuite(alwaysRun = true)
-	public void deleteTestResource() {
-		if (nonRdfSource != null) {
-			buildBaseRequestSpecification().delete(nonRdfSource);
+	private String getNonRdfSource() {
+		if (nonRdfSource == null && createdNonRdfSource != null) {
+			nonRdfSource = awaitFixture(createdNonRdfSource);
 		}
+
+		return nonRdfSource;
+	}
+
+	@Override
+	public String getTestResourceUri() {
+		return getNonRdfSource();
 	}
 
 	@Override
 	protected String getResourceUri() {
+		String nonRdfSource = getNonRdfSource();
 		if (nonRdfSource == null) {
 			throw new SkipException(Thread.currentThread().getStackTrace()[2].getMethodName(),
 					"Skipping test because test resource is null.", skipLog);
@@ -123,7 +149,7 @@ public class NonRDFSourceTest extends CommonResourceTest {
 
 		// Make sure we can post binary resources
 		Response response = postNonRDFSource(slug, file, mimeType);
-		buildBaseRequestSpecification().delete(response.getHeader(LOCATION));
+		deleteLater(container, response.getHeader(LOCATION));
 	}
 
 	@Test(
@@ -157,7 +183,7 @@ public class NonRDFSourceTest extends CommonResourceTest {
 
 			assertTrue(model.contains(model.createResource(container), model.createProperty(LDP.contains.stringValue()), model.createResource(response.getHeader(LOCATION))));
 		} finally {
-			buildBaseRequestSpecification().delete(response.getHeader(LOCATION));
+			deleteLater(container, response.getHeader(LOCATION));
 		}
 	}
 
@@ -192,7 +218,7 @@ public class NonRDFSourceTest extends CommonResourceTest {
 					.body().asByteArray();
 			assertEquals(expectedMD5, HashUtils.md5sum(binary), "md5sum");
 		} finally {
-			buildBaseRequestSpecification().delete(response.getHeader(LOCATION));
+			deleteLater(container, response.getHeader(LOCATION));
 		}
 	}
 
@@ -243,7 +269,7 @@ public class NonRDFSourceTest extends CommonResourceTest {
 					.body().asByteArray();
 			assertEquals(expectedMD5, HashUtils.md5sum(binary), "md5sum");
 		} finally {
-			buildBaseRequestSpecification().delete(location);
+			deleteLater(container, location);
 		}
 	}
 
@@ -283,7 +309,7 @@ public class NonRDFSourceTest extends CommonResourceTest {
 					getResponse
 			));
 		} finally {
-			buildBaseRequestSpecification().delete(postResponse.header(LOCATION));
+			deleteLater(container, postResponse.header(LOCATION));
 		}
 	}
 
@@ -338,7 +364,7 @@ public class NonRDFSourceTest extends CommonResourceTest {
 				.when()
 					.get(associatedRdfSource);
 		} finally {
-			buildBaseRequestSpecification().delete(location);
+			deleteLater(container, location);
 		}
 	}
 
@@ -395,7 +421,7 @@ public class NonRDFSourceTest extends CommonResourceTest {
 		} finally {
 			// Clean up if an assertion failed before we could delete the resource.
 			if (!deleted) {
-				buildBaseRequestSpecification().delete(location);
+				deleteLater(container, location);
 			}
 		}
 	}
@@ -454,7 +480,7 @@ public class NonRDFSourceTest extends CommonResourceTest {
 					"No Link response header with relation \"describedby\" and URI <"
 							+ associatedRdfSource + "> for LDP-NR OPTIONS request");
 		} finally {
-			buildBaseRequestSpecification().delete(location);
+			deleteLater(container, location);
 		}
 	}
 
@@ -3,10 +3,10 @@ package org.w3.ldp.testsuite.test;
 import com.github.jsonldjava.core.JsonLdError;
 import com.github.jsonldjava.core.JsonLdProcessor;
 import com.github.jsonldjava.utils.JsonUtils;
+import org.apache.jena.graph.Node;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
-import org.apache.jena.rdf.model.StmtIterator;
 import org.apache.jena.vocabulary.DCTerms;
 import org.apache.jena.vocabulary.RDF;
 import com.jayway.restassured.response.Response;
@@ -17,12 +17,14 @@ import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 import org.testng.annotations.Test;
 import org.w3.ldp.testsuite.LdpTestSuite;
+import org.w3.ldp.testsuite.annotations.Requires;
 import org.w3.ldp.testsuite.annotations.SpecTest;
 import org.w3.ldp.testsuite.annotations.SpecTest.METHOD;
 import org.w3.ldp.testsuite.annotations.SpecTest.STATUS;
 import org.w3.ldp.testsuite.exception.SkipException;
 import org.w3.ldp.testsuite.exception.SkipNotTestableException;
 import org.w3.ldp.testsuite.http.HttpMethod;
+import org.w3.ldp.testsuite.mapper.CompactGraph;
 import org.w3.ldp.testsuite.mapper.RdfObjectMapper;
 import org.w3.ldp.testsuite.matcher.HeaderMatchers;
 
@@ -35,6 +37,8 @@ import static org.hamcrest.Matchers.not;
 import static org.hamcrest.text.IsEmptyString.isEmptyOrNullString;
 import static org.testng.Assert.*;
 import static org.w3.ldp.testsuite.http.HttpHeaders.*;
+import static org.w3.ldp.testsuite.http.LdpRequests.getRdfSource;
+import static org.w3.ldp.testsuite.http.LdpRequests.replaceRdfSource;
 import static org.w3.ldp.testsuite.http.MediaTypes.TEXT_TURTLE;
 import static org.w3.ldp.testsuite.matcher.HeaderMatchers.isValidEntityTag;
 import static org.w3.ldp.testsuite.matcher.HttpStatus4xxRangeMatcher.is4xxRange;
@@ -72,6 +76,7 @@ public abstract class RdfSourceTest extends CommonResourceTest {
 			specRefUri = LdpTestSuite.SPEC_URI + "#ldpr-gen-defbaseuri",
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED)
+	@Requires(methods = HttpMethod.PUT)
 	public void testRelativeUriResolutionPut(@Optional String relativeUri) {
 		skipIfMethodNotAllowed(HttpMethod.PUT);
 
@@ -140,6 +145,7 @@ public abstract class RdfSourceTest extends CommonResourceTest {
 			specRefUri = LdpTestSuite.SPEC_URI + "#ldpr-put-replaceall",
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED)
+	@Requires(methods = HttpMethod.PUT)
 	public void testPutReplacesResource() {
 		putReplaceResource(true);
 	}
@@ -154,6 +160,7 @@ public abstract class RdfSourceTest extends CommonResourceTest {
 			specRefUri = LdpTestSuite.SPEC_URI + "#ldpr-put-simpleupdate",
 			testMethod = METHOD.AUTOMATED,
 			approval = STATUS.WG_APPROVED)
+	@Requires(methods = HttpMethod.PUT)
 	public void testPutSimpleUpdate() {
 		putReplaceResource(false);
 	}
@@ -350,6 +357,7 @@ public abstract class RdfSourceTest extends CommonResourceTest {
 			approval = STATUS.WG_APPROVED,
 			comment = "Covers only part of the specification requirement. "
 					+ "testPublishConstraintsUnknownProp covers the rest.")
+	@Requires(methods = HttpMethod.PUT)
 	public void testPublishConstraintsReadOnlyProp(@Optional String readOnlyProp) {
 		skipIfMethodNotAllowed(HttpMethod.PUT);
 
@@ -374,6 +382,7 @@ public abstract class RdfSourceTest extends CommonResourceTest {
 			approval = STATUS.WG_APPROVED,
 			comment = "Covers only part of the specification requirement. "
 					+ "testPublishConstraintsReadOnlyProp covers the rest.")
+	@Requires(methods = HttpMethod.PUT)
 	public void testPublishConstraintsUnknownProp() {
 		skipIfMethodNotAllowed(HttpMethod.PUT);
 		expectPut4xxConstrainedBy(UNKNOWN_PROPERTY);
@@ -393,6 +402,7 @@ public abstract class RdfSourceTest extends CommonResourceTest {
 			approval = STATUS.WG_APPROVED,
 			comment = "Covers only part of the specification requirement. "
 					+ "test4xxErrorHasResponseBody covers the rest.")
+	@Requires(methods = HttpMethod.PUT)
 	public void testPutReadOnlyProperties4xxStatus(@Optional String readOnlyProp) {
 		skipIfMethodNotAllowed(HttpMethod.PUT);
 
@@ -416,6 +426,7 @@ public abstract class RdfSourceTest extends CommonResourceTest {
 			approval = STATUS.WG_APPROVED,
 			comment = "Covers only part of the specification requirement. "
 					+ "testPutReadOnlyProperties4xxStatus covers the rest.")
+	@Requires(methods = HttpMethod.PUT)
 	public void test4xxErrorHasResponseBody(@Optional String readOnlyProp) {
 		skipIfMethodNotAllowed(HttpMethod.PUT);
 
@@ -439,6 +450,7 @@ public abstract class RdfSourceTest extends CommonResourceTest {
 			approval = STATUS.WG_APPROVED,
 			comment = "Covers only part of the specification requirement. "
 					+ "testResponsePropertiesNotPersisted covers the rest.")
+	@Requires(methods = HttpMethod.PUT)
 	public void testPutPropertiesNotPersisted() {
 		skipIfMethodNotAllowed(HttpMethod.PUT);
 		expectPut4xxStatus(UNKNOWN_PROPERTY);
@@ -457,6 +469,7 @@ public abstract class RdfSourceTest extends CommonResourceTest {
 			approval = STATUS.WG_APPROVED,
 			comment = "Covers only part of the specification requirement. "
 					+ "testPutPropertiesNotPersisted covers the rest.")
+	@Requires(methods = HttpMethod.PUT)
 	public void testResponsePropertiesNotPersisted() {
 		skipIfMethodNotAllowed(HttpMethod.PUT);
 		expectPut4xxResponseBody(UNKNOWN_PROPERTY);
@@ -574,8 +587,7 @@ public abstract class RdfSourceTest extends CommonResourceTest {
 		}
 
 		String resourceUri = getResourceUri();
-		Response response = buildBaseRequestSpecification()
-						.header(ACCEPT, TEXT_TURTLE)
+		Response response = getRdfSource(buildBaseRequestSpecification(), null)
 				.expect()
 						.statusCode(isSuccessful())
 						.header(ETAG, isValidEntityTag())
@@ -594,10 +606,7 @@ public abstract class RdfSourceTest extends CommonResourceTest {
 		final String UPDATED_TITLE = "This resources content has been replaced (" + System.currentTimeMillis() + ")";
 		originalModel.add(resource, DCTerms.title, UPDATED_TITLE);
 
-		response = buildBaseRequestSpecification()
-					.contentType(TEXT_TURTLE)
-					.header(IF_MATCH, eTag)
-					.body(originalModel, new RdfObjectMapper(resourceUri)) // relative URI
+		response = replaceRdfSource(buildBaseRequestSpecification(), originalModel, eTag, resourceUri) // relative URI
 				.when()
 					.put(resourceUri);
 
@@ -620,12 +629,11 @@ public abstract class RdfSourceTest extends CommonResourceTest {
 			.when()
 				.get(resourceUri);
 		eTag = response.getHeader(ETAG);
-		Model updatedModel = response.as(Model.class, new RdfObjectMapper(resourceUri));
+		CompactGraph updatedGraph = response.as(CompactGraph.class, new RdfObjectMapper(resourceUri));
 
 		// Make sure it's the only title (we removed all before PUTting)
-		Resource updatedResource = getPrimaryTopic(updatedModel, resourceUri);
-		StmtIterator titleProps = updatedResource.listProperties(DCTerms.title);
-		int titlePropSize = titleProps.toSet().size();
+		Node updatedResource = getPrimaryTopic(updatedGraph, resourceUri);
+		int titlePropSize = updatedGraph.getObjects(updatedResource, DCTerms.title.asNode()).size();
 		assertEquals(titlePropSize, 1, "Updated resource should only contain one dcterms:title changes but instead found "+titlePropSize+" changes");
 	}
 }
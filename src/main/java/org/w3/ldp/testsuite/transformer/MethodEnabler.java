@@ -2,19 +2,21 @@ package org.w3.ldp.testsuite.transformer;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.testng.IAnnotationTransformer;
 import org.testng.annotations.ITestAnnotation;
 
 public class MethodEnabler implements IAnnotationTransformer {
 
-	private static Map<String, Boolean> transforms = new HashMap<>();	
-	private static boolean defEnabled = true;
+	// TestNG may run several suites (and their transformers) at once
+	private static Map<String, Boolean> transforms = new ConcurrentHashMap<>();
+	private static volatile boolean defEnabled = true;
 
-	public synchronized static void includeMethod(String name) {
-		transforms.put(name, true);		
+	// the map is concurrent, a lock would only pin virtual threads
+	public static void includeMethod(String name) {
+		transforms.put(name, true);
 	}
 
 	public static void excludeMethod(String name) {
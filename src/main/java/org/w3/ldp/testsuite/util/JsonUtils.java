@@ -0,0 +1,62 @@
+package org.w3.ldp.testsuite.util;
+
+import java.io.IOException;
+
+/**
+ * Helpers for the JSON the test suite writes by hand instead of building a
+ * tree first.
+ */
+public class JsonUtils {
+
+	private JsonUtils() {
+	}
+
+	/**
+	 * @return {@code s} as a JSON string, in double quotes
+	 */
+	public static String quote(String s) {
+		StringBuilder quoted = new StringBuilder(s.length() + 2);
+		try {
+			quote(quoted, s);
+		} catch (IOException e) {
+			// a StringBuilder doesn't throw
+			throw new IllegalStateException(e);
+		}
+		return quoted.toString();
+	}
+
+	/**
+	 * Appends {@code s} as a JSON string, in double quotes.
+	 */
+	public static void quote(Appendable out, String s) throws IOException {
+		out.append('"');
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+			case '"':
+				out.append("\\\"");
+				break;
+			case '\\':
+				out.append("\\\\");
+				break;
+			case '\n':
+				out.append("\\n");
+				break;
+			case '\r':
+				out.append("\\r");
+				break;
+			case '\t':
+				out.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					out.append(String.format("\\u%04x", (int) c));
+				} else {
+					out.append(c);
+				}
+			}
+		}
+		out.append('"');
+	}
+
+}
@@ -0,0 +1,141 @@
+package org.w3.ldp.testsuite.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.w3.ldp.testsuite.BuildProperties;
+
+/**
+ * Executors for the concurrent HTTP work the test suite does outside of
+ * TestNG, like fetching fixtures or cleaning up.
+ * <p>
+ * With {@link #setVirtualThreads(boolean)}, the executors run their tasks on
+ * virtual threads (Java 21 or later). A blocking HTTP request then doesn't
+ * hold on to a platform thread, so thousands of them can run at once. This
+ * needs a build with the <code>virtual-threads</code> Maven profile.
+ */
+public class TaskExecutors {
+
+	private static volatile boolean virtualThreads;
+
+	/**
+	 * Runs the tasks of executors created from now on on virtual threads.
+	 *
+	 * @param enabled
+	 *            true for virtual threads, false for platform threads
+	 * @throws IllegalArgumentException
+	 *             if virtual threads aren't supported
+	 */
+	public static void setVirtualThreads(boolean enabled) {
+		if (enabled && !isVirtualThreadsSupported()) {
+			throw new IllegalArgumentException("ERROR: virtual threads need Java 21 or later and a build with the virtual-threads profile");
+		}
+
+		virtualThreads = enabled;
+	}
+
+	public static boolean isVirtualThreads() {
+		return virtualThreads;
+	}
+
+	/**
+	 * @return true if this build and the running JVM support virtual threads
+	 */
+	public static boolean isVirtualThreadsSupported() {
+		if (!BuildProperties.isVirtualThreadsEnabled()) {
+			return false;
+		}
+
+		try {
+			newVirtualThreadFactory("ldp-probe");
+			return true;
+		} catch (UnsupportedOperationException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Creates an executor running at most {@code threads} tasks at once. Its
+	 * threads are daemon threads, so they never keep the JVM alive.
+	 *
+	 * @param name
+	 *            prefix for the thread names
+	 * @param threads
+	 *            the maximum number of concurrent tasks
+	 * @return the executor
+	 */
+	public static ExecutorService newExecutor(String name, int threads) {
+		if (virtualThreads) {
+			// still a fixed pool, so threads keeps limiting the concurrency
+			return Executors.newFixedThreadPool(Math.max(1, threads), newVirtualThreadFactory(name));
+		}
+
+		return Executors.newFixedThreadPool(Math.max(1, threads), newDaemonThreadFactory(name));
+	}
+
+	/**
+	 * Creates an executor for periodic tasks on a single daemon thread, so a
+	 * forgotten shutdown never keeps the JVM alive either.
+	 *
+	 * @param name
+	 *            prefix for the thread name
+	 * @return the executor
+	 */
+	public static ScheduledExecutorService newScheduledExecutor(String name) {
+		return Executors.newSingleThreadScheduledExecutor(newDaemonThreadFactory(name));
+	}
+
+	private static ThreadFactory newDaemonThreadFactory(final String name) {
+		return new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+
+	/**
+	 * Creates a factory for virtual threads. The source level is older than
+	 * Java 21, so <code>Thread.ofVirtual().name(name + "-", 1).factory()</code>
+	 * is called reflectively.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             if the JVM has no virtual threads
+	 */
+	private static ThreadFactory newVirtualThreadFactory(String name) {
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+			return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException | ClassCastException e) {
+			// before Java 21, or a preview feature that isn't enabled
+			throw new UnsupportedOperationException("Virtual threads are not supported", e);
+		}
+	}
+
+	/**
+	 * Shuts down an executor and waits for its tasks to finish.
+	 *
+	 * @return true if all tasks finished in time
+	 */
+	public static boolean shutdownAndWait(ExecutorService executor, long timeout, TimeUnit unit) {
+		executor.shutdown();
+		try {
+			return executor.awaitTermination(timeout, unit);
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+}
@@ -71,6 +71,54 @@ public class LDP {
 	 */
 	public static final URI contains;
 
+	/**
+	 * containerSortCollation
+	 * <p>
+	 * {@code http://www.w3.org/ns/ldp#containerSortCollation}.
+	 * </p>
+	 * The collation used to order the members across the pages of a paged
+	 * container, see LDP Paging.
+	 *
+	 * @see <a href="http://www.w3.org/TR/ldp-paging/">LDP Paging</a>
+	 */
+	public static final URI containerSortCollation;
+
+	/**
+	 * containerSortCriteria
+	 * <p>
+	 * {@code http://www.w3.org/ns/ldp#containerSortCriteria}.
+	 * </p>
+	 * Links a page to the ordered list of sort criteria of a paged container,
+	 * see LDP Paging.
+	 *
+	 * @see <a href="http://www.w3.org/TR/ldp-paging/">LDP Paging</a>
+	 */
+	public static final URI containerSortCriteria;
+
+	/**
+	 * containerSortOrder
+	 * <p>
+	 * {@code http://www.w3.org/ns/ldp#containerSortOrder}.
+	 * </p>
+	 * The order of a sort criterion, such as ascending or descending, see LDP
+	 * Paging.
+	 *
+	 * @see <a href="http://www.w3.org/TR/ldp-paging/">LDP Paging</a>
+	 */
+	public static final URI containerSortOrder;
+
+	/**
+	 * containerSortPredicate
+	 * <p>
+	 * {@code http://www.w3.org/ns/ldp#containerSortPredicate}.
+	 * </p>
+	 * The predicate whose values order the members across pages, see LDP
+	 * Paging.
+	 *
+	 * @see <a href="http://www.w3.org/TR/ldp-paging/">LDP Paging</a>
+	 */
+	public static final URI containerSortPredicate;
+
 	/**
 	 * DirectContainer
 	 * <p>
@@ -188,6 +236,17 @@ public class LDP {
 	 */
 	public static final URI NonRDFSource;
 
+	/**
+	 * Page
+	 * <p>
+	 * {@code http://www.w3.org/ns/ldp#Page}.
+	 * </p>
+	 * An in-sequence page resource of a paged resource, see LDP Paging.
+	 *
+	 * @see <a href="http://www.w3.org/TR/ldp-paging/">LDP Paging</a>
+	 */
+	public static final URI Page;
+
 	/**
 	 * PreferContainment
 	 * <p>
@@ -257,6 +316,10 @@ public class LDP {
 		BasicContainer = factory.createURI(LDP.NAMESPACE, "BasicContainer");
 		Container = factory.createURI(LDP.NAMESPACE, "Container");
 		contains = factory.createURI(LDP.NAMESPACE, "contains");
+		containerSortCollation = factory.createURI(LDP.NAMESPACE, "containerSortCollation");
+		containerSortCriteria = factory.createURI(LDP.NAMESPACE, "containerSortCriteria");
+		containerSortOrder = factory.createURI(LDP.NAMESPACE, "containerSortOrder");
+		containerSortPredicate = factory.createURI(LDP.NAMESPACE, "containerSortPredicate");
 		DirectContainer = factory.createURI(LDP.NAMESPACE, "DirectContainer");
 		hasMemberRelation = factory.createURI(LDP.NAMESPACE, "hasMemberRelation");
 		IndirectContainer = factory.createURI(LDP.NAMESPACE, "IndirectContainer");
@@ -266,6 +329,7 @@ public class LDP {
 		membershipResource = factory.createURI(LDP.NAMESPACE, "membershipResource");
 		MemberSubject = factory.createURI(LDP.NAMESPACE, "MemberSubject");
 		NonRDFSource = factory.createURI(LDP.NAMESPACE, "NonRDFSource");
+		Page = factory.createURI(LDP.NAMESPACE, "Page");
 		PreferContainment = factory.createURI(LDP.NAMESPACE, "PreferContainment");
 		PreferEmptyContainer = factory.createURI(LDP.NAMESPACE, "PreferEmptyContainer");
 		PreferMembership = factory.createURI(LDP.NAMESPACE, "PreferMembership");
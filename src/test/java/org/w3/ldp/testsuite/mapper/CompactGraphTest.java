@@ -0,0 +1,224 @@
+package org.w3.ldp.testsuite.mapper;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Factory;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Checks every bound and unbound pattern of a {@link CompactGraph} against
+ * the same triples in a Jena graph, matched as RDF terms.
+ */
+public class CompactGraphTest {
+
+	private static final String NS = "http://example.org/";
+
+	private final List<Node> subjects = new ArrayList<>();
+
+	private final List<Node> predicates = new ArrayList<>();
+
+	private final List<Node> objects = new ArrayList<>();
+
+	// the distinct triples, as Jena keeps them
+	private final List<Triple> expected = new ArrayList<>();
+
+	private CompactGraph graph;
+
+	@BeforeClass
+	public void createGraphs() {
+		for (int i = 0; i < 4; i++) {
+			subjects.add(NodeFactory.createURI(NS + "s" + i));
+		}
+		subjects.add(NodeFactory.createBlankNode());
+		subjects.add(NodeFactory.createBlankNode());
+		for (int i = 0; i < 3; i++) {
+			predicates.add(NodeFactory.createURI(NS + "p" + i));
+		}
+		objects.addAll(subjects);
+		objects.add(NodeFactory.createURI(NS + "o"));
+		objects.add(NodeFactory.createLiteral("o"));
+		objects.add(NodeFactory.createLiteral("o", "en"));
+		objects.add(NodeFactory.createLiteral("o", "fr"));
+		objects.add(NodeFactory.createLiteral("1", XSDDatatype.XSDint));
+		objects.add(NodeFactory.createLiteral("", XSDDatatype.XSDstring));
+		objects.add(NodeFactory.createLiteral("line\nbreak"));
+
+		Graph jena = Factory.createDefaultGraph();
+		CompactGraph.Builder builder = new CompactGraph.Builder();
+		Random random = new Random(42);
+		List<Triple> added = new ArrayList<>();
+		for (int i = 0; i < 150; i++) {
+			Triple triple = Triple.create(pick(random, subjects), pick(random, predicates), pick(random, objects));
+			added.add(triple);
+			// every tenth triple twice, right away and once more later
+			if (i % 10 == 0) {
+				added.add(triple);
+			}
+		}
+		added.addAll(added.subList(0, 20));
+		for (Triple triple : added) {
+			jena.add(triple);
+			builder.triple(triple);
+		}
+		expected.addAll(jena.find(Node.ANY, Node.ANY, Node.ANY).toList());
+		graph = builder.build();
+	}
+
+	private static Node pick(Random random, List<Node> nodes) {
+		return nodes.get(random.nextInt(nodes.size()));
+	}
+
+	@Test
+	public void testSize() {
+		assertEquals(graph.size(), expected.size());
+		assertTrue(graph.size() < 150, "duplicates should be removed");
+		assertFalse(graph.isEmpty());
+	}
+
+	@Test
+	public void testEmpty() {
+		CompactGraph empty = new CompactGraph.Builder().build();
+		assertTrue(empty.isEmpty());
+		assertEquals(empty.size(), 0);
+		assertFalse(empty.contains(null, null, null));
+		assertTrue(empty.getObjects(subjects.get(0), predicates.get(0)).isEmpty());
+		assertNull(empty.getObject(subjects.get(0), predicates.get(0)));
+	}
+
+	@Test
+	public void testContains() {
+		for (Node s : withUnbound(subjects)) {
+			for (Node p : withUnbound(predicates)) {
+				for (Node o : withUnbound(objects)) {
+					assertEquals(graph.contains(s, p, o), !match(s, p, o).isEmpty(), "(" + s + " " + p + " " + o + ")");
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testAnyIsUnbound() {
+		for (Node p : withUnbound(predicates)) {
+			for (Node o : withUnbound(objects)) {
+				assertEquals(graph.contains(Node.ANY, p, o), graph.contains(null, p, o));
+				assertEquals(graph.contains(subjects.get(0), p, Node.ANY), graph.contains(subjects.get(0), p, null));
+			}
+		}
+		assertTrue(graph.contains(Node.ANY, Node.ANY, Node.ANY));
+	}
+
+	@Test
+	public void testGetObjects() {
+		for (Node s : withUnbound(subjects)) {
+			for (Node p : withUnbound(predicates)) {
+				List<Node> found = graph.getObjects(s, p);
+				List<Node> matching = new ArrayList<>();
+				for (Triple triple : match(s, p, null)) {
+					matching.add(triple.getObject());
+				}
+				assertSameNodes(found, matching, "(" + s + " " + p + " ?)");
+
+				Node object = graph.getObject(s, p);
+				if (matching.isEmpty()) {
+					assertNull(object);
+				} else {
+					assertTrue(matching.contains(object));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testGetSubjects() {
+		for (Node p : withUnbound(predicates)) {
+			for (Node o : withUnbound(objects)) {
+				List<Node> matching = new ArrayList<>();
+				for (Triple triple : match(null, p, o)) {
+					matching.add(triple.getSubject());
+				}
+				assertSameNodes(graph.getSubjects(p, o), matching, "(? " + p + " " + o + ")");
+			}
+		}
+	}
+
+	@Test
+	public void testTermsNotValues() {
+		Node s = NodeFactory.createURI(NS + "s");
+		Node p = NodeFactory.createURI(NS + "p");
+		CompactGraph.Builder builder = new CompactGraph.Builder();
+		builder.triple(Triple.create(s, p, NodeFactory.createLiteral("1", XSDDatatype.XSDint)));
+		builder.triple(Triple.create(s, p, NodeFactory.createLiteral("01", XSDDatatype.XSDint)));
+		CompactGraph terms = builder.build();
+
+		assertEquals(terms.size(), 2);
+		assertEquals(terms.getObjects(s, p).size(), 2);
+		assertTrue(terms.contains(s, p, NodeFactory.createLiteral("01", XSDDatatype.XSDint)));
+		assertFalse(terms.contains(s, p, NodeFactory.createLiteral("1", XSDDatatype.XSDinteger)));
+		assertFalse(terms.contains(s, p, NodeFactory.createLiteral("1")));
+	}
+
+	@Test
+	public void testAllTriplesFound() {
+		// through the subject-predicate-object and the predicate-object-subject index
+		List<Triple> found = new ArrayList<>();
+		for (Node s : subjects) {
+			for (Node p : predicates) {
+				for (Node o : graph.getObjects(s, p)) {
+					found.add(Triple.create(s, p, o));
+				}
+			}
+		}
+		assertEquals(new HashSet<>(found), new HashSet<>(expected));
+		assertEquals(found.size(), expected.size());
+
+		int subjectCount = 0;
+		for (Node p : predicates) {
+			subjectCount += graph.getSubjects(p, null).size();
+		}
+		assertEquals(subjectCount, expected.size());
+		assertEquals(graph.getSubjects(null, null).size(), expected.size());
+		assertEquals(graph.getObjects(null, null).size(), expected.size());
+	}
+
+	/**
+	 * @return the nodes, null for unbound and a node not in the graph
+	 */
+	private static List<Node> withUnbound(List<Node> nodes) {
+		List<Node> all = new ArrayList<>(nodes);
+		all.add(null);
+		all.add(NodeFactory.createURI(NS + "missing"));
+		return all;
+	}
+
+	private List<Triple> match(Node s, Node p, Node o) {
+		List<Triple> matching = new ArrayList<>();
+		for (Triple triple : expected) {
+			if ((s == null || s.equals(triple.getSubject())) && (p == null || p.equals(triple.getPredicate()))
+					&& (o == null || o.equals(triple.getObject()))) {
+				matching.add(triple);
+			}
+		}
+
+		return matching;
+	}
+
+	private static void assertSameNodes(List<Node> actual, List<Node> expected, String pattern) {
+		assertEquals(actual.size(), expected.size(), pattern);
+		assertEquals(new HashSet<>(actual), new HashSet<>(expected), pattern);
+	}
+
+}
@@ -0,0 +1,109 @@
+package org.w3.ldp.testsuite.replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.HttpStatus;
+import org.apache.jena.vocabulary.DCTerms;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.w3.ldp.testsuite.http.PooledHttpClientFactory;
+import org.w3.ldp.testsuite.server.EmbeddedLdpServer;
+
+import com.jayway.restassured.config.HttpClientConfig;
+import com.jayway.restassured.config.RestAssuredConfig;
+import com.jayway.restassured.response.Response;
+import com.jayway.restassured.specification.RequestSpecification;
+
+import static com.jayway.restassured.RestAssured.given;
+import static org.testng.Assert.assertEquals;
+import static org.w3.ldp.testsuite.http.HttpHeaders.ACCEPT;
+import static org.w3.ldp.testsuite.http.HttpHeaders.ETAG;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LOCATION;
+import static org.w3.ldp.testsuite.http.MediaTypes.TEXT_TURTLE;
+
+/**
+ * Records requests to the {@link EmbeddedLdpServer} and replays them with a
+ * {@link ReplayServer} after the server is stopped.
+ */
+public class ReplayTest {
+
+	private static final String TITLE = "<> <" + DCTerms.title.getURI() + "> \"Test\" .";
+
+	private File file;
+
+	@BeforeClass
+	public void createFile() throws IOException {
+		file = File.createTempFile("ldp-testsuite", ".rec");
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void deleteFile() {
+		if (file != null) {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testReplayWithServerDown() throws IOException {
+		final List<Response> recorded = new ArrayList<>();
+		final String container;
+		final String location;
+
+		EmbeddedLdpServer server = EmbeddedLdpServer.start(2);
+		PooledHttpClientFactory factory = new PooledHttpClientFactory();
+		try (RecordingWriter writer = new RecordingWriter(file)) {
+			RecordingFilter filter = new RecordingFilter(writer);
+			container = server.getBasicContainer();
+			Response created = request(factory).filter(filter).contentType(TEXT_TURTLE).body(TITLE).post(container);
+			assertEquals(created.getStatusCode(), HttpStatus.SC_CREATED);
+			location = created.getHeader(LOCATION);
+			recorded.add(created);
+
+			recorded.add(request(factory).filter(filter).header(ACCEPT, TEXT_TURTLE).get(location));
+			recorded.add(request(factory).filter(filter).delete(location));
+			recorded.add(request(factory).filter(filter).header(ACCEPT, TEXT_TURTLE).get(location));
+		} finally {
+			factory.shutdown();
+			server.stop();
+		}
+
+		ReplayServer replay = ReplayServer.start(file, 2);
+		factory = new PooledHttpClientFactory();
+		factory.setStandIn(replay.getAddress());
+		try {
+			List<Response> replayed = new ArrayList<>();
+			replayed.add(request(factory).contentType(TEXT_TURTLE).body(TITLE).post(container));
+			replayed.add(request(factory).header(ACCEPT, TEXT_TURTLE).get(location));
+			replayed.add(request(factory).delete(location));
+			replayed.add(request(factory).header(ACCEPT, TEXT_TURTLE).get(location));
+
+			for (int i = 0; i < recorded.size(); i++) {
+				Response expected = recorded.get(i);
+				Response actual = replayed.get(i);
+				assertEquals(actual.getStatusCode(), expected.getStatusCode(), "request " + i);
+				assertEquals(actual.getHeader(LOCATION), expected.getHeader(LOCATION), "request " + i);
+				assertEquals(actual.getHeader(ETAG), expected.getHeader(ETAG), "request " + i);
+				assertEquals(actual.asString(), expected.asString(), "request " + i);
+			}
+			assertEquals(replayed.get(3).getStatusCode(), HttpStatus.SC_GONE);
+		} finally {
+			factory.shutdown();
+			replay.stop();
+		}
+	}
+
+	/**
+	 * @return a request using the client of {@code factory}, without changing
+	 *         the defaults of other tests
+	 */
+	private static RequestSpecification request(PooledHttpClientFactory factory) {
+		return given().config(RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
+				.reuseHttpClientInstance()
+				.httpClientFactory(factory)));
+	}
+
+}
@@ -0,0 +1,222 @@
+package org.w3.ldp.testsuite.server;
+
+import java.io.StringReader;
+
+import org.apache.http.HttpStatus;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.DCTerms;
+import org.apache.jena.vocabulary.RDF;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.w3.ldp.testsuite.http.LinkHeaders;
+import org.w3.ldp.testsuite.http.ParsedLink;
+import org.w3.ldp.testsuite.vocab.LDP;
+
+import com.jayway.restassured.response.Response;
+
+import static com.jayway.restassured.RestAssured.given;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.w3.ldp.testsuite.http.HttpHeaders.ETAG;
+import static org.w3.ldp.testsuite.http.HttpHeaders.IF_MATCH;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_DESCRIBEDBY;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_NEXT;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_PREV;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LINK_REL_TYPE;
+import static org.w3.ldp.testsuite.http.HttpHeaders.LOCATION;
+import static org.w3.ldp.testsuite.http.HttpHeaders.PREFER;
+import static org.w3.ldp.testsuite.http.HttpHeaders.SLUG;
+import static org.w3.ldp.testsuite.http.MediaTypes.TEXT_TURTLE;
+
+/**
+ * Checks the LDP interactions the test suite relies on when it runs against
+ * the {@link EmbeddedLdpServer}.
+ */
+public class EmbeddedLdpServerTest {
+
+	private static final String TITLE = "<> <" + DCTerms.title.getURI() + "> \"Test\" .";
+
+	private EmbeddedLdpServer server;
+
+	@BeforeClass
+	public void startServer() throws Exception {
+		server = EmbeddedLdpServer.start(2);
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopServer() {
+		if (server != null) {
+			server.stop();
+		}
+	}
+
+	@Test
+	public void testPostAndGet() {
+		String location = post(server.getBasicContainer(), "test");
+		assertTrue(location.startsWith(server.getBasicContainer() + "test"), location);
+
+		Response response = given().header("Accept", TEXT_TURTLE).get(location);
+		assertEquals(response.getStatusCode(), HttpStatus.SC_OK);
+		assertNotNull(response.getHeader(ETAG));
+		Model model = read(response, location);
+		assertTrue(model.contains(model.getResource(location), DCTerms.title, "Test"));
+
+		Model container = get(server.getBasicContainer());
+		assertTrue(container.contains(container.getResource(server.getBasicContainer()), contains(container),
+				container.getResource(location)));
+	}
+
+	@Test
+	public void testConditionalPut() {
+		String location = post(server.getBasicContainer(), null);
+		String eTag = given().header("Accept", TEXT_TURTLE).get(location).getHeader(ETAG);
+		String body = "<> <" + DCTerms.title.getURI() + "> \"Changed\" .";
+
+		// 428 Precondition Required
+		assertEquals(given().contentType(TEXT_TURTLE).body(body).put(location).getStatusCode(), 428);
+		assertEquals(given().contentType(TEXT_TURTLE).header(IF_MATCH, "\"wrong\"").body(body).put(location).getStatusCode(),
+				HttpStatus.SC_PRECONDITION_FAILED);
+		assertEquals(given().contentType(TEXT_TURTLE).header(IF_MATCH, eTag).body(body).put(location).getStatusCode(),
+				HttpStatus.SC_NO_CONTENT);
+
+		Response response = given().header("Accept", TEXT_TURTLE).get(location);
+		assertNotEquals(response.getHeader(ETAG), eTag);
+		Model model = read(response, location);
+		assertTrue(model.contains(model.getResource(location), DCTerms.title, "Changed"));
+		assertFalse(model.contains(model.getResource(location), DCTerms.title, "Test"));
+	}
+
+	@Test
+	public void testTypesAfterPut() {
+		String location = post(server.getBasicContainer(), null);
+		String eTag = given().header("Accept", TEXT_TURTLE).get(location).getHeader(ETAG);
+		assertEquals(given().contentType(TEXT_TURTLE).header(IF_MATCH, eTag).body(TITLE).put(location).getStatusCode(),
+				HttpStatus.SC_NO_CONTENT);
+
+		Model model = get(location);
+		assertTrue(model.contains(model.getResource(location), RDF.type, model.getResource(LDP.RDFSource.stringValue())));
+
+		Model container = get(server.getBasicContainer());
+		Resource self = container.getResource(server.getBasicContainer());
+		assertTrue(container.contains(self, RDF.type, container.getResource(LDP.BasicContainer.stringValue())));
+		assertTrue(container.contains(self, RDF.type, container.getResource(LDP.Container.stringValue())));
+	}
+
+	@Test
+	public void testDelete() {
+		String location = post(server.getBasicContainer(), null);
+		assertEquals(given().delete(location).getStatusCode(), HttpStatus.SC_NO_CONTENT);
+		assertEquals(given().header("Accept", TEXT_TURTLE).get(location).getStatusCode(), HttpStatus.SC_GONE);
+		// URIs aren't reused
+		assertEquals(given().contentType(TEXT_TURTLE).body(TITLE).put(location).getStatusCode(), HttpStatus.SC_CONFLICT);
+
+		Model container = get(server.getBasicContainer());
+		assertFalse(container.contains(null, contains(container), container.getResource(location)));
+	}
+
+	@Test
+	public void testDirectContainerMembership() {
+		String location = post(server.getDirectContainer(), null);
+		Model container = get(server.getDirectContainer());
+		Resource self = container.getResource(server.getDirectContainer());
+		assertTrue(container.contains(self, container.createProperty(LDP.member.stringValue()),
+				container.getResource(location)));
+	}
+
+	@Test
+	public void testNonRdfSource() {
+		Response post = given().contentType("text/plain").body("hello").post(server.getBasicContainer());
+		assertEquals(post.getStatusCode(), HttpStatus.SC_CREATED);
+		String location = post.getHeader(LOCATION);
+		assertNotNull(getLink(post, LINK_REL_DESCRIBEDBY, location));
+
+		Response response = given().get(location);
+		assertEquals(response.getStatusCode(), HttpStatus.SC_OK);
+		assertTrue(response.getContentType().startsWith("text/plain"), response.getContentType());
+		assertEquals(response.asString(), "hello");
+	}
+
+	@Test
+	public void testPaging() {
+		Response created = given().contentType(TEXT_TURTLE)
+				.header(LINK, "<" + LDP.BasicContainer.stringValue() + ">; rel=\"" + LINK_REL_TYPE + "\"")
+				.body("").post(server.getBasicContainer());
+		assertEquals(created.getStatusCode(), HttpStatus.SC_CREATED);
+		String container = created.getHeader(LOCATION);
+		for (int i = 0; i < 3; i++) {
+			post(container, null);
+		}
+
+		// three types and three containment triples, on two pages
+		Response response = given().header("Accept", TEXT_TURTLE).header(PREFER, "max-triple-count=\"4\"")
+				.redirects().follow(false).get(container);
+		assertEquals(response.getStatusCode(), HttpStatus.SC_SEE_OTHER);
+		String first = response.getHeader(LOCATION);
+
+		response = given().header("Accept", TEXT_TURTLE).get(first);
+		assertEquals(response.getStatusCode(), HttpStatus.SC_OK);
+		assertNull(getLink(response, LINK_REL_PREV, first));
+		String next = getLink(response, LINK_REL_NEXT, first);
+		assertNotNull(next);
+
+		response = given().header("Accept", TEXT_TURTLE).get(next);
+		assertEquals(response.getStatusCode(), HttpStatus.SC_OK);
+		assertEquals(getLink(response, LINK_REL_PREV, next), first);
+		assertNull(getLink(response, LINK_REL_NEXT, next));
+	}
+
+	/**
+	 * POSTs a new LDP-RS with a title.
+	 *
+	 * @return the location
+	 */
+	private static String post(String container, String slug) {
+		Response response = slug != null
+				? given().contentType(TEXT_TURTLE).header(SLUG, slug).body(TITLE).post(container)
+				: given().contentType(TEXT_TURTLE).body(TITLE).post(container);
+		assertEquals(response.getStatusCode(), HttpStatus.SC_CREATED);
+		String location = response.getHeader(LOCATION);
+		assertNotNull(location);
+
+		return location;
+	}
+
+	private static Model get(String uri) {
+		Response response = given().header("Accept", TEXT_TURTLE).get(uri);
+		assertEquals(response.getStatusCode(), HttpStatus.SC_OK);
+		return read(response, uri);
+	}
+
+	private static Model read(Response response, String uri) {
+		return ModelFactory.createDefaultModel().read(new StringReader(response.asString()), uri, "TURTLE");
+	}
+
+	private static Property contains(Model model) {
+		return model.createProperty(LDP.contains.stringValue());
+	}
+
+	/**
+	 * @return the target of the first link with the rel, null if there is none
+	 */
+	private static String getLink(Response response, String rel, String uri) {
+		for (String value : response.getHeaders().getValues(LINK)) {
+			for (ParsedLink link : LinkHeaders.parse(value, uri)) {
+				if (link.getRels().contains(rel)) {
+					return link.getTarget();
+				}
+			}
+		}
+
+		return null;
+	}
+
+}